@@ -0,0 +1,120 @@
+package com.snowflake.kafka.connector.internal.streaming.validation;
+
+import static com.snowflake.kafka.connector.Utils.TABLE_COLUMN_METADATA;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.snowflake.kafka.connector.records.BenchmarkPayloads;
+import com.snowflake.kafka.connector.records.BenchmarkPayloads.Payload;
+import com.snowflake.kafka.connector.records.RecordService;
+import com.snowflake.kafka.connector.records.RecordServiceFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaAndValue;
+import org.apache.kafka.connect.data.Timestamp;
+import org.apache.kafka.connect.sink.SinkRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Client side validation of a schematized row against the schema of a Snowflake table, with one
+ * column per field of the record.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RowSchemaBenchmark {
+
+  @Param({"FLAT_JSON", "WIDE_STRUCT", "NESTED_AVRO", "MANY_HEADERS"})
+  public Payload payload;
+
+  private RowSchema rowSchema;
+  private Map<String, Object> row;
+
+  @Setup
+  public void setup() throws JsonProcessingException {
+    SchemaAndValue connectData = BenchmarkPayloads.connectData(payload);
+    SinkRecord record =
+        BenchmarkPayloads.sinkRecord(payload, connectData.schema(), connectData.value());
+    RecordService recordService = RecordServiceFactory.createRecordService(false, true, false);
+    row = recordService.getProcessedRecordForStreamingIngest(record);
+    rowSchema = new RowSchema(false, columns(BenchmarkPayloads.schema(payload)));
+
+    // measure the valid path, a failing row would only measure how fast the error is built
+    RowSchema.Error error = rowSchema.validate(row);
+    if (error != null) {
+      throw new IllegalStateException("Benchmark row is not valid: " + error.localizedMessage());
+    }
+  }
+
+  @Benchmark
+  public RowSchema.Error validate() {
+    return rowSchema.validate(row);
+  }
+
+  private static List<ColumnMetadata> columns(Schema valueSchema) {
+    List<ColumnMetadata> columns = new ArrayList<>();
+    columns.add(column(TABLE_COLUMN_METADATA, "VARIANT", "LOB", null));
+    for (Field field : valueSchema.fields()) {
+      columns.add(column(field));
+    }
+    for (int i = 0; i < columns.size(); i++) {
+      columns.get(i).setOrdinal(i + 1);
+    }
+    return columns;
+  }
+
+  private static ColumnMetadata column(Field field) {
+    String name = field.name().toUpperCase();
+    if (Timestamp.LOGICAL_NAME.equals(field.schema().name())) {
+      return column(name, "TIMESTAMP_LTZ", "SB8", 3);
+    }
+    switch (field.schema().type()) {
+      case INT8:
+      case INT16:
+      case INT32:
+      case INT64:
+        ColumnMetadata number = column(name, "FIXED", "SB8", 0);
+        number.setPrecision(18);
+        return number;
+      case FLOAT32:
+      case FLOAT64:
+        return column(name, "REAL", "SB16", 0);
+      case BOOLEAN:
+        return column(name, "BOOLEAN", "SB1", 0);
+      case STRING:
+        ColumnMetadata text = column(name, "TEXT", "LOB", 0);
+        text.setByteLength(16777216L);
+        text.setLength(16777216L);
+        return text;
+      default:
+        return column(name, "VARIANT", "LOB", null);
+    }
+  }
+
+  private static ColumnMetadata column(
+      String name, String logicalType, String physicalType, Integer scale) {
+    ColumnMetadata column = new ColumnMetadata();
+    column.setName(name);
+    column.setLogicalType(logicalType);
+    column.setPhysicalType(physicalType);
+    column.setScale(scale);
+    column.setNullable(true);
+    return column;
+  }
+}
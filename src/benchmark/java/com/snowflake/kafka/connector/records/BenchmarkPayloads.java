@@ -0,0 +1,241 @@
+package com.snowflake.kafka.connector.records;
+
+import io.confluent.connect.avro.AvroConverter;
+import io.confluent.kafka.schemaregistry.client.MockSchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.kafka.common.record.TimestampType;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaAndValue;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.data.Timestamp;
+import org.apache.kafka.connect.header.ConnectHeaders;
+import org.apache.kafka.connect.sink.SinkRecord;
+
+/**
+ * Representative record payloads shared by the benchmarks. Every payload is described as a Connect
+ * schema and value, and is serialized into the format the connector receives it in.
+ */
+public final class BenchmarkPayloads {
+
+  public enum Payload {
+    /** small record with a handful of primitive fields, read by the Snowflake JSON converter */
+    FLAT_JSON,
+    /** 500 columns wide struct, as produced by a community converter */
+    WIDE_STRUCT,
+    /** deeply nested record with arrays and maps, read by the Snowflake Avro converter */
+    NESTED_AVRO,
+    /** small JSON record carrying many headers, which end up in RECORD_METADATA */
+    MANY_HEADERS
+  }
+
+  static final String TOPIC = "benchmark";
+  static final int PARTITION = 0;
+
+  private static final int WIDE_STRUCT_FIELDS = 500;
+  private static final int NESTING_DEPTH = 8;
+  private static final int HEADER_COUNT = 100;
+
+  private BenchmarkPayloads() {}
+
+  public static Schema schema(Payload payload) {
+    switch (payload) {
+      case FLAT_JSON:
+      case MANY_HEADERS:
+        return flatSchema();
+      case WIDE_STRUCT:
+        return wideSchema();
+      case NESTED_AVRO:
+        return nestedSchema(NESTING_DEPTH);
+      default:
+        throw new IllegalArgumentException("Unknown payload: " + payload);
+    }
+  }
+
+  public static Struct value(Payload payload) {
+    Schema schema = schema(payload);
+    switch (payload) {
+      case FLAT_JSON:
+      case MANY_HEADERS:
+        return flatValue(schema, 1);
+      case WIDE_STRUCT:
+        return wideValue(schema);
+      case NESTED_AVRO:
+        return nestedValue(schema, NESTING_DEPTH);
+      default:
+        throw new IllegalArgumentException("Unknown payload: " + payload);
+    }
+  }
+
+  /**
+   * Converts the payload the way the connector receives it: JSON and Avro payloads are read by the
+   * Snowflake converters, the wide struct is passed on as it is by a community converter.
+   */
+  public static SchemaAndValue connectData(Payload payload) {
+    switch (payload) {
+      case FLAT_JSON:
+      case MANY_HEADERS:
+        return new SnowflakeJsonConverter().toConnectData(TOPIC, jsonBytes(payload));
+      case WIDE_STRUCT:
+        return new SchemaAndValue(schema(payload), value(payload));
+      case NESTED_AVRO:
+        SchemaRegistryClient schemaRegistry = new MockSchemaRegistryClient();
+        SnowflakeAvroConverter converter = new SnowflakeAvroConverter();
+        converter.setSchemaRegistry(schemaRegistry);
+        return converter.toConnectData(TOPIC, avroBytes(payload, schemaRegistry));
+      default:
+        throw new IllegalArgumentException("Unknown payload: " + payload);
+    }
+  }
+
+  public static byte[] jsonBytes(Payload payload) {
+    return RecordService.convertToJson(schema(payload), value(payload), false)
+        .toString()
+        .getBytes(StandardCharsets.UTF_8);
+  }
+
+  /** Serializes the payload with the Confluent Avro converter, registering its schema. */
+  public static byte[] avroBytes(Payload payload, SchemaRegistryClient schemaRegistry) {
+    AvroConverter avroConverter = new AvroConverter(schemaRegistry);
+    avroConverter.configure(
+        Collections.singletonMap("schema.registry.url", "http://fake-url"), false);
+    return avroConverter.fromConnectData(TOPIC, schema(payload), value(payload));
+  }
+
+  public static SinkRecord sinkRecord(Payload payload, Schema valueSchema, Object value) {
+    ConnectHeaders headers = new ConnectHeaders();
+    if (payload == Payload.MANY_HEADERS) {
+      for (int i = 0; i < HEADER_COUNT; i++) {
+        if (i % 2 == 0) {
+          headers.addString("header_" + i, "value_" + i);
+        } else {
+          headers.addLong("header_" + i, i);
+        }
+      }
+    }
+    return new SinkRecord(
+        TOPIC,
+        PARTITION,
+        Schema.STRING_SCHEMA,
+        "key",
+        valueSchema,
+        value,
+        42L,
+        1700000000000L,
+        TimestampType.CREATE_TIME,
+        headers);
+  }
+
+  private static Schema flatSchema() {
+    return SchemaBuilder.struct()
+        .field("id", Schema.INT64_SCHEMA)
+        .field("name", Schema.STRING_SCHEMA)
+        .field("score", Schema.FLOAT64_SCHEMA)
+        .field("active", Schema.BOOLEAN_SCHEMA)
+        .field("count", Schema.INT32_SCHEMA)
+        .field("created", Timestamp.SCHEMA)
+        .field("comment", Schema.OPTIONAL_STRING_SCHEMA)
+        .build();
+  }
+
+  private static Struct flatValue(Schema schema, long id) {
+    return new Struct(schema)
+        .put("id", id)
+        .put("name", "name_" + id)
+        .put("score", id * 0.5)
+        .put("active", id % 2 == 0)
+        .put("count", (int) id)
+        .put("created", new Date(1700000000000L + id))
+        .put("comment", null);
+  }
+
+  private static Schema wideSchema() {
+    SchemaBuilder builder = SchemaBuilder.struct();
+    for (int i = 0; i < WIDE_STRUCT_FIELDS; i++) {
+      builder.field("col_" + i, wideFieldSchema(i));
+    }
+    return builder.build();
+  }
+
+  private static Schema wideFieldSchema(int index) {
+    switch (index % 4) {
+      case 0:
+        return Schema.INT64_SCHEMA;
+      case 1:
+        return Schema.STRING_SCHEMA;
+      case 2:
+        return Schema.FLOAT64_SCHEMA;
+      default:
+        return Schema.OPTIONAL_BOOLEAN_SCHEMA;
+    }
+  }
+
+  private static Struct wideValue(Schema schema) {
+    Struct struct = new Struct(schema);
+    for (int i = 0; i < WIDE_STRUCT_FIELDS; i++) {
+      switch (i % 4) {
+        case 0:
+          struct.put("col_" + i, (long) i);
+          break;
+        case 1:
+          struct.put("col_" + i, "value_" + i);
+          break;
+        case 2:
+          struct.put("col_" + i, i / 3.0);
+          break;
+        default:
+          struct.put("col_" + i, i % 8 == 3 ? null : Boolean.TRUE);
+      }
+    }
+    return struct;
+  }
+
+  private static Schema nestedSchema(int depth) {
+    SchemaBuilder builder =
+        SchemaBuilder.struct()
+            .name("nested_" + depth)
+            .field("id", Schema.INT64_SCHEMA)
+            .field("name", Schema.STRING_SCHEMA)
+            .field("tags", SchemaBuilder.array(Schema.STRING_SCHEMA).build())
+            .field(
+                "attributes",
+                SchemaBuilder.map(Schema.STRING_SCHEMA, Schema.FLOAT64_SCHEMA).build());
+    if (depth > 1) {
+      builder.field("items", SchemaBuilder.array(flatSchema()).build());
+      builder.field("child", nestedSchema(depth - 1));
+    }
+    return builder.build();
+  }
+
+  private static Struct nestedValue(Schema schema, int depth) {
+    List<String> tags = new ArrayList<>();
+    Map<String, Double> attributes = new HashMap<>();
+    for (int i = 0; i < 5; i++) {
+      tags.add("tag_" + depth + "_" + i);
+      attributes.put("attribute_" + i, depth * 1.5 + i);
+    }
+    Struct struct =
+        new Struct(schema)
+            .put("id", (long) depth)
+            .put("name", "level_" + depth)
+            .put("tags", tags)
+            .put("attributes", attributes);
+    if (depth > 1) {
+      Schema itemSchema = schema.field("items").schema().valueSchema();
+      List<Struct> items = new ArrayList<>();
+      for (int i = 0; i < 3; i++) {
+        items.add(flatValue(itemSchema, i));
+      }
+      struct.put("items", items);
+      struct.put("child", nestedValue(schema.field("child").schema(), depth - 1));
+    }
+    return struct;
+  }
+}
@@ -0,0 +1,57 @@
+package com.snowflake.kafka.connector.records;
+
+import com.snowflake.kafka.connector.records.BenchmarkPayloads.Payload;
+import io.confluent.kafka.schemaregistry.client.MockSchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.connect.data.SchemaAndValue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Deserialization of a Kafka record value by the Snowflake converters. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConverterBenchmark {
+
+  @Param({"FLAT_JSON", "WIDE_STRUCT", "NESTED_AVRO", "MANY_HEADERS"})
+  public Payload payload;
+
+  private SnowflakeJsonConverter jsonConverter;
+  private SnowflakeAvroConverter avroConverter;
+  private byte[] json;
+  private byte[] avro;
+
+  @Setup
+  public void setup() {
+    // the schema is registered once and then served from the cache of the registry client
+    SchemaRegistryClient schemaRegistry = new MockSchemaRegistryClient();
+    avroConverter = new SnowflakeAvroConverter();
+    avroConverter.setSchemaRegistry(schemaRegistry);
+    jsonConverter = new SnowflakeJsonConverter();
+    json = BenchmarkPayloads.jsonBytes(payload);
+    avro = BenchmarkPayloads.avroBytes(payload, schemaRegistry);
+  }
+
+  @Benchmark
+  public SchemaAndValue snowflakeJsonConverter() {
+    return jsonConverter.toConnectData(BenchmarkPayloads.TOPIC, json);
+  }
+
+  @Benchmark
+  public SchemaAndValue snowflakeAvroConverter() {
+    return avroConverter.toConnectData(BenchmarkPayloads.TOPIC, avro);
+  }
+}
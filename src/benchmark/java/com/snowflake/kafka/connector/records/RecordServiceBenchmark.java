@@ -0,0 +1,111 @@
+package com.snowflake.kafka.connector.records;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.snowflake.kafka.connector.records.BenchmarkPayloads.Payload;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaAndValue;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.sink.SinkRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Processing of a single converted record into a Snowpipe file line or a streaming row. */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecordServiceBenchmark {
+
+  @State(Scope.Thread)
+  public static class Records {
+    @Param({"FLAT_JSON", "WIDE_STRUCT", "NESTED_AVRO", "MANY_HEADERS"})
+    public Payload payload;
+
+    Schema schema;
+    Struct value;
+    SchemaAndValue connectData;
+
+    @Setup
+    public void setup() {
+      schema = BenchmarkPayloads.schema(payload);
+      value = BenchmarkPayloads.value(payload);
+      connectData = BenchmarkPayloads.connectData(payload);
+    }
+
+    /**
+     * Values of community converters are converted into {@link SnowflakeRecordContent} by the sink
+     * service before they reach the record service.
+     */
+    SinkRecord snowflakeRecord(boolean isStreaming) {
+      if (connectData.value() instanceof SnowflakeRecordContent) {
+        return BenchmarkPayloads.sinkRecord(payload, connectData.schema(), connectData.value());
+      }
+      return BenchmarkPayloads.sinkRecord(
+          payload,
+          new SnowflakeJsonSchema(),
+          new SnowflakeRecordContent(connectData.schema(), connectData.value(), isStreaming));
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class Snowpipe {
+    RecordService recordService;
+    SinkRecord record;
+
+    @Setup
+    public void setup(Records records) {
+      recordService = RecordServiceFactory.createRecordService(false, false, false);
+      record = records.snowflakeRecord(false);
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class Streaming {
+    @Param({"false", "true"})
+    public boolean enableSchematization;
+
+    RecordService recordService;
+    SinkRecord record;
+
+    @Setup
+    public void setup(Records records) {
+      recordService = RecordServiceFactory.createRecordService(false, enableSchematization, false);
+      SinkRecord converted =
+          BenchmarkPayloads.sinkRecord(
+              records.payload, records.connectData.schema(), records.connectData.value());
+      record =
+          recordService.supportsDirectStructMapping(converted)
+              ? converted
+              : records.snowflakeRecord(true);
+    }
+  }
+
+  @Benchmark
+  public String getProcessedRecordForSnowpipe(Snowpipe snowpipe) {
+    return snowpipe.recordService.getProcessedRecordForSnowpipe(snowpipe.record);
+  }
+
+  @Benchmark
+  public Map<String, Object> getProcessedRecordForStreamingIngest(Streaming streaming)
+      throws JsonProcessingException {
+    return streaming.recordService.getProcessedRecordForStreamingIngest(streaming.record);
+  }
+
+  @Benchmark
+  public JsonNode convertToJson(Records records) {
+    return RecordService.convertToJson(records.schema, records.value, true);
+  }
+}
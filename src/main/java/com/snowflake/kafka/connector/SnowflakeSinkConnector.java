@@ -29,6 +29,10 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.regex.Pattern;
 import org.apache.kafka.common.config.Config;
 import org.apache.kafka.common.config.ConfigDef;
@@ -63,8 +67,12 @@ public class SnowflakeSinkConnector extends SinkConnector {
   // SnowflakeSinkConnector to finish.
   // This causes race conditions for: config validation, tables and stages
   // creation, etc.
-  // Using setupComplete to synchronize
-  private boolean setupComplete;
+  // Using setupComplete to synchronize, it is completed as soon as start() finished and failed if
+  // start() failed
+  private volatile CompletableFuture<Void> setupComplete;
+
+  // maximum time taskConfigs waits for start() to finish
+  private static final long SETUP_TIMEOUT_MINUTES = 10;
 
   private final ConnectorConfigValidator connectorConfigValidator =
       new DefaultConnectorConfigValidator(
@@ -72,7 +80,7 @@ public class SnowflakeSinkConnector extends SinkConnector {
 
   /** No-Arg constructor. Required by Kafka Connect framework */
   public SnowflakeSinkConnector() {
-    setupComplete = false;
+    setupComplete = new CompletableFuture<>();
   }
 
   /**
@@ -87,9 +95,31 @@ public class SnowflakeSinkConnector extends SinkConnector {
   public void start(final Map<String, String> parsedConfig) {
     LOGGER.info("SnowflakeSinkConnector:starting...");
 
-    Utils.checkConnectorVersion();
+    // a previous start() failed without stop() being called
+    if (setupComplete.isDone()) {
+      setupComplete = new CompletableFuture<>();
+    }
+    final CompletableFuture<Void> setup = setupComplete;
+    try {
+      setUp(parsedConfig);
+    } catch (RuntimeException e) {
+      setup.completeExceptionally(e);
+      throw e;
+    }
+    setup.complete(null);
+
+    // only logs a warning if the version is outdated, no need to wait for the maven repo
+    Thread versionCheck =
+        new Thread(Utils::checkConnectorVersion, "snowflake-connector-version-check");
+    versionCheck.setDaemon(true);
+    versionCheck.start();
+
+    telemetryClient.reportKafkaConnectStart(connectorStartTime, this.config);
+
+    LOGGER.info("SnowflakeSinkConnector:started");
+  }
 
-    setupComplete = false;
+  private void setUp(final Map<String, String> parsedConfig) {
     connectorStartTime = System.currentTimeMillis();
     config = new HashMap<>(parsedConfig);
 
@@ -115,12 +145,6 @@ public class SnowflakeSinkConnector extends SinkConnector {
     conn = SnowflakeConnectionServiceFactory.builder().setProperties(config).build();
 
     telemetryClient = conn.getTelemetryClient();
-
-    telemetryClient.reportKafkaConnectStart(connectorStartTime, this.config);
-
-    setupComplete = true;
-
-    LOGGER.info("SnowflakeSinkConnector:started");
   }
 
   /**
@@ -133,7 +157,7 @@ public class SnowflakeSinkConnector extends SinkConnector {
    */
   @Override
   public void stop() {
-    setupComplete = false;
+    setupComplete = new CompletableFuture<>();
     LOGGER.info("SnowflakeSinkConnector:stopped");
     telemetryClient.reportKafkaConnectStop(connectorStartTime);
   }
@@ -163,23 +187,17 @@ public class SnowflakeSinkConnector extends SinkConnector {
    */
   @Override
   public List<Map<String, String>> taskConfigs(final int maxTasks) {
-    // wait for setup to complete
-    int counter = 0;
-    while (counter < 120) // poll for 120*5 seconds (10 mins) maximum
-    {
-      if (setupComplete) {
-        break;
-      } else {
-        counter++;
-        try {
-          LOGGER.info("Sleeping 5000ms to allow setup to " + "complete.");
-          Thread.sleep(5000);
-        } catch (InterruptedException ex) {
-          LOGGER.warn("Waiting for setup to complete got " + "interrupted");
-        }
-      }
-    }
-    if (!setupComplete) {
+    // wait for setup to complete, 10 mins maximum
+    try {
+      setupComplete.get(SETUP_TIMEOUT_MINUTES, TimeUnit.MINUTES);
+    } catch (InterruptedException ex) {
+      LOGGER.warn("Waiting for setup to complete got interrupted");
+      Thread.currentThread().interrupt();
+      throw SnowflakeErrors.ERROR_5007.getException(telemetryClient);
+    } catch (ExecutionException ex) {
+      throw SnowflakeErrors.ERROR_5007.getException(
+          "Setup failed: " + ex.getCause().getMessage(), telemetryClient);
+    } catch (TimeoutException ex) {
       throw SnowflakeErrors.ERROR_5007.getException(telemetryClient);
     }
 
@@ -107,6 +107,19 @@ public class SnowflakeSinkConnectorConfig {
   public static final String JMX_OPT = "jmx";
   public static final boolean JMX_OPT_DEFAULT = true;
 
+  // serves the metrics in the Prometheus text format, requires jmx to be enabled
+  public static final String METRICS_PROMETHEUS_ENABLED = "snowflake.metrics.prometheus.enabled";
+  public static final boolean METRICS_PROMETHEUS_ENABLED_DEFAULT = false;
+  public static final String METRICS_PROMETHEUS_PORT = "snowflake.metrics.prometheus.port";
+  public static final int METRICS_PROMETHEUS_PORT_DEFAULT = 9464;
+  // address of the metrics endpoint, loopback by default, 0.0.0.0 to serve on all interfaces
+  public static final String METRICS_PROMETHEUS_BIND_ADDRESS =
+      "snowflake.metrics.prometheus.bindAddress";
+  public static final String METRICS_PROMETHEUS_BIND_ADDRESS_DEFAULT = "127.0.0.1";
+  // channel or table, see PrometheusMetricsExporter.LabelAggregation
+  public static final String METRICS_PROMETHEUS_LABELS = "snowflake.metrics.prometheus.labels";
+  public static final String METRICS_PROMETHEUS_LABELS_DEFAULT = "channel";
+
   // for Snowpipe vs Streaming Snowpipe
   public static final String INGESTION_METHOD_OPT = "snowflake.ingestion.method";
   public static final String INGESTION_METHOD_DEFAULT_SNOWPIPE =
@@ -136,11 +149,115 @@ public class SnowflakeSinkConnectorConfig {
       "snowflake.snowpipe.stageFileNameExtensionEnabled";
   public static final boolean SNOWPIPE_SINGLE_TABLE_MULTIPLE_TOPICS_FIX_ENABLED_DEFAULT = true;
 
+  // Number of threads uploading flushed buffers to the internal stage in the background. With the
+  // default 0 files are uploaded synchronously by the task thread.
+  public static final String SNOWPIPE_ASYNC_UPLOAD_THREADS =
+      "snowflake.snowpipe.asyncUpload.threads";
+  public static final int SNOWPIPE_ASYNC_UPLOAD_THREADS_DEFAULT = 0;
+  // Maximum number of files of a single partition being uploaded at the same time, further flushes
+  // of the partition wait for an upload to complete.
+  public static final String SNOWPIPE_ASYNC_UPLOAD_MAX_FILES_IN_FLIGHT =
+      "snowflake.snowpipe.asyncUpload.maxFilesInFlight";
+  public static final int SNOWPIPE_ASYNC_UPLOAD_MAX_FILES_IN_FLIGHT_DEFAULT = 2;
+
+  // If enabled, all partitions of a table handled by a task share one pipe and one ingestion
+  // client, instead of one pipe per partition.
+  public static final String SNOWPIPE_SHARED_PIPE_PER_TABLE_ENABLED =
+      "snowflake.snowpipe.sharedPipePerTable.enabled";
+  public static final boolean SNOWPIPE_SHARED_PIPE_PER_TABLE_ENABLED_DEFAULT = false;
+
+  // If enabled, the stage files processors of all partitions of a table share one listing of the
+  // stage of the table, instead of listing the stage files of every partition separately.
+  public static final String SNOWPIPE_SHARED_STAGE_LISTING_ENABLED =
+      "snowflake.snowpipe.sharedStageListing.enabled";
+  public static final boolean SNOWPIPE_SHARED_STAGE_LISTING_ENABLED_DEFAULT = false;
+
+  // If enabled, buffered records are gzip compressed while they are buffered and the compressed
+  // file is uploaded to the stage as is
+  public static final String SNOWPIPE_COMPRESS_BUFFER_ENABLED =
+      "snowflake.snowpipe.compressBuffer.enabled";
+  public static final boolean SNOWPIPE_COMPRESS_BUFFER_ENABLED_DEFAULT = false;
+
   // Whether to close streaming channels in parallel.
   public static final String SNOWPIPE_STREAMING_CLOSE_CHANNELS_IN_PARALLEL =
       "snowflake.streaming.closeChannelsInParallel.enabled";
   public static final boolean SNOWPIPE_STREAMING_CLOSE_CHANNELS_IN_PARALLEL_DEFAULT = true;
 
+  // Number of threads closing streaming channels in parallel, 0 means that all channels are closed
+  // at once without a dedicated executor
+  public static final String SNOWPIPE_STREAMING_CLOSE_CHANNELS_PARALLELISM =
+      "snowflake.streaming.closeChannelsParallelism";
+  public static final int SNOWPIPE_STREAMING_CLOSE_CHANNELS_PARALLELISM_DEFAULT = 0;
+
+  // Time the close executor waits for a single channel to close, 0 means no limit
+  public static final String SNOWPIPE_STREAMING_CLOSE_CHANNEL_TIMEOUT_MS =
+      "snowflake.streaming.closeChannelTimeoutMs";
+  public static final long SNOWPIPE_STREAMING_CLOSE_CHANNEL_TIMEOUT_MS_DEFAULT = 0;
+
+  // Time the close executor waits for all channels closed together, e.g. on a rebalance, 0 means
+  // no limit
+  public static final String SNOWPIPE_STREAMING_CLOSE_CHANNELS_TIMEOUT_MS =
+      "snowflake.streaming.closeChannelsTimeoutMs";
+  public static final long SNOWPIPE_STREAMING_CLOSE_CHANNELS_TIMEOUT_MS_DEFAULT = 0;
+
+  // Whether to send all records of a partition received in one put() with a single insertRows call
+  public static final String SNOWPIPE_STREAMING_INSERT_ROWS_IN_BATCH =
+      "snowflake.streaming.insertRowsInBatch.enabled";
+  public static final boolean SNOWPIPE_STREAMING_INSERT_ROWS_IN_BATCH_DEFAULT = false;
+
+  // Number of threads used to insert records of different partitions in parallel, 1 means that all
+  // partitions are processed sequentially on the task thread
+  public static final String SNOWPIPE_STREAMING_INSERT_PARALLELISM =
+      "snowflake.streaming.insertParallelism";
+  public static final int SNOWPIPE_STREAMING_INSERT_PARALLELISM_DEFAULT = 1;
+
+  // Number of threads used to open the channels of the partitions assigned to a task, 1 means that
+  // channels are opened one after another on the task thread
+  public static final String SNOWPIPE_STREAMING_OPEN_CHANNELS_PARALLELISM =
+      "snowflake.streaming.openChannelsParallelism";
+  public static final int SNOWPIPE_STREAMING_OPEN_CHANNELS_PARALLELISM_DEFAULT = 1;
+
+  // If true, the committed offset tokens of the channels opened together for a table are fetched
+  // with a single channel status request instead of one request per channel
+  public static final String SNOWPIPE_STREAMING_BULK_OFFSET_TOKEN_FETCH =
+      "snowflake.streaming.bulkOffsetTokenFetch";
+  public static final boolean SNOWPIPE_STREAMING_BULK_OFFSET_TOKEN_FETCH_DEFAULT = false;
+
+  // Time a channel of a revoked partition is kept open, so that it is reused if the partition is
+  // assigned back to the task. 0 means channels are closed right away.
+  public static final String SNOWPIPE_STREAMING_CLOSED_CHANNEL_RETENTION_SEC =
+      "snowflake.streaming.closedChannelRetentionSec";
+  public static final long SNOWPIPE_STREAMING_CLOSED_CHANNEL_RETENTION_SEC_DEFAULT = 0;
+
+  // Maximum number of channels of revoked partitions kept open by a task
+  public static final String SNOWPIPE_STREAMING_CLOSED_CHANNEL_RETENTION_MAX_CHANNELS =
+      "snowflake.streaming.closedChannelRetention.maxChannels";
+  public static final int SNOWPIPE_STREAMING_CLOSED_CHANNEL_RETENTION_MAX_CHANNELS_DEFAULT = 100;
+
+  // If true, rows are validated against the table schema fetched from Snowflake before they are
+  // sent to the streaming channel. Requires key pair authentication.
+  public static final String SNOWPIPE_STREAMING_CLIENT_SIDE_VALIDATION =
+      "snowflake.streaming.clientSideValidation.enabled";
+  public static final boolean SNOWPIPE_STREAMING_CLIENT_SIDE_VALIDATION_DEFAULT = false;
+
+  // Time after which the table schema used for client side validation is fetched again. The schema
+  // is refreshed right away when the connector evolves the table.
+  public static final String SNOWPIPE_STREAMING_CLIENT_SIDE_VALIDATION_SCHEMA_TTL_SEC =
+      "snowflake.streaming.clientSideValidation.schemaTtlSec";
+  public static final long SNOWPIPE_STREAMING_CLIENT_SIDE_VALIDATION_SCHEMA_TTL_SEC_DEFAULT = 300;
+
+  // If true, the channels of a task evolving the same table wait for each other and merge their
+  // ALTER TABLE commands instead of each altering the table on its own
+  public static final String SNOWPIPE_STREAMING_COORDINATED_SCHEMA_EVOLUTION =
+      "snowflake.streaming.coordinatedSchemaEvolution.enabled";
+  public static final boolean SNOWPIPE_STREAMING_COORDINATED_SCHEMA_EVOLUTION_DEFAULT = false;
+
+  // If true, struct values of schematized records are mapped into rows without converting them into
+  // Json first
+  public static final String SNOWPIPE_STREAMING_DIRECT_STRUCT_MAPPING =
+      "snowflake.streaming.directStructMapping.enabled";
+  public static final boolean SNOWPIPE_STREAMING_DIRECT_STRUCT_MAPPING_DEFAULT = true;
+
   public static final String SNOWPIPE_STREAMING_MAX_CLIENT_LAG =
       "snowflake.streaming.max.client.lag";
   public static final int SNOWPIPE_STREAMING_MAX_CLIENT_LAG_SECONDS_DEFAULT = 30;
@@ -192,6 +309,18 @@ public class SnowflakeSinkConnectorConfig {
           + "By default messages are not sent to the dead letter queue. "
           + "Requires property `errors.tolerance=all`.";
 
+  // If enabled, records are sent to the DLQ without waiting for each of them to be written to the
+  // DLQ topic. Offsets are committed once the records reported before them were written.
+  public static final String ERRORS_DEAD_LETTER_QUEUE_ASYNC_REPORT_ENABLED =
+      "snowflake.errors.deadletterqueue.asyncReport.enabled";
+  public static final boolean ERRORS_DEAD_LETTER_QUEUE_ASYNC_REPORT_ENABLED_DEFAULT = false;
+
+  // Maximum number of records sent to the DLQ which were not written yet, further records wait for
+  // the oldest one to be written.
+  public static final String ERRORS_DEAD_LETTER_QUEUE_ASYNC_REPORT_MAX_IN_FLIGHT =
+      "snowflake.errors.deadletterqueue.asyncReport.maxInFlight";
+  public static final int ERRORS_DEAD_LETTER_QUEUE_ASYNC_REPORT_MAX_IN_FLIGHT_DEFAULT = 10000;
+
   public static final String ENABLE_STREAMING_CLIENT_OPTIMIZATION_CONFIG =
       "enable.streaming.client.optimization";
   public static final String ENABLE_STREAMING_CLIENT_OPTIMIZATION_DISPLAY =
@@ -16,9 +16,14 @@
  */
 package com.snowflake.kafka.connector;
 
+import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.ERRORS_DEAD_LETTER_QUEUE_ASYNC_REPORT_ENABLED;
+import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.ERRORS_DEAD_LETTER_QUEUE_ASYNC_REPORT_ENABLED_DEFAULT;
+import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.ERRORS_DEAD_LETTER_QUEUE_ASYNC_REPORT_MAX_IN_FLIGHT;
+import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.ERRORS_DEAD_LETTER_QUEUE_ASYNC_REPORT_MAX_IN_FLIGHT_DEFAULT;
 import static com.snowflake.kafka.connector.internal.streaming.channel.TopicPartitionChannel.NO_OFFSET_TOKEN_REGISTERED_IN_SNOWFLAKE;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.snowflake.kafka.connector.dlq.AsyncKafkaRecordErrorReporter;
 import com.snowflake.kafka.connector.dlq.KafkaRecordErrorReporter;
 import com.snowflake.kafka.connector.internal.KCLogger;
 import com.snowflake.kafka.connector.internal.SnowflakeConnectionService;
@@ -29,6 +34,7 @@ import com.snowflake.kafka.connector.internal.SnowflakeSinkServiceFactory;
 import com.snowflake.kafka.connector.internal.streaming.IngestionMethodConfig;
 import com.snowflake.kafka.connector.internal.streaming.SnowflakeSinkServiceV2;
 import com.snowflake.kafka.connector.internal.streaming.schemaevolution.SchemaEvolutionService;
+import com.snowflake.kafka.connector.internal.streaming.schemaevolution.TableSchemaEvolutionCoordinator;
 import com.snowflake.kafka.connector.internal.streaming.schemaevolution.iceberg.IcebergSchemaEvolutionService;
 import com.snowflake.kafka.connector.internal.streaming.schemaevolution.snowflake.SnowflakeSchemaEvolutionService;
 import com.snowflake.kafka.connector.records.SnowflakeMetadataConfig;
@@ -40,6 +46,7 @@ import java.util.Optional;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Supplier;
+import javax.annotation.Nullable;
 import org.apache.kafka.clients.consumer.OffsetAndMetadata;
 import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.connect.errors.ConnectException;
@@ -94,6 +101,9 @@ public class SnowflakeSinkTask extends SinkTask {
 
   private IngestionMethodConfig ingestionMethodConfig;
 
+  // reports records to the DLQ without waiting for them to be written, null if disabled
+  @Nullable private AsyncKafkaRecordErrorReporter asyncErrorReporter = null;
+
   private final SnowflakeSinkTaskAuthorizationExceptionTracker authorizationExceptionTracker =
       new SnowflakeSinkTaskAuthorizationExceptionTracker();
 
@@ -204,7 +214,8 @@ public class SnowflakeSinkTask extends SinkTask {
     enableRebalancing =
         Boolean.parseBoolean(parsedConfig.get(SnowflakeSinkConnectorConfig.REBALANCING));
 
-    KafkaRecordErrorReporter kafkaRecordErrorReporter = createKafkaRecordErrorReporter();
+    KafkaRecordErrorReporter kafkaRecordErrorReporter =
+        createKafkaRecordErrorReporter(parsedConfig);
 
     // default to snowpipe
     IngestionMethodConfig ingestionType = IngestionMethodConfig.SNOWPIPE;
@@ -242,6 +253,12 @@ public class SnowflakeSinkTask extends SinkTask {
           Utils.isIcebergEnabled(parsedConfig)
               ? new IcebergSchemaEvolutionService(conn)
               : new SnowflakeSchemaEvolutionService(conn);
+      if (Boolean.parseBoolean(
+          parsedConfig.get(
+              SnowflakeSinkConnectorConfig.SNOWPIPE_STREAMING_COORDINATED_SCHEMA_EVOLUTION))) {
+        // channels of the same table share a single schema evolution
+        schemaEvolutionService = new TableSchemaEvolutionCoordinator(schemaEvolutionService);
+      }
 
       this.sink =
           new SnowflakeSinkServiceV2(
@@ -323,6 +340,9 @@ public class SnowflakeSinkTask extends SinkTask {
   @Override
   public void put(final Collection<SinkRecord> records) {
     this.authorizationExceptionTracker.throwExceptionIfAuthorizationFailed();
+    if (asyncErrorReporter != null) {
+      asyncErrorReporter.throwIfReportFailed();
+    }
 
     final long recordSize = records.size();
     DYNAMIC_LOGGER.debug("Calling PUT with {} records", recordSize);
@@ -379,6 +399,10 @@ public class SnowflakeSinkTask extends SinkTask {
             if ((ingestionMethodConfig == IngestionMethodConfig.SNOWPIPE && offset != 0)
                 || (ingestionMethodConfig == IngestionMethodConfig.SNOWPIPE_STREAMING
                     && offset != NO_OFFSET_TOKEN_REGISTERED_IN_SNOWFLAKE)) {
+              // records sent to the DLQ before the offset must be written before it is committed
+              if (asyncErrorReporter != null) {
+                asyncErrorReporter.awaitReported(topicPartition, offset);
+              }
               committedOffsets.put(topicPartition, new OffsetAndMetadata(offset));
             }
           });
@@ -481,12 +505,19 @@ public class SnowflakeSinkTask extends SinkTask {
   }
 
   /* Used to report a record back to DLQ if error tolerance is specified */
-  private KafkaRecordErrorReporter createKafkaRecordErrorReporter() {
+  private KafkaRecordErrorReporter createKafkaRecordErrorReporter(
+      final Map<String, String> parsedConfig) {
     KafkaRecordErrorReporter result = noOpKafkaRecordErrorReporter();
+    asyncErrorReporter = null;
     if (context != null) {
       try {
         ErrantRecordReporter errantRecordReporter = context.errantRecordReporter();
-        if (errantRecordReporter != null) {
+        if (errantRecordReporter != null && isAsyncErrorReportEnabled(parsedConfig)) {
+          asyncErrorReporter =
+              new AsyncKafkaRecordErrorReporter(
+                  errantRecordReporter, getAsyncErrorReportMaxInFlight(parsedConfig));
+          result = asyncErrorReporter;
+        } else if (errantRecordReporter != null) {
           result =
               (record, error) -> {
                 try {
@@ -516,6 +547,21 @@ public class SnowflakeSinkTask extends SinkTask {
     return result;
   }
 
+  private static boolean isAsyncErrorReportEnabled(final Map<String, String> parsedConfig) {
+    if (parsedConfig.containsKey(ERRORS_DEAD_LETTER_QUEUE_ASYNC_REPORT_ENABLED)) {
+      return Boolean.parseBoolean(parsedConfig.get(ERRORS_DEAD_LETTER_QUEUE_ASYNC_REPORT_ENABLED));
+    }
+    return ERRORS_DEAD_LETTER_QUEUE_ASYNC_REPORT_ENABLED_DEFAULT;
+  }
+
+  private static int getAsyncErrorReportMaxInFlight(final Map<String, String> parsedConfig) {
+    if (parsedConfig.containsKey(ERRORS_DEAD_LETTER_QUEUE_ASYNC_REPORT_MAX_IN_FLIGHT)) {
+      return Integer.parseInt(
+          parsedConfig.get(ERRORS_DEAD_LETTER_QUEUE_ASYNC_REPORT_MAX_IN_FLIGHT));
+    }
+    return ERRORS_DEAD_LETTER_QUEUE_ASYNC_REPORT_MAX_IN_FLIGHT_DEFAULT;
+  }
+
   /**
    * For versions older than 2.6
    *
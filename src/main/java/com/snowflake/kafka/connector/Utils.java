@@ -232,6 +232,22 @@ public class Utils {
     return pipeName;
   }
 
+  /**
+   * generate name of the pipe shared by all partitions of a table
+   *
+   * @param appName connector name
+   * @param table table name
+   * @return pipe name
+   */
+  public static String pipeName(String appName, String table) {
+    // partition pipe names end with the partition number, this one can't clash with them
+    String pipeName = getObjectPrefix(appName) + "_PIPE_" + table + "_SHARED";
+
+    LOGGER.debug("generated pipe name: {}", pipeName);
+
+    return pipeName;
+  }
+
   /**
    * Read JDBC logging directory from environment variable JDBC_LOG_DIR and set that in System
    * property
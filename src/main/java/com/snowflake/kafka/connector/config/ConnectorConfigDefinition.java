@@ -328,6 +328,44 @@ public class ConnectorConfigDefinition {
             JMX_OPT_DEFAULT,
             ConfigDef.Importance.HIGH,
             "Whether to enable JMX MBeans for custom SF metrics")
+        .define(
+            METRICS_PROMETHEUS_ENABLED,
+            ConfigDef.Type.BOOLEAN,
+            METRICS_PROMETHEUS_ENABLED_DEFAULT,
+            ConfigDef.Importance.LOW,
+            "Whether to serve the custom SF metrics in the Prometheus text format on"
+                + " http://<"
+                + METRICS_PROMETHEUS_BIND_ADDRESS
+                + ">:<"
+                + METRICS_PROMETHEUS_PORT
+                + ">/metrics. Requires "
+                + JMX_OPT
+                + " to be enabled, tasks of a worker using the same port share the endpoint.")
+        .define(
+            METRICS_PROMETHEUS_PORT,
+            ConfigDef.Type.INT,
+            METRICS_PROMETHEUS_PORT_DEFAULT,
+            ConfigDef.Range.between(1, 65535),
+            ConfigDef.Importance.LOW,
+            "Port of the Prometheus metrics endpoint")
+        .define(
+            METRICS_PROMETHEUS_BIND_ADDRESS,
+            ConfigDef.Type.STRING,
+            METRICS_PROMETHEUS_BIND_ADDRESS_DEFAULT,
+            new ConfigDef.NonEmptyString(),
+            ConfigDef.Importance.LOW,
+            "Address the Prometheus metrics endpoint is bound to. Defaults to the loopback"
+                + " address, set it to 0.0.0.0 or the address of the worker to let Prometheus"
+                + " scrape the endpoint from another host.")
+        .define(
+            METRICS_PROMETHEUS_LABELS,
+            ConfigDef.Type.STRING,
+            METRICS_PROMETHEUS_LABELS_DEFAULT,
+            ConfigDef.CaseInsensitiveValidString.in("channel", "table"),
+            ConfigDef.Importance.LOW,
+            "Labels of the Prometheus metrics. 'channel' exports one series per pipe or channel,"
+                + " 'table' sums the series of the pipes or channels of a table to bound the number"
+                + " of series with many partitions.")
         .define(
             REBALANCING,
             ConfigDef.Type.BOOLEAN,
@@ -359,6 +397,53 @@ public class ConnectorConfigDefinition {
             ConfigDef.Importance.LOW,
             "Defines number of worker threads to associate with the cleaner task. By default there"
                 + " is one cleaner per topic's partition and they all share one worker thread")
+        .define(
+            SNOWPIPE_ASYNC_UPLOAD_THREADS,
+            ConfigDef.Type.INT,
+            SNOWPIPE_ASYNC_UPLOAD_THREADS_DEFAULT,
+            ConfigDef.Range.atLeast(0),
+            ConfigDef.Importance.LOW,
+            "Number of threads a task uses to upload flushed buffers to the internal stage while"
+                + " the next buffer is being filled. Offsets are committed only after the upload"
+                + " of a file completed. The default value 0 uploads files synchronously.")
+        .define(
+            SNOWPIPE_ASYNC_UPLOAD_MAX_FILES_IN_FLIGHT,
+            ConfigDef.Type.INT,
+            SNOWPIPE_ASYNC_UPLOAD_MAX_FILES_IN_FLIGHT_DEFAULT,
+            ConfigDef.Range.atLeast(1),
+            ConfigDef.Importance.LOW,
+            "Maximum number of files of a partition uploaded at the same time when asynchronous"
+                + " uploads are enabled. Further flushes of the partition block until an upload"
+                + " completes.")
+        .define(
+            SNOWPIPE_SHARED_PIPE_PER_TABLE_ENABLED,
+            ConfigDef.Type.BOOLEAN,
+            SNOWPIPE_SHARED_PIPE_PER_TABLE_ENABLED_DEFAULT,
+            ConfigDef.Importance.LOW,
+            "Whether all partitions of a table share one pipe instead of using one pipe per"
+                + " partition. Files of all partitions are submitted to the shared pipe with a"
+                + " single request on every offset commit. The pipe is created once per table,"
+                + " which reduces the number of Snowpipe REST and SQL calls at start for topics"
+                + " with many partitions.")
+        .define(
+            SNOWPIPE_SHARED_STAGE_LISTING_ENABLED,
+            ConfigDef.Type.BOOLEAN,
+            SNOWPIPE_SHARED_STAGE_LISTING_ENABLED_DEFAULT,
+            ConfigDef.Importance.LOW,
+            "Whether the stage files processors of all partitions of a table share one listing of"
+                + " the table stage, refreshed once per half cleaner interval, instead of listing"
+                + " the stage for every partition. Only applies when "
+                + SNOWPIPE_FILE_CLEANER_FIX_ENABLED
+                + " is enabled.")
+        .define(
+            SNOWPIPE_COMPRESS_BUFFER_ENABLED,
+            ConfigDef.Type.BOOLEAN,
+            SNOWPIPE_COMPRESS_BUFFER_ENABLED_DEFAULT,
+            ConfigDef.Importance.LOW,
+            "Whether records are gzip compressed while they are buffered. The buffer only keeps"
+                + " the compressed file, which is uploaded to the stage without compressing it"
+                + " again at flush time. Every partition keeps its own compressor, which uses"
+                + " some native memory per partition.")
         .define(
             SNOWPIPE_SINGLE_TABLE_MULTIPLE_TOPICS_FIX_ENABLED,
             ConfigDef.Type.BOOLEAN,
@@ -376,6 +461,129 @@ public class ConnectorConfigDefinition {
             ConfigDef.Importance.MEDIUM,
             "Whether to close Snowpipe Streaming channels in parallel during task shutdown or"
                 + " rebalancing")
+        .define(
+            SNOWPIPE_STREAMING_CLOSE_CHANNELS_PARALLELISM,
+            ConfigDef.Type.INT,
+            SNOWPIPE_STREAMING_CLOSE_CHANNELS_PARALLELISM_DEFAULT,
+            ConfigDef.Range.atLeast(0),
+            ConfigDef.Importance.LOW,
+            "Number of threads a task uses to close Snowpipe Streaming channels in parallel, each"
+                + " thread waiting for one channel to close at a time. Only used when "
+                + SNOWPIPE_STREAMING_CLOSE_CHANNELS_IN_PARALLEL
+                + " is enabled. The default value 0 closes all channels at once.")
+        .define(
+            SNOWPIPE_STREAMING_CLOSE_CHANNEL_TIMEOUT_MS,
+            ConfigDef.Type.LONG,
+            SNOWPIPE_STREAMING_CLOSE_CHANNEL_TIMEOUT_MS_DEFAULT,
+            ConfigDef.Range.atLeast(0),
+            ConfigDef.Importance.LOW,
+            "Time in milliseconds the close threads wait for a single channel to close. A channel"
+                + " which does not close in time keeps flushing in the background while the task"
+                + " continues. The default value 0 waits until the channel is closed. Only used"
+                + " when "
+                + SNOWPIPE_STREAMING_CLOSE_CHANNELS_PARALLELISM
+                + " is greater than 0.")
+        .define(
+            SNOWPIPE_STREAMING_CLOSE_CHANNELS_TIMEOUT_MS,
+            ConfigDef.Type.LONG,
+            SNOWPIPE_STREAMING_CLOSE_CHANNELS_TIMEOUT_MS_DEFAULT,
+            ConfigDef.Range.atLeast(0),
+            ConfigDef.Importance.LOW,
+            "Time in milliseconds the task waits for all channels closed together, e.g. on a"
+                + " rebalance or on task shutdown. Channels which are not closed in time keep"
+                + " closing in the background while the task continues. The default value 0 waits"
+                + " until every channel is closed or timed out. Applies to the channels closed by"
+                + " the close threads, used when "
+                + SNOWPIPE_STREAMING_CLOSE_CHANNELS_PARALLELISM
+                + " is greater than 0, and to the retained channels closed on task shutdown.")
+        .define(
+            SNOWPIPE_STREAMING_INSERT_ROWS_IN_BATCH,
+            ConfigDef.Type.BOOLEAN,
+            SNOWPIPE_STREAMING_INSERT_ROWS_IN_BATCH_DEFAULT,
+            ConfigDef.Importance.LOW,
+            "Whether to send the records of a partition received in a single put() call to"
+                + " Snowpipe Streaming with one insertRows call instead of one insertRow call per"
+                + " record")
+        .define(
+            SNOWPIPE_STREAMING_INSERT_PARALLELISM,
+            ConfigDef.Type.INT,
+            SNOWPIPE_STREAMING_INSERT_PARALLELISM_DEFAULT,
+            ConfigDef.Range.atLeast(1),
+            ConfigDef.Importance.LOW,
+            "Number of threads a task uses to insert records of different partitions into Snowpipe"
+                + " Streaming channels in parallel. Records of a single partition are always"
+                + " inserted in order. The default value 1 inserts all partitions sequentially.")
+        .define(
+            SNOWPIPE_STREAMING_OPEN_CHANNELS_PARALLELISM,
+            ConfigDef.Type.INT,
+            SNOWPIPE_STREAMING_OPEN_CHANNELS_PARALLELISM_DEFAULT,
+            ConfigDef.Range.atLeast(1),
+            ConfigDef.Importance.LOW,
+            "Number of threads a task uses to open the Snowpipe Streaming channels of newly"
+                + " assigned partitions and fetch their offset tokens. Opening partitions fails if"
+                + " any channel fails to open. The default value 1 opens channels sequentially.")
+        .define(
+            SNOWPIPE_STREAMING_BULK_OFFSET_TOKEN_FETCH,
+            ConfigDef.Type.BOOLEAN,
+            SNOWPIPE_STREAMING_BULK_OFFSET_TOKEN_FETCH_DEFAULT,
+            ConfigDef.Importance.LOW,
+            "If true, the committed offset tokens of all channels opened for a table on partition"
+                + " assignment are fetched from Snowflake with one request. Channels missing from"
+                + " the response fetch their offset token separately.")
+        .define(
+            SNOWPIPE_STREAMING_CLOSED_CHANNEL_RETENTION_SEC,
+            ConfigDef.Type.LONG,
+            SNOWPIPE_STREAMING_CLOSED_CHANNEL_RETENTION_SEC_DEFAULT,
+            ConfigDef.Range.atLeast(0),
+            ConfigDef.Importance.LOW,
+            "Time in seconds the channel of a revoked partition is kept open by the task. If the"
+                + " partition is assigned back to the task within this time, for example during an"
+                + " incremental cooperative rebalance, the channel is reused instead of reopened."
+                + " The default value 0 closes channels when their partition is revoked.")
+        .define(
+            SNOWPIPE_STREAMING_CLOSED_CHANNEL_RETENTION_MAX_CHANNELS,
+            ConfigDef.Type.INT,
+            SNOWPIPE_STREAMING_CLOSED_CHANNEL_RETENTION_MAX_CHANNELS_DEFAULT,
+            ConfigDef.Range.atLeast(1),
+            ConfigDef.Importance.LOW,
+            "Maximum number of channels of revoked partitions kept open by a task, the channels"
+                + " retained for the longest time are closed first.")
+        .define(
+            SNOWPIPE_STREAMING_CLIENT_SIDE_VALIDATION,
+            ConfigDef.Type.BOOLEAN,
+            SNOWPIPE_STREAMING_CLIENT_SIDE_VALIDATION_DEFAULT,
+            ConfigDef.Importance.LOW,
+            "Whether to validate rows against the table schema before they are sent to Snowpipe"
+                + " Streaming. Invalid rows are sent to the DLQ or trigger schema evolution without"
+                + " entering the channel buffer. Requires key pair authentication and is not"
+                + " supported for Iceberg tables.")
+        .define(
+            SNOWPIPE_STREAMING_CLIENT_SIDE_VALIDATION_SCHEMA_TTL_SEC,
+            ConfigDef.Type.LONG,
+            SNOWPIPE_STREAMING_CLIENT_SIDE_VALIDATION_SCHEMA_TTL_SEC_DEFAULT,
+            ConfigDef.Range.atLeast(1),
+            ConfigDef.Importance.LOW,
+            "Time in seconds after which the table schema used for client side validation is"
+                + " fetched again. The schema is shared by all partitions of a table and is"
+                + " refreshed immediately after schema evolution.")
+        .define(
+            SNOWPIPE_STREAMING_COORDINATED_SCHEMA_EVOLUTION,
+            ConfigDef.Type.BOOLEAN,
+            SNOWPIPE_STREAMING_COORDINATED_SCHEMA_EVOLUTION_DEFAULT,
+            ConfigDef.Importance.LOW,
+            "Whether the channels of a task evolving the same table coordinate their schema"
+                + " evolution. Only one ALTER TABLE runs per table at a time, requests arriving"
+                + " meanwhile are merged, and columns the table was altered for are not altered"
+                + " again by other channels for a minute.")
+        .define(
+            SNOWPIPE_STREAMING_DIRECT_STRUCT_MAPPING,
+            ConfigDef.Type.BOOLEAN,
+            SNOWPIPE_STREAMING_DIRECT_STRUCT_MAPPING_DEFAULT,
+            ConfigDef.Importance.LOW,
+            "Whether struct values produced by a community converter are mapped directly into"
+                + " the columns of a schematized table instead of being converted into Json first."
+                + " Records which cannot be mapped directly always go through the Json"
+                + " conversion.")
         .define(
             SNOWPIPE_STREAMING_MAX_CLIENT_LAG,
             ConfigDef.Type.LONG,
@@ -438,6 +646,25 @@ public class ConnectorConfigDefinition {
             2,
             ConfigDef.Width.NONE,
             ERRORS_DEAD_LETTER_QUEUE_TOPIC_NAME_DISPLAY)
+        .define(
+            ERRORS_DEAD_LETTER_QUEUE_ASYNC_REPORT_ENABLED,
+            ConfigDef.Type.BOOLEAN,
+            ERRORS_DEAD_LETTER_QUEUE_ASYNC_REPORT_ENABLED_DEFAULT,
+            ConfigDef.Importance.LOW,
+            "Whether records are sent to the dead letter queue without waiting for each of them to"
+                + " be written to the dead letter queue topic. The offset of a partition is only"
+                + " committed once all records of the partition sent to the dead letter queue"
+                + " before that offset were written.")
+        .define(
+            ERRORS_DEAD_LETTER_QUEUE_ASYNC_REPORT_MAX_IN_FLIGHT,
+            ConfigDef.Type.INT,
+            ERRORS_DEAD_LETTER_QUEUE_ASYNC_REPORT_MAX_IN_FLIGHT_DEFAULT,
+            ConfigDef.Range.atLeast(1),
+            ConfigDef.Importance.LOW,
+            "Maximum number of records sent to the dead letter queue which were not written yet"
+                + " when "
+                + ERRORS_DEAD_LETTER_QUEUE_ASYNC_REPORT_ENABLED
+                + " is enabled. Further records wait for the oldest record to be written.")
         .define(
             ENABLE_STREAMING_CLIENT_OPTIMIZATION_CONFIG,
             ConfigDef.Type.BOOLEAN,
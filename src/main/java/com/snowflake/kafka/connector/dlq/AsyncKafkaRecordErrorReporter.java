@@ -0,0 +1,182 @@
+package com.snowflake.kafka.connector.dlq;
+
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.BUFFER_SUB_DOMAIN;
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.DLQ_IN_FLIGHT_RECORD_COUNT;
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.DLQ_REPORTER;
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.DLQ_REPORT_DURATION;
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.LATENCY_SUB_DOMAIN;
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.constructMetricName;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.common.annotations.VisibleForTesting;
+import com.snowflake.kafka.connector.internal.KCLogger;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.connect.errors.ConnectException;
+import org.apache.kafka.connect.sink.ErrantRecordReporter;
+import org.apache.kafka.connect.sink.SinkRecord;
+
+/**
+ * Sends records to the {@link ErrantRecordReporter} without waiting for each of them to be written
+ * to the DLQ topic.
+ *
+ * <p>Up to {@code maxInFlight} records may not be written yet, further records wait for the oldest
+ * one. The offset of a partition must only be committed once {@link #awaitReported(TopicPartition,
+ * long)} returned, which waits for the records of the partition reported before that offset.
+ *
+ * <p>A record which could not be written fails every following call of the reporter, like a
+ * failed report fails the task when records are reported one by one.
+ */
+public class AsyncKafkaRecordErrorReporter implements KafkaRecordErrorReporter {
+  private static final KCLogger LOGGER =
+      new KCLogger(AsyncKafkaRecordErrorReporter.class.getName());
+
+  private static final String REPORT_ERROR_MESSAGE =
+      "ERROR reporting records to ErrantRecordReporter";
+
+  private final ErrantRecordReporter errantRecordReporter;
+  private final int maxInFlight;
+
+  // records not seen written yet, in reporting order per partition
+  private final Map<TopicPartition, Deque<PendingReport>> pendingReports = new HashMap<>();
+  private volatile int inFlight = 0;
+  @Nullable private Throwable reportFailure = null;
+
+  // null until metrics are registered, if custom JMX monitoring is enabled
+  @Nullable private Timer reportDuration = null;
+
+  /**
+   * @param errantRecordReporter reporter of the Kafka Connect runtime
+   * @param maxInFlight maximum number of records which were reported but not written yet
+   */
+  public AsyncKafkaRecordErrorReporter(
+      ErrantRecordReporter errantRecordReporter, int maxInFlight) {
+    this.errantRecordReporter = errantRecordReporter;
+    this.maxInFlight = maxInFlight;
+  }
+
+  @Override
+  public synchronized void reportError(SinkRecord record, Exception e) {
+    throwIfReportFailed();
+    if (inFlight >= maxInFlight) {
+      removeWrittenReports();
+      while (inFlight >= maxInFlight) {
+        awaitOldestReport();
+      }
+    }
+    LOGGER.debug(
+        "Sending Sink Record to DLQ with recordOffset:{}, partition:{}",
+        record.kafkaOffset(),
+        record.kafkaPartition());
+    Future<Void> written = errantRecordReporter.report(record, e);
+    pendingReports
+        .computeIfAbsent(
+            new TopicPartition(record.topic(), record.kafkaPartition()),
+            tp -> new ArrayDeque<>())
+        .addLast(new PendingReport(record.kafkaOffset(), written, System.nanoTime()));
+    inFlight++;
+  }
+
+  /**
+   * Waits until the records of the partition reported before the offset were written.
+   *
+   * @param topicPartition partition whose offset is committed
+   * @param offset offset which is committed, i.e. the offset of the next record to consume
+   * @throws ConnectException if a record could not be written
+   */
+  public synchronized void awaitReported(TopicPartition topicPartition, long offset) {
+    throwIfReportFailed();
+    Deque<PendingReport> partitionReports = pendingReports.get(topicPartition);
+    while (partitionReports != null
+        && !partitionReports.isEmpty()
+        && partitionReports.peekFirst().offset < offset) {
+      await(partitionReports);
+    }
+  }
+
+  /** @throws ConnectException if a previously reported record could not be written */
+  public synchronized void throwIfReportFailed() {
+    if (reportFailure != null) {
+      throw new ConnectException(REPORT_ERROR_MESSAGE, reportFailure);
+    }
+  }
+
+  @Override
+  public synchronized void registerMetrics(MetricRegistry metricRegistry) {
+    reportDuration =
+        metricRegistry.timer(
+            constructMetricName(DLQ_REPORTER, LATENCY_SUB_DOMAIN, DLQ_REPORT_DURATION));
+    metricRegistry.register(
+        constructMetricName(DLQ_REPORTER, BUFFER_SUB_DOMAIN, DLQ_IN_FLIGHT_RECORD_COUNT),
+        (Gauge<Integer>) this::getInFlight);
+  }
+
+  @VisibleForTesting
+  int getInFlight() {
+    return inFlight;
+  }
+
+  /** Removes the reports which were already written, without waiting for any of them. */
+  private void removeWrittenReports() {
+    for (Deque<PendingReport> partitionReports : pendingReports.values()) {
+      while (!partitionReports.isEmpty() && partitionReports.peekFirst().written.isDone()) {
+        await(partitionReports);
+      }
+    }
+  }
+
+  private void awaitOldestReport() {
+    Deque<PendingReport> oldest = null;
+    for (Deque<PendingReport> partitionReports : pendingReports.values()) {
+      if (!partitionReports.isEmpty()
+          && (oldest == null
+              || partitionReports.peekFirst().startNanos < oldest.peekFirst().startNanos)) {
+        oldest = partitionReports;
+      }
+    }
+    if (oldest != null) {
+      await(oldest);
+    }
+  }
+
+  /** Waits for the first report of the partition to be written and removes it. */
+  private void await(Deque<PendingReport> partitionReports) {
+    PendingReport report = partitionReports.peekFirst();
+    try {
+      report.written.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ConnectException(REPORT_ERROR_MESSAGE, e);
+    } catch (ExecutionException e) {
+      LOGGER.error(REPORT_ERROR_MESSAGE, e.getCause());
+      reportFailure = e.getCause();
+      throw new ConnectException(REPORT_ERROR_MESSAGE, e.getCause());
+    }
+    partitionReports.removeFirst();
+    inFlight--;
+    if (reportDuration != null) {
+      reportDuration.update(System.nanoTime() - report.startNanos, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private static class PendingReport {
+    private final long offset;
+    private final Future<Void> written;
+    private final long startNanos;
+
+    private PendingReport(long offset, Future<Void> written, long startNanos) {
+      this.offset = offset;
+      this.written = written;
+      this.startNanos = startNanos;
+    }
+  }
+}
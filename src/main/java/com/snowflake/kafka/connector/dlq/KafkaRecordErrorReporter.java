@@ -1,5 +1,6 @@
 package com.snowflake.kafka.connector.dlq;
 
+import com.codahale.metrics.MetricRegistry;
 import org.apache.kafka.connect.sink.ErrantRecordReporter;
 import org.apache.kafka.connect.sink.SinkRecord;
 
@@ -14,4 +15,12 @@ import org.apache.kafka.connect.sink.SinkRecord;
  */
 public interface KafkaRecordErrorReporter {
   void reportError(SinkRecord record, Exception e);
+
+  /**
+   * Registers the metrics of the reporter, if it has any. Only called if custom JMX monitoring is
+   * enabled.
+   *
+   * @param metricRegistry registry of the task metrics
+   */
+  default void registerMetrics(MetricRegistry metricRegistry) {}
 }
@@ -0,0 +1,342 @@
+package com.snowflake.kafka.connector.internal;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import javax.annotation.Nullable;
+
+/**
+ * Append only buffer which encodes text into UTF-8 right away and keeps the bytes in fixed size
+ * chunks.
+ *
+ * <p>Unlike a StringBuilder, the buffer knows its exact size in bytes and is uploaded without
+ * materializing the whole file as a String and then as a byte array: {@link #newInputStream()}
+ * reads the chunks in place. Chunks are taken from and returned to a pool shared by all buffers,
+ * so a flushed buffer hands its memory over to the next one once {@link #release()} is called.
+ *
+ * <p>A buffer created with {@link #gzipCompressed()} compresses the text while it is appended and
+ * only keeps the compressed bytes, {@link #newInputStream()} then reads a gzip file which is
+ * uploaded as is.
+ *
+ * <p>Not thread safe.
+ */
+public class ChunkedUtf8Buffer {
+
+  static final int CHUNK_SIZE_BYTES = 64 * 1024;
+
+  // Up to 16MB of free chunks are kept for reuse
+  private static final int MAX_POOLED_CHUNKS = 256;
+
+  private static final ChunkPool SHARED_POOL = new ChunkPool(MAX_POOLED_CHUNKS);
+
+  private final ChunkPool pool;
+  private final boolean compressed;
+  private final CharsetEncoder encoder =
+      StandardCharsets.UTF_8
+          .newEncoder()
+          .onMalformedInput(CodingErrorAction.REPLACE)
+          .onUnmappableCharacter(CodingErrorAction.REPLACE);
+  // position of every chunk is the number of bytes written into it
+  private final List<ByteBuffer> chunks = new ArrayList<>();
+  private ByteBuffer current;
+  private long sizeBytes;
+  // number of bytes in the chunks, differs from sizeBytes for a compressed buffer
+  private long storedBytes;
+  // compresses into the chunks, created on the first append of a compressed buffer
+  @Nullable private GZIPOutputStream gzip;
+  // true once the gzip stream has been completed, nothing can be appended anymore
+  private boolean finished;
+
+  public ChunkedUtf8Buffer() {
+    this(SHARED_POOL, false);
+  }
+
+  @VisibleForTesting
+  ChunkedUtf8Buffer(ChunkPool pool) {
+    this(pool, false);
+  }
+
+  @VisibleForTesting
+  ChunkedUtf8Buffer(ChunkPool pool, boolean compressed) {
+    this.pool = pool;
+    this.compressed = compressed;
+  }
+
+  /** @return buffer which keeps the appended text gzip compressed */
+  public static ChunkedUtf8Buffer gzipCompressed() {
+    return new ChunkedUtf8Buffer(SHARED_POOL, true);
+  }
+
+  /**
+   * Encode and append the given text.
+   *
+   * @param data text to append
+   * @return number of bytes appended
+   */
+  public long append(String data) {
+    if (data.isEmpty()) {
+      return 0;
+    }
+    if (compressed) {
+      return appendCompressed(data);
+    }
+    CharBuffer in = CharBuffer.wrap(data);
+    long before = sizeBytes;
+    encoder.reset();
+    if (current == null) {
+      nextChunk();
+    }
+    while (true) {
+      int start = current.position();
+      CoderResult result = encoder.encode(in, current, true);
+      sizeBytes += current.position() - start;
+      if (result.isUnderflow()) {
+        break;
+      }
+      if (!result.isOverflow()) {
+        throwCodingException(result);
+      }
+      // the remaining characters do not fit, continue with the next chunk. A multi byte character
+      // is never split, so the chunk might be left partially filled.
+      nextChunk();
+    }
+    storedBytes = sizeBytes;
+    return sizeBytes - before;
+  }
+
+  private long appendCompressed(String data) {
+    if (finished) {
+      throw new IllegalStateException("Cannot append to a compressed buffer which has been read");
+    }
+    byte[] bytes = data.getBytes(StandardCharsets.UTF_8);
+    try {
+      if (gzip == null) {
+        gzip = new GZIPOutputStream(new ChunkOutputStream());
+      }
+      gzip.write(bytes);
+    } catch (IOException e) {
+      // the chunks are in memory, writing into them does not fail
+      throw new UncheckedIOException(e);
+    }
+    sizeBytes += bytes.length;
+    return bytes.length;
+  }
+
+  /** @return exact number of UTF-8 bytes appended to this buffer, before compression */
+  public long size() {
+    return sizeBytes;
+  }
+
+  /**
+   * @return number of bytes held in the chunks, the compressed size for a compressed buffer and
+   *     {@link #size()} otherwise
+   */
+  public long storedSize() {
+    return storedBytes;
+  }
+
+  /** @return true if the content of this buffer is gzip compressed */
+  public boolean isCompressed() {
+    return compressed;
+  }
+
+  /**
+   * Stream over the content of this buffer. Every call returns a new stream starting at the
+   * beginning, so that a failed upload can be retried. The buffer must not be modified or released
+   * while a stream is in use.
+   *
+   * <p>For a compressed buffer, the gzip stream is completed by the first call and nothing can be
+   * appended afterwards.
+   *
+   * @return stream reading the chunks in place
+   */
+  public InputStream newInputStream() {
+    if (gzip != null && !finished) {
+      try {
+        gzip.finish();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      finished = true;
+    }
+    return new ChunkInputStream();
+  }
+
+  /** Return the chunks to the pool, the buffer is empty afterwards. */
+  public void release() {
+    if (gzip != null) {
+      try {
+        // frees the native memory of the compressor
+        gzip.close();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      gzip = null;
+    }
+    finished = false;
+    chunks.forEach(chunk -> pool.offer(chunk.array()));
+    chunks.clear();
+    current = null;
+    sizeBytes = 0;
+    storedBytes = 0;
+  }
+
+  /**
+   * @return content of the buffer decoded into a String, for small buffers and tests only. A
+   *     compressed buffer which can still be appended to is only described, since reading it
+   *     would complete the gzip stream.
+   */
+  @Override
+  public String toString() {
+    if (gzip != null && !finished) {
+      return "ChunkedUtf8Buffer{compressed, sizeBytes=" + sizeBytes + "}";
+    }
+    try (InputStream in =
+        compressed && storedBytes > 0
+            ? new GZIPInputStream(newInputStream())
+            : newInputStream()) {
+      return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void nextChunk() {
+    current = ByteBuffer.wrap(pool.take());
+    chunks.add(current);
+  }
+
+  private static void throwCodingException(CoderResult result) {
+    try {
+      result.throwException();
+    } catch (CharacterCodingException e) {
+      throw new IllegalStateException("Failed to encode data as UTF-8", e);
+    }
+  }
+
+  /** Appends the compressed bytes to the chunks. */
+  private class ChunkOutputStream extends OutputStream {
+    @Override
+    public void write(int b) {
+      if (current == null || !current.hasRemaining()) {
+        nextChunk();
+      }
+      current.put((byte) b);
+      storedBytes++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+      while (len > 0) {
+        if (current == null || !current.hasRemaining()) {
+          nextChunk();
+        }
+        int length = Math.min(len, current.remaining());
+        current.put(b, off, length);
+        off += length;
+        len -= length;
+        storedBytes += length;
+      }
+    }
+  }
+
+  private class ChunkInputStream extends InputStream {
+    private int chunkIndex;
+    private int chunkPosition;
+    private long remaining = storedBytes;
+
+    @Override
+    public int read() {
+      if (remaining == 0) {
+        return -1;
+      }
+      ByteBuffer chunk = currentChunk();
+      int result = chunk.array()[chunkPosition++] & 0xFF;
+      remaining--;
+      return result;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+      if (len == 0) {
+        return 0;
+      }
+      if (remaining == 0) {
+        return -1;
+      }
+      int read = 0;
+      while (read < len && remaining > 0) {
+        ByteBuffer chunk = currentChunk();
+        int length = Math.min(len - read, chunk.position() - chunkPosition);
+        System.arraycopy(chunk.array(), chunkPosition, b, off + read, length);
+        chunkPosition += length;
+        read += length;
+        remaining -= length;
+      }
+      return read;
+    }
+
+    @Override
+    public int available() {
+      return (int) Math.min(remaining, Integer.MAX_VALUE);
+    }
+
+    /** @return chunk with at least one unread byte, skipping the fully read ones */
+    private ByteBuffer currentChunk() {
+      while (chunkPosition == chunks.get(chunkIndex).position()) {
+        chunkIndex++;
+        chunkPosition = 0;
+      }
+      return chunks.get(chunkIndex);
+    }
+  }
+
+  /** Bounded pool of free chunks. */
+  static class ChunkPool {
+    private final Queue<byte[]> freeChunks = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger freeChunksCount = new AtomicInteger();
+    private final int maxFreeChunks;
+
+    ChunkPool(int maxFreeChunks) {
+      this.maxFreeChunks = maxFreeChunks;
+    }
+
+    byte[] take() {
+      byte[] chunk = freeChunks.poll();
+      if (chunk == null) {
+        return new byte[CHUNK_SIZE_BYTES];
+      }
+      freeChunksCount.decrementAndGet();
+      return chunk;
+    }
+
+    void offer(byte[] chunk) {
+      if (freeChunksCount.incrementAndGet() <= maxFreeChunks) {
+        freeChunks.offer(chunk);
+      } else {
+        freeChunksCount.decrementAndGet();
+      }
+    }
+
+    @VisibleForTesting
+    int freeChunks() {
+      return freeChunksCount.get();
+    }
+  }
+}
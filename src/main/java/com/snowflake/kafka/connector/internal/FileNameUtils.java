@@ -59,7 +59,18 @@ public class FileNameUtils {
       throw new IllegalArgumentException(
           String.format("partition id=%d is too large (max=%d)", partition, 0x8000));
     }
-    return appName + "/" + table + "/" + calculatePartitionPart(topic, partition) + "/";
+    return tablePrefix(appName, table) + calculatePartitionPart(topic, partition) + "/";
+  }
+
+  /**
+   * generate file prefix common to all partitions of a table
+   *
+   * @param appName connector name
+   * @param table table name
+   * @return file prefix
+   */
+  static String tablePrefix(String appName, String table) {
+    return appName + "/" + table + "/";
   }
 
   private static BigInteger calculatePartitionPart(String topic, int partition) {
@@ -0,0 +1,192 @@
+package com.snowflake.kafka.connector.internal;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.snowflake.kafka.connector.internal.InternalUtils.IngestedFileStatus;
+import com.snowflake.kafka.connector.internal.telemetry.SnowflakeTelemetryService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+import javax.annotation.Nullable;
+import net.snowflake.ingest.connection.HistoryResponse;
+
+/**
+ * Ingestion service of a pipe used by several partitions, each one tracking its own files in the
+ * ingest history.
+ *
+ * <p>The ingest report and the load history of the pipe are read at most once per poll interval,
+ * whichever partition asks first, and the result is handed out to every partition asking during
+ * the interval. Every partition keeps its own position in the shared history through the history
+ * marker of {@link #readIngestHistoryForward(Map, Predicate, AtomicReference, Integer)}, so the
+ * number of calls to the Snowpipe REST API depends on the number of pipes rather than on the
+ * number of partitions. All other calls go to the wrapped service.
+ */
+class SharedIngestHistoryService implements SnowflakeIngestionService {
+  private static final KCLogger LOGGER = new KCLogger(SharedIngestHistoryService.class.getName());
+
+  // polls are kept as long as the partitions track the history entries
+  private static final long HISTORY_RETENTION_MS = Duration.ofHours(1).toMillis();
+
+  private final SnowflakeIngestionService delegate;
+  private final long pollIntervalMs;
+  private final StageFilesProcessor.TimeSupplier timeSupplier;
+
+  private final AtomicReference<String> historyMarker = new AtomicReference<>();
+  private final LinkedList<HistoryPoll> polls = new LinkedList<>();
+  private long pollCount = 0;
+
+  @Nullable private Map<String, IngestedFileStatus> loadHistory;
+  private long loadHistoryTimestamp;
+
+  /**
+   * @param delegate ingestion service of the pipe
+   * @param pollIntervalMs minimum time between two reads of the ingest report or of the load
+   *     history of the pipe
+   */
+  SharedIngestHistoryService(SnowflakeIngestionService delegate, long pollIntervalMs) {
+    this(delegate, pollIntervalMs, System::currentTimeMillis);
+  }
+
+  @VisibleForTesting
+  SharedIngestHistoryService(
+      SnowflakeIngestionService delegate,
+      long pollIntervalMs,
+      StageFilesProcessor.TimeSupplier timeSupplier) {
+    this.delegate = delegate;
+    this.pollIntervalMs = pollIntervalMs;
+    this.timeSupplier = timeSupplier;
+  }
+
+  @Override
+  public void setTelemetry(SnowflakeTelemetryService telemetry) {
+    delegate.setTelemetry(telemetry);
+  }
+
+  @Override
+  public void ingestFile(String fileName) {
+    delegate.ingestFile(fileName);
+  }
+
+  @Override
+  public void ingestFiles(List<String> fileNames) {
+    delegate.ingestFiles(fileNames);
+  }
+
+  @Override
+  public String getStageName() {
+    return delegate.getStageName();
+  }
+
+  @Override
+  public Map<String, IngestedFileStatus> readIngestReport(List<String> files) {
+    return delegate.readIngestReport(files);
+  }
+
+  @Override
+  public synchronized Map<String, IngestedFileStatus> readOneHourHistory(
+      List<String> files, long startTime) {
+    Map<String, IngestedFileStatus> history = readOneHourHistory(startTime);
+    Map<String, IngestedFileStatus> result = new HashMap<>();
+    files.forEach(
+        name -> result.put(name, history.getOrDefault(name, IngestedFileStatus.NOT_FOUND)));
+    return result;
+  }
+
+  @Override
+  public synchronized Map<String, IngestedFileStatus> readOneHourHistory(long startTime) {
+    long now = timeSupplier.currentTime();
+    if (loadHistory == null || now - loadHistoryTimestamp >= pollIntervalMs) {
+      loadHistory = delegate.readOneHourHistory(startTime);
+      loadHistoryTimestamp = now;
+    }
+    return loadHistory;
+  }
+
+  /**
+   * Same contract as {@link SnowflakeIngestionService#readIngestHistoryForward(Map, Predicate,
+   * AtomicReference, Integer)}, the marker is a position in the polls of this service and is only
+   * meaningful to it. The pipe is only polled when the most recent poll is older than the poll
+   * interval, lastNSeconds narrows down the first poll and the polls handed out for a null marker.
+   */
+  @Override
+  public synchronized int readIngestHistoryForward(
+      Map<String, IngestedFileStatus> storage,
+      Predicate<HistoryResponse.FileEntry> fileFilter,
+      AtomicReference<String> historyMarker,
+      Integer lastNSeconds) {
+    long now = timeSupplier.currentTime();
+    if (polls.isEmpty() || now - polls.getLast().timestamp >= pollIntervalMs) {
+      poll(now, lastNSeconds);
+    }
+
+    String marker = historyMarker.get();
+    long lastSeenPoll = marker == null ? -1 : Long.parseLong(marker);
+    long oldestTimestamp =
+        marker == null && lastNSeconds != null
+            ? now - Duration.ofSeconds(lastNSeconds).toMillis()
+            : Long.MIN_VALUE;
+
+    int loadedRecords = 0;
+    for (HistoryPoll poll : polls) {
+      if (poll.id <= lastSeenPoll || poll.timestamp < oldestTimestamp) {
+        continue;
+      }
+      for (HistoryResponse.FileEntry entry : poll.entries) {
+        if (fileFilter == null || fileFilter.test(entry)) {
+          storage.put(entry.getPath(), poll.statuses.get(entry.getPath()));
+          loadedRecords++;
+        }
+      }
+    }
+    historyMarker.set(String.valueOf(polls.getLast().id));
+    return loadedRecords;
+  }
+
+  private void poll(long now, Integer lastNSeconds) {
+    Map<String, IngestedFileStatus> statuses = new HashMap<>();
+    List<HistoryResponse.FileEntry> entries = new ArrayList<>();
+    // the filter keeps every entry, the partitions apply their own filter to the collected ones
+    delegate.readIngestHistoryForward(
+        statuses, entry -> entries.add(entry), historyMarker, lastNSeconds);
+    polls.addLast(new HistoryPoll(pollCount++, now, entries, statuses));
+
+    for (Iterator<HistoryPoll> it = polls.iterator(); it.hasNext(); ) {
+      if (it.next().timestamp > now - HISTORY_RETENTION_MS) {
+        break;
+      }
+      it.remove();
+    }
+    LOGGER.debug(
+        "polled {} ingest history entries shared by the partitions, keeping {} polls",
+        entries.size(),
+        polls.size());
+  }
+
+  @Override
+  public void close() {
+    delegate.close();
+  }
+
+  private static class HistoryPoll {
+    private final long id;
+    private final long timestamp;
+    private final List<HistoryResponse.FileEntry> entries;
+    private final Map<String, IngestedFileStatus> statuses;
+
+    private HistoryPoll(
+        long id,
+        long timestamp,
+        List<HistoryResponse.FileEntry> entries,
+        Map<String, IngestedFileStatus> statuses) {
+      this.id = id;
+      this.timestamp = timestamp;
+      this.entries = entries;
+      this.statuses = statuses;
+    }
+  }
+}
@@ -249,6 +249,16 @@ public interface SnowflakeConnectionService {
    */
   void putWithCache(final String stageName, final String fileName, final String content);
 
+  /**
+   * put a file to stage without copying the content into a String. Cache credential for AWS, Azure
+   * and GCS storage.
+   *
+   * @param stageName stage name
+   * @param fileName file name, see {@link #putWithCache(String, String, String)}
+   * @param content UTF-8 encoded file content, must not be modified during the upload
+   */
+  void putWithCache(final String stageName, final String fileName, final ChunkedUtf8Buffer content);
+
   /**
    * put a file to table stage
    *
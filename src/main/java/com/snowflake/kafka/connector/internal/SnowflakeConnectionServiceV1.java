@@ -30,6 +30,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import net.snowflake.client.jdbc.SnowflakeConnectionV1;
 import net.snowflake.client.jdbc.SnowflakeDriver;
@@ -939,6 +940,25 @@ public class SnowflakeConnectionServiceV1 implements SnowflakeConnectionService
 
   @Override
   public void putWithCache(final String stageName, final String fileName, final String content) {
+    putWithCache(
+        stageName,
+        fileName,
+        type -> internalStage.putWithCache(stageName, fileName, content, type));
+  }
+
+  @Override
+  public void putWithCache(
+      final String stageName, final String fileName, final ChunkedUtf8Buffer content) {
+    putWithCache(
+        stageName,
+        fileName,
+        type -> internalStage.putWithCache(stageName, fileName, content, type));
+  }
+
+  private void putWithCache(
+      final String stageName,
+      final String fileName,
+      final Consumer<StageInfo.StageType> putToStage) {
     // If we don't know the stage type yet, query that first.
     if (stageType == null) {
       stageType = internalStage.getStageType(stageName);
@@ -948,7 +968,7 @@ public class SnowflakeConnectionServiceV1 implements SnowflakeConnectionService
           telemetry,
           SnowflakeInternalOperations.UPLOAD_FILE_TO_INTERNAL_STAGE_NO_CONNECTION,
           () -> {
-            internalStage.putWithCache(stageName, fileName, content, stageType);
+            putToStage.accept(stageType);
             return true;
           });
     } catch (Exception e) {
@@ -994,6 +1014,7 @@ public class SnowflakeConnectionServiceV1 implements SnowflakeConnectionService
 
   @Override
   public void close() {
+    internalStage.close();
     try {
       conn.close();
     } catch (SQLException e) {
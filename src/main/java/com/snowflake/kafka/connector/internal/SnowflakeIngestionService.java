@@ -50,6 +50,14 @@ public interface SnowflakeIngestionService {
    */
   Map<String, IngestedFileStatus> readOneHourHistory(List<String> files, long startTime);
 
+  /**
+   * retrieve status of all files from load history in one hour time window
+   *
+   * @param startTime the start time stamp of time window in ms
+   * @return a map contains status of every file found in the load history
+   */
+  Map<String, IngestedFileStatus> readOneHourHistory(long startTime);
+
   /**
    * Retrieve a collection of all ingested files with their status from load history. Fetching can
    * be further customized by:
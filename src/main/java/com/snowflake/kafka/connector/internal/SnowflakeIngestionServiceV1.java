@@ -217,10 +217,8 @@ public class SnowflakeIngestionServiceV1 implements SnowflakeIngestionService {
   @Override
   public Map<String, InternalUtils.IngestedFileStatus> readOneHourHistory(
       final List<String> files, final long startTime) {
-    long endTime = startTime + ONE_HOUR;
     Map<String, InternalUtils.IngestedFileStatus> result = initFileStatus(files);
-    Map<String, InternalUtils.IngestedFileStatus> response =
-        checkHistoryByRange(startTime, endTime);
+    Map<String, InternalUtils.IngestedFileStatus> response = readOneHourHistory(startTime);
 
     files.forEach(
         name -> {
@@ -232,6 +230,11 @@ public class SnowflakeIngestionServiceV1 implements SnowflakeIngestionService {
     return result;
   }
 
+  @Override
+  public Map<String, InternalUtils.IngestedFileStatus> readOneHourHistory(final long startTime) {
+    return checkHistoryByRange(startTime, startTime + ONE_HOUR);
+  }
+
   @Override
   public int readIngestHistoryForward(
       Map<String, InternalUtils.IngestedFileStatus> storage,
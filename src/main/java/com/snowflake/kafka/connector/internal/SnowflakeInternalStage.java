@@ -1,15 +1,22 @@
 package com.snowflake.kafka.connector.internal;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
 import net.snowflake.client.core.OCSPMode;
 import net.snowflake.client.core.SFStatement;
+import net.snowflake.client.jdbc.SFBaseFileTransferAgent;
 import net.snowflake.client.jdbc.SnowflakeConnectionV1;
 import net.snowflake.client.jdbc.SnowflakeFileTransferAgent;
 import net.snowflake.client.jdbc.SnowflakeFileTransferConfig;
@@ -21,11 +28,14 @@ import net.snowflake.client.jdbc.internal.apache.commons.io.FilenameUtils;
 /**
  * Implementation of put API through JDBC's API uploadWithoutConnection.
  *
- * <p>We fetch the credentials and cache it for AWS and Azure. We will refresh if cache hits 30 mins
- * (Cache Eviction)
+ * <p>We fetch the credentials and cache it for AWS and Azure, shared by all partitions uploading to
+ * the same stage. A background thread fetches new credentials of a stage once half of the cache
+ * expiration time has passed, so uploads don't wait for a GS call as long as the stage is in use.
+ * Credentials of a stage which was not used within the expiration time are not refreshed anymore,
+ * they are fetched again on the next upload.
  *
- * <p>For GCS, we dont have any cache, we will make a call to GS for every put API since we require
- * presignedURL
+ * <p>For GCS, credentials are cached the same way if GS returns a downscoped token. Otherwise we
+ * make a call to GS for every put API since we require a presignedURL for every file.
  */
 public class SnowflakeInternalStage {
 
@@ -40,16 +50,35 @@ public class SnowflakeInternalStage {
     /* StageType, can be fetched from fileTransferMetadata */
     private final StageInfo.StageType stageType;
 
+    /* File path used in the dummy put command, GCS requires one to fetch the metadata */
+    private final String filePath;
+
+    /* Timestamp of the last upload which used the credential of the stage */
+    private volatile long timestampLastUsedMillis;
+
     SnowflakeMetadataWithExpiration(
-        SnowflakeFileTransferMetadataV1 fileTransferMetadata, long timestamp) {
+        SnowflakeFileTransferMetadataV1 fileTransferMetadata,
+        long timestamp,
+        String filePath,
+        long timestampLastUsedMillis) {
       this.fileTransferMetadata = fileTransferMetadata;
       this.timestampLastCredentialFetchMillis = timestamp;
       this.stageType = this.fileTransferMetadata.getStageInfo().getStageType();
+      this.filePath = filePath;
+      this.timestampLastUsedMillis = timestampLastUsedMillis;
     }
 
     public StageInfo.StageType getStageType() {
       return this.stageType;
     }
+
+    /**
+     * @return true if the metadata can be used to upload any file to the stage, false if it
+     *     contains a GCS presignedURL which is only valid for a single file
+     */
+    boolean isShareable() {
+      return stageType != StageInfo.StageType.GCS || fileTransferMetadata.getPresignedUrl() == null;
+    }
   }
 
   private final KCLogger LOGGER = new KCLogger(SnowflakeInternalStage.class.getName());
@@ -77,12 +106,27 @@ public class SnowflakeInternalStage {
   // Also required to pass in the uploadWithoutConnection API in the SnowflakeFileTransferConfig
   // It may not necessarily just contain proxy parameters, JDBC client filters all other properties.
   private final Properties proxyProperties;
+  private final StageFilesProcessor.TimeSupplier timeSupplier;
+
+  // refreshes the cached credentials in the background, started with the first cached credential
+  @Nullable private volatile ScheduledExecutorService credentialRefresher;
+  private boolean closed = false;
 
   public SnowflakeInternalStage(
       SnowflakeConnectionV1 conn, long expirationTimeMillis, Properties proxyProperties) {
+    this(conn, expirationTimeMillis, proxyProperties, System::currentTimeMillis);
+  }
+
+  @VisibleForTesting
+  SnowflakeInternalStage(
+      SnowflakeConnectionV1 conn,
+      long expirationTimeMillis,
+      Properties proxyProperties,
+      StageFilesProcessor.TimeSupplier timeSupplier) {
     this.conn = conn;
     this.expirationTimeMillis = expirationTimeMillis;
     this.proxyProperties = proxyProperties;
+    this.timeSupplier = timeSupplier;
   }
 
   /**
@@ -125,9 +169,9 @@ public class SnowflakeInternalStage {
   }
 
   /**
-   * Upload file to internal stage with previously cached credentials. Refresh credential every 30
-   * minutes for AWS and Azure. We do cache for GCS but we always refresh it for every put(every
-   * file upload)
+   * Upload file to internal stage with previously cached credentials. The credentials of AWS and
+   * Azure, and GCS downscoped tokens, are refreshed in the background before they expire. For GCS
+   * presignedURLs we always refresh them for every put(every file upload)
    *
    * <p>If we pass in expired credentials, we will get expired credentials error from cloud.
    *
@@ -141,117 +185,242 @@ public class SnowflakeInternalStage {
    */
   public void putWithCache(
       String stageName, String fullFilePath, String data, final StageInfo.StageType stageType) {
-    try {
-      SnowflakeMetadataWithExpiration credential = storageInfoCache.getOrDefault(stageName, null);
+    putStreamWithCache(
+        stageName,
+        fullFilePath,
+        new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)),
+        true,
+        stageType);
+  }
+
+  /**
+   * Same as {@link #putWithCache(String, String, String, StageInfo.StageType)}, but the content is
+   * read directly from the chunks of the buffer instead of a copy of the whole file. The content of
+   * a compressed buffer is uploaded as is, without compressing it again.
+   *
+   * @param stageName Stage name
+   * @param fullFilePath Full file name to be uploaded
+   * @param data UTF-8 encoded data to be uploaded
+   * @param stageType GCS, Azure or AWS
+   */
+  public void putWithCache(
+      String stageName,
+      String fullFilePath,
+      ChunkedUtf8Buffer data,
+      final StageInfo.StageType stageType) {
+    putStreamWithCache(
+        stageName, fullFilePath, data.newInputStream(), !data.isCompressed(), stageType);
+  }
 
-      if (!isCredentialValid(credential, stageType)) {
-        // This should always be executed in GCS
+  private void putStreamWithCache(
+      String stageName,
+      String fullFilePath,
+      InputStream inStream,
+      boolean requireCompress,
+      final StageInfo.StageType stageType) {
+    SnowflakeMetadataWithExpiration credential = storageInfoCache.get(stageName);
+    try {
+      if (!isCredentialValid(credential)) {
+        // This should always be executed in GCS with presignedURLs
         LOGGER.debug(
             "Query credential(Refreshing Credentials) for stageName:{}, filePath:{}",
             stageName,
             fullFilePath);
-        refreshCredentials(stageName, stageType, fullFilePath);
+        credential = refreshCredentials(stageName, stageType, fullFilePath);
       }
     } catch (Exception e) {
       LOGGER.warn(
           "Failed to refresh Credentials for stageName:{}, filePath:{}", stageName, fullFilePath);
       throw SnowflakeErrors.ERROR_5018.getException(e.getMessage());
     }
+    credential.timestampLastUsedMillis = timeSupplier.currentTime();
 
-    // Lets fetch the file transfer metadata from cache again. (Because we might have refreshed
-    // them)
-    SnowflakeFileTransferMetadataV1 fileTransferMetadata =
-        storageInfoCache.get(stageName).fileTransferMetadata;
-    // Set filename to be uploaded
+    // The cached metadata is shared by all partitions uploading to the stage, the filename to be
+    // uploaded is set on a copy of it.
     // This set is not useful in GCS since there is a bug in JDBC which doesnt use destFileName.
     // TODO: https://snowflakecomputing.atlassian.net/browse/SNOW-350676
-    fileTransferMetadata.setPresignedUrlFileName(fullFilePath);
-
-    byte[] dataBytes = data.getBytes(StandardCharsets.UTF_8);
-    InputStream inStream = new ByteArrayInputStream(dataBytes);
+    SnowflakeFileTransferMetadataV1 fileTransferMetadata =
+        metadataForFile(credential.fileTransferMetadata, fullFilePath);
 
     // This uploadWithoutConnection api cannot handle expired credentials very well.
     // Need to prevent passing expired credential to it.
     try {
-      SnowflakeFileTransferAgent.uploadWithoutConnection(
-          SnowflakeFileTransferConfig.Builder.newInstance()
-              .setSnowflakeFileTransferMetadata(fileTransferMetadata)
-              .setUploadStream(inStream)
-              .setRequireCompress(true)
-              // Setting a destinationFileName is a no-op for AWS and Azure since it still uses
-              // presignedUrlFileName
-              // Setting destFileName is useful for GCS and downscope URL
-              .setDestFileName(FilenameUtils.getName(fullFilePath))
-              .setOcspMode(OCSPMode.FAIL_OPEN)
-              .setProxyProperties(proxyProperties)
-              .build());
+      uploadWithoutConnection(fileTransferMetadata, inStream, requireCompress, fullFilePath);
       LOGGER.info(
           "uploadWithoutConnection successful for stageName:{}, filePath:{}",
           stageName,
           fullFilePath,
           fullFilePath);
     } catch (Exception e) {
-      // If this api encounters error, invalidate the cached credentials
+      // If this api encounters error, invalidate the cached credentials unless they were already
+      // refreshed in the meantime
       // Caller will retry this function
       LOGGER.warn(
           "uploadWithoutConnection encountered an exception:{} for filePath:{} in Storage:{}",
           e.getMessage(),
           fullFilePath,
           stageType);
-      storageInfoCache.remove(stageName);
+      storageInfoCache.remove(stageName, credential);
       throw SnowflakeErrors.ERROR_5018.getException(e.getMessage());
     }
   }
 
+  @VisibleForTesting
+  protected void uploadWithoutConnection(
+      SnowflakeFileTransferMetadataV1 fileTransferMetadata,
+      InputStream inStream,
+      boolean requireCompress,
+      String fullFilePath)
+      throws Exception {
+    SnowflakeFileTransferAgent.uploadWithoutConnection(
+        SnowflakeFileTransferConfig.Builder.newInstance()
+            .setSnowflakeFileTransferMetadata(fileTransferMetadata)
+            .setUploadStream(inStream)
+            .setRequireCompress(requireCompress)
+            // Setting a destinationFileName is a no-op for AWS and Azure since it still uses
+            // presignedUrlFileName
+            // Setting destFileName is useful for GCS and downscope URL
+            .setDestFileName(FilenameUtils.getName(fullFilePath))
+            .setOcspMode(OCSPMode.FAIL_OPEN)
+            .setProxyProperties(proxyProperties)
+            .build());
+  }
+
+  private static SnowflakeFileTransferMetadataV1 metadataForFile(
+      SnowflakeFileTransferMetadataV1 metadata, String fullFilePath) {
+    return new SnowflakeFileTransferMetadataV1(
+        metadata.getPresignedUrl(),
+        fullFilePath,
+        metadata.getEncryptionMaterial() != null
+            ? metadata.getEncryptionMaterial().getQueryStageMasterKey()
+            : null,
+        metadata.getEncryptionMaterial() != null
+            ? metadata.getEncryptionMaterial().getQueryId()
+            : null,
+        metadata.getEncryptionMaterial() != null
+            ? metadata.getEncryptionMaterial().getSmkId()
+            : null,
+        SFBaseFileTransferAgent.CommandType.UPLOAD,
+        metadata.getStageInfo());
+  }
+
   /**
    * Check if credentials are valid before calling uploadWithoutConnection API. Valid if they are
-   * not null and last fetch time was within {@link #expirationTimeMillis} For GCS, this will be
-   * false and we always refresh the credentials.
+   * not null, not a GCS presignedURL and last fetch time was within {@link #expirationTimeMillis}.
+   * For GCS presignedURLs, this will be false and we always refresh the credentials.
    *
    * @param credential to check the validity for
-   * @param stageType stageType of the stage fetched from JDBC and at least one GS call
-   * @return true if we can reuse the credentials, false in case of GCS
+   * @return true if we can reuse the credentials, false in case of GCS presignedURLs
    */
-  private boolean isCredentialValid(
-      SnowflakeMetadataWithExpiration credential, final StageInfo.StageType stageType) {
-
-    if (stageType == StageInfo.StageType.GCS) {
-      return false;
-    }
+  private boolean isCredentialValid(@Nullable SnowflakeMetadataWithExpiration credential) {
     // Key is cached and not expired
     return credential != null
-        && System.currentTimeMillis() - credential.timestampLastCredentialFetchMillis
+        && credential.isShareable()
+        && timeSupplier.currentTime() - credential.timestampLastCredentialFetchMillis
             < expirationTimeMillis;
   }
 
+  /**
+   * Fetches the credentials of the stage and caches them.
+   *
+   * @return the cached credential
+   */
+  private SnowflakeMetadataWithExpiration refreshCredentials(
+      final String stageName, final StageInfo.StageType stageType, final String fullFilePath)
+      throws SnowflakeSQLException {
+    SnowflakeFileTransferMetadataV1 fileTransferMetadata =
+        fetchFileTransferMetadata(stageName, stageType, fullFilePath);
+    if (fileTransferMetadata.getStageInfo().getStageType() == StageInfo.StageType.LOCAL_FS) {
+      LOGGER.error(
+          "StageName:{} is not a valid stageType:{}",
+          stageName,
+          fileTransferMetadata.getStageInfo().getStageType());
+      throw SnowflakeErrors.ERROR_5017.getException();
+    }
+    final long now = timeSupplier.currentTime();
+    SnowflakeMetadataWithExpiration previous = storageInfoCache.get(stageName);
+    // Overwrite the credential to be used
+    SnowflakeMetadataWithExpiration credential =
+        new SnowflakeMetadataWithExpiration(
+            fileTransferMetadata,
+            now,
+            fullFilePath,
+            previous != null ? previous.timestampLastUsedMillis : now);
+    storageInfoCache.put(stageName, credential);
+    LOGGER.debug("Caching credential successful for stage:{}", stageName);
+    if (credential.isShareable() && credentialRefresher == null) {
+      startCredentialRefresher();
+    }
+    return credential;
+  }
+
   @VisibleForTesting
-  protected void refreshCredentials(
+  protected SnowflakeFileTransferMetadataV1 fetchFileTransferMetadata(
       final String stageName, final StageInfo.StageType stageType, final String fullFilePath)
       throws SnowflakeSQLException {
     String putCommandToFetchMetadata =
         getDummyPutCommandTemplateForFileTransferMetadata(stageName, stageType, fullFilePath);
 
-    // This should always be executed in GCS
+    // This should always be executed in GCS with presignedURLs
     SnowflakeFileTransferAgent agent =
         new SnowflakeFileTransferAgent(
             putCommandToFetchMetadata, conn.getSfSession(), new SFStatement(conn.getSfSession()));
     // transfer metadata list must only have one element
-    SnowflakeFileTransferMetadataV1 fileTransferMetadata =
-        (SnowflakeFileTransferMetadataV1) agent.getFileTransferMetadatas().get(0);
-    if (fileTransferMetadata.getStageInfo().getStageType() == StageInfo.StageType.LOCAL_FS) {
-      LOGGER.error(
-          "StageName:{} is not a valid stageType:{}",
-          stageName,
-          fileTransferMetadata.getStageInfo().getStageType());
-      throw SnowflakeErrors.ERROR_5017.getException();
-    } else {
-      // Overwrite the credential to be used
-      SnowflakeMetadataWithExpiration credential =
-          new SnowflakeMetadataWithExpiration(fileTransferMetadata, System.currentTimeMillis());
-      // Caching it here since we require to fetch the credential(Metadata) in the caller function
-      // again.
-      storageInfoCache.put(stageName, credential);
-      LOGGER.debug("Caching credential successful for stage:{}", stageName);
+    return (SnowflakeFileTransferMetadataV1) agent.getFileTransferMetadatas().get(0);
+  }
+
+  private synchronized void startCredentialRefresher() {
+    if (closed || credentialRefresher != null) {
+      return;
+    }
+    // check often enough to refresh the credentials between half and 60% of the expiration time
+    final long checkIntervalMillis = Math.max(1000, expirationTimeMillis / 10);
+    ScheduledExecutorService refresher =
+        Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder()
+                .setNameFormat("snowflake-stage-credential-refresh-%d")
+                .setDaemon(true)
+                .build());
+    refresher.scheduleWithFixedDelay(
+        this::refreshExpiringCredentials,
+        checkIntervalMillis,
+        checkIntervalMillis,
+        TimeUnit.MILLISECONDS);
+    credentialRefresher = refresher;
+  }
+
+  /**
+   * Fetches new credentials of the stages in use whose credentials were fetched more than half of
+   * the expiration time ago. Failures are only logged, uploads fetch the credentials themselves
+   * once they expired.
+   */
+  @VisibleForTesting
+  void refreshExpiringCredentials() {
+    final long now = timeSupplier.currentTime();
+    for (Map.Entry<String, SnowflakeMetadataWithExpiration> entry : storageInfoCache.entrySet()) {
+      SnowflakeMetadataWithExpiration credential = entry.getValue();
+      if (!credential.isShareable()
+          || now - credential.timestampLastCredentialFetchMillis < expirationTimeMillis / 2
+          || now - credential.timestampLastUsedMillis >= expirationTimeMillis) {
+        continue;
+      }
+      try {
+        refreshCredentials(entry.getKey(), credential.getStageType(), credential.filePath);
+      } catch (Exception e) {
+        LOGGER.warn(
+            "Failed to refresh Credentials in the background for stageName:{}, error:{}",
+            entry.getKey(),
+            e.getMessage());
+      }
+    }
+  }
+
+  /** Stops refreshing the credentials in the background. */
+  public synchronized void close() {
+    closed = true;
+    if (credentialRefresher != null) {
+      credentialRefresher.shutdownNow();
+      credentialRefresher = null;
     }
   }
 
@@ -2,6 +2,7 @@ package com.snowflake.kafka.connector.internal;
 
 import com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig;
 import com.snowflake.kafka.connector.dlq.KafkaRecordErrorReporter;
+import com.snowflake.kafka.connector.internal.metrics.PrometheusMetricsExporter;
 import com.snowflake.kafka.connector.records.SnowflakeMetadataConfig;
 import java.util.Map;
 import org.apache.kafka.common.TopicPartition;
@@ -101,6 +102,75 @@ public class SnowflakeSinkServiceFactory {
       }
       svc.configureEnableReprocessFilesCleanup(enableReprocessFilesCleanup);
 
+      int asyncUploadThreads = SnowflakeSinkConnectorConfig.SNOWPIPE_ASYNC_UPLOAD_THREADS_DEFAULT;
+      int maxFilesInFlight =
+          SnowflakeSinkConnectorConfig.SNOWPIPE_ASYNC_UPLOAD_MAX_FILES_IN_FLIGHT_DEFAULT;
+      if (connectorConfig != null
+          && connectorConfig.containsKey(
+              SnowflakeSinkConnectorConfig.SNOWPIPE_ASYNC_UPLOAD_THREADS)) {
+        asyncUploadThreads =
+            Integer.parseInt(
+                connectorConfig.get(SnowflakeSinkConnectorConfig.SNOWPIPE_ASYNC_UPLOAD_THREADS));
+      }
+      if (connectorConfig != null
+          && connectorConfig.containsKey(
+              SnowflakeSinkConnectorConfig.SNOWPIPE_ASYNC_UPLOAD_MAX_FILES_IN_FLIGHT)) {
+        maxFilesInFlight =
+            Integer.parseInt(
+                connectorConfig.get(
+                    SnowflakeSinkConnectorConfig.SNOWPIPE_ASYNC_UPLOAD_MAX_FILES_IN_FLIGHT));
+      }
+      if (asyncUploadThreads > 0) {
+        svc.enableAsyncUploads(asyncUploadThreads, maxFilesInFlight);
+      }
+
+      boolean sharedPipePerTable =
+          SnowflakeSinkConnectorConfig.SNOWPIPE_SHARED_PIPE_PER_TABLE_ENABLED_DEFAULT;
+      if (connectorConfig != null
+          && connectorConfig.containsKey(
+              SnowflakeSinkConnectorConfig.SNOWPIPE_SHARED_PIPE_PER_TABLE_ENABLED)) {
+        sharedPipePerTable =
+            Boolean.parseBoolean(
+                connectorConfig.get(
+                    SnowflakeSinkConnectorConfig.SNOWPIPE_SHARED_PIPE_PER_TABLE_ENABLED));
+      }
+      svc.configureSharedPipePerTable(sharedPipePerTable);
+
+      boolean sharedStageListing =
+          SnowflakeSinkConnectorConfig.SNOWPIPE_SHARED_STAGE_LISTING_ENABLED_DEFAULT;
+      if (connectorConfig != null
+          && connectorConfig.containsKey(
+              SnowflakeSinkConnectorConfig.SNOWPIPE_SHARED_STAGE_LISTING_ENABLED)) {
+        sharedStageListing =
+            Boolean.parseBoolean(
+                connectorConfig.get(
+                    SnowflakeSinkConnectorConfig.SNOWPIPE_SHARED_STAGE_LISTING_ENABLED));
+      }
+      svc.configureSharedStageListing(sharedStageListing);
+
+      boolean compressBuffer =
+          SnowflakeSinkConnectorConfig.SNOWPIPE_COMPRESS_BUFFER_ENABLED_DEFAULT;
+      if (connectorConfig != null
+          && connectorConfig.containsKey(
+              SnowflakeSinkConnectorConfig.SNOWPIPE_COMPRESS_BUFFER_ENABLED)) {
+        compressBuffer =
+            Boolean.parseBoolean(
+                connectorConfig.get(SnowflakeSinkConnectorConfig.SNOWPIPE_COMPRESS_BUFFER_ENABLED));
+      }
+      svc.configureCompressBuffer(compressBuffer);
+
+      // the exporter serves the JMX metrics of the pipes, which are only kept when JMX is enabled
+      boolean enableCustomJMXMonitoring = SnowflakeSinkConnectorConfig.JMX_OPT_DEFAULT;
+      if (connectorConfig != null
+          && connectorConfig.containsKey(SnowflakeSinkConnectorConfig.JMX_OPT)) {
+        enableCustomJMXMonitoring =
+            Boolean.parseBoolean(connectorConfig.get(SnowflakeSinkConnectorConfig.JMX_OPT));
+      }
+      if (connectorConfig != null && enableCustomJMXMonitoring) {
+        svc.configurePrometheusMetricsExporter(
+            PrometheusMetricsExporter.acquireIfEnabled(connectorConfig));
+      }
+
       LOGGER.info("{} created", this.service.getClass().getName());
     }
 
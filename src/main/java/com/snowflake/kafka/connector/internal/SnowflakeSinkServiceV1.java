@@ -1,5 +1,9 @@
 package com.snowflake.kafka.connector.internal;
 
+import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.SNOWPIPE_ASYNC_UPLOAD_MAX_FILES_IN_FLIGHT_DEFAULT;
+import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.SNOWPIPE_COMPRESS_BUFFER_ENABLED_DEFAULT;
+import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.SNOWPIPE_SHARED_PIPE_PER_TABLE_ENABLED_DEFAULT;
+import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.SNOWPIPE_SHARED_STAGE_LISTING_ENABLED_DEFAULT;
 import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.SNOWPIPE_SINGLE_TABLE_MULTIPLE_TOPICS_FIX_ENABLED;
 import static com.snowflake.kafka.connector.internal.FileNameUtils.searchForMissingOffsets;
 import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.BUFFER_RECORD_COUNT;
@@ -12,11 +16,13 @@ import com.codahale.metrics.Histogram;
 import com.codahale.metrics.MetricRegistry;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig;
 import com.snowflake.kafka.connector.Utils;
 import com.snowflake.kafka.connector.config.TopicToTableModeExtractor;
 import com.snowflake.kafka.connector.internal.metrics.MetricsJmxReporter;
 import com.snowflake.kafka.connector.internal.metrics.MetricsUtil;
+import com.snowflake.kafka.connector.internal.metrics.PrometheusMetricsExporter;
 import com.snowflake.kafka.connector.internal.telemetry.SnowflakeTelemetryPipeCreation;
 import com.snowflake.kafka.connector.internal.telemetry.SnowflakeTelemetryPipeStatus;
 import com.snowflake.kafka.connector.internal.telemetry.SnowflakeTelemetryService;
@@ -32,17 +38,28 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
@@ -68,6 +85,8 @@ class SnowflakeSinkServiceV1 implements SnowflakeSinkService {
   private static final long ONE_HOUR = 60 * 60 * 1000L;
   private static final long TEN_MINUTES = 10 * 60 * 1000L;
   protected static final long CLEAN_TIME = 60 * 1000L; // one minutes
+  // upper bound of the wait for running uploads when a partition is closed or the task stopped
+  private static final long UPLOAD_TERMINATION_TIMEOUT_SECONDS = 60;
 
   // Set in config (Time based flush) in seconds
   private long flushTime;
@@ -91,8 +110,26 @@ class SnowflakeSinkServiceV1 implements SnowflakeSinkService {
   // If this is true, we will enable Mbean for required classes and emit JMX metrics for monitoring
   private boolean enableCustomJMXMonitoring = SnowflakeSinkConnectorConfig.JMX_OPT_DEFAULT;
 
+  // serves the metrics of the pipes in the Prometheus format, null if the exporter is disabled
+  @Nullable private PrometheusMetricsExporter prometheusMetricsExporter;
+
   @Nullable private ScheduledExecutorService cleanerServiceExecutor;
 
+  // uploads flushed buffers to the internal stage, null if files are uploaded synchronously
+  @Nullable private ExecutorService uploadExecutor;
+  private int maxUploadsInFlight = SNOWPIPE_ASYNC_UPLOAD_MAX_FILES_IN_FLIGHT_DEFAULT;
+
+  // if enabled, all partitions of a table share one pipe, keyed by pipe name
+  private boolean sharedPipePerTable = SNOWPIPE_SHARED_PIPE_PER_TABLE_ENABLED_DEFAULT;
+  private final Map<String, SharedPipe> sharedPipes = new HashMap<>();
+  // if enabled, the file processors of the partitions of a table share the listing of its stage
+  private boolean sharedStageListing = SNOWPIPE_SHARED_STAGE_LISTING_ENABLED_DEFAULT;
+  // stage content shared by the file processors of the partitions of a table, keyed by stage name
+  private final Map<String, StageListingCache> stageListings = new HashMap<>();
+
+  // if enabled, records are gzip compressed while they are buffered
+  private boolean compressBuffer = SNOWPIPE_COMPRESS_BUFFER_ENABLED_DEFAULT;
+
   // if enabled, the prefix for stage files for a given table will contain information about source
   // topic hashcode. This is required in scenarios when multiple topics are configured to ingest
   // data into a single table.
@@ -151,20 +188,48 @@ class SnowflakeSinkServiceV1 implements SnowflakeSinkService {
     if (pipes.containsKey(nameIndex)) {
       LOGGER.warn("task is already registered with {} partition", nameIndex);
     } else {
+      // with a shared pipe, metrics and telemetry of the partition are still named after the
+      // partition pipe
       String pipeName =
           Utils.pipeName(conn.getConnectorName(), tableName, topicPartition.partition());
-
-      pipes.put(
-          nameIndex,
+      SharedPipe sharedPipe =
+          sharedPipePerTable
+              ? sharedPipes.computeIfAbsent(
+                  Utils.pipeName(conn.getConnectorName(), tableName),
+                  name ->
+                      new SharedPipe(
+                          name,
+                          new SharedIngestHistoryService(
+                              conn.buildIngestService(stageName, name), sharedPollIntervalMs())))
+              : null;
+      StageListingCache stageListing =
+          sharedStageListing && cleanerServiceExecutor != null
+              ? stageListings.computeIfAbsent(
+                  stageName,
+                  name ->
+                      new StageListingCache(
+                          conn,
+                          name,
+                          FileNameUtils.tablePrefix(conn.getConnectorName(), tableName),
+                          sharedPollIntervalMs()))
+              : null;
+
+      ServiceContext context =
           new ServiceContext(
               generatedTableName,
               stageName,
               pipeName,
+              sharedPipe,
+              stageListing,
               topicPartition.topic(),
               conn,
               topicPartition.partition(),
               cleanerServiceExecutor,
-              v2CleanerIntervalSeconds));
+              v2CleanerIntervalSeconds);
+      if (sharedPipe != null) {
+        sharedPipe.register(context);
+      }
+      pipes.put(nameIndex, context);
 
       if (enableStageFilePrefixExtension
           && TopicToTableModeExtractor.determineTopic2TableMode(
@@ -315,6 +380,10 @@ class SnowflakeSinkServiceV1 implements SnowflakeSinkService {
             } finally {
               sc.unregisterPipeJMXMetrics();
             }
+            // the listing of the stage is dropped along with the last partition of the table
+            if (pipes.values().stream().noneMatch(pipe -> pipe.stageName.equals(sc.stageName))) {
+              stageListings.remove(sc.stageName);
+            }
           } else {
             LOGGER.warn(
                 "Failed to close sink service for Topic: {}, Partition: {}, "
@@ -334,14 +403,24 @@ class SnowflakeSinkServiceV1 implements SnowflakeSinkService {
           context.unregisterPipeJMXMetrics();
         });
     pipes.clear();
+    sharedPipes.clear();
+    stageListings.clear();
   }
 
   @Override
   public void stop() {
+    if (prometheusMetricsExporter != null) {
+      prometheusMetricsExporter.release();
+      prometheusMetricsExporter = null;
+    }
     if (cleanerServiceExecutor != null) {
       cleanerServiceExecutor.shutdown();
       cleanerServiceExecutor = null;
     }
+    if (uploadExecutor != null) {
+      shutdownUploadExecutor();
+      uploadExecutor = null;
+    }
     this.isStopped = true; // release all cleaner and flusher threads
   }
 
@@ -421,6 +500,90 @@ class SnowflakeSinkServiceV1 implements SnowflakeSinkService {
     cleanerServiceExecutor = new ScheduledThreadPoolExecutor(Math.max(1, threadCount));
   }
 
+  /**
+   * Upload flushed buffers in the background while the task keeps filling the next buffer.
+   *
+   * @param threadCount number of threads uploading files of all partitions of the task
+   * @param maxFilesInFlight maximum number of files of a partition being uploaded at the same time
+   */
+  void enableAsyncUploads(int threadCount, int maxFilesInFlight) {
+    if (uploadExecutor != null) {
+      shutdownUploadExecutor();
+    }
+    LOGGER.info(
+        "Uploading files with {} threads, at most {} files per partition at the same time",
+        threadCount,
+        maxFilesInFlight);
+    this.maxUploadsInFlight = maxFilesInFlight;
+    this.uploadExecutor =
+        Executors.newFixedThreadPool(
+            threadCount,
+            new ThreadFactoryBuilder()
+                .setNameFormat("snowpipe-upload-%d")
+                .setDaemon(true)
+                .build());
+  }
+
+  /**
+   * Waits for the running and queued uploads, so that no file is put on stage once the service is
+   * stopped. Uploads still running after {@link #UPLOAD_TERMINATION_TIMEOUT_SECONDS} are
+   * interrupted and the queued ones are dropped, their offsets are never committed.
+   */
+  private void shutdownUploadExecutor() {
+    uploadExecutor.shutdown();
+    try {
+      if (uploadExecutor.awaitTermination(UPLOAD_TERMINATION_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+        return;
+      }
+      LOGGER.warn(
+          "Uploads still running after {} seconds, cancelling them",
+          UPLOAD_TERMINATION_TIMEOUT_SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    uploadExecutor.shutdownNow();
+  }
+
+  /**
+   * Use one pipe and one ingestion client for all partitions of a table instead of one pipe per
+   * partition.
+   *
+   * @param enabled whether partitions of a table share a pipe
+   */
+  void configureSharedPipePerTable(boolean enabled) {
+    this.sharedPipePerTable = enabled;
+  }
+
+  /**
+   * List the stage of a table once for the stage files processors of all its partitions instead
+   * of listing the files of every partition separately.
+   *
+   * @param enabled whether partitions of a table share the stage listing
+   */
+  void configureSharedStageListing(boolean enabled) {
+    this.sharedStageListing = enabled;
+  }
+
+  /**
+   * Compress records while they are buffered, so that the buffer only keeps the compressed file
+   * and the upload does not compress the whole file again.
+   *
+   * @param enabled whether buffers are compressed
+   */
+  void configureCompressBuffer(boolean enabled) {
+    this.compressBuffer = enabled;
+  }
+
+  /**
+   * Exports the metrics of the pipes, if custom JMX monitoring is enabled. The exporter is
+   * released when the service is stopped.
+   *
+   * @param exporter exporter serving the metrics, null if the exporter is disabled
+   */
+  void configurePrometheusMetricsExporter(@Nullable PrometheusMetricsExporter exporter) {
+    this.prometheusMetricsExporter = exporter;
+  }
+
   public void setCustomJMXMetrics(boolean enableJMX) {
     this.enableCustomJMXMonitoring = enableJMX;
   }
@@ -442,6 +605,19 @@ class SnowflakeSinkServiceV1 implements SnowflakeSinkService {
     return Optional.empty();
   }
 
+  /**
+   * The file processors of the partitions run once per cleaner interval, the stage listing and the
+   * ingest history polled by one of them are reused by the others during half of the interval.
+   */
+  private long sharedPollIntervalMs() {
+    return TimeUnit.SECONDS.toMillis(v2CleanerIntervalSeconds) / 2;
+  }
+
+  @VisibleForTesting
+  int getStageListingCount() {
+    return stageListings.size();
+  }
+
   @VisibleForTesting
   protected static String getNameIndex(String topic, int partition) {
     return topic + "_" + partition;
@@ -482,12 +658,90 @@ class SnowflakeSinkServiceV1 implements SnowflakeSinkService {
     enableReprocessFilesCleanup = enable;
   }
 
+  /**
+   * Pipe shared by all partitions of a table assigned to the task. Partitions keep their own
+   * buffers, stage file prefixes, offsets and cleaners, the pipe and its ingestion client are
+   * shared. The table, stage and pipe are checked once, by the first partition receiving records,
+   * and the files of all partitions are submitted together on commit. The ingest history of the
+   * pipe is polled once for all partitions, see {@link SharedIngestHistoryService}.
+   */
+  private class SharedPipe {
+    private final String pipeName;
+    private final SnowflakeIngestionService ingestionService;
+    private final Set<ServiceContext> partitions = new LinkedHashSet<>();
+    private boolean initialized = false;
+
+    private SharedPipe(String pipeName, SnowflakeIngestionService ingestionService) {
+      this.pipeName = pipeName;
+      this.ingestionService = ingestionService;
+      LOGGER.info("pipe: {} - shared by the partitions of the table", pipeName);
+    }
+
+    private synchronized void register(ServiceContext partition) {
+      partitions.add(partition);
+    }
+
+    private synchronized void init(
+        ServiceContext partition, SnowflakeTelemetryPipeCreation pipeCreation) {
+      if (initialized) {
+        pipeCreation.setReuseTable(true);
+        pipeCreation.setReuseStage(true);
+        pipeCreation.setReusePipe(true);
+        return;
+      }
+      partition.createTableAndStage(pipeCreation);
+      partition.recover(pipeName, pipeCreation);
+      initialized = true;
+    }
+
+    /**
+     * Submit the files put on stage by all partitions with a single ingestFiles call, then move
+     * the committed offset of every partition past its files.
+     */
+    private synchronized void ingestFiles() {
+      Map<ServiceContext, List<String>> filesByPartition = new LinkedHashMap<>();
+      List<String> allFiles = new ArrayList<>();
+      for (ServiceContext partition : partitions) {
+        List<String> files = partition.takeFileNames();
+        if (!files.isEmpty()) {
+          filesByPartition.put(partition, files);
+          allFiles.addAll(files);
+        }
+      }
+      if (allFiles.isEmpty()) {
+        return;
+      }
+
+      LOGGER.info(
+          "pipe {}, ingest {} files of {} partitions",
+          pipeName,
+          allFiles.size(),
+          filesByPartition.size());
+      ingestionService.ingestFiles(allFiles);
+      filesByPartition.forEach(ServiceContext::commitIngestedFiles);
+    }
+
+    /** The ingestion client is closed along with the last partition using the pipe. */
+    private synchronized void release(ServiceContext partition) {
+      partitions.remove(partition);
+      if (partitions.isEmpty()) {
+        ingestionService.close();
+        sharedPipes.remove(pipeName, this);
+        LOGGER.info("pipe {}: shared pipe closed", pipeName);
+      }
+    }
+  }
+
   private class ServiceContext {
     private final String tableName;
     private final String stageName;
     private final String pipeName;
+    // pipe shared with the other partitions of the table, null if the partition has its own pipe
+    @Nullable private final SharedPipe sharedPipe;
     private final SnowflakeConnectionService conn;
     private final SnowflakeIngestionService ingestionService;
+    // position in the ingest report of the shared pipe, read by the cleaner of this partition
+    private final AtomicReference<String> ingestReportMarker = new AtomicReference<>();
     private List<String> fileNames;
 
     // Includes a list of files:
@@ -507,6 +761,12 @@ class SnowflakeSinkServiceV1 implements SnowflakeSinkService {
     @Nullable private final ExecutorService reprocessCleanerExecutor;
     private final Lock bufferLock;
     private final Lock fileListLock;
+
+    // async uploads, only used by the task thread. Files are registered for ingestion in the order
+    // they were flushed, each one after its own upload and the registration of the previous file.
+    private final Semaphore uploadPermits;
+    private CompletableFuture<Void> lastUpload = CompletableFuture.completedFuture(null);
+    private final AtomicReference<Throwable> uploadFailure = new AtomicReference<>();
     // v2 file cleaner logic - either cleaner executors or stageFileProcessorClient is used
     private final boolean useStageFilesProcessor;
     @Nullable private final StageFilesProcessor.ProgressRegister stageFileProcessorClient;
@@ -531,19 +791,25 @@ class SnowflakeSinkServiceV1 implements SnowflakeSinkService {
         Utils.GeneratedName generatedTableName,
         String stageName,
         String pipeName,
+        @Nullable SharedPipe sharedPipe,
+        @Nullable StageListingCache stageListing,
         String topicName,
         SnowflakeConnectionService conn,
         int partition,
         ScheduledExecutorService v2CleanerExecutor,
         long v2CleanerIntervalSeconds) {
       this.pipeName = pipeName;
+      this.sharedPipe = sharedPipe;
       this.tableName = generatedTableName.getName();
       this.stageName = stageName;
       this.conn = conn;
       this.fileNames = new LinkedList<>();
       this.cleanerFileNames = new LinkedList<>();
       this.buffer = new SnowpipeBuffer();
-      this.ingestionService = conn.buildIngestService(stageName, pipeName);
+      this.ingestionService =
+          sharedPipe != null
+              ? sharedPipe.ingestionService
+              : conn.buildIngestService(stageName, pipeName);
       // SNOW-1642799 = if multiple topics load data into single table, we need to ensure the file
       // prefix is unique per topic - otherwise, file cleaners for different topics will try to
       // clean the same prefixed files creating a race condition and a potential to delete
@@ -569,6 +835,7 @@ class SnowflakeSinkServiceV1 implements SnowflakeSinkService {
 
       this.bufferLock = new ReentrantLock();
       this.fileListLock = new ReentrantLock();
+      this.uploadPermits = new Semaphore(maxUploadsInFlight);
       this.metricRegistry = new MetricRegistry();
       this.metricsJmxReporter =
           new MetricsJmxReporter(this.metricRegistry, conn.getConnectorName());
@@ -583,6 +850,9 @@ class SnowflakeSinkServiceV1 implements SnowflakeSinkService {
               this.metricsJmxReporter);
 
       if (enableCustomJMXMonitoring) {
+        if (prometheusMetricsExporter != null) {
+          prometheusMetricsExporter.addReporter(this.metricsJmxReporter);
+        }
         partitionBufferCountHistogram =
             this.metricRegistry.histogram(
                 MetricsUtil.constructMetricName(pipeName, BUFFER_SUB_DOMAIN, BUFFER_RECORD_COUNT));
@@ -599,13 +869,14 @@ class SnowflakeSinkServiceV1 implements SnowflakeSinkService {
 
         StageFilesProcessor processor =
             new StageFilesProcessor(
-                pipeName,
+                snowflakePipeName(),
                 tableName,
                 stageName,
                 prefix,
                 topicName,
                 partition,
                 conn,
+                stageListing,
                 ingestionService,
                 pipeStatus,
                 telemetryService,
@@ -628,12 +899,17 @@ class SnowflakeSinkServiceV1 implements SnowflakeSinkService {
     private void init(long recordOffset) {
       LOGGER.info("init pipe: {}", pipeName);
       SnowflakeTelemetryPipeCreation pipeCreation =
-          new SnowflakeTelemetryPipeCreation(tableName, stageName, pipeName);
+          new SnowflakeTelemetryPipeCreation(tableName, stageName, snowflakePipeName());
 
-      // wait for sinkConnector to start
-      createTableAndStage(pipeCreation);
-      // recover will only check pipe status and create pipe if it does not exist.
-      recover(pipeCreation);
+      if (sharedPipe != null) {
+        // table, stage and pipe are checked once for all partitions of the table
+        sharedPipe.init(this, pipeCreation);
+      } else {
+        // wait for sinkConnector to start
+        createTableAndStage(pipeCreation);
+        // recover will only check pipe status and create pipe if it does not exist.
+        recover(pipeName, pipeCreation);
+      }
 
       if (!useStageFilesProcessor) {
         try {
@@ -797,6 +1073,7 @@ class SnowflakeSinkServiceV1 implements SnowflakeSinkService {
     }
 
     private void insert(final SinkRecord record) {
+      throwIfUploadFailed();
       // init pipe
       if (!hasInitialized) {
         LOGGER.info("Initializing with offset: {}", record.kafkaOffset());
@@ -978,43 +1255,64 @@ class SnowflakeSinkServiceV1 implements SnowflakeSinkService {
     }
 
     private long getOffset() {
-      if (fileNames.isEmpty()) {
+      throwIfUploadFailed();
+      if (sharedPipe != null) {
+        // submits the files of all partitions of the table, this one included
+        sharedPipe.ingestFiles();
+        return committedOffset.get();
+      }
+
+      List<String> fileNamesCopy = takeFileNames();
+      if (fileNamesCopy.isEmpty()) {
         long offsetToReturn = committedOffset.get();
         LOGGER.info("No files to commit, returning {} offset", offsetToReturn);
         return offsetToReturn;
       }
 
-      List<String> fileNamesCopy = new ArrayList<>();
-      List<String> fileNamesForMetrics = new ArrayList<>();
+      LOGGER.info("pipe {}, ingest files: {}", pipeName, fileNamesCopy);
+
+      // ingestFiles empties the list it is given
+      ingestionService.ingestFiles(new ArrayList<>(fileNamesCopy));
+
+      LOGGER.info("pipe {}, ingested files: {}", pipeName, fileNamesCopy);
+
+      commitIngestedFiles(fileNamesCopy);
+      return committedOffset.get();
+    }
+
+    /** @return files put on stage since the last call, not yet submitted for ingestion */
+    private List<String> takeFileNames() {
       fileListLock.lock();
       try {
-        fileNamesCopy.addAll(fileNames);
-        fileNamesForMetrics.addAll(fileNames);
+        List<String> result = new ArrayList<>(fileNames);
         fileNames = new LinkedList<>();
+        return result;
       } finally {
         fileListLock.unlock();
       }
+    }
 
-      LOGGER.info("pipe {}, ingest files: {}", pipeName, fileNamesCopy);
-
-      ingestionService.ingestFiles(fileNamesCopy);
-
-      LOGGER.info("pipe {}, ingested files: {}", pipeName, fileNamesCopy);
-
-      // committedOffset should be updated only when ingestFiles has succeeded.
-      long flushedOffset = this.flushedOffset.get();
-      LOGGER.info("Setting commitedOffset to {}", flushedOffset);
-      committedOffset.set(flushedOffset);
+    /**
+     * Moves the committed offset past the given files, called only once ingestFiles has succeeded.
+     * The offset is derived from the file names rather than from flushedOffset, which may already
+     * include files uploaded after the submitted ones were taken.
+     *
+     * @param ingestedFiles files of this partition submitted for ingestion, not empty
+     */
+    private void commitIngestedFiles(List<String> ingestedFiles) {
+      long ingestedOffset =
+          ingestedFiles.stream().mapToLong(FileNameUtils::fileNameToEndOffset).max().getAsLong()
+              + 1;
+      LOGGER.info("Setting commitedOffset to {}", ingestedOffset);
+      committedOffset.updateAndGet(value -> Math.max(ingestedOffset, value));
 
       // update telemetry data
       long currentTime = System.currentTimeMillis();
       pipeStatus.setCommittedOffset(committedOffset.get() - 1);
-      pipeStatus.addAndGetFileCountOnIngestion(fileNamesForMetrics.size());
-      fileNamesForMetrics.forEach(
+      pipeStatus.addAndGetFileCountOnIngestion(ingestedFiles.size());
+      ingestedFiles.forEach(
           name ->
               pipeStatus.updateCommitLag(currentTime - FileNameUtils.fileNameToTimeIngested(name)));
-
-      return committedOffset.get();
     }
 
     private void flush(final SnowpipeBuffer buff) {
@@ -1027,10 +1325,55 @@ class SnowflakeSinkServiceV1 implements SnowflakeSinkService {
       // If we failed to submit/put, throw an runtime exception that kills the connector.
       // SnowflakeThreadPoolUtils.flusherThreadPool.submit(
       String fileName = FileNameUtils.fileName(prefix, buff.getFirstOffset(), buff.getLastOffset());
-      String content = buff.getData();
-      LOGGER.info("Putting buffer to stage: {}", fileName);
-      conn.putWithCache(stageName, fileName, content);
+      if (uploadExecutor == null) {
+        upload(fileName, buff);
+        registerUploadedFile(fileName, buff);
+        return;
+      }
+
+      throwIfUploadFailed();
+      // back-pressure, wait until one of the running uploads of this partition completes
+      uploadPermits.acquireUninterruptibly();
+      CompletableFuture<Void> upload;
+      try {
+        upload =
+            CompletableFuture.runAsync(
+                () -> {
+                  try {
+                    upload(fileName, buff);
+                  } finally {
+                    uploadPermits.release();
+                  }
+                },
+                uploadExecutor);
+      } catch (RejectedExecutionException e) {
+        uploadPermits.release();
+        throw e;
+      }
+      // flushedOffset only moves once this and all previous files of the partition are on stage
+      lastUpload =
+          CompletableFuture.allOf(lastUpload, upload)
+              .thenRun(() -> registerUploadedFile(fileName, buff))
+              .whenComplete(
+                  (result, e) -> {
+                    if (e != null && uploadFailure.compareAndSet(null, e)) {
+                      LOGGER.error("pipe {}, failed to upload file: {}", pipeName, fileName, e);
+                    }
+                  });
+    }
+
+    private void upload(final String fileName, final SnowpipeBuffer buff) {
+      ChunkedUtf8Buffer content = buff.getData();
+      LOGGER.info("Putting buffer to stage: {}, {} bytes", fileName, content.size());
+      try {
+        conn.putWithCache(stageName, fileName, content);
+      } finally {
+        // the records are not sent again from this buffer, the offset is reset in case of failure
+        buff.release();
+      }
+    }
 
+    private void registerUploadedFile(final String fileName, final SnowpipeBuffer buff) {
       // compute metrics which will be exported to JMX for now.
       // TODO: Send it to Telemetry API too
       computeBufferMetrics(buff);
@@ -1039,7 +1382,8 @@ class SnowflakeSinkServiceV1 implements SnowflakeSinkService {
       flushedOffset.updateAndGet((value) -> Math.max(buff.getLastOffset() + 1, value));
       pipeStatus.setFlushedOffset(flushedOffset.get() - 1);
       pipeStatus.addAndGetFileCountOnStage(1L); // plus one
-      pipeStatus.resetMemoryUsage();
+      // the task thread may already be filling the next buffer, only release the flushed one
+      pipeStatus.addAndGetMemoryUsage(-buff.getMemoryUsageBytes());
 
       fileListLock.lock();
       try {
@@ -1056,6 +1400,36 @@ class SnowflakeSinkServiceV1 implements SnowflakeSinkService {
       LOGGER.info("pipe {}, flush pipe: {}", pipeName, fileName);
     }
 
+    /** Fail the task on the task thread if one of the asynchronous uploads failed. */
+    private void throwIfUploadFailed() {
+      Throwable failure = uploadFailure.get();
+      if (failure == null) {
+        return;
+      }
+      Throwable cause = failure instanceof CompletionException ? failure.getCause() : failure;
+      if (cause instanceof SnowflakeKafkaConnectorException) {
+        throw (SnowflakeKafkaConnectorException) cause;
+      }
+      throw SnowflakeErrors.ERROR_2011.getException(
+          cause instanceof Exception ? (Exception) cause : new Exception(cause));
+    }
+
+    /**
+     * Wait for the uploads of this partition still running, failures are only logged. Uploads
+     * dropped by {@link #shutdownUploadExecutor()} never complete, so the wait is bounded.
+     */
+    private void awaitUploads() {
+      try {
+        lastUpload.get(UPLOAD_TERMINATION_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+      } catch (ExecutionException | CancellationException e) {
+        LOGGER.warn("pipe {}: upload failed before closing: {}", pipeName, e.getMessage());
+      } catch (TimeoutException e) {
+        LOGGER.warn("pipe {}: uploads did not complete before closing", pipeName);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
     private void checkStatus() {
       // We are using a temporary list which will reset the cleanerFileNames
       // After this checkStatus() call, we will have an updated cleanerFileNames which are subset of
@@ -1081,7 +1455,7 @@ class SnowflakeSinkServiceV1 implements SnowflakeSinkService {
       // In any cases tmpFileNames will be updated.
       // If we get all files in ingestReport, tmpFileNames will be empty
       filterResultFromSnowpipeScan(
-          ingestionService.readIngestReport(tmpFileNames), tmpFileNames, loadedFiles, failedFiles);
+          readIngestReport(tmpFileNames), tmpFileNames, loadedFiles, failedFiles);
 
       // old files
       List<String> oldFiles = new LinkedList<>();
@@ -1145,6 +1519,22 @@ class SnowflakeSinkServiceV1 implements SnowflakeSinkService {
                   currentTime - FileNameUtils.fileNameToTimeIngested(name)));
     }
 
+    private Map<String, InternalUtils.IngestedFileStatus> readIngestReport(List<String> files) {
+      if (sharedPipe == null) {
+        return ingestionService.readIngestReport(files);
+      }
+      // the ingest report of a shared pipe lists the files of all partitions, the position in the
+      // report is kept per partition instead of by the shared ingestion service
+      Map<String, InternalUtils.IngestedFileStatus> fileStatus = new HashMap<>();
+      files.forEach(name -> fileStatus.put(name, InternalUtils.IngestedFileStatus.NOT_FOUND));
+      if (!files.isEmpty()) {
+        Set<String> fileSet = new HashSet<>(files);
+        ingestionService.readIngestHistoryForward(
+            fileStatus, entry -> fileSet.contains(entry.getPath()), ingestReportMarker, null);
+      }
+      return fileStatus;
+    }
+
     // fileStatus Map may include mapping of fileNames with their ingestion status.
     // It can be received either from insertReport API or loadHistoryScan
     private void filterResultFromSnowpipeScan(
@@ -1205,7 +1595,11 @@ class SnowflakeSinkServiceV1 implements SnowflakeSinkService {
       }
     }
 
-    private void recover(SnowflakeTelemetryPipeCreation pipeCreation) {
+    private String snowflakePipeName() {
+      return sharedPipe != null ? sharedPipe.pipeName : pipeName;
+    }
+
+    private void recover(String pipeName, SnowflakeTelemetryPipeCreation pipeCreation) {
       if (conn.pipeExist(pipeName)) {
         if (!conn.isPipeCompatible(tableName, stageName, pipeName)) {
           throw SnowflakeErrors.ERROR_5005.getException(
@@ -1221,6 +1615,7 @@ class SnowflakeSinkServiceV1 implements SnowflakeSinkService {
     }
 
     private void close() {
+      awaitUploads();
       if (stageFileProcessorClient != null) {
         stageFileProcessorClient.close();
       } else {
@@ -1230,7 +1625,11 @@ class SnowflakeSinkServiceV1 implements SnowflakeSinkService {
           LOGGER.warn("Failed to terminate Cleaner or Flusher");
         }
       }
-      ingestionService.close();
+      if (sharedPipe != null) {
+        sharedPipe.release(this);
+      } else {
+        ingestionService.close();
+      }
       telemetryService.reportKafkaPartitionUsage(pipeStatus, true);
       LOGGER.info("pipe {}: service closed", pipeName);
     }
@@ -1285,6 +1684,9 @@ class SnowflakeSinkServiceV1 implements SnowflakeSinkService {
     private void unregisterPipeJMXMetrics() {
       if (enableCustomJMXMonitoring) {
         metricsJmxReporter.removeMetricsFromRegistry(this.pipeName);
+        if (prometheusMetricsExporter != null) {
+          prometheusMetricsExporter.removeReporter(this.metricsJmxReporter);
+        }
       }
     }
 
@@ -1308,12 +1710,15 @@ class SnowflakeSinkServiceV1 implements SnowflakeSinkService {
      * when we would generate files in internal stage for snowpipe to ingest later using Snowpipe's
      * REST APIs
      */
-    private class SnowpipeBuffer extends PartitionBuffer<String> {
-      private final StringBuilder stringBuilder;
+    private class SnowpipeBuffer extends PartitionBuffer<ChunkedUtf8Buffer> {
+      // records are kept UTF-8 encoded, exactly as they are uploaded to the stage
+      private final ChunkedUtf8Buffer content;
+      // bytes of content added to the memory usage of the pipe
+      private long memoryUsageBytes;
 
       private SnowpipeBuffer() {
         super();
-        stringBuilder = new StringBuilder();
+        content = compressBuffer ? ChunkedUtf8Buffer.gzipCompressed() : new ChunkedUtf8Buffer();
       }
 
       @Override
@@ -1323,15 +1728,30 @@ class SnowflakeSinkServiceV1 implements SnowflakeSinkService {
           setFirstOffset(record.kafkaOffset());
         }
 
-        stringBuilder.append(data);
+        long storedBefore = content.storedSize();
+        content.append(data);
+        // the size is still estimated as 2 bytes per char, so that buffer.size.bytes flushes
+        // files of the same size as before. The memory usage is the exact size of the content.
+        long dataSizeBytes = data.length() * 2L;
+        long storedBytes = content.storedSize() - storedBefore;
         setNumOfRecords(getNumOfRecords() + 1);
-        setBufferSizeBytes(getBufferSizeBytes() + data.length() * 2L); // 1 char = 2 bytes
+        setBufferSizeBytes(getBufferSizeBytes() + dataSizeBytes);
         setLastOffset(record.kafkaOffset());
-        pipeStatus.addAndGetMemoryUsage(data.length() * 2L);
+        memoryUsageBytes += storedBytes;
+        pipeStatus.addAndGetMemoryUsage(storedBytes);
       }
 
-      public String getData() {
-        String result = stringBuilder.toString();
+      /** @return bytes of this buffer counted in the memory usage of the pipe */
+      private long getMemoryUsageBytes() {
+        return memoryUsageBytes;
+      }
+
+      /**
+       * @return the buffered records, the caller must {@link #release()} the buffer once the
+       *     content has been uploaded
+       */
+      public ChunkedUtf8Buffer getData() {
+        ChunkedUtf8Buffer result = content;
         LOGGER.debug(
             "flush buffer: {} records, {} bytes, offset {} - {}",
             getNumOfRecords(),
@@ -1343,6 +1763,11 @@ class SnowflakeSinkServiceV1 implements SnowflakeSinkService {
         return result;
       }
 
+      /** Return the memory of the buffered records to the pool, the buffer is empty afterwards */
+      private void release() {
+        content.release();
+      }
+
       @Override
       public List<SinkRecord> getSinkRecords() {
         throw new UnsupportedOperationException(
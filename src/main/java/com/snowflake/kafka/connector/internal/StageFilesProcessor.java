@@ -29,6 +29,7 @@ import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import javax.annotation.Nullable;
 import net.snowflake.ingest.connection.HistoryResponse;
 
 /**
@@ -66,6 +67,8 @@ class StageFilesProcessor {
   private final String topic;
   private final int partition;
   private final SnowflakeConnectionService conn;
+  // stage content shared with the processors of the other partitions, null to list the stage
+  @Nullable private final StageListingCache stageListing;
   private final AtomicReference<ScheduledFuture<?>> cleanerTaskHolder = new AtomicReference<>();
   private final TimeSupplier currentTimeSupplier;
   private final SnowflakeIngestionService ingestionService;
@@ -103,6 +106,7 @@ class StageFilesProcessor {
       String topic,
       int partition,
       SnowflakeConnectionService conn,
+      @Nullable StageListingCache stageListing,
       SnowflakeIngestionService ingestionService,
       SnowflakeTelemetryPipeStatus pipeTelemetry,
       SnowflakeTelemetryService telemetryService,
@@ -116,6 +120,7 @@ class StageFilesProcessor {
         topic,
         partition,
         conn,
+        stageListing,
         ingestionService,
         pipeTelemetry,
         telemetryService,
@@ -133,6 +138,7 @@ class StageFilesProcessor {
       String topic,
       int partition,
       SnowflakeConnectionService conn,
+      @Nullable StageListingCache stageListing,
       SnowflakeIngestionService ingestionService,
       SnowflakeTelemetryPipeStatus pipeTelemetry,
       SnowflakeTelemetryService telemetryService,
@@ -146,6 +152,7 @@ class StageFilesProcessor {
     this.topic = topic;
     this.partition = partition;
     this.conn = conn;
+    this.stageListing = stageListing;
     this.currentTimeSupplier = currentTimeSupplier;
     this.ingestionService = ingestionService;
     this.telemetryService = telemetryService;
@@ -486,7 +493,7 @@ class StageFilesProcessor {
 
   private Collection<String> fetchCurrentStage() {
     try {
-      List<String> stageFiles = conn.listStage(stageName, prefix);
+      List<String> stageFiles = listStage();
       if (LOGGER.isDebugEnabled()) {
         LOGGER.debug(
             "Fetched for pipe: {} from stage: {} following files: {}",
@@ -501,6 +508,12 @@ class StageFilesProcessor {
     }
   }
 
+  private List<String> listStage() {
+    return stageListing != null
+        ? stageListing.listStage(prefix)
+        : conn.listStage(stageName, prefix);
+  }
+
   private void purgeDirtyFiles(Set<String> files) {
     try {
       LOGGER.info(
@@ -547,7 +560,7 @@ class StageFilesProcessor {
 
     if (canListFiles) {
       try {
-        List<String> stageFiles = conn.listStage(stageName, prefix);
+        List<String> stageFiles = listStage();
         result.setFileCountRestart(stageFiles.size());
       } catch (Exception err) {
         LOGGER.warn(
@@ -0,0 +1,70 @@
+package com.snowflake.kafka.connector.internal;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+
+/**
+ * Content of a stage shared by the file processors of all partitions loading into the table of the
+ * stage.
+ *
+ * <p>Instead of listing the files of every partition separately, the files of the whole table are
+ * listed once and reused by every partition during the refresh interval, each partition picking
+ * the files matching its own prefix.
+ */
+class StageListingCache {
+  private static final KCLogger LOGGER = new KCLogger(StageListingCache.class.getName());
+
+  private final SnowflakeConnectionService conn;
+  private final String stageName;
+  private final String tablePrefix;
+  private final long refreshIntervalMs;
+  private final StageFilesProcessor.TimeSupplier timeSupplier;
+
+  @Nullable private List<String> stageFiles;
+  private long listingTimestamp;
+
+  /**
+   * @param conn connection service
+   * @param stageName stage of the table
+   * @param tablePrefix prefix common to the stage files of all partitions
+   * @param refreshIntervalMs time a listing is reused
+   */
+  StageListingCache(
+      SnowflakeConnectionService conn,
+      String stageName,
+      String tablePrefix,
+      long refreshIntervalMs) {
+    this(conn, stageName, tablePrefix, refreshIntervalMs, System::currentTimeMillis);
+  }
+
+  @VisibleForTesting
+  StageListingCache(
+      SnowflakeConnectionService conn,
+      String stageName,
+      String tablePrefix,
+      long refreshIntervalMs,
+      StageFilesProcessor.TimeSupplier timeSupplier) {
+    this.conn = conn;
+    this.stageName = stageName;
+    this.tablePrefix = tablePrefix;
+    this.refreshIntervalMs = refreshIntervalMs;
+    this.timeSupplier = timeSupplier;
+  }
+
+  /**
+   * @param prefix stage file prefix of a partition
+   * @return files on stage matching the prefix, as of the last listing
+   */
+  synchronized List<String> listStage(String prefix) {
+    long now = timeSupplier.currentTime();
+    if (stageFiles == null || now - listingTimestamp >= refreshIntervalMs) {
+      stageFiles = conn.listStage(stageName, tablePrefix);
+      listingTimestamp = now;
+      LOGGER.debug(
+          "listed {} files with prefix {} on stage {}", stageFiles.size(), tablePrefix, stageName);
+    }
+    return stageFiles.stream().filter(name -> name.startsWith(prefix)).collect(Collectors.toList());
+  }
+}
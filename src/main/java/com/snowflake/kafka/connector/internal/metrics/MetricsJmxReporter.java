@@ -1,16 +1,26 @@
 package com.snowflake.kafka.connector.internal.metrics;
 
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.CACHE_HIT_COUNT;
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.CACHE_MISS_COUNT;
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.CACHE_SUB_DOMAIN;
 import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.JMX_METRIC_PREFIX;
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.constructMetricName;
 
+import com.codahale.metrics.Gauge;
 import com.codahale.metrics.MetricFilter;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.jmx.JmxReporter;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Splitter;
+import com.google.common.cache.CacheStats;
 import com.snowflake.kafka.connector.internal.KCLogger;
 import com.snowflake.kafka.connector.internal.SnowflakeErrors;
 import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
 import javax.management.MalformedObjectNameException;
 import javax.management.ObjectName;
 
@@ -33,8 +43,14 @@ public class MetricsJmxReporter {
    */
   private final JmxReporter jmxReporter;
 
+  private final String connectorName;
+
+  // table of each pipe or channel whose metrics are registered, used as label by the exporters
+  private final Map<String, String> tableNames = new ConcurrentHashMap<>();
+
   public MetricsJmxReporter(MetricRegistry metricRegistry, final String connectorName) {
     this.metricRegistry = metricRegistry;
+    this.connectorName = connectorName;
     this.jmxReporter = createJMXReporter(connectorName);
   }
 
@@ -42,6 +58,29 @@ public class MetricsJmxReporter {
     return metricRegistry;
   }
 
+  public String getConnectorName() {
+    return connectorName;
+  }
+
+  /**
+   * Records the table of a pipe or channel, until its metrics are removed from the registry.
+   *
+   * @param pipeName pipe or channel name, as used in the metric names
+   * @param tableName table the pipe or channel ingests into
+   */
+  public void registerTableName(final String pipeName, final String tableName) {
+    tableNames.put(pipeName, tableName);
+  }
+
+  /**
+   * @param pipeName pipe or channel name, as used in the metric names
+   * @return table the pipe or channel ingests into, null for metrics not tied to a table
+   */
+  @Nullable
+  public String getTableName(final String pipeName) {
+    return tableNames.get(pipeName);
+  }
+
   /**
    * This function will internally register all metrics present inside metric registry and will
    * register mbeans to the mbeanserver
@@ -90,6 +129,7 @@ public class MetricsJmxReporter {
    * @param prefixFilter prefix for removing the filter.
    */
   public void removeMetricsFromRegistry(final String prefixFilter) {
+    tableNames.remove(prefixFilter);
     if (metricRegistry.getMetrics().size() != 0) {
       LOGGER.debug("Unregistering all metrics for pipe:{}", prefixFilter);
       metricRegistry.removeMatching(MetricFilter.startsWith(prefixFilter));
@@ -101,6 +141,26 @@ public class MetricsJmxReporter {
     }
   }
 
+  /**
+   * Registers hit and miss count gauges of a cache. These metrics are not tied to a pipe or channel,
+   * the cache name takes the place of the pipe name in the metric name.
+   *
+   * @param cacheName name of the cache, e.g. {@link MetricsUtil#ROW_MAPPER_CACHE}
+   * @param cacheStats supplier of the current cache statistics
+   */
+  public void registerCacheMetrics(final String cacheName, Supplier<CacheStats> cacheStats) {
+    try {
+      metricRegistry.register(
+          constructMetricName(cacheName, CACHE_SUB_DOMAIN, CACHE_HIT_COUNT),
+          (Gauge<Long>) () -> cacheStats.get().hitCount());
+      metricRegistry.register(
+          constructMetricName(cacheName, CACHE_SUB_DOMAIN, CACHE_MISS_COUNT),
+          (Gauge<Long>) () -> cacheStats.get().missCount());
+    } catch (IllegalArgumentException ex) {
+      LOGGER.warn("Metrics already present:{}", ex.getMessage());
+    }
+  }
+
   /**
    * Create JMXReporter Instance, which internally handles the mbean server fetching and
    * registration of Mbeans. We use codehale metrics library to achieve this. More details
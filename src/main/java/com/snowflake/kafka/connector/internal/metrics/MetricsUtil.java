@@ -83,6 +83,75 @@ public class MetricsUtil {
 
   public static final String LATENCY_SUB_DOMAIN = "latencies";
 
+  /**
+   * Streaming channel close metrics of a task, the name takes the place of the pipe name as these
+   * metrics are not tied to a channel
+   */
+  public static final String CHANNEL_CLOSE = "channel-close";
+
+  /** Time it took to close a channel, registered under the channel name */
+  public static final String CHANNEL_CLOSE_DURATION = "close-duration";
+
+  /** Number of channels which did not close within the close timeout */
+  public static final String CHANNEL_CLOSE_TIMEOUT_COUNT = "close-timeout-count";
+
+  /**
+   * Dead letter queue reporting metrics of a task, the name takes the place of the pipe name as
+   * these metrics are not tied to a channel
+   */
+  public static final String DLQ_REPORTER = "dlq-reporter";
+
+  /** Time from sending a record to the DLQ until it was seen written to the DLQ topic */
+  public static final String DLQ_REPORT_DURATION = "report-duration";
+
+  /** Number of records sent to the DLQ which were not written yet, in the buffer sub domain */
+  public static final String DLQ_IN_FLIGHT_RECORD_COUNT = "in-flight-record-count";
+
+  /**
+   * Streaming channel metrics aggregated over all channels of a task, the name takes the place of
+   * the channel name
+   */
+  public static final String TASK_CHANNELS = "task-channels";
+
+  /** Time it took to convert a record into a row of a streaming channel */
+  public static final String TRANSFORM_DURATION = "transform-duration";
+
+  /** Time it took to hand rows to a streaming channel with insertRow or insertRows */
+  public static final String INSERT_ROWS_DURATION = "insert-rows-duration";
+
+  /**
+   * Time in milliseconds from the timestamp of a record until its offset was seen persisted in
+   * Snowflake. Only sampled for the first record of every batch of a channel.
+   */
+  public static final String END_TO_END_LAG = "end-to-end-lag";
+
+  // Streaming channel throughput related constants
+  public static final String THROUGHPUT_SUB_DOMAIN = "throughput";
+
+  /** Rows handed to streaming channels */
+  public static final String INSERTED_RECORDS = "inserted-records";
+
+  // Streaming channel recovery related constants
+  public static final String CHANNEL_SUB_DOMAIN = "channel";
+
+  /** Number of times a streaming channel was reopened */
+  public static final String CHANNEL_REOPEN_COUNT = "reopen-count";
+
+  /** Number of times inserting rows failed and the insert fallback reopened the channel */
+  public static final String INSERT_FALLBACK_COUNT = "insert-fallback-count";
+
+  // Cache related constants
+  public static final String CACHE_SUB_DOMAIN = "cache";
+
+  /** Name of the cache holding compiled per-schema mappings of Struct values into rows */
+  public static final String ROW_MAPPER_CACHE = "row-mapper";
+
+  /** Number of lookups which found an entry in the cache */
+  public static final String CACHE_HIT_COUNT = "hit-count";
+
+  /** Number of lookups which did not find an entry in the cache */
+  public static final String CACHE_MISS_COUNT = "miss-count";
+
   // ************ Streaming Constants ************//
   /**
    * See {@link com.snowflake.kafka.connector.internal.streaming.DirectTopicPartitionChannel} for
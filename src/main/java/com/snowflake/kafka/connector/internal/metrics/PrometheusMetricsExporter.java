@@ -0,0 +1,401 @@
+package com.snowflake.kafka.connector.internal.metrics;
+
+import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.METRICS_PROMETHEUS_BIND_ADDRESS;
+import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.METRICS_PROMETHEUS_BIND_ADDRESS_DEFAULT;
+import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.METRICS_PROMETHEUS_ENABLED;
+import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.METRICS_PROMETHEUS_ENABLED_DEFAULT;
+import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.METRICS_PROMETHEUS_LABELS;
+import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.METRICS_PROMETHEUS_LABELS_DEFAULT;
+import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.METRICS_PROMETHEUS_PORT;
+import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.METRICS_PROMETHEUS_PORT_DEFAULT;
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.JMX_METRIC_PREFIX;
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.OFFSET_SUB_DOMAIN;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.Timer;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Splitter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.snowflake.kafka.connector.internal.KCLogger;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+
+/**
+ * Serves the metrics of the {@link MetricsJmxReporter}s added to it in the Prometheus text format
+ * on {@code http://<bindAddress>:<port>/metrics}, as an alternative to scraping one MBean per
+ * metric and pipe or channel through JMX. The endpoint is bound to the loopback address unless
+ * another address is configured.
+ *
+ * <p>A metric named {@code pipeName/subDomain/metricName} is exported as {@code
+ * snowflake_kafka_connector_<subDomain>_<metricName>} with the connector, the pipe or channel and
+ * its table as labels. With {@link LabelAggregation#TABLE} the metrics of all pipes or channels of
+ * a table are exported as a single series, see {@link LabelAggregation}.
+ *
+ * <p>All tasks of a worker using the same port share one exporter, the HTTP server is stopped once
+ * the last of them released it.
+ */
+public class PrometheusMetricsExporter {
+  private static final KCLogger LOGGER = new KCLogger(PrometheusMetricsExporter.class.getName());
+
+  private static final String METRICS_PATH = "/metrics";
+  private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+  private static final String NAME_PREFIX = JMX_METRIC_PREFIX.replace('.', '_') + "_";
+  private static final double[] QUANTILES = {0.5, 0.75, 0.95, 0.98, 0.99, 0.999};
+
+  // exporters of this worker keyed by port
+  private static final Map<Integer, PrometheusMetricsExporter> EXPORTERS = new HashMap<>();
+
+  /** Labels of the exported series, which bound the number of series of a connector. */
+  public enum LabelAggregation {
+    /** One series per pipe or channel, i.e. per partition */
+    CHANNEL,
+
+    /**
+     * One series per table, metrics of pipes or channels of the same table are summed. Quantiles
+     * are the maximum over the pipes or channels and offset gauges, which cannot be summed, are not
+     * exported. Metrics not tied to a table, e.g. of a cache, keep their pipe label.
+     */
+    TABLE,
+    ;
+
+    public static LabelAggregation of(String value) {
+      return valueOf(value.toUpperCase(Locale.ROOT));
+    }
+  }
+
+  private final String bindAddress;
+  private final int port;
+  private final LabelAggregation labelAggregation;
+  private final HttpServer server;
+  private final ExecutorService executor;
+  private final Set<MetricsJmxReporter> reporters = ConcurrentHashMap.newKeySet();
+
+  // guarded by the class
+  private int references = 0;
+
+  private PrometheusMetricsExporter(
+      String bindAddress, int port, LabelAggregation labelAggregation) throws IOException {
+    this.bindAddress = bindAddress;
+    this.labelAggregation = labelAggregation;
+    this.server = HttpServer.create(new InetSocketAddress(bindAddress, port), 0);
+    this.executor =
+        Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder()
+                .setNameFormat("snowflake-prometheus-exporter-%d")
+                .setDaemon(true)
+                .build());
+    this.server.createContext(METRICS_PATH, this::handleScrape);
+    this.server.setExecutor(executor);
+    this.server.start();
+    this.port = server.getAddress().getPort();
+  }
+
+  /**
+   * Gets the exporter serving the port, starting it if no task of the worker uses the port yet.
+   * Every call must be followed by a call of {@link #release()}.
+   *
+   * @param bindAddress address the HTTP server is bound to, the exporter keeps the address it was
+   *     started with
+   * @param port port of the HTTP server, 0 to use any free port
+   * @param labelAggregation labels of the exported series, the exporter keeps the labels it was
+   *     started with
+   * @return exporter serving the port
+   * @throws UncheckedIOException if the HTTP server cannot be started
+   */
+  public static PrometheusMetricsExporter acquire(
+      String bindAddress, int port, LabelAggregation labelAggregation) {
+    synchronized (PrometheusMetricsExporter.class) {
+      PrometheusMetricsExporter exporter = EXPORTERS.get(port);
+      if (exporter == null) {
+        try {
+          exporter = new PrometheusMetricsExporter(bindAddress, port, labelAggregation);
+        } catch (IOException e) {
+          throw new UncheckedIOException(
+              "Could not start the Prometheus metrics exporter on " + bindAddress + ":" + port, e);
+        }
+        if (port != 0) {
+          EXPORTERS.put(port, exporter);
+        }
+        LOGGER.info(
+            "Started Prometheus metrics exporter on address:{}, port:{}, labels:{}",
+            bindAddress,
+            exporter.port,
+            labelAggregation);
+      } else if (!exporter.bindAddress.equals(bindAddress)) {
+        LOGGER.warn(
+            "Prometheus metrics exporter on port:{} is already bound to address:{}, ignoring"
+                + " address:{}",
+            port,
+            exporter.bindAddress,
+            bindAddress);
+      }
+      if (exporter.labelAggregation != labelAggregation) {
+        LOGGER.warn(
+            "Prometheus metrics exporter on port:{} already exports labels:{}, ignoring labels:{}",
+            port,
+            exporter.labelAggregation,
+            labelAggregation);
+      }
+      exporter.references++;
+      return exporter;
+    }
+  }
+
+  /**
+   * Gets the exporter configured for the connector.
+   *
+   * @param connectorConfig connector config
+   * @return exporter serving the configured port, null if the exporter is disabled
+   */
+  @Nullable
+  public static PrometheusMetricsExporter acquireIfEnabled(Map<String, String> connectorConfig) {
+    final boolean enabled =
+        Optional.ofNullable(connectorConfig.get(METRICS_PROMETHEUS_ENABLED))
+            .map(Boolean::parseBoolean)
+            .orElse(METRICS_PROMETHEUS_ENABLED_DEFAULT);
+    if (!enabled) {
+      return null;
+    }
+    final int port =
+        Optional.ofNullable(connectorConfig.get(METRICS_PROMETHEUS_PORT))
+            .map(Integer::parseInt)
+            .orElse(METRICS_PROMETHEUS_PORT_DEFAULT);
+    final String bindAddress =
+        connectorConfig.getOrDefault(
+            METRICS_PROMETHEUS_BIND_ADDRESS, METRICS_PROMETHEUS_BIND_ADDRESS_DEFAULT);
+    final LabelAggregation labelAggregation =
+        LabelAggregation.of(
+            connectorConfig.getOrDefault(
+                METRICS_PROMETHEUS_LABELS, METRICS_PROMETHEUS_LABELS_DEFAULT));
+    return acquire(bindAddress, port, labelAggregation);
+  }
+
+  /** Releases the exporter, the HTTP server is stopped once every task released it. */
+  public void release() {
+    synchronized (PrometheusMetricsExporter.class) {
+      if (--references > 0) {
+        return;
+      }
+      EXPORTERS.remove(port, this);
+    }
+    server.stop(0);
+    executor.shutdown();
+    LOGGER.info("Stopped Prometheus metrics exporter on port:{}", port);
+  }
+
+  /** @param reporter reporter whose metrics are exported until it is removed */
+  public void addReporter(MetricsJmxReporter reporter) {
+    reporters.add(reporter);
+  }
+
+  /** @param reporter reporter whose metrics are not exported anymore */
+  public void removeReporter(MetricsJmxReporter reporter) {
+    reporters.remove(reporter);
+  }
+
+  public int getPort() {
+    return port;
+  }
+
+  @VisibleForTesting
+  InetSocketAddress getAddress() {
+    return server.getAddress();
+  }
+
+  private void handleScrape(HttpExchange exchange) throws IOException {
+    try {
+      if (!"GET".equals(exchange.getRequestMethod())) {
+        exchange.sendResponseHeaders(405, -1);
+        return;
+      }
+      byte[] body = scrape(reporters, labelAggregation).getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+      exchange.sendResponseHeaders(200, body.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(body);
+      }
+    } catch (RuntimeException e) {
+      LOGGER.warn("Could not export metrics: {}", e.getMessage());
+      exchange.sendResponseHeaders(500, -1);
+    } finally {
+      exchange.close();
+    }
+  }
+
+  /**
+   * Formats the metrics of the reporters in the Prometheus text format.
+   *
+   * @param reporters reporters whose metrics are formatted
+   * @param labelAggregation labels of the series
+   * @return metrics in the Prometheus text format
+   */
+  @VisibleForTesting
+  static String scrape(
+      Collection<MetricsJmxReporter> reporters, LabelAggregation labelAggregation) {
+    Map<String, Family> families = new TreeMap<>();
+    for (MetricsJmxReporter reporter : reporters) {
+      for (Map.Entry<String, Metric> entry : reporter.getMetricRegistry().getMetrics().entrySet()) {
+        // each metric name is in a form pipeName/subDomain/metricName
+        List<String> tokens = Splitter.on('/').splitToList(entry.getKey());
+        if (tokens.size() != 3) {
+          continue;
+        }
+        String pipeName = tokens.get(0);
+        String subDomain = tokens.get(1);
+        @Nullable String tableName = reporter.getTableName(pipeName);
+        boolean aggregated = labelAggregation == LabelAggregation.TABLE && tableName != null;
+        if (aggregated && OFFSET_SUB_DOMAIN.equals(subDomain)) {
+          continue;
+        }
+
+        StringBuilder labels = new StringBuilder();
+        appendLabel(labels, "connector", reporter.getConnectorName());
+        if (!aggregated) {
+          appendLabel(labels, "pipe", pipeName);
+        }
+        if (tableName != null) {
+          appendLabel(labels, "table", tableName);
+        }
+        addSample(families, NAME_PREFIX + sanitize(subDomain + "_" + tokens.get(2)), labels, entry);
+      }
+    }
+
+    StringBuilder out = new StringBuilder();
+    families.forEach((name, family) -> family.write(name, out));
+    return out.toString();
+  }
+
+  private static void addSample(
+      Map<String, Family> families,
+      String name,
+      StringBuilder labels,
+      Map.Entry<String, Metric> entry) {
+    Metric metric = entry.getValue();
+    if (metric instanceof Gauge) {
+      Object value = ((Gauge<?>) metric).getValue();
+      if (value instanceof Number) {
+        family(families, name, "gauge").add(labels, ((Number) value).doubleValue());
+      } else if (value instanceof Boolean) {
+        family(families, name, "gauge").add(labels, (Boolean) value ? 1 : 0);
+      }
+    } else if (metric instanceof Counter) {
+      family(families, name, "gauge").add(labels, ((Counter) metric).getCount());
+    } else if (metric instanceof Meter) {
+      family(families, name + "_total", "counter").add(labels, ((Meter) metric).getCount());
+    } else if (metric instanceof Timer) {
+      Timer timer = (Timer) metric;
+      // durations in seconds, as exported through JMX
+      family(families, name, "summary")
+          .addSummary(labels, timer.getCount(), timer.getSnapshot(), TimeUnit.SECONDS.toNanos(1));
+    } else if (metric instanceof Histogram) {
+      Histogram histogram = (Histogram) metric;
+      family(families, name, "summary")
+          .addSummary(labels, histogram.getCount(), histogram.getSnapshot(), 1);
+    } else {
+      LOGGER.debug("Not exporting metric:{} of type:{}", entry.getKey(), metric.getClass());
+    }
+  }
+
+  private static Family family(Map<String, Family> families, String name, String type) {
+    return families.computeIfAbsent(name, ignored -> new Family(type));
+  }
+
+  private static void appendLabel(StringBuilder labels, String name, String value) {
+    if (labels.length() > 0) {
+      labels.append(',');
+    }
+    labels.append(name).append("=\"");
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '\\' || c == '"') {
+        labels.append('\\').append(c);
+      } else if (c == '\n') {
+        labels.append("\\n");
+      } else {
+        labels.append(c);
+      }
+    }
+    labels.append('"');
+  }
+
+  private static String sanitize(String name) {
+    return name.replaceAll("[^a-zA-Z0-9_]", "_");
+  }
+
+  /** Series of a metric, samples with the same labels are summed. */
+  private static class Family {
+    private final String type;
+    private final Map<String, Sample> samples = new TreeMap<>();
+
+    private Family(String type) {
+      this.type = type;
+    }
+
+    private void add(CharSequence labels, double value) {
+      samples.computeIfAbsent(labels.toString(), ignored -> new Sample()).value += value;
+    }
+
+    private void addSummary(CharSequence labels, long count, Snapshot snapshot, double divisor) {
+      Sample sample = samples.computeIfAbsent(labels.toString(), ignored -> new Sample());
+      sample.value += count;
+      if (sample.quantiles == null) {
+        sample.quantiles = new double[QUANTILES.length];
+      }
+      for (int i = 0; i < QUANTILES.length; i++) {
+        sample.quantiles[i] =
+            Math.max(sample.quantiles[i], snapshot.getValue(QUANTILES[i]) / divisor);
+      }
+    }
+
+    private void write(String name, StringBuilder out) {
+      out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+      samples.forEach(
+          (labels, sample) -> {
+            if (sample.quantiles == null) {
+              writeSample(out, name, labels, sample.value);
+              return;
+            }
+            for (int i = 0; i < QUANTILES.length; i++) {
+              writeSample(
+                  out,
+                  name,
+                  labels + ",quantile=\"" + QUANTILES[i] + "\"",
+                  sample.quantiles[i]);
+            }
+            writeSample(out, name + "_count", labels, sample.value);
+          });
+    }
+
+    private static void writeSample(StringBuilder out, String name, String labels, double value) {
+      out.append(name).append('{').append(labels).append("} ").append(value).append('\n');
+    }
+  }
+
+  private static class Sample {
+    private double value;
+    @Nullable private double[] quantiles;
+  }
+}
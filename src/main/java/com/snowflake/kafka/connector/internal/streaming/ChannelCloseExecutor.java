@@ -0,0 +1,198 @@
+package com.snowflake.kafka.connector.internal.streaming;
+
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.CHANNEL_CLOSE;
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.CHANNEL_CLOSE_DURATION;
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.CHANNEL_CLOSE_TIMEOUT_COUNT;
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.CHANNEL_SUB_DOMAIN;
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.LATENCY_SUB_DOMAIN;
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.constructMetricName;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.snowflake.kafka.connector.internal.KCLogger;
+import com.snowflake.kafka.connector.internal.streaming.channel.TopicPartitionChannel;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import javax.annotation.Nullable;
+
+/**
+ * Closes streaming channels on a bounded number of threads, each thread waiting for one channel at
+ * a time until it is closed or until the close timeout elapsed. All channels passed to {@link
+ * #closeChannels} share a total timeout on top of that, channels still waiting for a thread when it
+ * elapses are only asked to close and not waited for.
+ *
+ * <p>A channel which does not close in time is left flushing in the background, so that a single
+ * slow channel does not hold up a rebalance or the task shutdown for the whole flush time of the
+ * ingest sdk. The offsets committed to Kafka are the offsets persisted in Snowflake, rows which
+ * were not flushed yet are sent again by Kafka.
+ */
+class ChannelCloseExecutor {
+  private static final KCLogger LOGGER = new KCLogger(ChannelCloseExecutor.class.getName());
+
+  private static final long NO_TIMEOUT = -1;
+
+  private final ExecutorService executor;
+  private final long closeTimeoutMs;
+  private final long closeAllTimeoutMs;
+
+  // null if custom JMX monitoring is disabled
+  @Nullable private final MetricRegistry metricRegistry;
+  @Nullable private final Counter closeTimeouts;
+
+  /**
+   * @param parallelism number of channels closed at the same time
+   * @param closeTimeoutMs time to wait for a single channel to close, 0 to wait until it is closed
+   * @param closeAllTimeoutMs time to wait for all channels of one {@link #closeChannels} call to
+   *     close, 0 to wait until every channel is closed or timed out
+   * @param metricRegistry registry of the task metrics, null if custom JMX monitoring is disabled
+   */
+  ChannelCloseExecutor(
+      int parallelism,
+      long closeTimeoutMs,
+      long closeAllTimeoutMs,
+      @Nullable MetricRegistry metricRegistry) {
+    this.executor =
+        Executors.newFixedThreadPool(
+            parallelism,
+            new ThreadFactoryBuilder()
+                .setNameFormat("snowflake-streaming-close-channel-%d")
+                .setDaemon(true)
+                .build());
+    this.closeTimeoutMs = closeTimeoutMs;
+    this.closeAllTimeoutMs = closeAllTimeoutMs;
+    this.metricRegistry = metricRegistry;
+    this.closeTimeouts =
+        metricRegistry == null
+            ? null
+            : metricRegistry.counter(
+                constructMetricName(
+                    CHANNEL_CLOSE, CHANNEL_SUB_DOMAIN, CHANNEL_CLOSE_TIMEOUT_COUNT));
+  }
+
+  /**
+   * Closes the channels and waits until every channel is closed or timed out, but not longer than
+   * the total close timeout.
+   *
+   * @param channels channels to close keyed by partition channel key
+   */
+  void closeChannels(Map<String, TopicPartitionChannel> channels) {
+    final long deadlineNanos =
+        System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(closeAllTimeoutMs);
+    CompletableFuture<?>[] futures =
+        channels.entrySet().stream()
+            .map(
+                entry ->
+                    CompletableFuture.runAsync(
+                        () -> closeChannel(entry.getKey(), entry.getValue(), deadlineNanos),
+                        executor))
+            .toArray(CompletableFuture[]::new);
+
+    CompletableFuture<Void> allClosed = CompletableFuture.allOf(futures);
+    if (closeAllTimeoutMs <= 0) {
+      allClosed.join();
+      return;
+    }
+    try {
+      allClosed.get(closeAllTimeoutMs, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      long pending = Arrays.stream(futures).filter(future -> !future.isDone()).count();
+      LOGGER.warn(
+          "{} of {} partition channels did not close within {} ms, they keep closing in the"
+              + " background",
+          pending,
+          futures.length,
+          closeAllTimeoutMs);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CompletionException(e);
+    } catch (ExecutionException e) {
+      throw new CompletionException(e.getCause());
+    }
+  }
+
+  /**
+   * Closes a single channel without waiting for it, used for channels which are closed outside of
+   * a rebalance. The close timeouts apply as if the channel was passed to {@link #closeChannels}
+   * alone.
+   *
+   * @param partitionChannelKey partition channel key of the channel
+   * @param channel channel to close
+   * @return future completed once the channel is closed or timed out
+   */
+  CompletableFuture<Void> closeChannelAsync(
+      String partitionChannelKey, TopicPartitionChannel channel) {
+    final long deadlineNanos =
+        System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(closeAllTimeoutMs);
+    return CompletableFuture.runAsync(
+        () -> closeChannel(partitionChannelKey, channel, deadlineNanos), executor);
+  }
+
+  private void closeChannel(
+      String partitionChannelKey, TopicPartitionChannel channel, long deadlineNanos) {
+    LOGGER.info("Closing partition channel:{}", partitionChannelKey);
+    final long startTime = System.nanoTime();
+    final long timeoutMs = timeoutMs(startTime, deadlineNanos);
+    try {
+      CompletableFuture<Void> closed = channel.closeChannelAsync();
+      if (timeoutMs == NO_TIMEOUT) {
+        closed.get();
+      } else {
+        closed.get(timeoutMs, TimeUnit.MILLISECONDS);
+      }
+    } catch (TimeoutException e) {
+      LOGGER.warn(
+          "Partition channel:{} did not close within {} ms, it keeps flushing in the background",
+          partitionChannelKey,
+          timeoutMs);
+      if (closeTimeouts != null) {
+        closeTimeouts.inc();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CompletionException(e);
+    } catch (ExecutionException e) {
+      // the channel only fails the close future on errors other than SFException
+      throw new CompletionException(e.getCause());
+    } finally {
+      final long durationNanos = System.nanoTime() - startTime;
+      if (metricRegistry != null) {
+        // the channel metrics are unregistered on close, the duration stays visible until the
+        // channel is opened again
+        metricRegistry
+            .timer(
+                constructMetricName(
+                    channel.getChannelNameFormatV1(), LATENCY_SUB_DOMAIN, CHANNEL_CLOSE_DURATION))
+            .update(durationNanos, TimeUnit.NANOSECONDS);
+      }
+      LOGGER.info(
+          "Closing partition channel:{} took {} ms",
+          partitionChannelKey,
+          TimeUnit.NANOSECONDS.toMillis(durationNanos));
+    }
+  }
+
+  /**
+   * @return time to wait for a channel whose close started at the given time, the shorter of the
+   *     close timeout and the time left until the deadline of all channels
+   */
+  private long timeoutMs(long startTimeNanos, long deadlineNanos) {
+    if (closeAllTimeoutMs <= 0) {
+      return closeTimeoutMs > 0 ? closeTimeoutMs : NO_TIMEOUT;
+    }
+    long remainingMs =
+        Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadlineNanos - startTimeNanos));
+    return closeTimeoutMs > 0 ? Math.min(closeTimeoutMs, remainingMs) : remainingMs;
+  }
+
+  void shutdown() {
+    executor.shutdown();
+  }
+}
@@ -0,0 +1,71 @@
+package com.snowflake.kafka.connector.internal.streaming;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.snowflake.kafka.connector.internal.streaming.channel.TopicPartitionChannel;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
+import org.apache.kafka.connect.sink.SinkRecord;
+
+/**
+ * Inserts the records of different partitions on a bounded number of threads. All records of one
+ * partition are inserted by a single thread in the order they were received, so the order of the
+ * records within a partition is kept.
+ */
+class ChannelInsertExecutor {
+  private final ExecutorService executor;
+
+  /** @param parallelism number of partitions inserted at the same time */
+  ChannelInsertExecutor(int parallelism) {
+    this.executor =
+        Executors.newFixedThreadPool(
+            parallelism,
+            new ThreadFactoryBuilder()
+                .setNameFormat("snowflake-streaming-insert-%d")
+                .setDaemon(true)
+                .build());
+  }
+
+  /**
+   * Inserts the records of every channel in parallel and returns once all of them are done. The
+   * records of a single channel are inserted on the calling thread.
+   *
+   * @param recordsPerChannel records of each channel, in the order they were received
+   * @param insert inserts the records of one channel
+   * @throws RuntimeException the exception thrown by a failed insert, once all inserts are done
+   */
+  void insertRecords(
+      Map<TopicPartitionChannel, List<SinkRecord>> recordsPerChannel,
+      BiConsumer<TopicPartitionChannel, List<SinkRecord>> insert) {
+    if (recordsPerChannel.size() <= 1) {
+      recordsPerChannel.forEach(insert);
+      return;
+    }
+
+    CompletableFuture<?>[] futures =
+        recordsPerChannel.entrySet().stream()
+            .map(
+                entry ->
+                    CompletableFuture.runAsync(
+                        () -> insert.accept(entry.getKey(), entry.getValue()), executor))
+            .toArray(CompletableFuture[]::new);
+
+    try {
+      CompletableFuture.allOf(futures).join();
+    } catch (CompletionException e) {
+      // rethrow the original exception, so that the task fails the same way as in sequential mode
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  void shutdown() {
+    executor.shutdown();
+  }
+}
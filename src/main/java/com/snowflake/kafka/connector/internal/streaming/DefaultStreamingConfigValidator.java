@@ -8,6 +8,7 @@ import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.ERRORS_
 import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.ERRORS_TOLERANCE_CONFIG;
 import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.INGESTION_METHOD_OPT;
 import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.KEY_CONVERTER_CONFIG_FIELD;
+import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.SNOWPIPE_STREAMING_CLIENT_SIDE_VALIDATION;
 import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.SNOWPIPE_STREAMING_MAX_CLIENT_LAG;
 import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.SNOWPIPE_STREAMING_MAX_MEMORY_LIMIT_IN_BYTES;
 import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.VALUE_CONVERTER_CONFIG_FIELD;
@@ -88,6 +89,8 @@ public class DefaultStreamingConfigValidator implements StreamingConfigValidator
 
           // Valid schematization for Snowpipe Streaming
           invalidParams.putAll(validateSchematizationConfig(inputConfig));
+
+          invalidParams.putAll(validateClientSideValidationConfig(inputConfig));
         }
       } catch (ConfigException exception) {
         invalidParams.put(
@@ -156,6 +159,39 @@ public class DefaultStreamingConfigValidator implements StreamingConfigValidator
     return invalidParams;
   }
 
+  /**
+   * Client side validation fetches the table schema using a key pair JWT and supports Snowflake
+   * tables only.
+   *
+   * <p>return a map of invalid params
+   */
+  private static Map<String, String> validateClientSideValidationConfig(
+      Map<String, String> inputConfig) {
+    Map<String, String> invalidParams = new HashMap<>();
+    if (!Boolean.parseBoolean(inputConfig.get(SNOWPIPE_STREAMING_CLIENT_SIDE_VALIDATION))) {
+      return invalidParams;
+    }
+
+    String authenticator =
+        inputConfig.getOrDefault(
+            SnowflakeSinkConnectorConfig.AUTHENTICATOR_TYPE, Utils.SNOWFLAKE_JWT);
+    if (!Utils.SNOWFLAKE_JWT.equalsIgnoreCase(authenticator)) {
+      invalidParams.put(
+          SNOWPIPE_STREAMING_CLIENT_SIDE_VALIDATION,
+          Utils.formatString(
+              "{} requires the {} authenticator.",
+              SNOWPIPE_STREAMING_CLIENT_SIDE_VALIDATION,
+              Utils.SNOWFLAKE_JWT));
+    } else if (Utils.isIcebergEnabled(inputConfig)) {
+      invalidParams.put(
+          SNOWPIPE_STREAMING_CLIENT_SIDE_VALIDATION,
+          Utils.formatString(
+              "{} is not supported for Iceberg tables.",
+              SNOWPIPE_STREAMING_CLIENT_SIDE_VALIDATION));
+    }
+    return invalidParams;
+  }
+
   /**
    * Validates if key and value converters are allowed values if {@link
    * IngestionMethodConfig#SNOWPIPE_STREAMING} is used.
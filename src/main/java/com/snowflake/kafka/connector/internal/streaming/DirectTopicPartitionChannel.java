@@ -24,25 +24,31 @@ import com.snowflake.kafka.connector.internal.streaming.schemaevolution.SchemaEv
 import com.snowflake.kafka.connector.internal.streaming.schemaevolution.SchemaEvolutionTargetItems;
 import com.snowflake.kafka.connector.internal.streaming.telemetry.SnowflakeTelemetryChannelCreation;
 import com.snowflake.kafka.connector.internal.streaming.telemetry.SnowflakeTelemetryChannelStatus;
+import com.snowflake.kafka.connector.internal.streaming.validation.RowSchema;
+import com.snowflake.kafka.connector.internal.streaming.validation.RowSchemaProvider;
 import com.snowflake.kafka.connector.internal.telemetry.SnowflakeTelemetryService;
 import com.snowflake.kafka.connector.records.RecordServiceFactory;
 import dev.failsafe.Failsafe;
 import dev.failsafe.FailsafeExecutor;
 import dev.failsafe.Fallback;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import net.snowflake.ingest.streaming.*;
 import net.snowflake.ingest.utils.SFException;
 import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.connect.errors.ConnectException;
+import org.apache.kafka.connect.errors.DataException;
 import org.apache.kafka.connect.sink.SinkRecord;
 import org.apache.kafka.connect.sink.SinkTaskContext;
 
@@ -122,6 +128,13 @@ public class DirectTopicPartitionChannel implements TopicPartitionChannel {
 
   private final StreamingErrorHandler streamingErrorHandler;
 
+  // Provides the table schema for client side validation, null if the validation is disabled. The
+  // provider caches the schema per table, so it is looked up for every row.
+  @Nullable private final RowSchemaProvider rowSchemaProvider;
+
+  // Set when the table schema could not be fetched, validation is skipped until channel reopen
+  private boolean rowSchemaUnavailable = false;
+
   /** Testing only, initialize TopicPartitionChannel without the connection service */
   @VisibleForTesting
   public DirectTopicPartitionChannel(
@@ -154,7 +167,8 @@ public class DirectTopicPartitionChannel implements TopicPartitionChannel {
         null,
         schemaEvolutionService,
         insertErrorMapper,
-        new StreamingErrorHandler(sfConnectorConfig, kafkaRecordErrorReporter, telemetryService));
+        new StreamingErrorHandler(sfConnectorConfig, kafkaRecordErrorReporter, telemetryService),
+        null);
   }
 
   /**
@@ -172,6 +186,8 @@ public class DirectTopicPartitionChannel implements TopicPartitionChannel {
    *     to Snowflake
    * @param insertErrorMapper Mapper to map insert errors to schema evolution items
    * @param streamingErrorHandler contains DLQ and error logging related logic
+   * @param rowSchemaProvider provides the table schema to validate rows before they are sent to
+   *     the channel, null if client side validation is disabled
    */
   public DirectTopicPartitionChannel(
       SnowflakeStreamingIngestClient streamingIngestClient,
@@ -188,7 +204,56 @@ public class DirectTopicPartitionChannel implements TopicPartitionChannel {
       MetricsJmxReporter metricsJmxReporter,
       SchemaEvolutionService schemaEvolutionService,
       InsertErrorMapper insertErrorMapper,
-      StreamingErrorHandler streamingErrorHandler) {
+      StreamingErrorHandler streamingErrorHandler,
+      @Nullable RowSchemaProvider rowSchemaProvider) {
+    this(
+        streamingIngestClient,
+        topicPartition,
+        channelNameFormatV1,
+        tableName,
+        enableSchemaEvolution,
+        sfConnectorConfig,
+        sinkTaskContext,
+        conn,
+        streamingRecordService,
+        telemetryService,
+        enableCustomJMXMonitoring,
+        metricsJmxReporter,
+        schemaEvolutionService,
+        insertErrorMapper,
+        streamingErrorHandler,
+        rowSchemaProvider,
+        true);
+  }
+
+  /**
+   * Same as {@link #DirectTopicPartitionChannel(SnowflakeStreamingIngestClient, TopicPartition,
+   * String, String, boolean, Map, SinkTaskContext, SnowflakeConnectionService,
+   * StreamingRecordService, SnowflakeTelemetryService, boolean, MetricsJmxReporter,
+   * SchemaEvolutionService, InsertErrorMapper, StreamingErrorHandler, RowSchemaProvider)}
+   *
+   * @param fetchOffsetTokenOnOpen if false, the committed offset token is not fetched after opening
+   *     the channel, the caller has to pass it to {@link #startFromOffsetToken(String)} before
+   *     using the channel
+   */
+  DirectTopicPartitionChannel(
+      SnowflakeStreamingIngestClient streamingIngestClient,
+      TopicPartition topicPartition,
+      final String channelNameFormatV1,
+      final String tableName,
+      final boolean enableSchemaEvolution,
+      final Map<String, String> sfConnectorConfig,
+      SinkTaskContext sinkTaskContext,
+      SnowflakeConnectionService conn,
+      StreamingRecordService streamingRecordService,
+      SnowflakeTelemetryService telemetryService,
+      boolean enableCustomJMXMonitoring,
+      MetricsJmxReporter metricsJmxReporter,
+      SchemaEvolutionService schemaEvolutionService,
+      InsertErrorMapper insertErrorMapper,
+      StreamingErrorHandler streamingErrorHandler,
+      @Nullable RowSchemaProvider rowSchemaProvider,
+      boolean fetchOffsetTokenOnOpen) {
     final long startTime = System.currentTimeMillis();
 
     this.streamingIngestClient = Preconditions.checkNotNull(streamingIngestClient);
@@ -228,10 +293,6 @@ public class DirectTopicPartitionChannel implements TopicPartitionChannel {
                 streamingApiFallbackSupplier(
                     StreamingApiFallbackInvoker.GET_OFFSET_TOKEN_FALLBACK));
 
-    final long lastCommittedOffsetToken = fetchOffsetTokenWithRetry();
-    this.offsetPersistedInSnowflake.set(lastCommittedOffsetToken);
-    this.processedOffset.set(lastCommittedOffsetToken);
-
     // setup telemetry and metrics
     String connectorName =
         conn == null || conn.getConnectorName() == null || conn.getConnectorName().isEmpty()
@@ -252,16 +313,70 @@ public class DirectTopicPartitionChannel implements TopicPartitionChannel {
         new SnowflakeTelemetryChannelCreation(this.tableName, this.channelNameFormatV1, startTime));
 
     this.insertErrorMapper = insertErrorMapper;
+    this.streamingErrorHandler = streamingErrorHandler;
+    this.rowSchemaProvider = rowSchemaProvider;
+
+    if (fetchOffsetTokenOnOpen) {
+      startFromCommittedOffset(fetchOffsetTokenWithRetry());
+    }
+  }
+
+  /**
+   * Starts the channel from an offset token fetched for several channels at once, right after the
+   * channel was opened.
+   *
+   * @param offsetToken committed offset token of the channel, null if Snowflake has none
+   */
+  void startFromOffsetToken(@Nullable String offsetToken) {
+    startFromCommittedOffset(parseOffsetToken(offsetToken));
+  }
+
+  /**
+   * Starts the channel from the committed offset token of the channel, fetched with retries. Used
+   * when the offset token could not be fetched along with other channels.
+   */
+  void startFromSnowflakeOffset() {
+    startFromCommittedOffset(fetchOffsetTokenWithRetry());
+  }
+
+  /**
+   * Resumes a channel which was kept open after its partition was revoked, see {@link
+   * RetainedChannelPool}. Kafka is asked to send the records following the last processed offset,
+   * the rows buffered before the partition was revoked are still flushed by the channel.
+   *
+   * @return false if the channel was closed or invalidated in the meantime and cannot be reused
+   */
+  boolean resumeRetainedChannel() {
+    if (this.channel.isClosed() || !this.channel.isValid()) {
+      LOGGER.info(
+          "Retained channel:{} is closed or invalid and is not reused",
+          this.getChannelNameFormatV1());
+      return false;
+    }
+    final long lastProcessedOffset = this.processedOffset.get();
+    if (lastProcessedOffset != NO_OFFSET_TOKEN_REGISTERED_IN_SNOWFLAKE) {
+      resetOffsetInKafka(lastProcessedOffset + 1L);
+    }
+    LOGGER.info(
+        "Reusing retained channel:{}, processedOffset:{}, offsetPersistedInSnowflake:{}",
+        this.getChannelNameFormatV1(),
+        lastProcessedOffset,
+        this.offsetPersistedInSnowflake.get());
+    return true;
+  }
+
+  private void startFromCommittedOffset(long lastCommittedOffsetToken) {
+    this.offsetPersistedInSnowflake.set(lastCommittedOffsetToken);
+    this.processedOffset.set(lastCommittedOffsetToken);
 
     if (lastCommittedOffsetToken != NO_OFFSET_TOKEN_REGISTERED_IN_SNOWFLAKE) {
-      this.sinkTaskContext.offset(this.topicPartition, lastCommittedOffsetToken + 1L);
+      resetOffsetInKafka(lastCommittedOffsetToken + 1L);
     } else {
       LOGGER.info(
           "TopicPartitionChannel:{}, offset token is NULL, will rely on Kafka to send us the"
               + " correct offset instead",
           this.getChannelNameFormatV1());
     }
-    this.streamingErrorHandler = streamingErrorHandler;
   }
 
   /**
@@ -319,6 +434,9 @@ public class DirectTopicPartitionChannel implements TopicPartitionChannel {
     // incoming record offset is 1 + the processed offset
     if (currentProcessedOffset == NO_OFFSET_TOKEN_REGISTERED_IN_SNOWFLAKE
         || kafkaSinkRecord.kafkaOffset() >= currentProcessedOffset + 1) {
+      if (isFirstRowPerPartitionInBatch) {
+        this.snowflakeTelemetryChannelStatus.sampleEndToEndLag(kafkaSinkRecord);
+      }
       transformAndSend(kafkaSinkRecord);
     } else {
       LOGGER.warn(
@@ -332,23 +450,240 @@ public class DirectTopicPartitionChannel implements TopicPartitionChannel {
   }
 
   private void transformAndSend(SinkRecord kafkaSinkRecord) {
-    try {
-      Map<String, Object> transformedRecord = streamingRecordService.transformData(kafkaSinkRecord);
-      if (!transformedRecord.isEmpty()) {
-        InsertValidationResponse response =
-            insertRowWithFallback(transformedRecord, kafkaSinkRecord.kafkaOffset());
-        this.processedOffset.set(kafkaSinkRecord.kafkaOffset());
+    Map<String, Object> transformedRecord = transformData(kafkaSinkRecord);
+    if (transformedRecord.isEmpty()) {
+      return;
+    }
+    if (isValidRow(transformedRecord, kafkaSinkRecord)) {
+      insertRow(transformedRecord, kafkaSinkRecord);
+    } else if (!needToSkipCurrentBatch) {
+      skipRejectedRows(kafkaSinkRecord.kafkaOffset(), kafkaSinkRecord.kafkaOffset());
+    }
+  }
 
-        if (response.hasErrors()) {
-          LOGGER.warn(
-              "insertRow for channel:{} resulted in errors:{},",
+  private Map<String, Object> transformData(SinkRecord kafkaSinkRecord) {
+    final long startTime = System.nanoTime();
+    Map<String, Object> transformedRecord = streamingRecordService.transformData(kafkaSinkRecord);
+    this.snowflakeTelemetryChannelStatus.recordTransform(System.nanoTime() - startTime);
+    return transformedRecord;
+  }
+
+  /**
+   * Validates the row against the table schema before it is sent to the channel, so that rows
+   * which are known to be rejected never enter the SDK buffer. Always true if client side
+   * validation is disabled or the table schema is not available.
+   *
+   * <p>An invalid row either triggers schema evolution, which reopens the channel and resets the
+   * offset in Kafka, or is passed to the error handler, exactly like a row rejected by the SDK. The
+   * offset of a row passed to the error handler must still be sent to the channel, see {@link
+   * #skipRejectedRows(long, long)}.
+   *
+   * @return true if the row should be sent to the channel
+   */
+  private boolean isValidRow(Map<String, Object> transformedRecord, SinkRecord kafkaSinkRecord) {
+    RowSchema currentRowSchema = getRowSchema();
+    if (currentRowSchema == null) {
+      return true;
+    }
+    RowSchema.Error error = currentRowSchema.validate(transformedRecord);
+    if (error == null) {
+      return true;
+    }
+
+    LOGGER.warn(
+        "Client side validation for channel:{} rejected offset:{}, error:{}",
+        this.getChannelNameFormatV1(),
+        kafkaSinkRecord.kafkaOffset(),
+        error.localizedMessage());
+    if (enableSchemaEvolution) {
+      SchemaEvolutionTargetItems schemaEvolutionTargetItems =
+          new SchemaEvolutionTargetItems(
+              this.tableName,
+              joinNullableLists(
+                  error.missingNotNullColNames(), error.nullValueForNotNullColNames()),
+              error.extraColNames());
+      if (schemaEvolutionTargetItems.hasDataForSchemaEvolution()) {
+        try {
+          Map<String, ColumnProperties> tableSchema = getTableSchemaFromChannel();
+          schemaEvolutionService.evolveSchemaIfNeeded(
+              schemaEvolutionTargetItems, kafkaSinkRecord, tableSchema);
+          streamingApiFallbackSupplier(
+              StreamingApiFallbackInvoker.INSERT_ROWS_SCHEMA_EVOLUTION_FALLBACK);
+          return false;
+        } catch (SnowflakeKafkaConnectorException e) {
+          LOGGER.error(
+              "Error while performing schema evolution for channel:{}",
               this.getChannelNameFormatV1(),
-              response.hasErrors());
+              e);
+          if (!Objects.equals(e.getCode(), SnowflakeErrors.ERROR_5026.getCode())) {
+            throw e;
+          }
+          streamingErrorHandler.handleError(Collections.singletonList(e), kafkaSinkRecord);
+          return false;
+        }
+      }
+    }
+
+    streamingErrorHandler.handleError(
+        Collections.singletonList(new DataException(error.localizedMessage(), error.cause())),
+        kafkaSinkRecord);
+    return false;
+  }
+
+  /** @return table schema for client side validation or null if the validation is not possible */
+  @Nullable
+  private RowSchema getRowSchema() {
+    if (rowSchemaProvider == null || rowSchemaUnavailable) {
+      return null;
+    }
+    try {
+      return rowSchemaProvider.getRowSchema(this.tableName, this.sfConnectorConfig);
+    } catch (RuntimeException e) {
+      LOGGER.warn(
+          "Failed to fetch schema of table:{}, skipping client side validation for channel:{}"
+              + " until it is reopened",
+          this.tableName,
+          this.getChannelNameFormatV1(),
+          e);
+      rowSchemaUnavailable = true;
+      return null;
+    }
+  }
 
-          handleInsertRowFailure(response.getInsertErrors(), kafkaSinkRecord);
+  private static List<String> joinNullableLists(
+      @Nullable List<String> list1, @Nullable List<String> list2) {
+    List<String> result = new ArrayList<>();
+    Optional.ofNullable(list1).ifPresent(result::addAll);
+    Optional.ofNullable(list2).ifPresent(result::addAll);
+    return result;
+  }
+
+  private void insertRow(Map<String, Object> transformedRecord, SinkRecord kafkaSinkRecord) {
+    try {
+      final long startTime = System.nanoTime();
+      InsertValidationResponse response =
+          insertRowWithFallback(transformedRecord, kafkaSinkRecord.kafkaOffset());
+      this.snowflakeTelemetryChannelStatus.recordInsert(System.nanoTime() - startTime, 1);
+      this.processedOffset.set(kafkaSinkRecord.kafkaOffset());
+
+      if (response.hasErrors()) {
+        LOGGER.warn(
+            "insertRow for channel:{} resulted in errors:{},",
+            this.getChannelNameFormatV1(),
+            response.hasErrors());
+
+        handleInsertRowFailure(response.getInsertErrors(), kafkaSinkRecord);
+      }
+    } catch (TopicPartitionChannelInsertionException ex) {
+      // Suppressing the exception because other channels might still continue to ingest
+      LOGGER.warn(
+          String.format(
+              "[INSERT_BUFFERED_RECORDS] Failure inserting rows for channel:%s",
+              this.getChannelNameFormatV1()),
+          ex);
+    }
+  }
+
+  /**
+   * Inserts all records of this partition from a single batch with one insertRows call.
+   *
+   * <p>Offsets are filtered and records are transformed exactly like in {@link
+   * #insertRecord(SinkRecord, boolean)}, the difference is that the transformed rows are sent to
+   * the channel together, so the fallback and the validation response are handled once per batch.
+   *
+   * @param kafkaSinkRecords records of this partition in the order they were received from Kafka
+   */
+  @Override
+  public void insertRecords(List<SinkRecord> kafkaSinkRecords) {
+    if (kafkaSinkRecords.isEmpty()) {
+      return;
+    }
+
+    // for backwards compatibility - set the consumer offset to be the first one received from kafka
+    if (currentConsumerGroupOffset.get() == NO_OFFSET_TOKEN_REGISTERED_IN_SNOWFLAKE) {
+      this.currentConsumerGroupOffset.set(kafkaSinkRecords.get(0).kafkaOffset());
+    }
+
+    // The given records always form a new batch
+    needToSkipCurrentBatch = false;
+
+    long lastAcceptedOffset = this.processedOffset.get();
+    long firstRejectedOffset = NO_OFFSET_TOKEN_REGISTERED_IN_SNOWFLAKE;
+    List<Map<String, Object>> transformedRecords = new ArrayList<>(kafkaSinkRecords.size());
+    List<SinkRecord> acceptedRecords = new ArrayList<>(kafkaSinkRecords.size());
+    for (SinkRecord kafkaSinkRecord : kafkaSinkRecords) {
+      // Accept the incoming record only if we don't have a valid offset token at server side, or
+      // the incoming record offset is 1 + the last accepted offset
+      if (lastAcceptedOffset != NO_OFFSET_TOKEN_REGISTERED_IN_SNOWFLAKE
+          && kafkaSinkRecord.kafkaOffset() < lastAcceptedOffset + 1) {
+        LOGGER.warn(
+            "Channel {} - skipping current record - expected offset {} but received {}. The"
+                + " current offset stored in Snowflake: {}",
+            this.getChannelNameFormatV1(),
+            lastAcceptedOffset,
+            kafkaSinkRecord.kafkaOffset(),
+            this.offsetPersistedInSnowflake.get());
+        continue;
+      }
+
+      Map<String, Object> transformedRecord = transformData(kafkaSinkRecord);
+      if (!transformedRecord.isEmpty() && !isValidRow(transformedRecord, kafkaSinkRecord)) {
+        if (needToSkipCurrentBatch) {
+          // The channel was reopened after schema evolution and the offset in Kafka was reset, the
+          // rows collected so far will be sent again
+          return;
+        }
+        // The rejected row was reported to the error handler, its offset is committed with the
+        // following rows or, if it is the last one, on its own
+        if (firstRejectedOffset == NO_OFFSET_TOKEN_REGISTERED_IN_SNOWFLAKE) {
+          firstRejectedOffset = kafkaSinkRecord.kafkaOffset();
         }
+        lastAcceptedOffset = kafkaSinkRecord.kafkaOffset();
+        continue;
       }
+      if (!transformedRecord.isEmpty()) {
+        transformedRecords.add(transformedRecord);
+        acceptedRecords.add(kafkaSinkRecord);
+        lastAcceptedOffset = kafkaSinkRecord.kafkaOffset();
+      }
+    }
+
+    if (!transformedRecords.isEmpty()) {
+      insertRows(transformedRecords, acceptedRecords, lastAcceptedOffset);
+    } else if (firstRejectedOffset != NO_OFFSET_TOKEN_REGISTERED_IN_SNOWFLAKE) {
+      skipRejectedRows(firstRejectedOffset, lastAcceptedOffset);
+    }
+  }
+
+  /**
+   * @param endOffset offset token of the last row, greater than the offset of the last record if
+   *     the batch ends with rows rejected by client side validation
+   */
+  private void insertRows(
+      List<Map<String, Object>> transformedRecords,
+      List<SinkRecord> kafkaSinkRecords,
+      long endOffset) {
+    final long startOffset = kafkaSinkRecords.get(0).kafkaOffset();
+    this.snowflakeTelemetryChannelStatus.sampleEndToEndLag(kafkaSinkRecords.get(0));
+    try {
+      final long startTime = System.nanoTime();
+      InsertValidationResponse response =
+          insertRowsWithFallback(transformedRecords, startOffset, endOffset);
+      this.snowflakeTelemetryChannelStatus.recordInsert(
+          System.nanoTime() - startTime, transformedRecords.size());
+      this.processedOffset.set(endOffset);
+
+      if (response.hasErrors()) {
+        LOGGER.warn(
+            "insertRows for channel:{} resulted in {} errors for offsets {} - {}",
+            this.getChannelNameFormatV1(),
+            response.getErrorRowCount(),
+            startOffset,
+            endOffset);
 
+        handleInsertRowsFailure(
+            response.getInsertErrors(), transformedRecords, kafkaSinkRecords, endOffset);
+      }
     } catch (TopicPartitionChannelInsertionException ex) {
       // Suppressing the exception because other channels might still continue to ingest
       LOGGER.warn(
@@ -359,6 +694,91 @@ public class DirectTopicPartitionChannel implements TopicPartitionChannel {
     }
   }
 
+  /**
+   * Sends the offset token of rows rejected by client side validation and passed to the error
+   * handler, without any row, the same way the SDK advances the offset token for rows it rejects
+   * itself. Otherwise the offsets of rejected rows at the end of a batch would never be committed
+   * and the rows would be reported again after a restart or rebalance.
+   */
+  private void skipRejectedRows(long startOffset, long endOffset) {
+    try {
+      insertRowsWithFallback(Collections.emptyList(), startOffset, endOffset);
+      this.processedOffset.set(endOffset);
+    } catch (TopicPartitionChannelInsertionException ex) {
+      // Suppressing the exception because other channels might still continue to ingest
+      LOGGER.warn(
+          String.format(
+              "[INSERT_BUFFERED_RECORDS] Failure skipping rejected rows for channel:%s",
+              this.getChannelNameFormatV1()),
+          ex);
+    }
+  }
+
+  /**
+   * Invoked only when {@link InsertValidationResponse} of a batch has errors.
+   *
+   * <p>Without schema evolution the channel is opened with {@link
+   * OpenChannelRequest.OnErrorOption#CONTINUE}, so only the failed rows were rejected and each of
+   * them is passed to the error handler.
+   *
+   * <p>With schema evolution the channel is opened with {@link
+   * OpenChannelRequest.OnErrorOption#SKIP_BATCH}, so the whole batch was rejected. If the first
+   * error can be fixed by schema evolution, the table is altered and the channel is reopened, which
+   * resets the offset in Kafka and the batch is sent again. Otherwise the rows of the batch are
+   * inserted one by one, so that only the invalid rows are rejected.
+   *
+   * @param endOffset offset token the batch was sent with
+   */
+  private void handleInsertRowsFailure(
+      List<InsertValidationResponse.InsertError> insertErrors,
+      List<Map<String, Object>> transformedRecords,
+      List<SinkRecord> kafkaSinkRecords,
+      long endOffset) {
+    if (enableSchemaEvolution) {
+      InsertValidationResponse.InsertError insertError = insertErrors.get(0);
+      SinkRecord failedRecord = kafkaSinkRecords.get((int) insertError.getRowIndex());
+      SchemaEvolutionTargetItems schemaEvolutionTargetItems =
+          insertErrorMapper.mapToSchemaEvolutionItems(insertError, this.channel.getTableName());
+      if (schemaEvolutionTargetItems.hasDataForSchemaEvolution()) {
+        try {
+          Map<String, ColumnProperties> tableSchema = getTableSchemaFromChannel();
+          schemaEvolutionService.evolveSchemaIfNeeded(
+              schemaEvolutionTargetItems, failedRecord, tableSchema);
+          streamingApiFallbackSupplier(
+              StreamingApiFallbackInvoker.INSERT_ROWS_SCHEMA_EVOLUTION_FALLBACK);
+          return;
+        } catch (SnowflakeKafkaConnectorException e) {
+          LOGGER.error(
+              "Error while performing schema evolution for channel:{}",
+              this.getChannelNameFormatV1(),
+              e);
+          if (!Objects.equals(e.getCode(), SnowflakeErrors.ERROR_5026.getCode())) {
+            throw e;
+          }
+        }
+      }
+
+      LOGGER.warn(
+          "Batch for channel:{} was rejected, inserting its {} rows one by one",
+          this.getChannelNameFormatV1(),
+          transformedRecords.size());
+      for (int idx = 0; idx < transformedRecords.size() && !needToSkipCurrentBatch; idx++) {
+        insertRow(transformedRecords.get(idx), kafkaSinkRecords.get(idx));
+      }
+      final long lastRecordOffset = kafkaSinkRecords.get(kafkaSinkRecords.size() - 1).kafkaOffset();
+      if (!needToSkipCurrentBatch && lastRecordOffset < endOffset) {
+        skipRejectedRows(lastRecordOffset + 1, endOffset);
+      }
+      return;
+    }
+
+    for (InsertValidationResponse.InsertError insertError : insertErrors) {
+      streamingErrorHandler.handleError(
+          Collections.singletonList(insertError.getException()),
+          kafkaSinkRecords.get((int) insertError.getRowIndex()));
+    }
+  }
+
   /**
    * Uses {@link Fallback} API to reopen the channel if insertRows throws {@link SFException}.
    *
@@ -376,33 +796,49 @@ public class DirectTopicPartitionChannel implements TopicPartitionChannel {
    */
   private InsertValidationResponse insertRowWithFallback(
       Map<String, Object> transformedRecord, long offset) {
-    Fallback<Object> reopenChannelFallbackExecutorForInsertRows =
-        Fallback.builder(
-                executionAttemptedEvent -> {
-                  insertRowFallbackSupplier(executionAttemptedEvent.getLastException());
-                })
-            .handle(SFException.class)
-            .onFailedAttempt(
-                event ->
-                    LOGGER.warn(
-                        String.format(
-                            "Failed Attempt to invoke the insertRows API for channel: %s",
-                            getChannelNameFormatV1()),
-                        event.getLastException()))
-            .onFailure(
-                event ->
-                    LOGGER.error(
-                        String.format(
-                            "%s Failed to open Channel or fetching offsetToken for channel:%s",
-                            StreamingApiFallbackInvoker.INSERT_ROWS_FALLBACK,
-                            this.getChannelNameFormatV1()),
-                        event.getException()))
-            .build();
-
-    return Failsafe.with(reopenChannelFallbackExecutorForInsertRows)
+    return Failsafe.with(reopenChannelFallbackForInsertRows())
         .get(() -> this.channel.insertRow(transformedRecord, Long.toString(offset)));
   }
 
+  /**
+   * Same as {@link #insertRowWithFallback(Map, long)} but sends all given rows with a single
+   * insertRows call.
+   *
+   * @return InsertValidationResponse a response that wraps around InsertValidationResponse
+   */
+  private InsertValidationResponse insertRowsWithFallback(
+      List<Map<String, Object>> transformedRecords, long startOffset, long endOffset) {
+    return Failsafe.with(reopenChannelFallbackForInsertRows())
+        .get(
+            () ->
+                this.channel.insertRows(
+                    transformedRecords, Long.toString(startOffset), Long.toString(endOffset)));
+  }
+
+  private Fallback<Object> reopenChannelFallbackForInsertRows() {
+    return Fallback.builder(
+            executionAttemptedEvent -> {
+              insertRowFallbackSupplier(executionAttemptedEvent.getLastException());
+            })
+        .handle(SFException.class)
+        .onFailedAttempt(
+            event ->
+                LOGGER.warn(
+                    String.format(
+                        "Failed Attempt to invoke the insertRows API for channel: %s",
+                        getChannelNameFormatV1()),
+                    event.getLastException()))
+        .onFailure(
+            event ->
+                LOGGER.error(
+                    String.format(
+                        "%s Failed to open Channel or fetching offsetToken for channel:%s",
+                        StreamingApiFallbackInvoker.INSERT_ROWS_FALLBACK,
+                        this.getChannelNameFormatV1()),
+                    event.getException()))
+        .build();
+  }
+
   /**
    * We will reopen the channel on {@link SFException} and reset offset in kafka. But, we will throw
    * a custom exception to show that the streamingBuffer was not added into Snowflake.
@@ -412,6 +848,7 @@ public class DirectTopicPartitionChannel implements TopicPartitionChannel {
    */
   private void insertRowFallbackSupplier(Throwable ex)
       throws TopicPartitionChannelInsertionException {
+    this.snowflakeTelemetryChannelStatus.recordInsertFallback();
     final long offsetRecoveredFromSnowflake =
         streamingApiFallbackSupplier(StreamingApiFallbackInvoker.INSERT_ROWS_FALLBACK);
     throw new TopicPartitionChannelInsertionException(
@@ -496,6 +933,9 @@ public class DirectTopicPartitionChannel implements TopicPartitionChannel {
       final StreamingApiFallbackInvoker streamingApiFallbackInvoker) {
     SnowflakeStreamingIngestChannel newChannel = reopenChannel(streamingApiFallbackInvoker);
 
+    // The table might have changed, e.g. by schema evolution
+    this.rowSchemaUnavailable = false;
+
     LOGGER.warn(
         "{} Fetching offsetToken after re-opening the channel:{}",
         streamingApiFallbackInvoker,
@@ -545,7 +985,7 @@ public class DirectTopicPartitionChannel implements TopicPartitionChannel {
     }
 
     // Reset Offset in kafka for this topic partition.
-    this.sinkTaskContext.offset(this.topicPartition, offsetToResetInKafka);
+    resetOffsetInKafka(offsetToResetInKafka);
 
     // Need to update the in memory processed offset otherwise if same offset is send again, it
     // might get rejected.
@@ -567,6 +1007,17 @@ public class DirectTopicPartitionChannel implements TopicPartitionChannel {
         offsetRecoveredFromSnowflake);
   }
 
+  /**
+   * The {@link SinkTaskContext} is shared by all channels of a task and its implementation is not
+   * thread safe, while channels of different partitions may be used from different threads (see
+   * {@link SnowflakeSinkConnectorConfig#SNOWPIPE_STREAMING_INSERT_PARALLELISM}).
+   */
+  private void resetOffsetInKafka(long offset) {
+    synchronized (this.sinkTaskContext) {
+      this.sinkTaskContext.offset(this.topicPartition, offset);
+    }
+  }
+
   /**
    * {@link Fallback} executes below code if retries have failed on {@link SFException}.
    *
@@ -580,6 +1031,7 @@ public class DirectTopicPartitionChannel implements TopicPartitionChannel {
       final StreamingApiFallbackInvoker streamingApiFallbackInvoker) {
     LOGGER.warn(
         "{} Re-opening channel:{}", streamingApiFallbackInvoker, this.getChannelNameFormatV1());
+    this.snowflakeTelemetryChannelStatus.recordChannelReopen();
     return Preconditions.checkNotNull(openChannelForTable(this.enableSchemaEvolution));
   }
 
@@ -597,17 +1049,22 @@ public class DirectTopicPartitionChannel implements TopicPartitionChannel {
     LOGGER.debug(
         "Fetching last committed offset for partition channel:{}", this.getChannelNameFormatV1());
     SnowflakeStreamingIngestChannel channelToGetOffset = this.channel;
-    return fetchLatestOffsetFromChannel(channelToGetOffset);
+    long committedOffset = fetchLatestOffsetFromChannel(channelToGetOffset);
+    this.snowflakeTelemetryChannelStatus.recordOffsetPersistedInSnowflake(committedOffset);
+    return committedOffset;
   }
 
   private long fetchLatestOffsetFromChannel(SnowflakeStreamingIngestChannel channel) {
-    String offsetToken = null;
+    String offsetToken = channel.getLatestCommittedOffsetToken();
+    LOGGER.info(
+        "Fetched offsetToken for channelName:{}, offset:{}",
+        this.getChannelNameFormatV1(),
+        offsetToken);
+    return parseOffsetToken(offsetToken);
+  }
+
+  private long parseOffsetToken(@Nullable String offsetToken) {
     try {
-      offsetToken = channel.getLatestCommittedOffsetToken();
-      LOGGER.info(
-          "Fetched offsetToken for channelName:{}, offset:{}",
-          this.getChannelNameFormatV1(),
-          offsetToken);
       return offsetToken == null
           ? NO_OFFSET_TOKEN_REGISTERED_IN_SNOWFLAKE
           : Long.parseLong(offsetToken);
@@ -768,11 +1225,14 @@ public class DirectTopicPartitionChannel implements TopicPartitionChannel {
     return this.currentConsumerGroupOffset.get();
   }
 
-  @VisibleForTesting
   public SnowflakeStreamingIngestChannel getChannel() {
     return this.channel;
   }
 
+  String getTableName() {
+    return this.tableName;
+  }
+
   @Override
   @VisibleForTesting
   public SnowflakeTelemetryChannelStatus getSnowflakeTelemetryChannelStatus() {
@@ -0,0 +1,114 @@
+package com.snowflake.kafka.connector.internal.streaming;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import com.snowflake.kafka.connector.internal.KCLogger;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import javax.annotation.Nullable;
+
+/**
+ * Channels of revoked partitions which are kept open for some time, so that a partition assigned
+ * back to the task, e.g. during an incremental cooperative rebalance, reuses its channel instead of
+ * opening a new one.
+ *
+ * <p>Channels are keyed by channel name. A channel is closed once it was retained for longer than
+ * the retention time, or when more than the maximum number of channels are retained. Expired
+ * channels are only closed during operations on the pool, see {@link #cleanUp()}, and are handed
+ * to the closer passed to the constructor.
+ */
+class RetainedChannelPool {
+  private static final KCLogger LOGGER = new KCLogger(RetainedChannelPool.class.getName());
+
+  private final Cache<String, DirectTopicPartitionChannel> channels;
+  private final BiConsumer<String, DirectTopicPartitionChannel> closer;
+
+  /**
+   * @param retention time a channel is kept open
+   * @param maxChannels maximum number of channels kept open
+   * @param closer closes the expired channels, called with the channel name and the channel
+   */
+  RetainedChannelPool(
+      Duration retention,
+      int maxChannels,
+      BiConsumer<String, DirectTopicPartitionChannel> closer) {
+    this(retention, maxChannels, closer, Ticker.systemTicker());
+  }
+
+  @VisibleForTesting
+  RetainedChannelPool(
+      Duration retention,
+      int maxChannels,
+      BiConsumer<String, DirectTopicPartitionChannel> closer,
+      Ticker ticker) {
+    this.closer = closer;
+    this.channels =
+        CacheBuilder.newBuilder()
+            .expireAfterWrite(retention)
+            .maximumSize(maxChannels)
+            .ticker(ticker)
+            .removalListener(this::onRemoval)
+            .build();
+  }
+
+  /**
+   * Keeps the channel of a revoked partition open.
+   *
+   * @param channelName name of the channel
+   * @param channel channel which is not used by the task anymore
+   */
+  void retain(String channelName, DirectTopicPartitionChannel channel) {
+    LOGGER.info("Retaining channel:{} of revoked partition", channelName);
+    channels.put(channelName, channel);
+  }
+
+  /**
+   * @param channelName name of the channel
+   * @return the retained channel, null if the channel was not retained or has expired
+   */
+  @Nullable
+  DirectTopicPartitionChannel take(String channelName) {
+    DirectTopicPartitionChannel channel = channels.getIfPresent(channelName);
+    if (channel != null) {
+      channels.invalidate(channelName);
+    }
+    return channel;
+  }
+
+  /** Closes the channels retained for longer than the retention time. */
+  void cleanUp() {
+    channels.cleanUp();
+  }
+
+  /**
+   * Removes all channels from the pool without closing them.
+   *
+   * @return channels which were retained keyed by channel name, the caller is responsible for
+   *     closing them
+   */
+  Map<String, DirectTopicPartitionChannel> drain() {
+    Map<String, DirectTopicPartitionChannel> retained = new LinkedHashMap<>(channels.asMap());
+    channels.invalidateAll();
+    return retained;
+  }
+
+  @VisibleForTesting
+  long size() {
+    return channels.size();
+  }
+
+  private void onRemoval(RemovalNotification<String, DirectTopicPartitionChannel> notification) {
+    // channels taken from the pool or drained are still in use
+    if (!notification.wasEvicted() || notification.getValue() == null) {
+      return;
+    }
+    LOGGER.info(
+        "Retained channel:{} expired, cause:{}", notification.getKey(), notification.getCause());
+    closer.accept(notification.getKey(), notification.getValue());
+  }
+}
@@ -2,13 +2,38 @@ package com.snowflake.kafka.connector.internal.streaming;
 
 import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.ENABLE_STREAMING_CLIENT_OPTIMIZATION_DEFAULT;
 import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.SNOWFLAKE_ROLE;
+import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.SNOWPIPE_STREAMING_BULK_OFFSET_TOKEN_FETCH;
+import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.SNOWPIPE_STREAMING_BULK_OFFSET_TOKEN_FETCH_DEFAULT;
+import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.SNOWPIPE_STREAMING_CLIENT_SIDE_VALIDATION;
+import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.SNOWPIPE_STREAMING_CLIENT_SIDE_VALIDATION_DEFAULT;
+import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.SNOWPIPE_STREAMING_CLIENT_SIDE_VALIDATION_SCHEMA_TTL_SEC;
+import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.SNOWPIPE_STREAMING_CLIENT_SIDE_VALIDATION_SCHEMA_TTL_SEC_DEFAULT;
+import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.SNOWPIPE_STREAMING_CLOSED_CHANNEL_RETENTION_MAX_CHANNELS;
+import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.SNOWPIPE_STREAMING_CLOSED_CHANNEL_RETENTION_MAX_CHANNELS_DEFAULT;
+import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.SNOWPIPE_STREAMING_CLOSED_CHANNEL_RETENTION_SEC;
+import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.SNOWPIPE_STREAMING_CLOSED_CHANNEL_RETENTION_SEC_DEFAULT;
 import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.SNOWPIPE_STREAMING_CLOSE_CHANNELS_IN_PARALLEL;
 import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.SNOWPIPE_STREAMING_CLOSE_CHANNELS_IN_PARALLEL_DEFAULT;
+import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.SNOWPIPE_STREAMING_CLOSE_CHANNELS_PARALLELISM;
+import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.SNOWPIPE_STREAMING_CLOSE_CHANNELS_PARALLELISM_DEFAULT;
+import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.SNOWPIPE_STREAMING_CLOSE_CHANNELS_TIMEOUT_MS;
+import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.SNOWPIPE_STREAMING_CLOSE_CHANNELS_TIMEOUT_MS_DEFAULT;
+import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.SNOWPIPE_STREAMING_CLOSE_CHANNEL_TIMEOUT_MS;
+import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.SNOWPIPE_STREAMING_CLOSE_CHANNEL_TIMEOUT_MS_DEFAULT;
+import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.SNOWPIPE_STREAMING_DIRECT_STRUCT_MAPPING;
+import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.SNOWPIPE_STREAMING_DIRECT_STRUCT_MAPPING_DEFAULT;
+import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.SNOWPIPE_STREAMING_INSERT_PARALLELISM;
+import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.SNOWPIPE_STREAMING_INSERT_PARALLELISM_DEFAULT;
+import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.SNOWPIPE_STREAMING_INSERT_ROWS_IN_BATCH;
+import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.SNOWPIPE_STREAMING_INSERT_ROWS_IN_BATCH_DEFAULT;
+import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.SNOWPIPE_STREAMING_OPEN_CHANNELS_PARALLELISM;
+import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.SNOWPIPE_STREAMING_OPEN_CHANNELS_PARALLELISM_DEFAULT;
 import static com.snowflake.kafka.connector.internal.streaming.channel.TopicPartitionChannel.NO_OFFSET_TOKEN_REGISTERED_IN_SNOWFLAKE;
 
 import com.codahale.metrics.MetricRegistry;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Strings;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig;
 import com.snowflake.kafka.connector.Utils;
 import com.snowflake.kafka.connector.dlq.KafkaRecordErrorReporter;
@@ -17,21 +42,42 @@ import com.snowflake.kafka.connector.internal.SnowflakeConnectionService;
 import com.snowflake.kafka.connector.internal.SnowflakeErrors;
 import com.snowflake.kafka.connector.internal.SnowflakeSinkService;
 import com.snowflake.kafka.connector.internal.metrics.MetricsJmxReporter;
+import com.snowflake.kafka.connector.internal.metrics.MetricsUtil;
+import com.snowflake.kafka.connector.internal.metrics.PrometheusMetricsExporter;
 import com.snowflake.kafka.connector.internal.streaming.channel.TopicPartitionChannel;
 import com.snowflake.kafka.connector.internal.streaming.schemaevolution.InsertErrorMapper;
 import com.snowflake.kafka.connector.internal.streaming.schemaevolution.SchemaEvolutionService;
+import com.snowflake.kafka.connector.internal.streaming.validation.CachingRowSchemaProvider;
+import com.snowflake.kafka.connector.internal.streaming.validation.FailsafeRowSchemaProvider;
+import com.snowflake.kafka.connector.internal.streaming.validation.JWTManagerProvider;
+import com.snowflake.kafka.connector.internal.streaming.validation.RowsetApiRowSchemaProvider;
 import com.snowflake.kafka.connector.records.RecordService;
 import com.snowflake.kafka.connector.records.RecordServiceFactory;
 import com.snowflake.kafka.connector.streaming.iceberg.IcebergInitService;
 import com.snowflake.kafka.connector.streaming.iceberg.IcebergTableSchemaValidator;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import net.snowflake.ingest.streaming.SnowflakeStreamingIngestClient;
+import net.snowflake.ingest.utils.SFException;
 import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.connect.sink.SinkRecord;
 import org.apache.kafka.connect.sink.SinkTaskContext;
@@ -93,6 +139,39 @@ public class SnowflakeSinkServiceV2 implements SnowflakeSinkService {
 
   private final boolean closeChannelsInParallel;
 
+  // Closes channels on a bounded number of threads, null if all channels are closed at once
+  @Nullable private final ChannelCloseExecutor closeExecutor;
+
+  // Time to wait for all channels closed together, 0 means no limit
+  private final long closeChannelsTimeoutMs;
+
+  // If true, records of one partition from a single put() are sent with one insertRows call
+  private final boolean insertRowsInBatch;
+
+  // Inserts records of different partitions in parallel, null if partitions are processed
+  // sequentially on the task thread
+  @Nullable private final ChannelInsertExecutor insertExecutor;
+
+  // Opens the channels of startPartitions in parallel, null if channels are opened sequentially on
+  // the task thread
+  @Nullable private final ExecutorService openChannelsExecutor;
+
+  // If true, startPartitions fetches the offset tokens of the opened channels per table at once
+  private final boolean bulkOffsetTokenFetch;
+
+  // Channels of revoked partitions kept open for reuse, null if channels are closed on revocation
+  @Nullable private final RetainedChannelPool retainedChannels;
+
+  // Closes of retained channels which did not complete yet, awaited in closeAll
+  private final Set<CompletableFuture<Void>> retainedChannelCloses =
+      ConcurrentHashMap.newKeySet();
+
+  // Provides table schemas for client side validation, null if the validation is disabled
+  @Nullable private final CachingRowSchemaProvider rowSchemaProvider;
+
+  // Serves the metrics of this task in the Prometheus format, null if the exporter is disabled
+  @Nullable private PrometheusMetricsExporter prometheusMetricsExporter;
+
   /**
    * Key is formulated in {@link #partitionChannelKey(String, int)} }
    *
@@ -125,19 +204,41 @@ public class SnowflakeSinkServiceV2 implements SnowflakeSinkService {
     this.sinkTaskContext = sinkTaskContext;
     this.enableCustomJMXMonitoring = enableCustomJMXMonitoring;
     this.topicToTableMap = topicToTableMap;
-    this.schemaEvolutionService = schemaEvolutionService;
 
     this.recordService =
         RecordServiceFactory.createRecordService(
             Utils.isIcebergEnabled(connectorConfig),
             Utils.isSchematizationEnabled(connectorConfig),
-            false);
+            false,
+            Optional.ofNullable(connectorConfig.get(SNOWPIPE_STREAMING_DIRECT_STRUCT_MAPPING))
+                .map(Boolean::parseBoolean)
+                .orElse(SNOWPIPE_STREAMING_DIRECT_STRUCT_MAPPING_DEFAULT));
     this.icebergTableSchemaValidator = new IcebergTableSchemaValidator(conn);
     this.icebergInitService = new IcebergInitService(conn);
     this.closeChannelsInParallel =
         Optional.ofNullable(connectorConfig.get(SNOWPIPE_STREAMING_CLOSE_CHANNELS_IN_PARALLEL))
             .map(Boolean::parseBoolean)
             .orElse(SNOWPIPE_STREAMING_CLOSE_CHANNELS_IN_PARALLEL_DEFAULT);
+    this.insertRowsInBatch =
+        Optional.ofNullable(connectorConfig.get(SNOWPIPE_STREAMING_INSERT_ROWS_IN_BATCH))
+            .map(Boolean::parseBoolean)
+            .orElse(SNOWPIPE_STREAMING_INSERT_ROWS_IN_BATCH_DEFAULT);
+    this.insertExecutor = createInsertExecutor(connectorConfig);
+    this.openChannelsExecutor = createOpenChannelsExecutor(connectorConfig);
+    this.bulkOffsetTokenFetch =
+        Optional.ofNullable(connectorConfig.get(SNOWPIPE_STREAMING_BULK_OFFSET_TOKEN_FETCH))
+            .map(Boolean::parseBoolean)
+            .orElse(SNOWPIPE_STREAMING_BULK_OFFSET_TOKEN_FETCH_DEFAULT);
+    this.closeChannelsTimeoutMs =
+        Optional.ofNullable(connectorConfig.get(SNOWPIPE_STREAMING_CLOSE_CHANNELS_TIMEOUT_MS))
+            .map(Long::parseLong)
+            .orElse(SNOWPIPE_STREAMING_CLOSE_CHANNELS_TIMEOUT_MS_DEFAULT);
+    this.retainedChannels = createRetainedChannelPool(connectorConfig);
+    this.rowSchemaProvider = createRowSchemaProvider(connectorConfig);
+    this.schemaEvolutionService =
+        rowSchemaProvider == null
+            ? schemaEvolutionService
+            : invalidatingRowSchemaOnEvolution(schemaEvolutionService, rowSchemaProvider);
     this.streamingIngestClient =
         StreamingClientProvider.getStreamingClientProviderInstance()
             .getClient(this.connectorConfig);
@@ -152,6 +253,20 @@ public class SnowflakeSinkServiceV2 implements SnowflakeSinkService {
             ? "default_connector"
             : this.conn.getConnectorName();
     this.metricsJmxReporter = new MetricsJmxReporter(new MetricRegistry(), connectorName);
+    if (this.enableCustomJMXMonitoring && this.recordService.isDirectStructMappingEnabled()) {
+      this.metricsJmxReporter.registerCacheMetrics(
+          MetricsUtil.ROW_MAPPER_CACHE, this.recordService::getStructMappingCacheStats);
+    }
+    if (this.enableCustomJMXMonitoring && this.kafkaRecordErrorReporter != null) {
+      this.kafkaRecordErrorReporter.registerMetrics(this.metricsJmxReporter.getMetricRegistry());
+    }
+    if (this.enableCustomJMXMonitoring) {
+      this.prometheusMetricsExporter = PrometheusMetricsExporter.acquireIfEnabled(connectorConfig);
+      if (this.prometheusMetricsExporter != null) {
+        this.prometheusMetricsExporter.addReporter(this.metricsJmxReporter);
+      }
+    }
+    this.closeExecutor = createCloseExecutor();
   }
 
   /**
@@ -168,6 +283,9 @@ public class SnowflakeSinkServiceV2 implements SnowflakeSinkService {
     // the table should be present before opening a channel so let's do a table existence check here
     tableActionsOnStartPartition(tableName);
 
+    if (resumeRetainedChannel(tableName, topicPartition)) {
+      return;
+    }
     // Create channel for the given partition
     createStreamingChannelForTopicPartition(
         tableName, topicPartition, tableName2SchemaEvolutionPermission.get(tableName));
@@ -177,22 +295,164 @@ public class SnowflakeSinkServiceV2 implements SnowflakeSinkService {
    * Initializes multiple Channels and partitionsToChannel maps with new instances of {@link
    * TopicPartitionChannel}
    *
-   * @param partitions collection of topic partition
+   * <p>Channels are opened on the threads of {@link #openChannelsExecutor}, this method returns
+   * once all of them are open and fails if any of them failed.
+   *
+   * <p>With {@link #bulkOffsetTokenFetch}, the committed offset tokens of the opened channels are
+   * fetched once all channels are open, with one request per table.
+   *
+   * <p>Partitions whose channel was retained after they were revoked reuse the retained channel.
+   *
+   * @param assignedPartitions collection of topic partition
    * @param topic2Table map of topic to table name
    */
   @Override
   public void startPartitions(
-      Collection<TopicPartition> partitions, Map<String, String> topic2Table) {
-    partitions.stream()
+      Collection<TopicPartition> assignedPartitions, Map<String, String> topic2Table) {
+    assignedPartitions.stream()
         .map(TopicPartition::topic)
         .distinct()
         .forEach(topic -> perTopicActionsOnStartPartitions(topic, topic2Table));
-    partitions.forEach(
-        tp -> {
-          String tableName = Utils.tableName(tp.topic(), topic2Table);
-          createStreamingChannelForTopicPartition(
-              tableName, tp, tableName2SchemaEvolutionPermission.get(tableName));
-        });
+    List<TopicPartition> partitions =
+        assignedPartitions.stream()
+            .filter(tp -> !resumeRetainedChannel(Utils.tableName(tp.topic(), topic2Table), tp))
+            .collect(Collectors.toList());
+    boolean fetchOffsetTokenOnOpen = !bulkOffsetTokenFetch || partitions.size() <= 1;
+    List<DirectTopicPartitionChannel> openedChannels;
+    if (openChannelsExecutor == null || partitions.size() <= 1) {
+      openedChannels = new ArrayList<>();
+      for (TopicPartition tp : partitions) {
+        String tableName = Utils.tableName(tp.topic(), topic2Table);
+        String partitionChannelKey = partitionChannelKey(tp.topic(), tp.partition());
+        DirectTopicPartitionChannel channel =
+            createTopicPartitionChannel(
+                tableName,
+                tp,
+                tableName2SchemaEvolutionPermission.get(tableName),
+                partitionChannelKey,
+                fetchOffsetTokenOnOpen);
+        partitionsToChannel.put(partitionChannelKey, channel);
+        openedChannels.add(channel);
+      }
+    } else {
+      openedChannels =
+          createStreamingChannelsInParallel(partitions, topic2Table, fetchOffsetTokenOnOpen);
+    }
+    if (!fetchOffsetTokenOnOpen) {
+      openedChannels.stream()
+          .collect(Collectors.groupingBy(DirectTopicPartitionChannel::getTableName))
+          .forEach(this::startFromCommittedOffsets);
+    }
+  }
+
+  /**
+   * Puts the retained channel of the partition back in use, if any.
+   *
+   * @return true if the retained channel is used, false if a channel has to be opened
+   */
+  private boolean resumeRetainedChannel(String tableName, TopicPartition topicPartition) {
+    if (retainedChannels == null) {
+      return false;
+    }
+    String partitionChannelKey =
+        partitionChannelKey(topicPartition.topic(), topicPartition.partition());
+    DirectTopicPartitionChannel channel = retainedChannels.take(partitionChannelKey);
+    if (channel == null) {
+      return false;
+    }
+    if (!channel.getTableName().equals(tableName) || !channel.resumeRetainedChannel()) {
+      closeRetainedChannel(partitionChannelKey, channel);
+      return false;
+    }
+    partitionsToChannel.put(partitionChannelKey, channel);
+    return true;
+  }
+
+  /**
+   * Fetches the committed offset tokens of the channels of a table with a single channel status
+   * request and starts every channel from its token. Channels fetch their own token if the request
+   * fails or its response misses the channel.
+   */
+  private void startFromCommittedOffsets(
+      String tableName, List<DirectTopicPartitionChannel> channels) {
+    Map<String, String> offsetTokens;
+    try {
+      offsetTokens =
+          streamingIngestClient.getLatestCommittedOffsetTokens(
+              channels.stream()
+                  .map(DirectTopicPartitionChannel::getChannel)
+                  .collect(Collectors.toList()));
+      LOGGER.info(
+          "Fetched {} committed offset tokens of table:{} with one request",
+          offsetTokens.size(),
+          tableName);
+    } catch (SFException e) {
+      LOGGER.warn(
+          "Failed to fetch committed offset tokens of table:{}, fetching them per channel,"
+              + " reason:{}",
+          tableName,
+          e.getMessage());
+      offsetTokens = Collections.emptyMap();
+    }
+    for (DirectTopicPartitionChannel channel : channels) {
+      // the response is keyed by the fully qualified channel names
+      String channelName = channel.getChannelNameFormatV1();
+      if (offsetTokens.containsKey(channelName)) {
+        channel.startFromOffsetToken(offsetTokens.get(channelName));
+      } else {
+        channel.startFromSnowflakeOffset();
+      }
+    }
+  }
+
+  private List<DirectTopicPartitionChannel> createStreamingChannelsInParallel(
+      Collection<TopicPartition> partitions,
+      Map<String, String> topic2Table,
+      boolean fetchOffsetTokenOnOpen) {
+    LOGGER.info("Opening {} partition channels in parallel", partitions.size());
+    Map<String, CompletableFuture<DirectTopicPartitionChannel>> futures = new LinkedHashMap<>();
+    for (TopicPartition tp : partitions) {
+      String tableName = Utils.tableName(tp.topic(), topic2Table);
+      boolean schemaEvolutionEnabled = tableName2SchemaEvolutionPermission.get(tableName);
+      String partitionChannelKey = partitionChannelKey(tp.topic(), tp.partition());
+      futures.put(
+          partitionChannelKey,
+          CompletableFuture.supplyAsync(
+              () ->
+                  createTopicPartitionChannel(
+                      tableName,
+                      tp,
+                      schemaEvolutionEnabled,
+                      partitionChannelKey,
+                      fetchOffsetTokenOnOpen),
+              openChannelsExecutor));
+    }
+
+    // channels opened successfully are kept, so that they are closed along with the partitions
+    List<DirectTopicPartitionChannel> openedChannels = new ArrayList<>();
+    RuntimeException failure = null;
+    for (Map.Entry<String, CompletableFuture<DirectTopicPartitionChannel>> entry :
+        futures.entrySet()) {
+      try {
+        DirectTopicPartitionChannel channel = entry.getValue().join();
+        partitionsToChannel.put(entry.getKey(), channel);
+        openedChannels.add(channel);
+      } catch (CompletionException e) {
+        LOGGER.error(
+            "Failed to open partition channel:{}, reason:{}",
+            entry.getKey(),
+            e.getCause().getMessage());
+        if (failure == null) {
+          // rethrow the original exception, so that the task fails the same way as in sequential
+          // mode
+          failure = e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+    return openedChannels;
   }
 
   private void perTopicActionsOnStartPartitions(String topic, Map<String, String> topic2Table) {
@@ -227,14 +487,15 @@ public class SnowflakeSinkServiceV2 implements SnowflakeSinkService {
     partitionsToChannel.put(
         partitionChannelKey,
         createTopicPartitionChannel(
-            tableName, topicPartition, schemaEvolutionEnabled, partitionChannelKey));
+            tableName, topicPartition, schemaEvolutionEnabled, partitionChannelKey, true));
   }
 
-  private TopicPartitionChannel createTopicPartitionChannel(
+  private DirectTopicPartitionChannel createTopicPartitionChannel(
       String tableName,
       TopicPartition topicPartition,
       boolean schemaEvolutionEnabled,
-      String partitionChannelKey) {
+      String partitionChannelKey,
+      boolean fetchOffsetTokenOnOpen) {
 
     StreamingRecordService streamingRecordService =
         new StreamingRecordService(this.recordService, this.kafkaRecordErrorReporter);
@@ -258,7 +519,9 @@ public class SnowflakeSinkServiceV2 implements SnowflakeSinkService {
         this.metricsJmxReporter,
         this.schemaEvolutionService,
         new InsertErrorMapper(),
-        streamingErrorHandler);
+        streamingErrorHandler,
+        this.rowSchemaProvider,
+        fetchOffsetTokenOnOpen);
   }
 
   /**
@@ -268,6 +531,14 @@ public class SnowflakeSinkServiceV2 implements SnowflakeSinkService {
    */
   @Override
   public void insert(final Collection<SinkRecord> records) {
+    if (retainedChannels != null) {
+      retainedChannels.cleanUp();
+    }
+    if (insertRowsInBatch || insertExecutor != null) {
+      insertPerPartition(records);
+      return;
+    }
+
     // note that records can be empty but, we will still need to check for time based flush
     channelsVisitedPerBatch.clear();
     for (SinkRecord record : records) {
@@ -282,6 +553,58 @@ public class SnowflakeSinkServiceV2 implements SnowflakeSinkService {
     }
   }
 
+  /**
+   * Groups the records by partition, keeping the order within each partition, and hands every
+   * group to its {@link TopicPartitionChannel}.
+   *
+   * <p>Channels are looked up (and opened if needed) on the calling thread. If {@link
+   * #insertExecutor} is set, the groups are inserted in parallel and this method returns only after
+   * all of them are done.
+   *
+   * @param records records coming from Kafka, from possibly many topics and partitions
+   */
+  private void insertPerPartition(final Collection<SinkRecord> records) {
+    Map<String, List<SinkRecord>> recordsPerPartition = new LinkedHashMap<>();
+    for (SinkRecord record : records) {
+      // check if it needs to handle null value records
+      if (recordService.shouldSkipNullValue(record, behaviorOnNullValues)) {
+        continue;
+      }
+      recordsPerPartition
+          .computeIfAbsent(
+              partitionChannelKey(record.topic(), record.kafkaPartition()),
+              key -> new ArrayList<>())
+          .add(record);
+    }
+
+    Map<TopicPartitionChannel, List<SinkRecord>> recordsPerChannel = new LinkedHashMap<>();
+    recordsPerPartition.forEach(
+        (partitionChannelKey, partitionRecords) -> {
+          SinkRecord firstRecord = partitionRecords.get(0);
+          recordsPerChannel.put(
+              getOrStartTopicPartitionChannel(
+                  partitionChannelKey, firstRecord.topic(), firstRecord.kafkaPartition()),
+              partitionRecords);
+        });
+
+    if (insertExecutor == null) {
+      recordsPerChannel.forEach(this::insertPartitionRecords);
+    } else {
+      insertExecutor.insertRecords(recordsPerChannel, this::insertPartitionRecords);
+    }
+  }
+
+  private void insertPartitionRecords(
+      TopicPartitionChannel topicPartitionChannel, List<SinkRecord> partitionRecords) {
+    if (insertRowsInBatch) {
+      topicPartitionChannel.insertRecords(partitionRecords);
+    } else {
+      for (int idx = 0; idx < partitionRecords.size(); idx++) {
+        topicPartitionChannel.insertRecord(partitionRecords.get(idx), idx == 0);
+      }
+    }
+  }
+
   /**
    * Inserts individual records into buffer. It fetches the TopicPartitionChannel from the map and
    * then each partition(Streaming channel) calls its respective insertRows API
@@ -291,21 +614,24 @@ public class SnowflakeSinkServiceV2 implements SnowflakeSinkService {
   @Override
   public void insert(SinkRecord record) {
     String partitionChannelKey = partitionChannelKey(record.topic(), record.kafkaPartition());
+    TopicPartitionChannel channelPartition =
+        getOrStartTopicPartitionChannel(
+            partitionChannelKey, record.topic(), record.kafkaPartition());
+    boolean isFirstRowPerPartitionInBatch = channelsVisitedPerBatch.add(partitionChannelKey);
+    channelPartition.insertRecord(record, isFirstRowPerPartitionInBatch);
+  }
+
+  private TopicPartitionChannel getOrStartTopicPartitionChannel(
+      String partitionChannelKey, String topic, int partition) {
     // init a new topic partition if it's not presented in cache or if channel is closed
     if (!partitionsToChannel.containsKey(partitionChannelKey)
         || partitionsToChannel.get(partitionChannelKey).isChannelClosed()) {
       LOGGER.warn(
-          "Topic: {} Partition: {} hasn't been initialized by OPEN function",
-          record.topic(),
-          record.kafkaPartition());
+          "Topic: {} Partition: {} hasn't been initialized by OPEN function", topic, partition);
       startPartition(
-          Utils.tableName(record.topic(), this.topicToTableMap),
-          new TopicPartition(record.topic(), record.kafkaPartition()));
+          Utils.tableName(topic, this.topicToTableMap), new TopicPartition(topic, partition));
     }
-
-    TopicPartitionChannel channelPartition = partitionsToChannel.get(partitionChannelKey);
-    boolean isFirstRowPerPartitionInBatch = channelsVisitedPerBatch.add(partitionChannelKey);
-    channelPartition.insertRecord(record, isFirstRowPerPartitionInBatch);
+    return partitionsToChannel.get(partitionChannelKey);
   }
 
   @Override
@@ -345,11 +671,58 @@ public class SnowflakeSinkServiceV2 implements SnowflakeSinkService {
     }
 
     partitionsToChannel.clear();
+    if (retainedChannels != null) {
+      retainedChannels.drain().forEach(this::closeRetainedChannel);
+      awaitRetainedChannelCloses();
+    }
+    shutdownExecutors();
 
     StreamingClientProvider.getStreamingClientProviderInstance()
         .closeClient(this.connectorConfig, this.streamingIngestClient);
   }
 
+  /**
+   * Closes a channel which is not used by the task anymore without waiting for it. The close is
+   * awaited in {@link #closeAll()}.
+   */
+  private void closeRetainedChannel(String partitionChannelKey, TopicPartitionChannel channel) {
+    LOGGER.info("Closing retained channel:{}", partitionChannelKey);
+    CompletableFuture<Void> closed =
+        closeExecutor != null
+            ? closeExecutor.closeChannelAsync(partitionChannelKey, channel)
+            : channel.closeChannelAsync();
+    retainedChannelCloses.add(closed);
+    closed.whenComplete(
+        (ignored, e) -> {
+          retainedChannelCloses.remove(closed);
+          if (e != null) {
+            LOGGER.warn("Failed to close retained channel:{}", partitionChannelKey, e);
+          }
+        });
+  }
+
+  private void awaitRetainedChannelCloses() {
+    CompletableFuture<Void> allClosed =
+        CompletableFuture.allOf(retainedChannelCloses.toArray(new CompletableFuture[0]));
+    if (closeChannelsTimeoutMs <= 0) {
+      allClosed.join();
+      return;
+    }
+    try {
+      allClosed.get(closeChannelsTimeoutMs, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      LOGGER.warn(
+          "{} retained channels did not close within {} ms, they keep closing in the background",
+          retainedChannelCloses.size(),
+          closeChannelsTimeoutMs);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CompletionException(e);
+    } catch (ExecutionException e) {
+      throw new CompletionException(e.getCause());
+    }
+  }
+
   private void closeAllSequentially() {
     partitionsToChannel.forEach(
         (partitionChannelKey, topicPartitionChannel) -> {
@@ -359,6 +732,10 @@ public class SnowflakeSinkServiceV2 implements SnowflakeSinkService {
   }
 
   private void closeAllInParallel() {
+    if (closeExecutor != null) {
+      closeExecutor.closeChannels(partitionsToChannel);
+      return;
+    }
     CompletableFuture<?>[] futures =
         partitionsToChannel.entrySet().stream()
             .map(
@@ -384,11 +761,16 @@ public class SnowflakeSinkServiceV2 implements SnowflakeSinkService {
    * com.snowflake.kafka.connector.SnowflakeSinkTask#open(Collection)} we reinstantiate and fetch
    * offsetToken
    *
+   * <p>If {@link #retainedChannels} is enabled, the channels are kept open instead and reused if
+   * their partition is assigned back to the task before they expire.
+   *
    * @param partitions a list of topic partition
    */
   @Override
   public void close(Collection<TopicPartition> partitions) {
-    if (closeChannelsInParallel) {
+    if (retainedChannels != null) {
+      retainChannels(partitions);
+    } else if (closeChannelsInParallel) {
       closeInParallel(partitions);
     } else {
       closeSequentially(partitions);
@@ -401,6 +783,21 @@ public class SnowflakeSinkServiceV2 implements SnowflakeSinkService {
         partitionsToChannel.size());
   }
 
+  private void retainChannels(Collection<TopicPartition> partitions) {
+    for (TopicPartition topicPartition : partitions) {
+      final String partitionChannelKey =
+          partitionChannelKey(topicPartition.topic(), topicPartition.partition());
+      TopicPartitionChannel topicPartitionChannel = partitionsToChannel.remove(partitionChannelKey);
+      if (topicPartitionChannel instanceof DirectTopicPartitionChannel) {
+        retainedChannels.retain(
+            partitionChannelKey, (DirectTopicPartitionChannel) topicPartitionChannel);
+      } else if (topicPartitionChannel != null) {
+        topicPartitionChannel.closeChannel();
+      }
+    }
+    retainedChannels.cleanUp();
+  }
+
   private void closeSequentially(Collection<TopicPartition> partitions) {
     partitions.forEach(
         topicPartition -> {
@@ -423,6 +820,25 @@ public class SnowflakeSinkServiceV2 implements SnowflakeSinkService {
   }
 
   private void closeInParallel(Collection<TopicPartition> partitions) {
+    if (closeExecutor != null) {
+      Map<String, TopicPartitionChannel> channelsToClose = new LinkedHashMap<>();
+      for (TopicPartition topicPartition : partitions) {
+        String key = partitionChannelKey(topicPartition.topic(), topicPartition.partition());
+        // It's possible that some partitions can be unassigned before their respective channels
+        // are even created.
+        TopicPartitionChannel topicPartitionChannel = partitionsToChannel.get(key);
+        if (topicPartitionChannel != null) {
+          channelsToClose.put(key, topicPartitionChannel);
+        }
+      }
+      try {
+        closeExecutor.closeChannels(channelsToClose);
+      } finally {
+        // also if closing one of the channels failed, the partitions are revoked either way
+        channelsToClose.keySet().forEach(partitionsToChannel::remove);
+      }
+      return;
+    }
     CompletableFuture<?>[] futures =
         partitions.stream().map(this::closeTopicPartition).toArray(CompletableFuture[]::new);
 
@@ -451,6 +867,13 @@ public class SnowflakeSinkServiceV2 implements SnowflakeSinkService {
 
   @Override
   public void stop() {
+    shutdownExecutors();
+    if (prometheusMetricsExporter != null) {
+      prometheusMetricsExporter.removeReporter(metricsJmxReporter);
+      prometheusMetricsExporter.release();
+      prometheusMetricsExporter = null;
+    }
+
     final boolean isOptimizationEnabled =
         Boolean.parseBoolean(
             connectorConfig.getOrDefault(
@@ -472,6 +895,136 @@ public class SnowflakeSinkServiceV2 implements SnowflakeSinkService {
     }
   }
 
+  @Nullable
+  private static ChannelInsertExecutor createInsertExecutor(Map<String, String> connectorConfig) {
+    final int insertParallelism =
+        Optional.ofNullable(connectorConfig.get(SNOWPIPE_STREAMING_INSERT_PARALLELISM))
+            .map(Integer::parseInt)
+            .orElse(SNOWPIPE_STREAMING_INSERT_PARALLELISM_DEFAULT);
+    if (insertParallelism <= 1) {
+      return null;
+    }
+    LOGGER.info("Inserting records of different partitions with {} threads", insertParallelism);
+    return new ChannelInsertExecutor(insertParallelism);
+  }
+
+  @Nullable
+  private static ExecutorService createOpenChannelsExecutor(Map<String, String> connectorConfig) {
+    final int openChannelsParallelism =
+        Optional.ofNullable(connectorConfig.get(SNOWPIPE_STREAMING_OPEN_CHANNELS_PARALLELISM))
+            .map(Integer::parseInt)
+            .orElse(SNOWPIPE_STREAMING_OPEN_CHANNELS_PARALLELISM_DEFAULT);
+    if (openChannelsParallelism <= 1) {
+      return null;
+    }
+    LOGGER.info("Opening partition channels with {} threads", openChannelsParallelism);
+    return Executors.newFixedThreadPool(
+        openChannelsParallelism,
+        new ThreadFactoryBuilder()
+            .setNameFormat("snowflake-streaming-open-channel-%d")
+            .setDaemon(true)
+            .build());
+  }
+
+  @Nullable
+  private ChannelCloseExecutor createCloseExecutor() {
+    final int closeParallelism =
+        Optional.ofNullable(connectorConfig.get(SNOWPIPE_STREAMING_CLOSE_CHANNELS_PARALLELISM))
+            .map(Integer::parseInt)
+            .orElse(SNOWPIPE_STREAMING_CLOSE_CHANNELS_PARALLELISM_DEFAULT);
+    if (!closeChannelsInParallel || closeParallelism <= 0) {
+      return null;
+    }
+    final long closeTimeoutMs =
+        Optional.ofNullable(connectorConfig.get(SNOWPIPE_STREAMING_CLOSE_CHANNEL_TIMEOUT_MS))
+            .map(Long::parseLong)
+            .orElse(SNOWPIPE_STREAMING_CLOSE_CHANNEL_TIMEOUT_MS_DEFAULT);
+    LOGGER.info(
+        "Closing channels with {} threads, close timeout:{} ms, total close timeout:{} ms",
+        closeParallelism,
+        closeTimeoutMs,
+        closeChannelsTimeoutMs);
+    return new ChannelCloseExecutor(
+        closeParallelism,
+        closeTimeoutMs,
+        closeChannelsTimeoutMs,
+        enableCustomJMXMonitoring ? metricsJmxReporter.getMetricRegistry() : null);
+  }
+
+  @Nullable
+  private RetainedChannelPool createRetainedChannelPool(Map<String, String> connectorConfig) {
+    final long retentionSec =
+        Optional.ofNullable(connectorConfig.get(SNOWPIPE_STREAMING_CLOSED_CHANNEL_RETENTION_SEC))
+            .map(Long::parseLong)
+            .orElse(SNOWPIPE_STREAMING_CLOSED_CHANNEL_RETENTION_SEC_DEFAULT);
+    if (retentionSec <= 0) {
+      return null;
+    }
+    final int maxChannels =
+        Optional.ofNullable(
+                connectorConfig.get(SNOWPIPE_STREAMING_CLOSED_CHANNEL_RETENTION_MAX_CHANNELS))
+            .map(Integer::parseInt)
+            .orElse(SNOWPIPE_STREAMING_CLOSED_CHANNEL_RETENTION_MAX_CHANNELS_DEFAULT);
+    LOGGER.info(
+        "Channels of revoked partitions are kept open for {} seconds, at most {} channels",
+        retentionSec,
+        maxChannels);
+    return new RetainedChannelPool(
+        Duration.ofSeconds(retentionSec), maxChannels, this::closeRetainedChannel);
+  }
+
+  @Nullable
+  private static CachingRowSchemaProvider createRowSchemaProvider(
+      Map<String, String> connectorConfig) {
+    final boolean clientSideValidation =
+        Optional.ofNullable(connectorConfig.get(SNOWPIPE_STREAMING_CLIENT_SIDE_VALIDATION))
+            .map(Boolean::parseBoolean)
+            .orElse(SNOWPIPE_STREAMING_CLIENT_SIDE_VALIDATION_DEFAULT);
+    if (!clientSideValidation) {
+      return null;
+    }
+    final long schemaTtlSec =
+        Optional.ofNullable(
+                connectorConfig.get(SNOWPIPE_STREAMING_CLIENT_SIDE_VALIDATION_SCHEMA_TTL_SEC))
+            .map(Long::parseLong)
+            .orElse(SNOWPIPE_STREAMING_CLIENT_SIDE_VALIDATION_SCHEMA_TTL_SEC_DEFAULT);
+    LOGGER.info(
+        "Validating rows against the table schema before sending them to the channels, schema"
+            + " ttl:{}s",
+        schemaTtlSec);
+    return new CachingRowSchemaProvider(
+        new FailsafeRowSchemaProvider(
+            new RowsetApiRowSchemaProvider(JWTManagerProvider.fromConfig(connectorConfig))),
+        Duration.ofSeconds(schemaTtlSec));
+  }
+
+  /**
+   * The cached row schema of a table is dropped whenever one of the channels alters the table, so
+   * that the other partitions of the table validate against the new columns right away.
+   */
+  private static SchemaEvolutionService invalidatingRowSchemaOnEvolution(
+      SchemaEvolutionService schemaEvolutionService, CachingRowSchemaProvider rowSchemaProvider) {
+    return (targetItems, record, existingSchema) -> {
+      try {
+        schemaEvolutionService.evolveSchemaIfNeeded(targetItems, record, existingSchema);
+      } finally {
+        rowSchemaProvider.invalidate(targetItems.getTableName());
+      }
+    };
+  }
+
+  private void shutdownExecutors() {
+    if (insertExecutor != null) {
+      insertExecutor.shutdown();
+    }
+    if (openChannelsExecutor != null) {
+      openChannelsExecutor.shutdown();
+    }
+    if (closeExecutor != null) {
+      closeExecutor.shutdown();
+    }
+  }
+
   /* Undefined */
   @Override
   public boolean isClosed() {
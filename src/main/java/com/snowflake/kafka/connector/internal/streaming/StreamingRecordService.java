@@ -3,6 +3,8 @@ package com.snowflake.kafka.connector.internal.streaming;
 import static org.apache.kafka.common.record.TimestampType.NO_TIMESTAMP_TYPE;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableMap;
 import com.snowflake.kafka.connector.dlq.KafkaRecordErrorReporter;
 import com.snowflake.kafka.connector.internal.KCLogger;
@@ -22,9 +24,17 @@ import org.apache.kafka.connect.sink.SinkRecord;
 public class StreamingRecordService {
   private static final KCLogger LOGGER = new KCLogger(StreamingRecordService.class.getName());
 
+  // Most topics only carry a handful of value schemas
+  private static final int MAX_FALLBACK_SCHEMAS = 100;
+
   private final RecordService recordService;
   private final KafkaRecordErrorReporter kafkaRecordErrorReporter;
 
+  // Value schemas whose structs could not be mapped directly, their records go through the json
+  // conversion right away. Keyed by schema identity like the compiled mappings.
+  private final Cache<Schema, Boolean> fallbackSchemas =
+      CacheBuilder.newBuilder().maximumSize(MAX_FALLBACK_SCHEMAS).weakKeys().build();
+
   public StreamingRecordService(
       RecordService recordService, KafkaRecordErrorReporter kafkaRecordErrorReporter) {
     this.recordService = recordService;
@@ -36,7 +46,20 @@ public class StreamingRecordService {
    * @return a map that format depends on the schematization settings
    */
   public Map<String, Object> transformData(SinkRecord kafkaSinkRecord) {
-    SinkRecord snowflakeSinkRecord = getSnowflakeSinkRecordFromKafkaRecord(kafkaSinkRecord);
+    SinkRecord record = kafkaSinkRecord;
+    if (recordService.supportsDirectStructMapping(kafkaSinkRecord)
+        && fallbackSchemas.getIfPresent(kafkaSinkRecord.valueSchema()) == null) {
+      // the converted key is reused if the record falls back to the json conversion
+      if (shouldConvertContent(kafkaSinkRecord.key())) {
+        record = handleNativeRecord(kafkaSinkRecord, true);
+      }
+      Map<String, Object> row = transformStructData(record);
+      if (row != null) {
+        return row;
+      }
+    }
+
+    SinkRecord snowflakeSinkRecord = getSnowflakeSinkRecordFromKafkaRecord(record);
     // broken record
     if (isRecordBroken(snowflakeSinkRecord)) {
       // check for error tolerance and log tolerance values
@@ -80,12 +103,38 @@ public class StreamingRecordService {
     return ImmutableMap.of();
   }
 
+  /**
+   * When schematization is enabled, the map is created directly from the {@link
+   * org.apache.kafka.connect.data.Struct} value instead of first turning it into json.
+   *
+   * @param record record whose key has already been converted into a Json Record
+   * @return the row or null if the record could not be mapped directly, in which case the record
+   *     goes through the json path which takes care of reporting broken records
+   */
+  private Map<String, Object> transformStructData(SinkRecord record) {
+    if (isContentBroken(record.key())) {
+      return null;
+    }
+    try {
+      return recordService.getProcessedRecordForStreamingIngest(record);
+    } catch (SnowflakeKafkaConnectorException | JsonProcessingException | DataException e) {
+      // later records of the schema skip the direct mapping, the json conversion either maps them
+      // or reports them as broken
+      fallbackSchemas.put(record.valueSchema(), Boolean.TRUE);
+      LOGGER.warn(
+          "Falling back to json conversion for records of schema:{}, record offset:{}, topic:{},"
+              + " reason:{}",
+          record.valueSchema().name(),
+          record.kafkaOffset(),
+          record.topic(),
+          e.getMessage());
+      return null;
+    }
+  }
+
   /**
    * Converts the original kafka sink record into a Json Record. i.e key and values are converted
    * into Json so that it can be used to insert into variant column of Snowflake Table.
-   *
-   * <p>TODO: SNOW-630885 - When schematization is enabled, we should create the map directly from
-   * the SinkRecord instead of first turning it into json
    */
   private SinkRecord getSnowflakeSinkRecordFromKafkaRecord(final SinkRecord kafkaSinkRecord) {
     SinkRecord snowflakeRecord = kafkaSinkRecord;
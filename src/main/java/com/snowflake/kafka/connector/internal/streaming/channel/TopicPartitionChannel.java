@@ -1,5 +1,6 @@
 package com.snowflake.kafka.connector.internal.streaming.channel;
 
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import net.snowflake.ingest.utils.SFException;
@@ -38,6 +39,20 @@ public interface TopicPartitionChannel extends ExposingInternalsTopicPartitionCh
    */
   void insertRecord(SinkRecord kafkaSinkRecord, boolean isFirstRowPerPartitionInBatch);
 
+  /**
+   * Inserts all records of a single batch that belong to this partition.
+   *
+   * <p>The default implementation inserts the records one by one, implementations may override it
+   * to send the whole batch to Snowflake at once.
+   *
+   * @param kafkaSinkRecords records of this partition in the order they were received from Kafka
+   */
+  default void insertRecords(List<SinkRecord> kafkaSinkRecords) {
+    for (int idx = 0; idx < kafkaSinkRecords.size(); idx++) {
+      insertRecord(kafkaSinkRecords.get(idx), idx == 0);
+    }
+  }
+
   /**
    * Get committed offset from Snowflake. It does an HTTP call internally to find out what was the
    * last offset inserted.
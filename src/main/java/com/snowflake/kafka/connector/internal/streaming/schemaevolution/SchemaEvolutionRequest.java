@@ -0,0 +1,43 @@
+package com.snowflake.kafka.connector.internal.streaming.schemaevolution;
+
+import com.snowflake.kafka.connector.internal.streaming.common.ColumnProperties;
+import java.util.Map;
+import org.apache.kafka.connect.sink.SinkRecord;
+
+/** Schema evolution requested by a single channel, see {@link SchemaEvolutionService}. */
+public class SchemaEvolutionRequest {
+  private final SchemaEvolutionTargetItems targetItems;
+  private final SinkRecord record;
+  private final Map<String, ColumnProperties> existingSchema;
+
+  public SchemaEvolutionRequest(
+      SchemaEvolutionTargetItems targetItems,
+      SinkRecord record,
+      Map<String, ColumnProperties> existingSchema) {
+    this.targetItems = targetItems;
+    this.record = record;
+    this.existingSchema = existingSchema;
+  }
+
+  public SchemaEvolutionTargetItems getTargetItems() {
+    return targetItems;
+  }
+
+  public SinkRecord getRecord() {
+    return record;
+  }
+
+  public Map<String, ColumnProperties> getExistingSchema() {
+    return existingSchema;
+  }
+
+  @Override
+  public String toString() {
+    return "SchemaEvolutionRequest{"
+        + "targetItems="
+        + targetItems
+        + ", offset="
+        + record.kafkaOffset()
+        + '}';
+  }
+}
@@ -1,6 +1,8 @@
 package com.snowflake.kafka.connector.internal.streaming.schemaevolution;
 
 import com.snowflake.kafka.connector.internal.streaming.common.ColumnProperties;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import org.apache.kafka.connect.sink.SinkRecord;
 
@@ -19,4 +21,24 @@ public interface SchemaEvolutionService {
       SchemaEvolutionTargetItems targetItems,
       SinkRecord record,
       Map<String, ColumnProperties> existingSchema);
+
+  /**
+   * Evolve a table for the requests of several channels at once. All requests target the same
+   * table. Implementations may merge the requests into as few ALTER TABLE commands as possible, by
+   * default the requests are executed one after another.
+   *
+   * @param requests schema evolution requests of one table, in the order they were received
+   * @return columns the table has been altered for. Columns of a failed ALTER TABLE command are not
+   *     included. The default implementation does not know the outcome of the commands and returns
+   *     no columns.
+   */
+  default SchemaEvolutionTargetItems evolveSchemaIfNeeded(List<SchemaEvolutionRequest> requests) {
+    for (SchemaEvolutionRequest request : requests) {
+      evolveSchemaIfNeeded(
+          request.getTargetItems(), request.getRecord(), request.getExistingSchema());
+    }
+    return new SchemaEvolutionTargetItems(
+        requests.isEmpty() ? null : requests.get(0).getTargetItems().getTableName(),
+        Collections.emptyList());
+  }
 }
@@ -0,0 +1,240 @@
+package com.snowflake.kafka.connector.internal.streaming.schemaevolution;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.snowflake.kafka.connector.internal.KCLogger;
+import com.snowflake.kafka.connector.internal.streaming.common.ColumnProperties;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import org.apache.kafka.connect.sink.SinkRecord;
+
+/**
+ * Coordinates schema evolution of the channels of a task, so that partitions of the same table do
+ * not race each other with ALTER TABLE commands.
+ *
+ * <p>At most one evolution runs per table. A request whose columns are already part of the running
+ * evolution waits for it instead of altering the table again. Other requests arriving meanwhile are
+ * merged into the next evolution, which is executed with {@link
+ * SchemaEvolutionService#evolveSchemaIfNeeded(List)} as soon as the running one completes. If a
+ * merged evolution fails, e.g. because the column types cannot be resolved from the record of one
+ * of the requests, its requests are retried one by one so that every channel gets the outcome of
+ * its own request.
+ *
+ * <p>Partitions of a table are usually not processed at the same time, so the columns the table
+ * has been altered for, as reported by the evolution service, are remembered for {@link
+ * #EVOLVED_COLUMNS_RETENTION_MS}. A later request of another channel, which still has the schema
+ * from before the evolution, does not alter the table again if all its columns have been evolved
+ * meanwhile. Columns of a failed ALTER TABLE command are not remembered.
+ */
+public class TableSchemaEvolutionCoordinator implements SchemaEvolutionService {
+
+  private static final KCLogger LOGGER =
+      new KCLogger(TableSchemaEvolutionCoordinator.class.getName());
+
+  // long enough for the other partitions of the task to pick up an evolution in the same batch,
+  // short enough to evolve the table again if it was recreated with the previous schema
+  static final long EVOLVED_COLUMNS_RETENTION_MS = TimeUnit.MINUTES.toMillis(1);
+
+  private final SchemaEvolutionService schemaEvolutionService;
+  private final LongSupplier currentTimeMillis;
+  private final Map<String, TableEvolutions> tableEvolutions = new ConcurrentHashMap<>();
+
+  public TableSchemaEvolutionCoordinator(SchemaEvolutionService schemaEvolutionService) {
+    this(schemaEvolutionService, System::currentTimeMillis);
+  }
+
+  @VisibleForTesting
+  TableSchemaEvolutionCoordinator(
+      SchemaEvolutionService schemaEvolutionService, LongSupplier currentTimeMillis) {
+    this.schemaEvolutionService = schemaEvolutionService;
+    this.currentTimeMillis = currentTimeMillis;
+  }
+
+  /**
+   * Blocks until the requested columns have been handled by an evolution of the table, which might
+   * have been started by another channel.
+   */
+  @Override
+  public void evolveSchemaIfNeeded(
+      SchemaEvolutionTargetItems targetItems,
+      SinkRecord record,
+      Map<String, ColumnProperties> existingSchema) {
+    tableEvolutions
+        .computeIfAbsent(targetItems.getTableName(), tableName -> new TableEvolutions())
+        .evolve(new SchemaEvolutionRequest(targetItems, record, existingSchema));
+  }
+
+  /**
+   * Evolutions of a single table, the running one and the one collecting new requests, and the
+   * columns recently evolved.
+   */
+  private class TableEvolutions {
+    private Evolution running;
+    private Evolution pending;
+    // evolved column names with the time of the evolution
+    private final Map<String, Long> addedColumns = new HashMap<>();
+    private final Map<String, Long> columnsWithDroppedNonNullability = new HashMap<>();
+
+    private void evolve(SchemaEvolutionRequest request) {
+      final Evolution evolution;
+      final boolean leader;
+      synchronized (this) {
+        if (isEvolved(request.getTargetItems())) {
+          LOGGER.info(
+              "Skipping schema evolution of table:{}, already evolved for:{}",
+              request.getTargetItems().getTableName(),
+              request.getTargetItems());
+          return;
+        } else if (running == null) {
+          running = new Evolution();
+          running.add(request);
+          evolution = running;
+          leader = true;
+        } else if (running.covers(request.getTargetItems())) {
+          LOGGER.info(
+              "Waiting for running schema evolution of table:{}, requested:{}",
+              request.getTargetItems().getTableName(),
+              request.getTargetItems());
+          evolution = running;
+          leader = false;
+        } else {
+          if (pending == null) {
+            pending = new Evolution();
+          }
+          pending.add(request);
+          evolution = pending;
+          leader = false;
+        }
+      }
+
+      if (leader) {
+        executeAll(evolution);
+      }
+      evolution.await(request);
+    }
+
+    /** Execute the given evolution and every evolution collected while it was running. */
+    private void executeAll(Evolution first) {
+      Evolution current = first;
+      while (current != null) {
+        current.execute();
+        synchronized (this) {
+          rememberEvolvedColumns(current);
+          running = pending;
+          pending = null;
+          current = running;
+        }
+      }
+    }
+
+    /** Guarded by this. */
+    private boolean isEvolved(SchemaEvolutionTargetItems targetItems) {
+      final long evolvedAfter = currentTimeMillis.getAsLong() - EVOLVED_COLUMNS_RETENTION_MS;
+      return isEvolved(addedColumns, targetItems.getColumnsToAdd(), evolvedAfter)
+          && isEvolved(
+              columnsWithDroppedNonNullability,
+              targetItems.getColumnsToDropNonNullability(),
+              evolvedAfter);
+    }
+
+    private boolean isEvolved(
+        Map<String, Long> evolvedColumns, List<String> columns, long evolvedAfter) {
+      return columns.stream()
+          .allMatch(column -> evolvedColumns.getOrDefault(column, Long.MIN_VALUE) > evolvedAfter);
+    }
+
+    /** Guarded by this. */
+    private void rememberEvolvedColumns(Evolution evolution) {
+      final long now = currentTimeMillis.getAsLong();
+      final long evolvedAfter = now - EVOLVED_COLUMNS_RETENTION_MS;
+      addedColumns.values().removeIf(evolvedAt -> evolvedAt <= evolvedAfter);
+      columnsWithDroppedNonNullability.values().removeIf(evolvedAt -> evolvedAt <= evolvedAfter);
+      evolution.evolvedColumnsToAdd.forEach(column -> addedColumns.put(column, now));
+      evolution.evolvedColumnsToDropNonNullability.forEach(
+          column -> columnsWithDroppedNonNullability.put(column, now));
+    }
+  }
+
+  /** Merged requests of one or more channels, executed together. */
+  private class Evolution {
+    private final List<SchemaEvolutionRequest> requests = new ArrayList<>();
+    private final Set<String> columnsToAdd = new HashSet<>();
+    private final Set<String> columnsToDropNonNullability = new HashSet<>();
+    private final Map<SchemaEvolutionRequest, RuntimeException> failures =
+        new IdentityHashMap<>();
+    // columns the table has been altered for
+    private final Set<String> evolvedColumnsToAdd = new HashSet<>();
+    private final Set<String> evolvedColumnsToDropNonNullability = new HashSet<>();
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+    private void add(SchemaEvolutionRequest request) {
+      requests.add(request);
+      columnsToAdd.addAll(request.getTargetItems().getColumnsToAdd());
+      columnsToDropNonNullability.addAll(
+          request.getTargetItems().getColumnsToDropNonNullability());
+    }
+
+    private boolean covers(SchemaEvolutionTargetItems targetItems) {
+      return columnsToAdd.containsAll(targetItems.getColumnsToAdd())
+          && columnsToDropNonNullability.containsAll(targetItems.getColumnsToDropNonNullability());
+    }
+
+    private void execute() {
+      try {
+        if (requests.size() > 1) {
+          LOGGER.info(
+              "Merged {} schema evolution requests of table:{}, columns to add:{}, columns to drop"
+                  + " nonNullability:{}",
+              requests.size(),
+              requests.get(0).getTargetItems().getTableName(),
+              columnsToAdd,
+              columnsToDropNonNullability);
+        }
+        addEvolved(schemaEvolutionService.evolveSchemaIfNeeded(requests));
+      } catch (RuntimeException e) {
+        if (requests.size() == 1) {
+          failures.put(requests.get(0), e);
+        } else {
+          LOGGER.warn("Merged schema evolution failed, evolving the table per request", e);
+          for (SchemaEvolutionRequest request : requests) {
+            try {
+              addEvolved(
+                  schemaEvolutionService.evolveSchemaIfNeeded(
+                      Collections.singletonList(request)));
+            } catch (RuntimeException requestFailure) {
+              failures.put(request, requestFailure);
+            }
+          }
+        }
+      } finally {
+        done.complete(null);
+      }
+    }
+
+    private void addEvolved(SchemaEvolutionTargetItems evolved) {
+      evolvedColumnsToAdd.addAll(evolved.getColumnsToAdd());
+      evolvedColumnsToDropNonNullability.addAll(evolved.getColumnsToDropNonNullability());
+    }
+
+    /**
+     * Wait for the evolution and rethrow the failure of the given request. Requests which only
+     * waited for a covering evolution do not fail, their channel retries after reopening.
+     */
+    private void await(SchemaEvolutionRequest request) {
+      done.join();
+      RuntimeException failure = failures.get(request);
+      if (failure != null) {
+        throw failure;
+      }
+    }
+  }
+}
@@ -4,12 +4,18 @@ import com.google.common.annotations.VisibleForTesting;
 import com.snowflake.kafka.connector.internal.SnowflakeConnectionService;
 import com.snowflake.kafka.connector.internal.SnowflakeKafkaConnectorException;
 import com.snowflake.kafka.connector.internal.streaming.common.ColumnProperties;
+import com.snowflake.kafka.connector.internal.streaming.schemaevolution.ColumnInfos;
+import com.snowflake.kafka.connector.internal.streaming.schemaevolution.SchemaEvolutionRequest;
 import com.snowflake.kafka.connector.internal.streaming.schemaevolution.SchemaEvolutionService;
 import com.snowflake.kafka.connector.internal.streaming.schemaevolution.SchemaEvolutionTargetItems;
-import com.snowflake.kafka.connector.internal.streaming.schemaevolution.TableSchema;
 import com.snowflake.kafka.connector.internal.streaming.schemaevolution.TableSchemaResolver;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.apache.kafka.connect.sink.SinkRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -48,41 +54,123 @@ public class SnowflakeSchemaEvolutionService implements SchemaEvolutionService {
       SchemaEvolutionTargetItems targetItems,
       SinkRecord record,
       Map<String, ColumnProperties> existingSchema) {
-    String tableName = targetItems.getTableName();
-    List<String> columnsToDropNullability = targetItems.getColumnsToDropNonNullability();
-    // Update nullability if needed, ignore any exceptions since other task might be succeeded
-    if (!columnsToDropNullability.isEmpty()) {
-      LOGGER.debug(
-          "Dropping nonNullability for table: {} columns: {}", tableName, columnsToDropNullability);
-      try {
-        conn.alterNonNullableColumns(targetItems.getTableName(), columnsToDropNullability);
-      } catch (SnowflakeKafkaConnectorException e) {
-        LOGGER.warn(
-            String.format(
-                "Failure altering table to update nullability: %s, this could happen when multiple"
-                    + " partitions try to alter the table at the same time and the warning could be"
-                    + " ignored",
-                tableName),
-            e);
+    evolveSchemaIfNeeded(
+        Collections.singletonList(new SchemaEvolutionRequest(targetItems, record, existingSchema)));
+  }
+
+  /**
+   * Merge the requests of several channels into at most one command updating the nullability and
+   * one command adding columns. The type of each new column is resolved from the first record
+   * requesting it. If a merged command fails, it is retried for every request on its own, so that
+   * one column which cannot be altered does not fail the evolution of the other requests.
+   *
+   * @param requests schema evolution requests of one table
+   * @return columns the table has been altered for
+   */
+  @Override
+  public SchemaEvolutionTargetItems evolveSchemaIfNeeded(List<SchemaEvolutionRequest> requests) {
+    if (requests.isEmpty()) {
+      return new SchemaEvolutionTargetItems(null, Collections.emptyList());
+    }
+    String tableName = requests.get(0).getTargetItems().getTableName();
+    return new SchemaEvolutionTargetItems(
+        tableName, dropNonNullability(tableName, requests), addColumns(tableName, requests));
+  }
+
+  /** @return columns whose nullability has been updated */
+  private List<String> dropNonNullability(String tableName, List<SchemaEvolutionRequest> requests) {
+    Set<String> columnsToDropNullability = new LinkedHashSet<>();
+    requests.forEach(
+        request ->
+            columnsToDropNullability.addAll(
+                request.getTargetItems().getColumnsToDropNonNullability()));
+    if (columnsToDropNullability.isEmpty()) {
+      return Collections.emptyList();
+    }
+    LOGGER.debug(
+        "Dropping nonNullability for table: {} columns: {}", tableName, columnsToDropNullability);
+    if (tryAlterNonNullableColumns(tableName, new ArrayList<>(columnsToDropNullability))) {
+      return new ArrayList<>(columnsToDropNullability);
+    }
+    Set<String> droppedNonNullability = new LinkedHashSet<>();
+    if (requests.size() > 1) {
+      for (SchemaEvolutionRequest request : requests) {
+        List<String> columns = request.getTargetItems().getColumnsToDropNonNullability();
+        if (!columns.isEmpty() && tryAlterNonNullableColumns(tableName, columns)) {
+          droppedNonNullability.addAll(columns);
+        }
       }
     }
-    List<String> columnsToAdd = targetItems.getColumnsToAdd();
-    // Add columns if needed, ignore any exceptions since other task might be succeeded
-    if (!columnsToAdd.isEmpty()) {
-      LOGGER.debug("Adding columns to table: {} columns: {}", tableName, columnsToAdd);
-      TableSchema tableSchema =
-          tableSchemaResolver.resolveTableSchemaFromRecord(record, columnsToAdd);
-      try {
-        conn.appendColumnsToTable(tableName, tableSchema.getColumnInfos());
-      } catch (SnowflakeKafkaConnectorException e) {
-        LOGGER.warn(
-            String.format(
-                "Failure altering table to add column: %s, this could happen when multiple"
-                    + " partitions try to alter the table at the same time and the warning could be"
-                    + " ignored",
-                tableName),
-            e);
+    return new ArrayList<>(droppedNonNullability);
+  }
+
+  /** @return requested columns which have been added */
+  private List<String> addColumns(String tableName, List<SchemaEvolutionRequest> requests) {
+    // columns resolved from the record of every request, in the order of the requests
+    List<Map<String, ColumnInfos>> columnsPerRequest = new ArrayList<>();
+    Map<String, ColumnInfos> columnsToAdd = new LinkedHashMap<>();
+    for (SchemaEvolutionRequest request : requests) {
+      List<String> requestedColumns = request.getTargetItems().getColumnsToAdd();
+      Map<String, ColumnInfos> columns =
+          requestedColumns.isEmpty()
+              ? Collections.emptyMap()
+              : tableSchemaResolver
+                  .resolveTableSchemaFromRecord(request.getRecord(), requestedColumns)
+                  .getColumnInfos();
+      columns.forEach(columnsToAdd::putIfAbsent);
+      columnsPerRequest.add(columns);
+    }
+    if (columnsToAdd.isEmpty()) {
+      return Collections.emptyList();
+    }
+    LOGGER.debug("Adding columns to table: {} columns: {}", tableName, columnsToAdd.keySet());
+    Set<String> addedColumns = new LinkedHashSet<>();
+    if (tryAppendColumnsToTable(tableName, columnsToAdd)) {
+      requests.forEach(request -> addedColumns.addAll(request.getTargetItems().getColumnsToAdd()));
+    } else if (requests.size() > 1) {
+      for (int i = 0; i < requests.size(); i++) {
+        Map<String, ColumnInfos> columns = columnsPerRequest.get(i);
+        if (!columns.isEmpty() && tryAppendColumnsToTable(tableName, columns)) {
+          addedColumns.addAll(requests.get(i).getTargetItems().getColumnsToAdd());
+        }
       }
     }
+    return new ArrayList<>(addedColumns);
+  }
+
+  /** @return false if the table could not be altered, the failure is only logged */
+  private boolean tryAlterNonNullableColumns(String tableName, List<String> columns) {
+    // ignore any exceptions since other task might be succeeded
+    try {
+      conn.alterNonNullableColumns(tableName, columns);
+      return true;
+    } catch (SnowflakeKafkaConnectorException e) {
+      LOGGER.warn(
+          String.format(
+              "Failure altering table to update nullability: %s, this could happen when multiple"
+                  + " partitions try to alter the table at the same time and the warning could be"
+                  + " ignored",
+              tableName),
+          e);
+      return false;
+    }
+  }
+
+  /** @return false if the table could not be altered, the failure is only logged */
+  private boolean tryAppendColumnsToTable(String tableName, Map<String, ColumnInfos> columns) {
+    // ignore any exceptions since other task might be succeeded
+    try {
+      conn.appendColumnsToTable(tableName, columns);
+      return true;
+    } catch (SnowflakeKafkaConnectorException e) {
+      LOGGER.warn(
+          String.format(
+              "Failure altering table to add column: %s, this could happen when multiple"
+                  + " partitions try to alter the table at the same time and the warning could be"
+                  + " ignored",
+              tableName),
+          e);
+      return false;
+    }
   }
 }
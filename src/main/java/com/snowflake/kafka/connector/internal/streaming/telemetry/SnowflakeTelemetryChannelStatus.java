@@ -17,28 +17,56 @@
 
 package com.snowflake.kafka.connector.internal.streaming.telemetry;
 
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.CHANNEL_REOPEN_COUNT;
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.CHANNEL_SUB_DOMAIN;
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.END_TO_END_LAG;
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.INSERTED_RECORDS;
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.INSERT_FALLBACK_COUNT;
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.INSERT_ROWS_DURATION;
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.LATENCY_SUB_DOMAIN;
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.TASK_CHANNELS;
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.THROUGHPUT_SUB_DOMAIN;
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.TRANSFORM_DURATION;
 import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.constructMetricName;
 import static com.snowflake.kafka.connector.internal.streaming.channel.TopicPartitionChannel.NO_OFFSET_TOKEN_REGISTERED_IN_SNOWFLAKE;
 
+import com.codahale.metrics.Counter;
 import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.SlidingWindowReservoir;
+import com.codahale.metrics.Timer;
 import com.google.common.annotations.VisibleForTesting;
 import com.snowflake.kafka.connector.internal.metrics.MetricsJmxReporter;
 import com.snowflake.kafka.connector.internal.metrics.MetricsUtil;
 import com.snowflake.kafka.connector.internal.telemetry.SnowflakeTelemetryBasicInfo;
 import com.snowflake.kafka.connector.internal.telemetry.SnowflakeTelemetryService;
 import com.snowflake.kafka.connector.internal.telemetry.TelemetryConstants;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
 import net.snowflake.client.jdbc.internal.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.kafka.common.record.TimestampType;
+import org.apache.kafka.connect.sink.SinkRecord;
 
 /**
  * Extension of {@link SnowflakeTelemetryBasicInfo} class used to send data to snowflake when the
  * TopicPartitionChannel closes. Also creates and registers various metrics with JMX
  *
  * <p>Most of the data sent to Snowflake is aggregated data.
+ *
+ * <p>Besides the offset gauges, latency and throughput metrics are registered for the channel and,
+ * shared by all channels of the task, under {@link MetricsUtil#TASK_CHANNELS}. Timers keep a
+ * sliding window of the latest measurements so that recording them does not allocate.
  */
 public class SnowflakeTelemetryChannelStatus extends SnowflakeTelemetryBasicInfo {
-  public static final long NUM_METRICS = 3; // update when new metrics are added
+  public static final long NUM_GAUGES = 3; // update when new gauges are added
+  // gauges and metrics of the channel, and metrics of the task registered with the first channel
+  public static final long NUM_METRICS = NUM_GAUGES + 2 * ChannelMetrics.NUM_METRICS;
+
+  // number of records whose end to end lag is waiting for their offset to be persisted
+  private static final int MAX_LAG_SAMPLES = 128;
 
   // channel properties
   private final String connectorName;
@@ -51,6 +79,18 @@ public class SnowflakeTelemetryChannelStatus extends SnowflakeTelemetryBasicInfo
   private final AtomicLong processedOffset;
   private final AtomicLong latestConsumerOffset;
 
+  // latency and throughput metrics of the channel and of all channels of the task, null if JMX
+  // metrics are disabled
+  @Nullable private ChannelMetrics channelMetrics;
+  @Nullable private ChannelMetrics taskMetrics;
+
+  // offsets and timestamps of the sampled records, in offset order, whose offset was not seen
+  // persisted yet
+  private final long[] lagSampleOffsets = new long[MAX_LAG_SAMPLES];
+  private final long[] lagSampleTimestamps = new long[MAX_LAG_SAMPLES];
+  private int lagSampleHead = 0;
+  private int lagSampleCount = 0;
+
   /**
    * Creates a new object tracking {@link
    * com.snowflake.kafka.connector.internal.streaming.channel.TopicPartitionChannel} metrics with
@@ -121,9 +161,13 @@ public class SnowflakeTelemetryChannelStatus extends SnowflakeTelemetryBasicInfo
         this.channelName,
         this.metricsJmxReporter.getMetricRegistry().getMetrics().keySet().toString());
     this.metricsJmxReporter.removeMetricsFromRegistry(this.channelName);
+    this.metricsJmxReporter.registerTableName(this.channelName, this.tableName);
 
     MetricRegistry currentMetricRegistry = this.metricsJmxReporter.getMetricRegistry();
 
+    this.channelMetrics = new ChannelMetrics(currentMetricRegistry, this.channelName);
+    this.taskMetrics = new ChannelMetrics(currentMetricRegistry, TASK_CHANNELS);
+
     try {
       // offsets
       currentMetricRegistry.register(
@@ -149,6 +193,94 @@ public class SnowflakeTelemetryChannelStatus extends SnowflakeTelemetryBasicInfo
     this.metricsJmxReporter.start();
   }
 
+  /**
+   * Records the time it took to convert a record into a row.
+   *
+   * @param durationNanos duration in nanoseconds
+   */
+  public void recordTransform(long durationNanos) {
+    if (channelMetrics != null && taskMetrics != null) {
+      channelMetrics.transformDuration.update(durationNanos, TimeUnit.NANOSECONDS);
+      taskMetrics.transformDuration.update(durationNanos, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  /**
+   * Records a call of insertRow or insertRows.
+   *
+   * @param durationNanos duration of the call in nanoseconds
+   * @param rowCount number of rows inserted by the call
+   */
+  public void recordInsert(long durationNanos, int rowCount) {
+    if (channelMetrics != null && taskMetrics != null) {
+      channelMetrics.insertRowsDuration.update(durationNanos, TimeUnit.NANOSECONDS);
+      taskMetrics.insertRowsDuration.update(durationNanos, TimeUnit.NANOSECONDS);
+      channelMetrics.insertedRecords.mark(rowCount);
+      taskMetrics.insertedRecords.mark(rowCount);
+    }
+  }
+
+  /** Records that the channel was reopened. */
+  public void recordChannelReopen() {
+    if (channelMetrics != null && taskMetrics != null) {
+      channelMetrics.channelReopens.inc();
+      taskMetrics.channelReopens.inc();
+    }
+  }
+
+  /** Records that inserting rows failed and the channel is reopened by the insert fallback. */
+  public void recordInsertFallback() {
+    if (channelMetrics != null && taskMetrics != null) {
+      channelMetrics.insertFallbacks.inc();
+      taskMetrics.insertFallbacks.inc();
+    }
+  }
+
+  /**
+   * Samples a record for the end to end lag, which is recorded once its offset is seen persisted
+   * in Snowflake, see {@link #recordOffsetPersistedInSnowflake(long)}. Records without a timestamp,
+   * or not following the last sampled record, are ignored. The sample is dropped if too many
+   * samples are waiting already.
+   *
+   * @param record record inserted into the channel
+   */
+  public synchronized void sampleEndToEndLag(SinkRecord record) {
+    if (channelMetrics == null
+        || record.timestamp() == null
+        || record.timestampType() == TimestampType.NO_TIMESTAMP_TYPE
+        || lagSampleCount == MAX_LAG_SAMPLES
+        || (lagSampleCount > 0 && record.kafkaOffset() <= lastLagSampleOffset())) {
+      return;
+    }
+    int tail = (lagSampleHead + lagSampleCount) % MAX_LAG_SAMPLES;
+    lagSampleOffsets[tail] = record.kafkaOffset();
+    lagSampleTimestamps[tail] = record.timestamp();
+    lagSampleCount++;
+  }
+
+  /**
+   * Records the end to end lag of the sampled records whose offset is now persisted in Snowflake.
+   *
+   * @param offsetPersistedInSnowflake latest offset committed by the channel
+   */
+  public synchronized void recordOffsetPersistedInSnowflake(long offsetPersistedInSnowflake) {
+    if (channelMetrics == null || taskMetrics == null) {
+      return;
+    }
+    final long now = System.currentTimeMillis();
+    while (lagSampleCount > 0 && lagSampleOffsets[lagSampleHead] <= offsetPersistedInSnowflake) {
+      final long lagMillis = Math.max(0, now - lagSampleTimestamps[lagSampleHead]);
+      channelMetrics.endToEndLag.update(lagMillis);
+      taskMetrics.endToEndLag.update(lagMillis);
+      lagSampleHead = (lagSampleHead + 1) % MAX_LAG_SAMPLES;
+      lagSampleCount--;
+    }
+  }
+
+  private long lastLagSampleOffset() {
+    return lagSampleOffsets[(lagSampleHead + lagSampleCount - 1) % MAX_LAG_SAMPLES];
+  }
+
   /** Unregisters the JMX metrics if possible */
   public void tryUnregisterChannelJMXMetrics() {
     if (this.metricsJmxReporter != null) {
@@ -183,4 +315,56 @@ public class SnowflakeTelemetryChannelStatus extends SnowflakeTelemetryBasicInfo
   public long getLatestConsumerOffset() {
     return this.latestConsumerOffset.get();
   }
+
+  /** Latency and throughput metrics of a channel, or of all channels of a task. */
+  private static class ChannelMetrics {
+    private static final long NUM_METRICS = 6; // update when new metrics are added
+
+    // size of the sliding window of the timers and histograms
+    private static final int WINDOW_SIZE = 1024;
+
+    private final Timer transformDuration;
+    private final Timer insertRowsDuration;
+    private final Histogram endToEndLag;
+    private final Meter insertedRecords;
+    private final Counter channelReopens;
+    private final Counter insertFallbacks;
+
+    /**
+     * Registers the metrics, or gets them if they are already registered.
+     *
+     * @param metricRegistry registry of the task metrics
+     * @param name channel name, or {@link MetricsUtil#TASK_CHANNELS}
+     */
+    private ChannelMetrics(MetricRegistry metricRegistry, String name) {
+      this.transformDuration =
+          metricRegistry.timer(
+              constructMetricName(name, LATENCY_SUB_DOMAIN, TRANSFORM_DURATION),
+              ChannelMetrics::newTimer);
+      this.insertRowsDuration =
+          metricRegistry.timer(
+              constructMetricName(name, LATENCY_SUB_DOMAIN, INSERT_ROWS_DURATION),
+              ChannelMetrics::newTimer);
+      this.endToEndLag =
+          metricRegistry.histogram(
+              constructMetricName(name, LATENCY_SUB_DOMAIN, END_TO_END_LAG),
+              ChannelMetrics::newHistogram);
+      this.insertedRecords =
+          metricRegistry.meter(constructMetricName(name, THROUGHPUT_SUB_DOMAIN, INSERTED_RECORDS));
+      this.channelReopens =
+          metricRegistry.counter(
+              constructMetricName(name, CHANNEL_SUB_DOMAIN, CHANNEL_REOPEN_COUNT));
+      this.insertFallbacks =
+          metricRegistry.counter(
+              constructMetricName(name, CHANNEL_SUB_DOMAIN, INSERT_FALLBACK_COUNT));
+    }
+
+    private static Timer newTimer() {
+      return new Timer(new SlidingWindowReservoir(WINDOW_SIZE));
+    }
+
+    private static Histogram newHistogram() {
+      return new Histogram(new SlidingWindowReservoir(WINDOW_SIZE));
+    }
+  }
 }
@@ -0,0 +1,65 @@
+package com.snowflake.kafka.connector.internal.streaming.validation;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.snowflake.kafka.connector.internal.KCLogger;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Wrapper caching the row schema of every table, so that all partitions ingesting into the same
+ * table share a single schema.
+ *
+ * <p>A schema is fetched again once it is older than the configured ttl. Concurrent lookups of a
+ * table which is not cached wait for a single request to the wrapped provider. The schema has to
+ * be invalidated explicitly when the connector alters the table.
+ */
+public class CachingRowSchemaProvider implements RowSchemaProvider {
+
+  private static final KCLogger LOGGER = new KCLogger(CachingRowSchemaProvider.class.getName());
+
+  private final RowSchemaProvider provider;
+  private final Cache<String, RowSchema> rowSchemas;
+
+  public CachingRowSchemaProvider(RowSchemaProvider provider, Duration ttl) {
+    this(provider, ttl, Ticker.systemTicker());
+  }
+
+  @VisibleForTesting
+  CachingRowSchemaProvider(RowSchemaProvider provider, Duration ttl, Ticker ticker) {
+    this.provider = provider;
+    this.rowSchemas = CacheBuilder.newBuilder().expireAfterWrite(ttl).ticker(ticker).build();
+  }
+
+  @Override
+  public RowSchema getRowSchema(String tableName, Map<String, String> connectorConfig) {
+    try {
+      return rowSchemas.get(
+          tableName,
+          () -> {
+            LOGGER.info("Fetching row schema of table:{}", tableName);
+            return provider.getRowSchema(tableName, connectorConfig);
+          });
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      // failures are not cached, the next lookup calls the wrapped provider again
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new IllegalStateException("Failed to get row schema of table " + tableName, e);
+    }
+  }
+
+  /**
+   * Drops the cached schema of the table, the next lookup fetches the current schema.
+   *
+   * @param tableName table which has been altered
+   */
+  public void invalidate(String tableName) {
+    LOGGER.info("Invalidating cached row schema of table:{}", tableName);
+    rowSchemas.invalidate(tableName);
+  }
+}
@@ -10,6 +10,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import net.snowflake.ingest.utils.IcebergDataTypeParser;
 import org.apache.parquet.column.ColumnDescriptor;
 import org.apache.parquet.schema.MessageType;
@@ -25,6 +26,27 @@ public class RowSchema {
   private final boolean isIceberg;
   private final Map<String, ColumnProperties> columnProperties = new HashMap<>();
 
+  // Maximum number of row keys remembered with their column slot
+  private static final int MAX_KEY_SLOTS = 10000;
+
+  /*
+   * Validation plan compiled from the columns, indexed by column slot, i.e. the index of the column
+   * in the parquet schema. Row keys are resolved to slots once, later rows are validated with
+   * array lookups only.
+   */
+  private final ColumnValidator[] columnValidators;
+  // bit of each non-nullable column in the mask of columns present in a row, -1 if nullable
+  private final int[] nonNullableBits;
+  private final int nonNullableCount;
+  // row key, quoted or not, -> column slot. Rows of the same table share their keys.
+  private final Map<String, Integer> keySlots = new ConcurrentHashMap<>();
+
+  /** Validates the value of a column, compiled once per column. */
+  @FunctionalInterface
+  interface ColumnValidator {
+    void validate(Object value, long rowIndex, PkgInsertError error);
+  }
+
   /**
    * Set up the parquet schema.
    *
@@ -33,6 +55,7 @@ public class RowSchema {
   public RowSchema(boolean isIceberg, List<ColumnMetadata> columns) {
     this.isIceberg = isIceberg;
     List<Type> parquetTypes = new ArrayList<>();
+    List<PkgParquetColumn> parquetColumns = new ArrayList<>();
     int id = 1;
 
     for (ColumnMetadata column : columns) {
@@ -43,8 +66,9 @@ public class RowSchema {
       Type parquetType = typeInfo.parquetType();
       parquetTypes.add(parquetType);
       int columnIndex = parquetTypes.size() - 1;
-      fieldIndex.put(
-          column.getInternalName(), new PkgParquetColumn(column, columnIndex, parquetType));
+      PkgParquetColumn parquetColumn = new PkgParquetColumn(column, columnIndex, parquetType);
+      fieldIndex.put(column.getInternalName(), parquetColumn);
+      parquetColumns.add(parquetColumn);
       columnProperties.put(column.getName(), new ColumnProperties(column));
 
       if (!column.getNullable()) {
@@ -134,6 +158,50 @@ public class RowSchema {
     } else {
       subColumnFinder = null;
     }
+
+    columnValidators = new ColumnValidator[parquetColumns.size()];
+    nonNullableBits = new int[parquetColumns.size()];
+    int nonNullableColumns = 0;
+    for (PkgParquetColumn parquetColumn : parquetColumns) {
+      columnValidators[parquetColumn.index] = compileValidator(parquetColumn);
+      nonNullableBits[parquetColumn.index] =
+          parquetColumn.columnMetadata.getNullable() ? -1 : nonNullableColumns++;
+
+      String internalName = parquetColumn.columnMetadata.getInternalName();
+      keySlots.put(parquetColumn.columnMetadata.getName(), parquetColumn.index);
+      String quotedName = '"' + internalName.replace("\"", "\"\"") + '"';
+      if (internalName.equals(PkgLiteralQuoteUtils.unquoteColumnName(quotedName))) {
+        keySlots.put(quotedName, parquetColumn.index);
+      }
+    }
+    nonNullableCount = nonNullableColumns;
+  }
+
+  /** Resolves everything about the column up front, only the value is left to validate. */
+  private ColumnValidator compileValidator(PkgParquetColumn parquetColumn) {
+    final Type type = parquetColumn.type;
+    if (isIceberg) {
+      final PkgSubColumnFinder finder = subColumnFinder;
+      return (value, rowIndex, error) ->
+          PkgParquetValueParserIceberg.parseColumnValueToParquet(
+              value, type, finder, RowSchemaValidator.defaultTimezone, rowIndex, error);
+    }
+    final ColumnMetadata column = parquetColumn.columnMetadata;
+    if (!type.isPrimitive()) {
+      // fails like the validation of any value of the column would
+      return (value, rowIndex, error) ->
+          PkgParquetValueParserSnowflake.parseColumnValueToParquet(
+              value,
+              column,
+              type.asPrimitiveType().getPrimitiveTypeName(),
+              RowSchemaValidator.defaultTimezone,
+              rowIndex,
+              true);
+    }
+    final PrimitiveType.PrimitiveTypeName typeName = type.asPrimitiveType().getPrimitiveTypeName();
+    return (value, rowIndex, error) ->
+        PkgParquetValueParserSnowflake.parseColumnValueToParquet(
+            value, column, typeName, RowSchemaValidator.defaultTimezone, rowIndex, true);
   }
 
   /**
@@ -181,6 +249,70 @@ public class RowSchema {
     return isIceberg;
   }
 
+  /**
+   * @param key row key, quoted or not
+   * @return slot of the column, -1 if the table has no such column
+   */
+  int slotOf(String key) {
+    Integer slot = keySlots.get(key);
+    if (slot != null) {
+      return slot;
+    }
+    PkgParquetColumn column = fieldIndex.get(PkgLiteralQuoteUtils.unquoteColumnName(key));
+    if (column == null) {
+      return -1;
+    }
+    if (keySlots.size() < MAX_KEY_SLOTS) {
+      keySlots.put(key, column.index);
+    }
+    return column.index;
+  }
+
+  ColumnValidator getColumnValidator(int slot) {
+    return columnValidators[slot];
+  }
+
+  /**
+   * Checks the columns of the row without building any intermediate collection. Returns false if
+   * the row has an extra column, misses a non-nullable column or has a null value for one, the
+   * columns are then validated in detail to report the error.
+   */
+  boolean hasValidColumns(Map<String, Object> row) {
+    long presentMask = 0;
+    // only allocated for tables with more than 64 non-nullable columns
+    long[] presentWords = nonNullableCount > Long.SIZE ? new long[words(nonNullableCount)] : null;
+    for (Map.Entry<String, Object> entry : row.entrySet()) {
+      int slot = slotOf(entry.getKey());
+      if (slot < 0) {
+        return false;
+      }
+      int bit = nonNullableBits[slot];
+      if (bit >= 0) {
+        if (entry.getValue() == null) {
+          return false;
+        }
+        if (presentWords == null) {
+          presentMask |= 1L << bit;
+        } else {
+          presentWords[bit / Long.SIZE] |= 1L << bit;
+        }
+      }
+    }
+    if (presentWords == null) {
+      return presentMask == (nonNullableCount == Long.SIZE ? -1L : (1L << nonNullableCount) - 1);
+    }
+    for (int bit = 0; bit < nonNullableCount; bit++) {
+      if ((presentWords[bit / Long.SIZE] & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int words(int bits) {
+    return (bits + Long.SIZE - 1) / Long.SIZE;
+  }
+
   public Error validate(Map<String, Object> row) {
     PkgInsertError insertError = new PkgInsertError(row, 0);
     try {
@@ -9,7 +9,7 @@ import java.util.Set;
 
 public class RowSchemaValidator {
   // Map of the column name to the column object, used for null/missing column check
-  private static final ZoneId defaultTimezone = ZoneId.of("America/Los_Angeles");
+  static final ZoneId defaultTimezone = ZoneId.of("America/Los_Angeles");
 
   /**
    * Verify that the input row columns are all valid.
@@ -23,6 +23,14 @@ public class RowSchemaValidator {
    */
   static void validateRowColumns(
       RowSchema rowSchema, Map<String, Object> row, PkgInsertError error, int rowIndex) {
+    if (!rowSchema.hasValidColumns(row)) {
+      validateRowColumnsInDetail(rowSchema, row, error, rowIndex);
+    }
+  }
+
+  /** Finds the invalid columns of the row and throws an error listing them. */
+  private static void validateRowColumnsInDetail(
+      RowSchema rowSchema, Map<String, Object> row, PkgInsertError error, int rowIndex) {
     // Map of unquoted column name -> original column name
     Set<String> originalKeys = row.keySet();
     Map<String, String> inputColNamesMap = new HashMap<>();
@@ -90,29 +98,11 @@ public class RowSchemaValidator {
   static void validateRowValues(
       RowSchema rowSchema, Map<String, Object> row, PkgInsertError error, long rowIndex) {
 
+    // the columns were validated already, every key has a slot
     for (Map.Entry<String, Object> entry : row.entrySet()) {
-      String key = entry.getKey();
-      Object value = entry.getValue();
-      String columnName = PkgLiteralQuoteUtils.unquoteColumnName(key);
-      PkgParquetColumn parquetColumn = rowSchema.get(columnName);
-      ColumnMetadata column = parquetColumn.columnMetadata;
-      if (rowSchema.isIceberg()) {
-        PkgParquetValueParserIceberg.parseColumnValueToParquet(
-            value,
-            parquetColumn.type,
-            rowSchema.getSubColumnFinder(),
-            defaultTimezone,
-            rowIndex,
-            error);
-      } else {
-        PkgParquetValueParserSnowflake.parseColumnValueToParquet(
-            value,
-            column,
-            parquetColumn.type.asPrimitiveType().getPrimitiveTypeName(),
-            defaultTimezone,
-            rowIndex,
-            true);
-      }
+      rowSchema
+          .getColumnValidator(rowSchema.slotOf(entry.getKey()))
+          .validate(entry.getValue(), rowIndex, error);
     }
   }
 }
@@ -339,6 +339,7 @@ public class SnowflakeTelemetryPipeStatus extends SnowflakeTelemetryBasicInfo {
         pipeName,
         metricsJmxReporter.getMetricRegistry().getMetrics().keySet().toString());
     metricsJmxReporter.removeMetricsFromRegistry(pipeName);
+    metricsJmxReporter.registerTableName(pipeName, tableName);
 
     try {
       // Latency JMX
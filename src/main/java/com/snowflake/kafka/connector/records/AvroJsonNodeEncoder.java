@@ -0,0 +1,126 @@
+package com.snowflake.kafka.connector.records;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericEnumSymbol;
+import org.apache.avro.generic.GenericFixed;
+import org.apache.avro.generic.IndexedRecord;
+
+/**
+ * Encodes Avro data decoded by a {@link org.apache.avro.generic.GenericDatumReader} into Jackson
+ * nodes.
+ *
+ * <p>The produced tree is the same as the one obtained by parsing {@link
+ * org.apache.avro.generic.GenericData#toString(Object)} with an ObjectMapper, which the converter
+ * used to do, but the json text is never built nor parsed. In particular, numbers get the node type
+ * Jackson picks when parsing their text: longs fitting into an int become int nodes, floats and
+ * decimals with a fraction or an exponent become double nodes, non finite floating point numbers
+ * become strings, bytes are decoded as ISO-8859-1 text and fixed values become arrays of signed
+ * bytes.
+ */
+final class AvroJsonNodeEncoder {
+
+  private static final JsonNodeFactory NODE_FACTORY = JsonNodeFactory.instance;
+
+  private AvroJsonNodeEncoder() {}
+
+  /**
+   * @param datum value returned by the datum reader, decimals already converted to BigDecimal
+   * @return json representation of the value
+   */
+  static JsonNode encode(Object datum) {
+    if (datum == null) {
+      return NODE_FACTORY.nullNode();
+    }
+    if (datum instanceof IndexedRecord) {
+      IndexedRecord record = (IndexedRecord) datum;
+      ObjectNode node = NODE_FACTORY.objectNode();
+      for (Schema.Field field : record.getSchema().getFields()) {
+        node.set(field.name(), encode(record.get(field.pos())));
+      }
+      return node;
+    }
+    if (datum instanceof Collection) {
+      ArrayNode node = NODE_FACTORY.arrayNode(((Collection<?>) datum).size());
+      for (Object element : (Collection<?>) datum) {
+        node.add(encode(element));
+      }
+      return node;
+    }
+    if (datum instanceof Map) {
+      ObjectNode node = NODE_FACTORY.objectNode();
+      for (Map.Entry<?, ?> entry : ((Map<?, ?>) datum).entrySet()) {
+        node.set(String.valueOf(entry.getKey()), encode(entry.getValue()));
+      }
+      return node;
+    }
+    if (datum instanceof CharSequence || datum instanceof GenericEnumSymbol) {
+      return NODE_FACTORY.textNode(datum.toString());
+    }
+    if (datum instanceof ByteBuffer) {
+      return NODE_FACTORY.textNode(
+          StandardCharsets.ISO_8859_1.decode(((ByteBuffer) datum).duplicate()).toString());
+    }
+    if (datum instanceof GenericFixed) {
+      byte[] bytes = ((GenericFixed) datum).bytes();
+      ArrayNode node = NODE_FACTORY.arrayNode(bytes.length);
+      for (byte b : bytes) {
+        node.add(b);
+      }
+      return node;
+    }
+    if (datum instanceof Integer) {
+      return NODE_FACTORY.numberNode((Integer) datum);
+    }
+    if (datum instanceof Long) {
+      return integralNode((Long) datum);
+    }
+    if (datum instanceof Double) {
+      double value = (Double) datum;
+      return Double.isFinite(value)
+          ? NODE_FACTORY.numberNode(value)
+          : NODE_FACTORY.textNode(Double.toString(value));
+    }
+    if (datum instanceof Float) {
+      float value = (Float) datum;
+      // the float is printed, then read back as a double
+      return Float.isFinite(value)
+          ? NODE_FACTORY.numberNode(Double.parseDouble(Float.toString(value)))
+          : NODE_FACTORY.textNode(Float.toString(value));
+    }
+    if (datum instanceof Boolean) {
+      return NODE_FACTORY.booleanNode((Boolean) datum);
+    }
+    if (datum instanceof BigDecimal) {
+      return decimalNode((BigDecimal) datum);
+    }
+    // logical type conversions are not registered for other types
+    return NODE_FACTORY.textNode(datum.toString());
+  }
+
+  private static JsonNode integralNode(long value) {
+    return value == (int) value
+        ? NODE_FACTORY.numberNode((int) value)
+        : NODE_FACTORY.numberNode(value);
+  }
+
+  private static JsonNode decimalNode(BigDecimal value) {
+    String text = value.toString();
+    if (text.indexOf('.') >= 0 || text.indexOf('E') >= 0) {
+      return NODE_FACTORY.numberNode(Double.parseDouble(text));
+    }
+    BigInteger integer = value.toBigIntegerExact();
+    return integer.bitLength() < Long.SIZE
+        ? integralNode(integer.longValue())
+        : NODE_FACTORY.numberNode(integer);
+  }
+}
@@ -0,0 +1,140 @@
+package com.snowflake.kafka.connector.records;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.snowflake.kafka.connector.internal.KCLogger;
+import io.confluent.kafka.schemaregistry.client.SchemaMetadata;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+import org.apache.avro.Schema;
+import org.apache.avro.io.DatumReader;
+
+/**
+ * Writer schemas and their compiled datum readers, by schema id.
+ *
+ * <p>A schema id is resolved with the schema registry once, every further record with the same id
+ * reuses the schema and the datum reader, which holds the resolution of the writer schema into the
+ * reader schema. Failed lookups can be remembered for a short time, so that a registry outage or an
+ * unknown id does not turn every record into a registry call.
+ */
+class AvroSchemaCache {
+
+  private static final KCLogger LOGGER = new KCLogger(AvroSchemaCache.class.getName());
+
+  private final SchemaRegistryClient schemaRegistry;
+  private final Function<Schema, DatumReader<Object>> datumReaderFactory;
+  private final Cache<Integer, Entry> entries;
+  // cause of the last failed lookup of an id, a new exception is thrown on every hit, null if
+  // failed lookups are not remembered
+  @Nullable private final Cache<Integer, Exception> failures;
+
+  AvroSchemaCache(
+      SchemaRegistryClient schemaRegistry,
+      Function<Schema, DatumReader<Object>> datumReaderFactory,
+      long maxSchemas,
+      long failureTtlMs) {
+    this(schemaRegistry, datumReaderFactory, maxSchemas, failureTtlMs, Ticker.systemTicker());
+  }
+
+  @VisibleForTesting
+  AvroSchemaCache(
+      SchemaRegistryClient schemaRegistry,
+      Function<Schema, DatumReader<Object>> datumReaderFactory,
+      long maxSchemas,
+      long failureTtlMs,
+      Ticker ticker) {
+    this.schemaRegistry = schemaRegistry;
+    this.datumReaderFactory = datumReaderFactory;
+    this.entries = CacheBuilder.newBuilder().maximumSize(maxSchemas).recordStats().build();
+    this.failures =
+        failureTtlMs <= 0
+            ? null
+            : CacheBuilder.newBuilder()
+                .maximumSize(maxSchemas)
+                .expireAfterWrite(failureTtlMs, TimeUnit.MILLISECONDS)
+                .ticker(ticker)
+                .build();
+  }
+
+  /**
+   * @param id schema id of the record
+   * @return writer schema and datum reader of the id
+   * @throws Exception failure of the registry lookup, or an IOException caused by a remembered
+   *     one
+   */
+  Entry get(int id) throws Exception {
+    Exception failure = failures == null ? null : failures.getIfPresent(id);
+    if (failure != null) {
+      throw new IOException(
+          "Lookup of schema id:" + id + " failed recently: " + failure.getMessage(), failure);
+    }
+    try {
+      return entries.get(id, () -> load(id));
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      Exception cause = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+      if (failures == null) {
+        LOGGER.warn(
+            "Failed to get schema id:{} from schema registry, retrying in the next lookup: {}",
+            id,
+            cause.getMessage());
+      } else {
+        failures.put(id, cause);
+        LOGGER.warn(
+            "Failed to get schema id:{} from schema registry, retrying in the next lookup after"
+                + " the failure expires: {}",
+            id,
+            cause.getMessage());
+      }
+      throw cause;
+    }
+  }
+
+  /**
+   * Loads the latest schema of every subject, so that the first records of the task do not wait
+   * for the registry. Failures are logged and otherwise ignored.
+   *
+   * @param subjects subjects to load
+   */
+  void warmUp(Collection<String> subjects) {
+    for (String subject : subjects) {
+      try {
+        SchemaMetadata metadata = schemaRegistry.getLatestSchemaMetadata(subject);
+        get(metadata.getId());
+        LOGGER.info("Loaded schema id:{} of subject:{}", metadata.getId(), subject);
+      } catch (Exception e) {
+        LOGGER.warn("Failed to load latest schema of subject:{}: {}", subject, e.getMessage());
+      }
+    }
+  }
+
+  /** @return hit and miss counts of the schema lookups */
+  CacheStats stats() {
+    return entries.stats();
+  }
+
+  private Entry load(int id) throws Exception {
+    Schema writerSchema = schemaRegistry.getById(id);
+    Entry entry = new Entry(writerSchema, datumReaderFactory.apply(writerSchema));
+    LOGGER.info("Loaded schema id:{} from schema registry, schema cache: {}", id, entries.stats());
+    return entry;
+  }
+
+  static final class Entry {
+    final Schema writerSchema;
+    final DatumReader<Object> datumReader;
+
+    private Entry(Schema writerSchema, DatumReader<Object> datumReader) {
+      this.writerSchema = writerSchema;
+      this.datumReader = datumReader;
+    }
+  }
+}
@@ -22,6 +22,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.cache.CacheStats;
 import com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig;
 import com.snowflake.kafka.connector.internal.KCLogger;
 import com.snowflake.kafka.connector.internal.SnowflakeErrors;
@@ -132,6 +133,21 @@ public class RecordService {
       valueContent = (SnowflakeRecordContent) record.value();
     }
 
+    return new SnowflakeTableRow(
+        valueContent, buildMetadata(record, valueContent.getSchemaID(), connectorPushTime));
+  }
+
+  /**
+   * Builds the RECORD_METADATA content of the given record according to the metadata config
+   *
+   * @param record SinkRecord
+   * @param valueSchemaId schema id of the value, {@link SnowflakeRecordContent#NON_AVRO_SCHEMA} if
+   *     not available
+   * @param connectorPushTime a timestamp when the record is being pushed further. If null, the
+   *     respective metadata field is ignored.
+   */
+  private ObjectNode buildMetadata(
+      SinkRecord record, int valueSchemaId, @Nullable Instant connectorPushTime) {
     ObjectNode meta = mapper.createObjectNode();
     if (metadataConfig.topicFlag) {
       meta.put(TOPIC, record.topic());
@@ -148,8 +164,8 @@ public class RecordService {
     }
 
     // include schema id if using avro with schema registry
-    if (valueContent.getSchemaID() != SnowflakeRecordContent.NON_AVRO_SCHEMA) {
-      meta.put(SCHEMA_ID, valueContent.getSchemaID());
+    if (valueSchemaId != SnowflakeRecordContent.NON_AVRO_SCHEMA) {
+      meta.put(SCHEMA_ID, valueSchemaId);
     }
 
     if (connectorPushTime != null && metadataConfig.connectorPushTimeFlag) {
@@ -162,7 +178,7 @@ public class RecordService {
       meta.set(HEADERS, parseHeaders(record.headers()));
     }
 
-    return new SnowflakeTableRow(valueContent, meta);
+    return meta;
   }
 
   /**
@@ -202,16 +218,49 @@ public class RecordService {
    *
    * <p>When schematization is enabled, the content of the record is extracted into a map
    *
+   * <p>A {@link Struct} value accepted by {@link #supportsDirectStructMapping(SinkRecord)} is mapped
+   * without converting it into Json first.
+   *
    * @param record record from Kafka to (Which was serialized in Json)
    * @return Json String with metadata and actual Payload from Kafka Record
    */
   public Map<String, Object> getProcessedRecordForStreamingIngest(SinkRecord record)
       throws JsonProcessingException {
+    if (supportsDirectStructMapping(record)) {
+      JsonNode metadata =
+          buildMetadata(record, SnowflakeRecordContent.NON_AVRO_SCHEMA, clock.instant());
+      return streamingRecordMapper.processStructRecord(
+          (Struct) record.value(), record.valueSchema(), metadata, metadataConfig.allFlag);
+    }
+
     SnowflakeTableRow row = processRecord(record, clock.instant());
 
     return streamingRecordMapper.processSnowflakeRecord(row, metadataConfig.allFlag);
   }
 
+  /**
+   * Returns true if the record value is a {@link Struct} which can be mapped into a schematized row
+   * directly, skipping the conversion into {@link SnowflakeRecordContent}.
+   *
+   * @param record record from Kafka, as returned by the value converter
+   */
+  public boolean supportsDirectStructMapping(SinkRecord record) {
+    return isDirectStructMappingEnabled()
+        && record.value() instanceof Struct
+        && record.valueSchema() != null
+        && record.valueSchema().type() == Schema.Type.STRUCT;
+  }
+
+  /** @return true if struct values of schematized records are mapped without json conversion */
+  public boolean isDirectStructMappingEnabled() {
+    return streamingRecordMapper.supportsStructRecords();
+  }
+
+  /** @return hit and miss counts of the cache holding compiled per-schema struct mappings */
+  public CacheStats getStructMappingCacheStats() {
+    return streamingRecordMapper.structMappingCacheStats();
+  }
+
   /** For now there are two columns one is content and other is metadata. Both are Json */
   static class SnowflakeTableRow {
     // This can be a JsonNode but we will keep this as is.
@@ -1,10 +1,27 @@
 package com.snowflake.kafka.connector.records;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig;
 
 public class RecordServiceFactory {
   public static RecordService createRecordService(
       boolean isIcebergEnabled, boolean enableSchematization, boolean ssv2Enabled) {
+    return createRecordService(
+        isIcebergEnabled,
+        enableSchematization,
+        ssv2Enabled,
+        SnowflakeSinkConnectorConfig.SNOWPIPE_STREAMING_DIRECT_STRUCT_MAPPING_DEFAULT);
+  }
+
+  /**
+   * @param directStructMapping whether struct values of schematized records are mapped without
+   *     converting them into Json first, only used for Snowflake tables
+   */
+  public static RecordService createRecordService(
+      boolean isIcebergEnabled,
+      boolean enableSchematization,
+      boolean ssv2Enabled,
+      boolean directStructMapping) {
     ObjectMapper objectMapper = new ObjectMapper();
     if (isIcebergEnabled) {
       return new RecordService(
@@ -12,7 +29,8 @@ public class RecordServiceFactory {
           objectMapper);
     } else {
       return new RecordService(
-          new SnowflakeTableStreamingRecordMapper(objectMapper, enableSchematization, ssv2Enabled),
+          new SnowflakeTableStreamingRecordMapper(
+              objectMapper, enableSchematization, ssv2Enabled, directStructMapping),
           objectMapper);
     }
   }
@@ -0,0 +1,235 @@
+package com.snowflake.kafka.connector.records;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.snowflake.kafka.connector.Utils;
+import com.snowflake.kafka.connector.internal.SnowflakeErrors;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.apache.kafka.connect.data.Date;
+import org.apache.kafka.connect.data.Decimal;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.data.Time;
+import org.apache.kafka.connect.data.Timestamp;
+
+/**
+ * Maps a {@link Struct} produced by a community converter (Avro, Protobuf, Json with schemas)
+ * directly into a Snowpipe Streaming row of a schematized table.
+ *
+ * <p>The produced values are the same as the ones produced by converting the struct with {@link
+ * RecordService#convertToJson(Schema, Object, boolean)} and then dumping every top level field into
+ * a string, but primitive columns are converted without building the intermediate JsonNode tree.
+ * Nested values (structs, maps, arrays and raw bytes) still go through Jackson since they are
+ * inserted as json text anyway.
+ *
+ * <p>Quoted column names and per field converters are compiled once per value schema and kept in a
+ * bounded LRU cache. Converters reuse their schema instances, so the cache is keyed by the identity
+ * of the struct schema.
+ */
+final class SchematizedStructMapper {
+
+  // Most topics only carry a handful of value schemas
+  static final int MAX_CACHED_SCHEMAS = 100;
+
+  private final ObjectMapper mapper;
+
+  private final Cache<Schema, List<ColumnMapping>> mappings;
+
+  SchematizedStructMapper(ObjectMapper mapper) {
+    this(mapper, MAX_CACHED_SCHEMAS);
+  }
+
+  @VisibleForTesting
+  SchematizedStructMapper(ObjectMapper mapper, int maxCachedSchemas) {
+    this.mapper = mapper;
+    // weak keys make the cache compare schemas by identity
+    this.mappings =
+        CacheBuilder.newBuilder().maximumSize(maxCachedSchemas).weakKeys().recordStats().build();
+  }
+
+  /**
+   * @param struct record value
+   * @param schema value schema of the record, equal to the schema of the struct but not
+   *     necessarily the same instance, e.g. after a transformation copied the record
+   * @return map of quoted column names to column values, empty for a struct without fields
+   */
+  Map<String, Object> mapStruct(Struct struct, Schema schema) throws JsonProcessingException {
+    final Schema structSchema = struct.schema();
+    if (structSchema != schema && !structSchema.equals(schema)) {
+      throw SnowflakeErrors.ERROR_5015.getException("Mismatching schema.");
+    }
+    List<ColumnMapping> columns = mappings.getIfPresent(structSchema);
+    if (columns == null) {
+      columns = compile(structSchema);
+      mappings.put(structSchema, columns);
+    }
+
+    final Map<String, Object> streamingIngestRow = new HashMap<>(columns.size() * 4 / 3 + 1);
+    for (ColumnMapping column : columns) {
+      streamingIngestRow.put(column.columnName, column.map(struct.get(column.field)));
+    }
+    return streamingIngestRow;
+  }
+
+  /** @return hit and miss counts of the compiled mappings cache */
+  CacheStats cacheStats() {
+    return mappings.stats();
+  }
+
+  private List<ColumnMapping> compile(Schema schema) {
+    return schema.fields().stream()
+        .map(
+            field ->
+                new ColumnMapping(
+                    field,
+                    Utils.quoteNameIfNeeded(field.name()),
+                    expectedType(field.schema()),
+                    converter(field.schema())))
+        .collect(Collectors.toList());
+  }
+
+  private static Class<?> expectedType(Schema schema) {
+    switch (schema.type()) {
+      case INT8:
+        return Byte.class;
+      case INT16:
+        return Short.class;
+      case INT32:
+        return isLogical(schema, Date.LOGICAL_NAME) || isLogical(schema, Time.LOGICAL_NAME)
+            ? java.util.Date.class
+            : Integer.class;
+      case INT64:
+        return isLogical(schema, Timestamp.LOGICAL_NAME) ? java.util.Date.class : Long.class;
+      case FLOAT32:
+        return Float.class;
+      case FLOAT64:
+        return Double.class;
+      case BOOLEAN:
+        return Boolean.class;
+      case STRING:
+        return CharSequence.class;
+      case BYTES:
+        // raw bytes can be either byte[] or ByteBuffer, validated during json conversion
+        return isLogical(schema, Decimal.LOGICAL_NAME) ? BigDecimal.class : Object.class;
+      case ARRAY:
+        return Collection.class;
+      case MAP:
+        return Map.class;
+      case STRUCT:
+        return Struct.class;
+      default:
+        throw SnowflakeErrors.ERROR_5015.getException("Unsupported schema type " + schema.type());
+    }
+  }
+
+  private ColumnConverter converter(Schema schema) {
+    switch (schema.type()) {
+      case INT32:
+        if (isLogical(schema, Date.LOGICAL_NAME)) {
+          return value -> RecordService.ISO_DATE_TIME_FORMAT.get().format((java.util.Date) value);
+        }
+        if (isLogical(schema, Time.LOGICAL_NAME)) {
+          return value -> RecordService.TIME_FORMAT_STREAMING.get().format((java.util.Date) value);
+        }
+        return Object::toString;
+      case INT64:
+        if (isLogical(schema, Timestamp.LOGICAL_NAME)) {
+          return value -> Long.toString(Timestamp.fromLogical(schema, (java.util.Date) value));
+        }
+        return Object::toString;
+      case FLOAT32:
+        return value -> {
+          float floatValue = (Float) value;
+          if (Float.isNaN(floatValue) || Float.isInfinite(floatValue)) {
+            return nanOrInfinity(floatValue);
+          }
+          return Float.toString(floatValue);
+        };
+      case FLOAT64:
+        return value -> {
+          double doubleValue = (Double) value;
+          if (Double.isNaN(doubleValue) || Double.isInfinite(doubleValue)) {
+            return nanOrInfinity(doubleValue);
+          }
+          return Double.toString(doubleValue);
+        };
+      case BYTES:
+        if (isLogical(schema, Decimal.LOGICAL_NAME)) {
+          // both the textual (precision above 38) and the numeric json representation of a
+          // decimal are dumped as BigDecimal::toString
+          return Object::toString;
+        }
+        return value -> mapper.writeValueAsString(RecordService.convertToJson(schema, value, true));
+      case ARRAY:
+      case MAP:
+      case STRUCT:
+        return value -> mapper.writeValueAsString(RecordService.convertToJson(schema, value, true));
+      default:
+        // INT8, INT16, BOOLEAN and STRING
+        return Object::toString;
+    }
+  }
+
+  private static boolean isLogical(Schema schema, String logicalName) {
+    return logicalName.equals(schema.name());
+  }
+
+  private static String nanOrInfinity(double value) {
+    if (Double.isNaN(value)) {
+      return "NaN";
+    }
+    return value < 0 ? "-Inf" : "Inf";
+  }
+
+  @FunctionalInterface
+  private interface ColumnConverter {
+    String convert(Object value) throws JsonProcessingException;
+  }
+
+  /** Compiled mapping of a single struct field into a column of the row. */
+  private static final class ColumnMapping {
+    private final Field field;
+    private final String columnName;
+    private final Schema schema;
+    private final Class<?> expectedType;
+    private final ColumnConverter converter;
+
+    private ColumnMapping(
+        Field field, String columnName, Class<?> expectedType, ColumnConverter converter) {
+      this.field = field;
+      this.columnName = columnName;
+      this.schema = field.schema();
+      this.expectedType = expectedType;
+      this.converter = converter;
+    }
+
+    private String map(Object logicalValue) throws JsonProcessingException {
+      Object value = logicalValue;
+      if (value == null) {
+        if (schema.defaultValue() != null) {
+          value = schema.defaultValue();
+        } else if (schema.isOptional()) {
+          return null;
+        } else {
+          throw SnowflakeErrors.ERROR_5015.getException(
+              "Conversion error: null value for field that is required and has no default value");
+        }
+      }
+      if (!expectedType.isInstance(value)) {
+        throw SnowflakeErrors.ERROR_5015.getException(
+            "Invalid type for " + schema.type() + ": " + value.getClass());
+      }
+      return converter.convert(value);
+    }
+  }
+}
@@ -17,12 +17,11 @@
 package com.snowflake.kafka.connector.records;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.base.Splitter;
 import com.snowflake.kafka.connector.internal.SnowflakeErrors;
 import io.confluent.kafka.schemaregistry.client.CachedSchemaRegistryClient;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.util.Map;
 import org.apache.avro.Conversions;
@@ -30,9 +29,8 @@ import org.apache.avro.Schema;
 import org.apache.avro.SchemaParseException;
 import org.apache.avro.generic.GenericData;
 import org.apache.avro.generic.GenericDatumReader;
-import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
 import org.apache.avro.io.DatumReader;
-import org.apache.avro.io.Decoder;
 import org.apache.avro.io.DecoderFactory;
 import org.apache.kafka.connect.data.SchemaAndValue;
 
@@ -42,26 +40,84 @@ public class SnowflakeAvroConverter extends SnowflakeConverter {
   public static final String BREAK_ON_SCHEMA_REGISTRY_ERROR = "break.on.schema.registry.error";
   public static final String READER_SCHEMA = "reader.schema";
 
+  /** Maximum number of schema ids whose writer schema and datum reader are kept */
+  public static final String SCHEMA_CACHE_SIZE = "schema.cache.size";
+
+  public static final long SCHEMA_CACHE_SIZE_DEFAULT = 1000;
+
+  /**
+   * How long a failed schema lookup is remembered before the registry is called again, 0 to call
+   * the registry for every record whose schema id could not be loaded. Unless {@link
+   * #BREAK_ON_SCHEMA_REGISTRY_ERROR} is true, every record of the id is turned into a broken record
+   * for that time, even if the registry recovers earlier.
+   */
+  public static final String SCHEMA_CACHE_FAILURE_TTL_MS = "schema.cache.failure.ttl.ms";
+
+  public static final long SCHEMA_CACHE_FAILURE_TTL_MS_DEFAULT = 0;
+
+  /** Comma separated subjects whose latest schema is loaded when the converter is configured */
+  public static final String SCHEMA_CACHE_WARMUP_SUBJECTS = "schema.cache.warmup.subjects";
+
   // By default, we don't break when schema registry is not found
   private boolean breakOnSchemaRegistryError = false;
   /* By default, no reader schema is set. In this case, the writer schema of each item is also used
   as the reader schema. See https://avro.apache.org/docs/1.9.2/spec.html#Schema+Resolution */
   private Schema readerSchema = null;
 
+  // Decimal is the only logical type converted, other logical types keep their underlying type
+  private static final GenericData GENERIC_DATA = new GenericData();
+
+  static {
+    GENERIC_DATA.addLogicalTypeConversion(new Conversions.DecimalConversion());
+  }
+
+  private long schemaCacheSize = SCHEMA_CACHE_SIZE_DEFAULT;
+  private long schemaCacheFailureTtlMs = SCHEMA_CACHE_FAILURE_TTL_MS_DEFAULT;
+  private AvroSchemaCache schemaCache = null;
+
+  private static final ThreadLocal<BinaryDecoder> DECODER = new ThreadLocal<>();
+
   @Override
   public void configure(final Map<String, ?> configs, final boolean isKey) {
     readBreakOnSchemaRegistryError(configs);
     parseReaderSchema(configs);
+    schemaCacheSize = readLong(configs, SCHEMA_CACHE_SIZE, SCHEMA_CACHE_SIZE_DEFAULT, 1);
+    schemaCacheFailureTtlMs =
+        readLong(configs, SCHEMA_CACHE_FAILURE_TTL_MS, SCHEMA_CACHE_FAILURE_TTL_MS_DEFAULT, 0);
     try { // todo: graceful way to check schema registry
       AvroConverterConfig avroConverterConfig = new AvroConverterConfig(configs);
-      schemaRegistry =
+      setSchemaRegistry(
           new CachedSchemaRegistryClient(
               avroConverterConfig.getSchemaRegistryUrls(),
               avroConverterConfig.getMaxSchemasPerSubject(),
-              configs);
+              configs));
     } catch (Exception e) {
       throw SnowflakeErrors.ERROR_0012.getException(e);
     }
+
+    Object warmUpSubjects = configs.get(SCHEMA_CACHE_WARMUP_SUBJECTS);
+    if (warmUpSubjects instanceof String && !((String) warmUpSubjects).trim().isEmpty()) {
+      schemaCache.warmUp(
+          Splitter.on(',').trimResults().omitEmptyStrings().splitToList((String) warmUpSubjects));
+    }
+  }
+
+  private static long readLong(
+      final Map<String, ?> configs, String name, long defaultValue, long minValue) {
+    Object value = configs.get(name);
+    if (value == null) {
+      return defaultValue;
+    }
+    try {
+      long result = Long.parseLong(value.toString().trim());
+      if (result >= minValue) {
+        return result;
+      }
+    } catch (NumberFormatException e) {
+      // logged below
+    }
+    LOGGER.warn("Invalid value {} for {}, using {}", value, name, defaultValue);
+    return defaultValue;
   }
 
   void readBreakOnSchemaRegistryError(final Map<String, ?> configs) {
@@ -113,6 +169,9 @@ public class SnowflakeAvroConverter extends SnowflakeConverter {
    */
   void setSchemaRegistry(SchemaRegistryClient schemaRegistryClient) {
     this.schemaRegistry = schemaRegistryClient;
+    this.schemaCache =
+        new AvroSchemaCache(
+            schemaRegistryClient, this::newDatumReader, schemaCacheSize, schemaCacheFailureTtlMs);
   }
 
   /**
@@ -141,9 +200,9 @@ public class SnowflakeAvroConverter extends SnowflakeConverter {
 
     // If there is any error while getting writer schema from schema registry,
     // throw error and break the connector
-    Schema writerSchema;
+    AvroSchemaCache.Entry schema;
     try {
-      writerSchema = schemaRegistry.getById(id);
+      schema = schemaCache.get(id);
     } catch (Exception e) {
       if (breakOnSchemaRegistryError) {
         throw SnowflakeErrors.ERROR_0011.getException(e);
@@ -153,15 +212,11 @@ public class SnowflakeAvroConverter extends SnowflakeConverter {
     }
 
     try {
-      int length = buffer.limit() - 1 - 4;
-      byte[] data = new byte[length];
-      buffer.get(data, 0, length);
-
       return new SchemaAndValue(
           new SnowflakeJsonSchema(),
           new SnowflakeRecordContent(
               parseAvroWithSchema(
-                  data, writerSchema, readerSchema == null ? writerSchema : readerSchema),
+                  bytes, buffer.position(), buffer.remaining(), schema.datumReader),
               id));
     } catch (Exception e) {
       if (breakOnSchemaRegistryError) {
@@ -180,29 +235,36 @@ public class SnowflakeAvroConverter extends SnowflakeConverter {
   }
 
   /**
-   * Parse Avro record with a writer schema and a reader schema. The writer and the reader schema
-   * have to be compatible as described in
-   * https://avro.apache.org/docs/1.9.2/spec.html#Schema+Resolution
+   * Datum reader of records written with the given schema. The writer and the reader schema have to
+   * be compatible as described in https://avro.apache.org/docs/1.9.2/spec.html#Schema+Resolution
    *
-   * @param data avro data
    * @param writerSchema avro schema with which data got serialized
-   * @param readerSchema avro schema that describes the shape of the returned JsonNode
+   * @return reader producing records of the reader schema, or of the writer schema if none is set
+   */
+  private DatumReader<Object> newDatumReader(Schema writerSchema) {
+    return new GenericDatumReader<>(
+        writerSchema, readerSchema == null ? writerSchema : readerSchema, GENERIC_DATA);
+  }
+
+  /**
+   * Parse Avro record with the datum reader of its writer schema.
+   *
+   * <p>The binary decoder is reused by the thread, the decoded record is encoded into a JsonNode
+   * without going through its json text.
+   *
+   * @param data message bytes
+   * @param offset start of the avro data in the message
+   * @param length length of the avro data
+   * @param reader datum reader of the writer schema
    * @return JsonNode array
    */
-  private JsonNode parseAvroWithSchema(final byte[] data, Schema writerSchema, Schema readerSchema)
-      throws IOException {
-    final GenericData genericData = new GenericData();
-    // Conversion for logical type Decimal. There are conversions for other logical types as well.
-    genericData.addLogicalTypeConversion(new Conversions.DecimalConversion());
-
-    InputStream is = new ByteArrayInputStream(data);
-    Decoder decoder = DecoderFactory.get().binaryDecoder(is, null);
-    DatumReader<GenericRecord> reader =
-        new GenericDatumReader<>(writerSchema, readerSchema, genericData);
-    GenericRecord datum = reader.read(null, decoder);
-    // For byte data without logical type, this toString method handles it this way:
-    // writeEscapedString(StandardCharsets.ISO_8859_1.decode(bytes), buffer);
-    // The generated string is escaped ISO_8859_1 decoded string.
-    return mapper.readTree(datum.toString());
+  private JsonNode parseAvroWithSchema(
+      final byte[] data, int offset, int length, DatumReader<Object> reader) throws IOException {
+    BinaryDecoder decoder =
+        DecoderFactory.get().binaryDecoder(data, offset, length, DECODER.get());
+    DECODER.set(decoder);
+    // For byte data without logical type, the encoder decodes it as an ISO_8859_1 string, like
+    // GenericData#toString used to do.
+    return AvroJsonNodeEncoder.encode(reader.read(null, decoder));
   }
 }
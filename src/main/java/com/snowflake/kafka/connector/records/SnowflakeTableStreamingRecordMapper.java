@@ -6,17 +6,38 @@ import static com.snowflake.kafka.connector.Utils.TABLE_COLUMN_METADATA;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.CacheStats;
+import com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig;
 import com.snowflake.kafka.connector.Utils;
 import com.snowflake.kafka.connector.internal.SnowflakeErrors;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
 
 class SnowflakeTableStreamingRecordMapper extends StreamingRecordMapper {
 
+  private final SchematizedStructMapper structMapper;
+  private final boolean directStructMapping;
+
   public SnowflakeTableStreamingRecordMapper(
       ObjectMapper mapper, boolean schematizationEnabled, boolean ssv2Enabled) {
+    this(
+        mapper,
+        schematizationEnabled,
+        ssv2Enabled,
+        SnowflakeSinkConnectorConfig.SNOWPIPE_STREAMING_DIRECT_STRUCT_MAPPING_DEFAULT);
+  }
+
+  public SnowflakeTableStreamingRecordMapper(
+      ObjectMapper mapper,
+      boolean schematizationEnabled,
+      boolean ssv2Enabled,
+      boolean directStructMapping) {
     super(mapper, schematizationEnabled, ssv2Enabled);
+    this.structMapper = new SchematizedStructMapper(mapper);
+    this.directStructMapping = directStructMapping;
   }
 
   @Override
@@ -30,6 +51,28 @@ class SnowflakeTableStreamingRecordMapper extends StreamingRecordMapper {
     return streamingIngestRow;
   }
 
+  /** Only SSv1 schematized rows are mapped directly, they hold every column as a string. */
+  @Override
+  boolean supportsStructRecords() {
+    return directStructMapping && schematizationEnabled && !ssv2Enabled;
+  }
+
+  @Override
+  Map<String, Object> processStructRecord(
+      Struct value, Schema valueSchema, JsonNode metadata, boolean includeAllMetadata)
+      throws JsonProcessingException {
+    final Map<String, Object> streamingIngestRow = structMapper.mapStruct(value, valueSchema);
+    if (includeAllMetadata) {
+      streamingIngestRow.put(TABLE_COLUMN_METADATA, mapper.writeValueAsString(metadata));
+    }
+    return streamingIngestRow;
+  }
+
+  @Override
+  CacheStats structMappingCacheStats() {
+    return structMapper.cacheStats();
+  }
+
   private Map<String, Object> getContent(RecordService.SnowflakeTableRow row)
       throws JsonProcessingException {
     if (ssv2Enabled) {
@@ -15,11 +15,14 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.DoubleNode;
 import com.fasterxml.jackson.databind.node.FloatNode;
 import com.fasterxml.jackson.databind.node.NumericNode;
+import com.google.common.cache.CacheStats;
 import com.snowflake.kafka.connector.records.RecordService.SnowflakeTableRow;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
 
 abstract class StreamingRecordMapper {
 
@@ -43,6 +46,37 @@ abstract class StreamingRecordMapper {
   abstract Map<String, Object> processSnowflakeRecord(
       SnowflakeTableRow row, boolean includeAllMetadata) throws JsonProcessingException;
 
+  /**
+   * @return true if {@link #processStructRecord} maps a {@link Struct} value without converting it
+   *     into a {@link JsonNode} first
+   */
+  boolean supportsStructRecords() {
+    return false;
+  }
+
+  /**
+   * Maps the {@link Struct} value of a record into a row, only called when {@link
+   * #supportsStructRecords()} returns true. By default, the value is converted into Json and
+   * mapped by {@link #processSnowflakeRecord(SnowflakeTableRow, boolean)}.
+   *
+   * @param value record value
+   * @param valueSchema record value schema
+   * @param metadata record metadata
+   * @param includeAllMetadata whether to put the metadata column into the row
+   */
+  Map<String, Object> processStructRecord(
+      Struct value, Schema valueSchema, JsonNode metadata, boolean includeAllMetadata)
+      throws JsonProcessingException {
+    return processSnowflakeRecord(
+        new SnowflakeTableRow(new SnowflakeRecordContent(valueSchema, value, true), metadata),
+        includeAllMetadata);
+  }
+
+  /** @return statistics of the cache used by {@link #processStructRecord}, empty by default */
+  CacheStats structMappingCacheStats() {
+    return new CacheStats(0, 0, 0, 0, 0, 0);
+  }
+
   protected String getTextualValue(JsonNode valueNode) throws JsonProcessingException {
     String value;
     if (valueNode.isTextual()) {
@@ -873,6 +873,30 @@ public class ConnectorConfigValidatorTest {
         .hasMessageContaining(SnowflakeSinkConnectorConfig.AUTHENTICATOR_TYPE);
   }
 
+  @Test
+  public void testStreamingClientSideValidationConfig() {
+    Map<String, String> config = SnowflakeSinkConnectorConfigBuilder.streamingConfig().build();
+    config.put(SnowflakeSinkConnectorConfig.SNOWPIPE_STREAMING_CLIENT_SIDE_VALIDATION, "true");
+    connectorConfigValidator.validateConfig(config);
+  }
+
+  @Test
+  public void testStreamingClientSideValidationConfig_invalidWithOAuth() {
+    Map<String, String> config =
+        SnowflakeSinkConnectorConfigBuilder.streamingConfig()
+            .withAuthenticator(Utils.OAUTH)
+            .withOauthClientId("client_id")
+            .withOauthClientSecret("client_secret")
+            .withOauthRefreshToken("refresh_token")
+            .withOauthTokenEndpoint("token_endpoint")
+            .build();
+    config.put(SnowflakeSinkConnectorConfig.SNOWPIPE_STREAMING_CLIENT_SIDE_VALIDATION, "true");
+
+    assertThatThrownBy(() -> connectorConfigValidator.validateConfig(config))
+        .isInstanceOf(SnowflakeKafkaConnectorException.class)
+        .hasMessageContaining(SnowflakeSinkConnectorConfig.SNOWPIPE_STREAMING_CLIENT_SIDE_VALIDATION);
+  }
+
   @Test
   public void testExternalOAuthConfig() {
     Map<String, String> config =
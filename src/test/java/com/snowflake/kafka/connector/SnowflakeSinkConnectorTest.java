@@ -0,0 +1,46 @@
+package com.snowflake.kafka.connector;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.snowflake.kafka.connector.internal.SnowflakeKafkaConnectorException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class SnowflakeSinkConnectorTest {
+
+  @Test
+  void taskConfigs_failsRightAwayWhenStartFailed() {
+    SnowflakeSinkConnector connector = new SnowflakeSinkConnector();
+    assertThatThrownBy(() -> connector.start(new HashMap<>()))
+        .isInstanceOf(SnowflakeKafkaConnectorException.class);
+
+    long startTime = System.nanoTime();
+    assertThatThrownBy(() -> connector.taskConfigs(1))
+        .isInstanceOfSatisfying(
+            SnowflakeKafkaConnectorException.class, e -> assertThat(e.getCode()).isEqualTo("5007"));
+    assertThat(Duration.ofNanos(System.nanoTime() - startTime)).isLessThan(Duration.ofSeconds(5));
+  }
+
+  @Test
+  void taskConfigs_waitsForStartUntilInterrupted() throws Exception {
+    SnowflakeSinkConnector connector = new SnowflakeSinkConnector();
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<?> taskConfigs = executor.submit(() -> connector.taskConfigs(1));
+      Thread.sleep(100);
+      assertThat(taskConfigs).isNotDone();
+
+      executor.shutdownNow();
+      assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+      assertThat(taskConfigs).isDone();
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
@@ -44,6 +44,15 @@ public class UtilsTest {
     assert !Utils.isValidSnowflakeObjectIdentifier(name1);
   }
 
+  @Test
+  public void testSharedPipeNameDoesNotClashWithPartitionPipeNames() {
+    String sharedPipe = Utils.pipeName("app", "TABLE");
+    assert sharedPipe.equals("SNOWFLAKE_KAFKA_CONNECTOR_app_PIPE_TABLE_SHARED");
+    assert !sharedPipe.equals(Utils.pipeName("app", "TABLE", 0));
+    // a table whose name ends with a partition number
+    assert !Utils.pipeName("app", "TABLE_0").equals(Utils.pipeName("app", "TABLE", 0));
+  }
+
   @Test
   public void testVersionChecker() {
     assert Utils.checkConnectorVersion();
@@ -0,0 +1,98 @@
+package com.snowflake.kafka.connector.dlq;
+
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.DLQ_REPORTER;
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.DLQ_REPORT_DURATION;
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.LATENCY_SUB_DOMAIN;
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.constructMetricName;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.codahale.metrics.MetricRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.connect.errors.ConnectException;
+import org.apache.kafka.connect.errors.DataException;
+import org.apache.kafka.connect.sink.SinkRecord;
+import org.junit.jupiter.api.Test;
+
+class AsyncKafkaRecordErrorReporterTest {
+
+  private static final String TOPIC = "topic";
+  private static final TopicPartition PARTITION = new TopicPartition(TOPIC, 0);
+
+  private final List<CompletableFuture<Void>> reports = new ArrayList<>();
+
+  @Test
+  void reportError_doesNotWaitForRecordToBeWritten() {
+    AsyncKafkaRecordErrorReporter reporter = reporter(10);
+
+    reporter.reportError(record(0, 1), new DataException("broken"));
+    reporter.reportError(record(0, 2), new DataException("broken"));
+
+    assertThat(reports).hasSize(2);
+    assertThat(reporter.getInFlight()).isEqualTo(2);
+  }
+
+  @Test
+  void awaitReported_waitsOnlyForRecordsBeforeOffset() {
+    AsyncKafkaRecordErrorReporter reporter = reporter(10);
+    MetricRegistry metricRegistry = new MetricRegistry();
+    reporter.registerMetrics(metricRegistry);
+    reporter.reportError(record(0, 1), new DataException("broken"));
+    reporter.reportError(record(0, 5), new DataException("broken"));
+    reporter.reportError(record(1, 1), new DataException("broken"));
+    reports.get(0).complete(null);
+
+    reporter.awaitReported(PARTITION, 2);
+
+    assertThat(reporter.getInFlight()).isEqualTo(2);
+    assertThat(
+            metricRegistry
+                .timer(constructMetricName(DLQ_REPORTER, LATENCY_SUB_DOMAIN, DLQ_REPORT_DURATION))
+                .getCount())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void reportError_removesWrittenRecordsWhenInFlightLimitIsReached() {
+    AsyncKafkaRecordErrorReporter reporter = reporter(2);
+    reporter.reportError(record(0, 1), new DataException("broken"));
+    reporter.reportError(record(1, 1), new DataException("broken"));
+    reports.get(1).complete(null);
+
+    reporter.reportError(record(0, 2), new DataException("broken"));
+
+    assertThat(reports).hasSize(3);
+    assertThat(reporter.getInFlight()).isEqualTo(2);
+  }
+
+  @Test
+  void failedReport_failsFollowingCalls() {
+    AsyncKafkaRecordErrorReporter reporter = reporter(10);
+    reporter.reportError(record(0, 1), new DataException("broken"));
+    reports.get(0).completeExceptionally(new IllegalStateException("dlq unavailable"));
+
+    assertThatThrownBy(() -> reporter.awaitReported(PARTITION, 2))
+        .isInstanceOf(ConnectException.class)
+        .hasCauseInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(reporter::throwIfReportFailed).isInstanceOf(ConnectException.class);
+    assertThatThrownBy(() -> reporter.reportError(record(0, 2), new DataException("broken")))
+        .isInstanceOf(ConnectException.class);
+  }
+
+  private AsyncKafkaRecordErrorReporter reporter(int maxInFlight) {
+    return new AsyncKafkaRecordErrorReporter(
+        (record, error) -> {
+          CompletableFuture<Void> written = new CompletableFuture<>();
+          reports.add(written);
+          return written;
+        },
+        maxInFlight);
+  }
+
+  private static SinkRecord record(int partition, long offset) {
+    return new SinkRecord(TOPIC, partition, null, null, null, "value", offset);
+  }
+}
@@ -0,0 +1,144 @@
+package com.snowflake.kafka.connector.internal;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+
+public class ChunkedUtf8BufferTest {
+
+  @Test
+  public void testExactUtf8Size() {
+    ChunkedUtf8Buffer buffer = new ChunkedUtf8Buffer(new ChunkedUtf8Buffer.ChunkPool(1));
+
+    assertEquals(5, buffer.append("{\"a\"}"));
+    // two bytes for é, three bytes for €, four bytes for the emoji
+    assertEquals(9, buffer.append("é€😀"));
+    assertEquals(0, buffer.append(""));
+
+    assertEquals(14, buffer.size());
+    assertEquals(14, buffer.storedSize());
+    assertEquals("{\"a\"}é€😀", buffer.toString());
+  }
+
+  @Test
+  public void testStreamSpansChunks() throws IOException {
+    ChunkedUtf8Buffer buffer = new ChunkedUtf8Buffer(new ChunkedUtf8Buffer.ChunkPool(0));
+    StringBuilder expected = new StringBuilder();
+    // multi byte characters do not align with the chunk size, so they end up at chunk boundaries
+    String record = "{\"name\":\"😀 ü €\"}";
+    while (expected.length() < 3 * ChunkedUtf8Buffer.CHUNK_SIZE_BYTES) {
+      buffer.append(record);
+      expected.append(record);
+    }
+    byte[] expectedBytes = expected.toString().getBytes(StandardCharsets.UTF_8);
+
+    assertEquals(expectedBytes.length, buffer.size());
+    assertArrayEquals(expectedBytes, readAll(buffer.newInputStream(), 1000));
+    // a retried upload reads the same content again
+    assertArrayEquals(expectedBytes, readAll(buffer.newInputStream(), 7));
+    InputStream singleBytes = buffer.newInputStream();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (int b = singleBytes.read(); b != -1; b = singleBytes.read()) {
+      out.write(b);
+    }
+    assertArrayEquals(expectedBytes, out.toByteArray());
+  }
+
+  @Test
+  public void testReleaseReturnsChunksToPool() throws IOException {
+    ChunkedUtf8Buffer.ChunkPool pool = new ChunkedUtf8Buffer.ChunkPool(2);
+    ChunkedUtf8Buffer buffer = new ChunkedUtf8Buffer(pool);
+    char[] data = new char[ChunkedUtf8Buffer.CHUNK_SIZE_BYTES];
+    Arrays.fill(data, 'a');
+    for (int i = 0; i < 3; i++) {
+      buffer.append(new String(data));
+    }
+
+    buffer.release();
+
+    // at most two chunks are pooled
+    assertEquals(2, pool.freeChunks());
+    assertEquals(0, buffer.size());
+    assertEquals(-1, buffer.newInputStream().read());
+
+    ChunkedUtf8Buffer next = new ChunkedUtf8Buffer(pool);
+    next.append("reused");
+    assertEquals(1, pool.freeChunks());
+    assertArrayEquals(
+        "reused".getBytes(StandardCharsets.UTF_8), readAll(next.newInputStream(), 1000));
+  }
+
+  @Test
+  public void testCompressedBufferStreamsGzipFile() throws IOException {
+    ChunkedUtf8Buffer.ChunkPool pool = new ChunkedUtf8Buffer.ChunkPool(4);
+    ChunkedUtf8Buffer buffer = new ChunkedUtf8Buffer(pool, true);
+    StringBuilder expected = new StringBuilder();
+    String record = "{\"name\":\"😀 ü €\"}";
+    while (expected.length() < 3 * ChunkedUtf8Buffer.CHUNK_SIZE_BYTES) {
+      assertEquals(record.getBytes(StandardCharsets.UTF_8).length, buffer.append(record));
+      expected.append(record);
+    }
+    byte[] expectedBytes = expected.toString().getBytes(StandardCharsets.UTF_8);
+
+    assertTrue(buffer.isCompressed());
+    // the size is the size of the records, not of the compressed file
+    assertEquals(expectedBytes.length, buffer.size());
+    assertTrue(buffer.storedSize() < expectedBytes.length);
+    byte[] compressed = readAll(buffer.newInputStream(), 1000);
+    assertTrue(compressed.length < expectedBytes.length);
+    // completing the gzip stream only adds the remaining compressed bytes
+    assertEquals(compressed.length, buffer.storedSize());
+    assertArrayEquals(
+        expectedBytes, readAll(new GZIPInputStream(new ByteArrayInputStream(compressed)), 1000));
+    // a retried upload reads the same file again
+    assertArrayEquals(compressed, readAll(buffer.newInputStream(), 7));
+
+    buffer.release();
+    assertEquals(0, buffer.size());
+    assertEquals(0, buffer.storedSize());
+    assertEquals(-1, buffer.newInputStream().read());
+    assertEquals(1, pool.freeChunks());
+  }
+
+  @Test
+  public void testCompressedBufferRejectsAppendOnceRead() throws IOException {
+    ChunkedUtf8Buffer buffer = new ChunkedUtf8Buffer(new ChunkedUtf8Buffer.ChunkPool(4), true);
+    buffer.append("first");
+
+    // describing the buffer does not complete the gzip stream
+    assertEquals("ChunkedUtf8Buffer{compressed, sizeBytes=5}", buffer.toString());
+    buffer.append(" second");
+    assertArrayEquals(
+        "first second".getBytes(StandardCharsets.UTF_8),
+        readAll(new GZIPInputStream(buffer.newInputStream()), 1000));
+
+    assertEquals("first second", buffer.toString());
+    assertThrows(IllegalStateException.class, () -> buffer.append("third"));
+
+    buffer.release();
+    buffer.append("reused");
+    assertArrayEquals(
+        "reused".getBytes(StandardCharsets.UTF_8),
+        readAll(new GZIPInputStream(buffer.newInputStream()), 1000));
+  }
+
+  private static byte[] readAll(InputStream in, int bufferSize) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] buffer = new byte[bufferSize];
+    int read;
+    while ((read = in.read(buffer, 0, bufferSize)) != -1) {
+      out.write(buffer, 0, read);
+    }
+    return out.toByteArray();
+  }
+}
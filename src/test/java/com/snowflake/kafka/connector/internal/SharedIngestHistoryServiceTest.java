@@ -0,0 +1,123 @@
+package com.snowflake.kafka.connector.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import net.snowflake.ingest.SimpleIngestManager;
+import net.snowflake.ingest.connection.HistoryResponse;
+import net.snowflake.ingest.connection.IngestStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class SharedIngestHistoryServiceTest {
+
+  private static final long POLL_INTERVAL_MS = 30_000;
+
+  private SimpleIngestManager manager;
+  private AtomicLong currentTime;
+  private SharedIngestHistoryService svc;
+
+  @BeforeEach
+  void setup() {
+    manager = Mockito.mock(SimpleIngestManager.class);
+    currentTime = new AtomicLong(1_000_000);
+    svc =
+        new SharedIngestHistoryService(
+            new SnowflakeIngestionServiceV1("stageName", "pipeName", manager, null),
+            POLL_INTERVAL_MS,
+            currentTime::get);
+  }
+
+  @Test
+  void readIngestHistoryForward_willPollOncePerIntervalForAllPartitions() throws Exception {
+    when(manager.getHistory(null, 123, null))
+        .thenReturn(response("first", "app/table/0/1_2_3.json.gz", "app/table/1/1_2_3.json.gz"));
+
+    Map<String, InternalUtils.IngestedFileStatus> partition0 = new HashMap<>();
+    Map<String, InternalUtils.IngestedFileStatus> partition1 = new HashMap<>();
+    int read0 =
+        svc.readIngestHistoryForward(
+            partition0, f -> f.getPath().startsWith("app/table/0/"), new AtomicReference<>(), 123);
+    currentTime.addAndGet(POLL_INTERVAL_MS - 1);
+    int read1 =
+        svc.readIngestHistoryForward(
+            partition1, f -> f.getPath().startsWith("app/table/1/"), new AtomicReference<>(), 123);
+
+    assertThat(read0).isEqualTo(1);
+    assertThat(read1).isEqualTo(1);
+    assertThat(partition0).containsOnlyKeys("app/table/0/1_2_3.json.gz");
+    assertThat(partition1).containsOnlyKeys("app/table/1/1_2_3.json.gz");
+    verify(manager, times(1)).getHistory(null, 123, null);
+  }
+
+  @Test
+  void readIngestHistoryForward_willResumeFromMarkerOfPartition() throws Exception {
+    when(manager.getHistory(null, 123, null))
+        .thenReturn(response("first", "app/table/0/1_2_3.json.gz"));
+    when(manager.getHistory(null, 123, "first"))
+        .thenReturn(response("final", "app/table/0/3_4_5.json.gz"));
+
+    AtomicReference<String> marker = new AtomicReference<>();
+    Map<String, InternalUtils.IngestedFileStatus> history = new HashMap<>();
+    int read1 = svc.readIngestHistoryForward(history, null, marker, 123);
+    // nothing new within the poll interval
+    int read2 = svc.readIngestHistoryForward(history, null, marker, 123);
+    currentTime.addAndGet(POLL_INTERVAL_MS);
+    int read3 = svc.readIngestHistoryForward(history, null, marker, 123);
+
+    assertThat(read1).isEqualTo(1);
+    assertThat(read2).isEqualTo(0);
+    assertThat(read3).isEqualTo(1);
+    assertThat(history)
+        .containsOnlyKeys("app/table/0/1_2_3.json.gz", "app/table/0/3_4_5.json.gz")
+        .containsValues(InternalUtils.IngestedFileStatus.LOADED);
+    verify(manager, times(1)).getHistory(null, 123, "first");
+  }
+
+  @Test
+  void readOneHourHistory_willScanOncePerInterval() {
+    SnowflakeIngestionService delegate = Mockito.mock(SnowflakeIngestionService.class);
+    Map<String, InternalUtils.IngestedFileStatus> scan = new HashMap<>();
+    scan.put("a", InternalUtils.IngestedFileStatus.LOADED);
+    scan.put("b", InternalUtils.IngestedFileStatus.FAILED);
+    when(delegate.readOneHourHistory(anyLong())).thenReturn(scan);
+    svc = new SharedIngestHistoryService(delegate, POLL_INTERVAL_MS, currentTime::get);
+
+    Map<String, InternalUtils.IngestedFileStatus> first =
+        svc.readOneHourHistory(Arrays.asList("a", "c"), 0);
+    Map<String, InternalUtils.IngestedFileStatus> second =
+        svc.readOneHourHistory(Arrays.asList("b"), 0);
+
+    assertThat(first)
+        .containsEntry("a", InternalUtils.IngestedFileStatus.LOADED)
+        .containsEntry("c", InternalUtils.IngestedFileStatus.NOT_FOUND)
+        .hasSize(2);
+    assertThat(second).containsOnlyKeys("b").containsValue(InternalUtils.IngestedFileStatus.FAILED);
+    verify(delegate, times(1)).readOneHourHistory(anyLong());
+
+    currentTime.addAndGet(POLL_INTERVAL_MS);
+    svc.readOneHourHistory(Arrays.asList("a"), 0);
+    verify(delegate, times(2)).readOneHourHistory(anyLong());
+  }
+
+  private HistoryResponse response(String marker, String... paths) {
+    HistoryResponse response = new HistoryResponse();
+    response.setNextBeginMark(marker);
+    for (String path : paths) {
+      HistoryResponse.FileEntry file = new HistoryResponse.FileEntry();
+      file.setPath(path);
+      file.setStatus(IngestStatus.LOADED);
+      response.files.add(file);
+    }
+    return response;
+  }
+}
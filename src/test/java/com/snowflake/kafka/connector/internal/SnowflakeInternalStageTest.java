@@ -0,0 +1,101 @@
+package com.snowflake.kafka.connector.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import net.snowflake.client.jdbc.SnowflakeFileTransferMetadataV1;
+import net.snowflake.client.jdbc.cloud.storage.StageInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class SnowflakeInternalStageTest {
+
+  private static final long EXPIRATION_MILLIS = TimeUnit.MINUTES.toMillis(30);
+  private static final String STAGE = "stage";
+
+  private final AtomicLong currentTime = new AtomicLong(1_000_000);
+  private final FakeInternalStage stage = new FakeInternalStage(currentTime);
+
+  @AfterEach
+  void tearDown() {
+    stage.close();
+  }
+
+  @Test
+  void putWithCache_usesCredentialRefreshedInTheBackground() {
+    stage.putWithCache(STAGE, "app/table/0/file1", "data", StageInfo.StageType.S3);
+    stage.putWithCache(STAGE, "app/table/1/file2", "data", StageInfo.StageType.S3);
+    assertThat(stage.fetches).hasValue(1);
+
+    currentTime.addAndGet(EXPIRATION_MILLIS / 2);
+    stage.refreshExpiringCredentials();
+    assertThat(stage.fetches).hasValue(2);
+
+    currentTime.addAndGet(EXPIRATION_MILLIS / 2);
+    stage.putWithCache(STAGE, "app/table/0/file3", "data", StageInfo.StageType.S3);
+    assertThat(stage.fetches).hasValue(2);
+    assertThat(stage.uploadedFiles)
+        .containsExactly("app/table/0/file1", "app/table/1/file2", "app/table/0/file3");
+  }
+
+  @Test
+  void refreshExpiringCredentials_skipsStagesNotUsedAnymore() {
+    stage.putWithCache(STAGE, "app/table/0/file1", "data", StageInfo.StageType.S3);
+
+    currentTime.addAndGet(EXPIRATION_MILLIS);
+    stage.refreshExpiringCredentials();
+    assertThat(stage.fetches).hasValue(1);
+
+    stage.putWithCache(STAGE, "app/table/0/file2", "data", StageInfo.StageType.S3);
+    assertThat(stage.fetches).hasValue(2);
+  }
+
+  @Test
+  void putWithCache_fetchesGcsPresignedUrlForEveryFile() {
+    stage.presignedUrl = "https://storage.googleapis.com/presigned";
+
+    stage.putWithCache(STAGE, "app/table/0/file1", "data", StageInfo.StageType.GCS);
+    stage.putWithCache(STAGE, "app/table/0/file2", "data", StageInfo.StageType.GCS);
+
+    assertThat(stage.fetches).hasValue(2);
+  }
+
+  private static class FakeInternalStage extends SnowflakeInternalStage {
+    private final AtomicInteger fetches = new AtomicInteger();
+    private final List<String> uploadedFiles = new ArrayList<>();
+    private String presignedUrl = null;
+
+    FakeInternalStage(AtomicLong currentTime) {
+      super(null, EXPIRATION_MILLIS, new Properties(), currentTime::get);
+    }
+
+    @Override
+    protected SnowflakeFileTransferMetadataV1 fetchFileTransferMetadata(
+        String stageName, StageInfo.StageType stageType, String fullFilePath) {
+      fetches.incrementAndGet();
+      StageInfo stageInfo = mock(StageInfo.class);
+      when(stageInfo.getStageType()).thenReturn(stageType);
+      SnowflakeFileTransferMetadataV1 metadata = mock(SnowflakeFileTransferMetadataV1.class);
+      when(metadata.getStageInfo()).thenReturn(stageInfo);
+      when(metadata.getPresignedUrl()).thenReturn(presignedUrl);
+      return metadata;
+    }
+
+    @Override
+    protected void uploadWithoutConnection(
+        SnowflakeFileTransferMetadataV1 fileTransferMetadata,
+        InputStream inStream,
+        boolean requireCompress,
+        String fullFilePath) {
+      uploadedFiles.add(fileTransferMetadata.getPresignedUrlFileName());
+    }
+  }
+}
@@ -0,0 +1,274 @@
+package com.snowflake.kafka.connector.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.snowflake.kafka.connector.Utils;
+import com.snowflake.kafka.connector.internal.telemetry.SnowflakeTelemetryService;
+import com.snowflake.kafka.connector.records.SnowflakeJsonConverter;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaAndValue;
+import org.apache.kafka.connect.sink.SinkRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+class SnowflakeSinkServiceV1Test {
+
+  private static final String TOPIC = "topic";
+  private static final TopicPartition TOPIC_PARTITION = new TopicPartition(TOPIC, 0);
+
+  private final SnowflakeConnectionService conn = Mockito.mock(SnowflakeConnectionService.class);
+  private final SnowflakeIngestionService ingestionService =
+      Mockito.mock(SnowflakeIngestionService.class);
+  // uploads wait for it, so that the test controls when they complete
+  private final CountDownLatch uploadAllowed = new CountDownLatch(1);
+
+  private SnowflakeSinkServiceV1 service;
+
+  @BeforeEach
+  void setUp() {
+    when(conn.getConnectorName()).thenReturn("connector");
+    when(conn.getTelemetryClient()).thenReturn(Mockito.mock(SnowflakeTelemetryService.class));
+    when(conn.buildIngestService(anyString(), anyString())).thenReturn(ingestionService);
+
+    service = new SnowflakeSinkServiceV1(conn, 60);
+    service.setCustomJMXMetrics(false);
+    service.setRecordNumber(1);
+  }
+
+  @AfterEach
+  void tearDown() {
+    uploadAllowed.countDown();
+    service.closeAll();
+    service.stop();
+  }
+
+  @Test
+  void asyncUpload_failureFailsNextInsertAndGetOffset() {
+    doThrow(SnowflakeErrors.ERROR_2011.getException(new Exception("upload failed")))
+        .when(conn)
+        .putWithCache(anyString(), anyString(), any(ChunkedUtf8Buffer.class));
+    service.enableAsyncUploads(1, 2);
+    startPartition();
+
+    service.insert(record(0));
+
+    await()
+        .atMost(Duration.ofSeconds(10))
+        .untilAsserted(
+            () ->
+                assertThatThrownBy(() -> service.getOffset(TOPIC_PARTITION))
+                    .isInstanceOfSatisfying(
+                        SnowflakeKafkaConnectorException.class,
+                        e -> assertThat(e.getCode()).isEqualTo("2011")));
+    assertThatThrownBy(() -> service.insert(record(1)))
+        .isInstanceOf(SnowflakeKafkaConnectorException.class);
+    verify(ingestionService, never()).ingestFiles(anyList());
+  }
+
+  @Test
+  void asyncUpload_flushBlocksWhileMaxFilesAreInFlight() throws Exception {
+    blockUploads();
+    service.enableAsyncUploads(2, 1);
+    startPartition();
+
+    service.insert(record(0));
+    CompletableFuture<Void> secondInsert =
+        CompletableFuture.runAsync(() -> service.insert(record(1)));
+
+    Thread.sleep(200);
+    assertThat(secondInsert).isNotDone();
+    verify(conn, times(1)).putWithCache(anyString(), anyString(), any(ChunkedUtf8Buffer.class));
+
+    uploadAllowed.countDown();
+    secondInsert.get(10, TimeUnit.SECONDS);
+    await()
+        .atMost(Duration.ofSeconds(10))
+        .untilAsserted(() -> assertThat(service.getOffset(TOPIC_PARTITION)).isEqualTo(2));
+    verify(conn, times(2)).putWithCache(anyString(), anyString(), any(ChunkedUtf8Buffer.class));
+  }
+
+  @Test
+  void asyncUpload_offsetOnlyMovesOnceFileIsUploaded() {
+    blockUploads();
+    service.enableAsyncUploads(1, 2);
+    startPartition();
+
+    service.insert(record(0));
+
+    assertThat(service.getOffset(TOPIC_PARTITION)).isEqualTo(0);
+    verify(ingestionService, never()).ingestFiles(anyList());
+
+    uploadAllowed.countDown();
+    await()
+        .atMost(Duration.ofSeconds(10))
+        .untilAsserted(() -> assertThat(service.getOffset(TOPIC_PARTITION)).isEqualTo(1));
+    verify(ingestionService, times(1)).ingestFiles(anyList());
+  }
+
+  @Test
+  void getOffset_commitsOffsetAfterLastIngestedFile() {
+    startPartition();
+
+    service.insert(record(0));
+    service.insert(record(1));
+    service.insert(record(2));
+
+    assertThat(service.getOffset(TOPIC_PARTITION)).isEqualTo(3);
+    ArgumentCaptor<List<String>> ingestedFiles = fileListCaptor();
+    verify(ingestionService, times(1)).ingestFiles(ingestedFiles.capture());
+    assertThat(ingestedFiles.getValue()).hasSize(3);
+
+    // no new files, the committed offset stays
+    assertThat(service.getOffset(TOPIC_PARTITION)).isEqualTo(3);
+    verify(ingestionService, times(1)).ingestFiles(anyList());
+  }
+
+  @Test
+  void sharedPipe_ingestsFilesOfAllPartitionsWithOneCall() {
+    TopicPartition otherPartition = new TopicPartition(TOPIC, 1);
+    service.configureSharedPipePerTable(true);
+    startPartition();
+    startPartition(otherPartition);
+
+    service.insert(record(TOPIC_PARTITION, 0));
+    service.insert(record(TOPIC_PARTITION, 1));
+    service.insert(record(otherPartition, 5));
+
+    // committing one partition submits the files of the other one as well
+    assertThat(service.getOffset(TOPIC_PARTITION)).isEqualTo(2);
+    ArgumentCaptor<List<String>> ingestedFiles = fileListCaptor();
+    verify(ingestionService, times(1)).ingestFiles(ingestedFiles.capture());
+    assertThat(ingestedFiles.getValue()).hasSize(3);
+
+    assertThat(service.getOffset(otherPartition)).isEqualTo(6);
+    verify(ingestionService, times(1)).ingestFiles(anyList());
+    // one ingestion client and one pipe for the table
+    verify(conn, times(1)).buildIngestService(anyString(), anyString());
+    verify(conn, times(1)).createPipe(anyString(), anyString(), anyString());
+  }
+
+  @Test
+  void sharedPipe_closesIngestionClientWithLastPartition() {
+    TopicPartition otherPartition = new TopicPartition(TOPIC, 1);
+    service.configureSharedPipePerTable(true);
+    startPartition();
+    startPartition(otherPartition);
+
+    service.close(Collections.singletonList(TOPIC_PARTITION));
+    verify(ingestionService, never()).close();
+
+    service.close(Collections.singletonList(otherPartition));
+    verify(ingestionService, times(1)).close();
+  }
+
+  @Test
+  void insert_estimatesBufferSizeAsTwoBytesPerChar() {
+    List<Long> uploadedSizes = new ArrayList<>();
+    doAnswer(
+            invocation -> {
+              uploadedSizes.add(invocation.<ChunkedUtf8Buffer>getArgument(2).size());
+              return null;
+            })
+        .when(conn)
+        .putWithCache(anyString(), anyString(), any(ChunkedUtf8Buffer.class));
+    startPartition();
+    service.insert(record(0));
+    assertThat(uploadedSizes).hasSize(1);
+
+    // an ASCII record of n bytes counts as 2 * n bytes against buffer.size.bytes
+    service.setRecordNumber(0);
+    service.setFileSize(2 * uploadedSizes.get(0));
+    service.insert(record(1));
+
+    assertThat(uploadedSizes).hasSize(2);
+  }
+
+  @Test
+  void sharedStageListing_disabledByDefault() {
+    service.enableStageFilesProcessor(1);
+    startPartition();
+
+    assertThat(service.getStageListingCount()).isZero();
+  }
+
+  @Test
+  void sharedStageListing_droppedWithLastPartitionOfTable() {
+    TopicPartition otherPartition = new TopicPartition(TOPIC, 1);
+    service.enableStageFilesProcessor(1);
+    service.configureSharedStageListing(true);
+    startPartition();
+    startPartition(otherPartition);
+    assertThat(service.getStageListingCount()).isEqualTo(1);
+
+    service.close(Collections.singletonList(TOPIC_PARTITION));
+    assertThat(service.getStageListingCount()).isEqualTo(1);
+
+    service.close(Collections.singletonList(otherPartition));
+    assertThat(service.getStageListingCount()).isZero();
+  }
+
+  private void blockUploads() {
+    doAnswer(
+            invocation -> {
+              uploadAllowed.await();
+              return null;
+            })
+        .when(conn)
+        .putWithCache(anyString(), anyString(), any(ChunkedUtf8Buffer.class));
+  }
+
+  private void startPartition() {
+    startPartition(TOPIC_PARTITION);
+  }
+
+  private void startPartition(TopicPartition topicPartition) {
+    service.startPartition(Utils.tableName(TOPIC, new HashMap<>()), topicPartition);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static ArgumentCaptor<List<String>> fileListCaptor() {
+    return ArgumentCaptor.forClass(List.class);
+  }
+
+  private static SinkRecord record(long offset) {
+    return record(TOPIC_PARTITION, offset);
+  }
+
+  private static SinkRecord record(TopicPartition topicPartition, long offset) {
+    SchemaAndValue input =
+        new SnowflakeJsonConverter()
+            .toConnectData(TOPIC, "{\"name\":\"test\"}".getBytes(StandardCharsets.UTF_8));
+    return new SinkRecord(
+        topicPartition.topic(),
+        topicPartition.partition(),
+        Schema.STRING_SCHEMA,
+        "test",
+        input.schema(),
+        input.value(),
+        offset);
+  }
+}
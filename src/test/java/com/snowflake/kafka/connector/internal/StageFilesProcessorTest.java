@@ -89,6 +89,7 @@ class StageFilesProcessorTest {
             "topic",
             0,
             conn,
+            null,
             ingestionService,
             pipeTelemetry,
             telemetryService,
@@ -0,0 +1,37 @@
+package com.snowflake.kafka.connector.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class StageListingCacheTest {
+
+  @Test
+  void listStage_willListTableOncePerIntervalForAllPartitions() {
+    SnowflakeConnectionService conn = Mockito.mock(SnowflakeConnectionService.class);
+    AtomicLong currentTime = new AtomicLong(1_000_000);
+    StageListingCache cache =
+        new StageListingCache(conn, "stage", "app/table/", 1000, currentTime::get);
+    when(conn.listStage("stage", "app/table/"))
+        .thenReturn(
+            Arrays.asList(
+                "app/table/0/1_2_3.json.gz",
+                "app/table/1/1_2_3.json.gz",
+                "app/table/10/1_2_3.json.gz"));
+
+    assertThat(cache.listStage("app/table/1/")).containsExactly("app/table/1/1_2_3.json.gz");
+    assertThat(cache.listStage("app/table/0/")).containsExactly("app/table/0/1_2_3.json.gz");
+    assertThat(cache.listStage("app/table/2/")).isEmpty();
+    verify(conn, times(1)).listStage("stage", "app/table/");
+
+    currentTime.addAndGet(1000);
+    cache.listStage("app/table/0/");
+    verify(conn, times(2)).listStage("stage", "app/table/");
+  }
+}
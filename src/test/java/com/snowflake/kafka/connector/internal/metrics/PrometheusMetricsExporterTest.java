@@ -0,0 +1,157 @@
+package com.snowflake.kafka.connector.internal.metrics;
+
+import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.METRICS_PROMETHEUS_ENABLED;
+import static com.snowflake.kafka.connector.SnowflakeSinkConnectorConfig.METRICS_PROMETHEUS_PORT;
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.CACHE_HIT_COUNT;
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.CACHE_SUB_DOMAIN;
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.CHANNEL_REOPEN_COUNT;
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.CHANNEL_SUB_DOMAIN;
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.INSERTED_RECORDS;
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.INSERT_ROWS_DURATION;
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.LATENCY_SUB_DOMAIN;
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.OFFSET_SUB_DOMAIN;
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.PROCESSED_OFFSET;
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.ROW_MAPPER_CACHE;
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.THROUGHPUT_SUB_DOMAIN;
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.constructMetricName;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.cache.CacheStats;
+import com.snowflake.kafka.connector.internal.metrics.PrometheusMetricsExporter.LabelAggregation;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PrometheusMetricsExporterTest {
+
+  private static final String CONNECTOR = "connector";
+  private static final String TABLE = "TABLE1";
+
+  private final MetricsJmxReporter reporter =
+      new MetricsJmxReporter(new MetricRegistry(), CONNECTOR);
+
+  @BeforeEach
+  void setUp() {
+    for (int partition = 0; partition < 2; partition++) {
+      String channel = CONNECTOR + "_topic_" + partition;
+      MetricRegistry registry = reporter.getMetricRegistry();
+      reporter.registerTableName(channel, TABLE);
+      long offset = 10L * (partition + 1);
+      registry.register(
+          constructMetricName(channel, OFFSET_SUB_DOMAIN, PROCESSED_OFFSET),
+          (Gauge<Long>) () -> offset);
+      registry
+          .counter(constructMetricName(channel, CHANNEL_SUB_DOMAIN, CHANNEL_REOPEN_COUNT))
+          .inc();
+      registry
+          .meter(constructMetricName(channel, THROUGHPUT_SUB_DOMAIN, INSERTED_RECORDS))
+          .mark(5);
+      registry
+          .timer(constructMetricName(channel, LATENCY_SUB_DOMAIN, INSERT_ROWS_DURATION))
+          .update(partition + 1, TimeUnit.SECONDS);
+    }
+    reporter.registerCacheMetrics(ROW_MAPPER_CACHE, () -> new CacheStats(3, 1, 0, 0, 0, 0));
+  }
+
+  @Test
+  void scrape_exportsSeriesPerChannel() {
+    String text = PrometheusMetricsExporter.scrape(List.of(reporter), LabelAggregation.CHANNEL);
+
+    assertThat(text)
+        .contains("# TYPE snowflake_kafka_connector_offsets_processed_offset gauge\n")
+        .contains(
+            "snowflake_kafka_connector_offsets_processed_offset{connector=\"connector\","
+                + "pipe=\"connector_topic_1\",table=\"TABLE1\"} 20.0\n")
+        .contains("# TYPE snowflake_kafka_connector_throughput_inserted_records_total counter\n")
+        .contains(
+            "snowflake_kafka_connector_latencies_insert_rows_duration{connector=\"connector\","
+                + "pipe=\"connector_topic_0\",table=\"TABLE1\",quantile=\"0.5\"} 1.0\n")
+        .contains(
+            "snowflake_kafka_connector_latencies_insert_rows_duration_count"
+                + "{connector=\"connector\",pipe=\"connector_topic_0\",table=\"TABLE1\"} 1.0\n")
+        .contains(
+            "snowflake_kafka_connector_cache_hit_count{connector=\"connector\","
+                + "pipe=\"row-mapper\"} 3.0\n");
+  }
+
+  @Test
+  void scrape_sumsSeriesPerTable() {
+    String text = PrometheusMetricsExporter.scrape(List.of(reporter), LabelAggregation.TABLE);
+
+    assertThat(text)
+        .doesNotContain("connector_topic_")
+        .doesNotContain("processed_offset")
+        .contains(
+            "snowflake_kafka_connector_channel_reopen_count{connector=\"connector\","
+                + "table=\"TABLE1\"} 2.0\n")
+        .contains(
+            "snowflake_kafka_connector_throughput_inserted_records_total{connector=\"connector\","
+                + "table=\"TABLE1\"} 10.0\n")
+        .contains(
+            "snowflake_kafka_connector_latencies_insert_rows_duration{connector=\"connector\","
+                + "table=\"TABLE1\",quantile=\"0.5\"} 2.0\n")
+        .contains(
+            "snowflake_kafka_connector_latencies_insert_rows_duration_count"
+                + "{connector=\"connector\",table=\"TABLE1\"} 2.0\n")
+        .contains(
+            "snowflake_kafka_connector_"
+                + CACHE_SUB_DOMAIN
+                + "_"
+                + CACHE_HIT_COUNT.replace('-', '_')
+                + "{connector=\"connector\",pipe=\"row-mapper\"} 3.0\n");
+  }
+
+  @Test
+  void scrape_dropsTableOfRemovedChannel() {
+    reporter.removeMetricsFromRegistry(CONNECTOR + "_topic_0");
+
+    String text = PrometheusMetricsExporter.scrape(List.of(reporter), LabelAggregation.TABLE);
+
+    assertThat(text)
+        .contains(
+            "snowflake_kafka_connector_channel_reopen_count{connector=\"connector\","
+                + "table=\"TABLE1\"} 1.0\n");
+  }
+
+  @Test
+  void acquire_servesMetricsOverHttp() throws Exception {
+    PrometheusMetricsExporter exporter =
+        PrometheusMetricsExporter.acquire("127.0.0.1", 0, LabelAggregation.TABLE);
+    try {
+      exporter.addReporter(reporter);
+
+      HttpURLConnection connection =
+          (HttpURLConnection)
+              new URL("http://127.0.0.1:" + exporter.getPort() + "/metrics").openConnection();
+      assertThat(connection.getResponseCode()).isEqualTo(200);
+      assertThat(connection.getContentType()).startsWith("text/plain; version=0.0.4");
+      try (InputStream body = connection.getInputStream()) {
+        assertThat(new String(body.readAllBytes(), StandardCharsets.UTF_8))
+            .contains("snowflake_kafka_connector_channel_reopen_count");
+      }
+    } finally {
+      exporter.release();
+    }
+  }
+
+  @Test
+  void acquireIfEnabled_bindsToLoopbackByDefault() {
+    PrometheusMetricsExporter exporter =
+        PrometheusMetricsExporter.acquireIfEnabled(
+            Map.of(METRICS_PROMETHEUS_ENABLED, "true", METRICS_PROMETHEUS_PORT, "0"));
+    try {
+      assertThat(exporter).isNotNull();
+      assertThat(exporter.getAddress().getAddress().isLoopbackAddress()).isTrue();
+    } finally {
+      exporter.release();
+    }
+  }
+}
@@ -0,0 +1,133 @@
+package com.snowflake.kafka.connector.internal.streaming;
+
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.CHANNEL_CLOSE;
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.CHANNEL_CLOSE_DURATION;
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.CHANNEL_CLOSE_TIMEOUT_COUNT;
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.CHANNEL_SUB_DOMAIN;
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.LATENCY_SUB_DOMAIN;
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.constructMetricName;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.codahale.metrics.MetricRegistry;
+import com.snowflake.kafka.connector.internal.streaming.channel.TopicPartitionChannel;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class ChannelCloseExecutorTest {
+
+  private final MetricRegistry metricRegistry = new MetricRegistry();
+  private ChannelCloseExecutor closeExecutor;
+
+  @AfterEach
+  void tearDown() {
+    closeExecutor.shutdown();
+  }
+
+  @Test
+  void closeChannels_waitsForAllChannelsAndRecordsDurations() {
+    closeExecutor = new ChannelCloseExecutor(2, 0, 0, metricRegistry);
+    Map<String, TopicPartitionChannel> channels = new LinkedHashMap<>();
+    for (int partition = 0; partition < 3; partition++) {
+      channels.put(
+          "topic_" + partition,
+          channel("topic_" + partition, CompletableFuture.completedFuture(null)));
+    }
+
+    closeExecutor.closeChannels(channels);
+
+    channels.values().forEach(channel -> verify(channel).closeChannelAsync());
+    for (int partition = 0; partition < 3; partition++) {
+      assertThat(closeDurationCount("topic_" + partition)).isEqualTo(1);
+    }
+    assertThat(closeTimeoutCount()).isZero();
+  }
+
+  @Test
+  void closeChannels_doesNotWaitForSlowChannelBeyondTimeout() {
+    closeExecutor = new ChannelCloseExecutor(2, 50, 0, metricRegistry);
+    Map<String, TopicPartitionChannel> channels = new LinkedHashMap<>();
+    channels.put("topic_0", channel("topic_0", new CompletableFuture<>()));
+    channels.put("topic_1", channel("topic_1", CompletableFuture.completedFuture(null)));
+
+    closeExecutor.closeChannels(channels);
+
+    assertThat(closeDurationCount("topic_0")).isEqualTo(1);
+    assertThat(closeDurationCount("topic_1")).isEqualTo(1);
+    assertThat(closeTimeoutCount()).isEqualTo(1);
+  }
+
+  @Test
+  void closeChannels_doesNotWaitForAllChannelsBeyondTotalTimeout() {
+    closeExecutor = new ChannelCloseExecutor(1, 0, 100, metricRegistry);
+    Map<String, TopicPartitionChannel> channels = new LinkedHashMap<>();
+    for (int partition = 0; partition < 3; partition++) {
+      channels.put("topic_" + partition, channel("topic_" + partition, new CompletableFuture<>()));
+    }
+
+    long startTime = System.currentTimeMillis();
+    closeExecutor.closeChannels(channels);
+
+    assertThat(System.currentTimeMillis() - startTime).isLessThan(5_000);
+    // the channels waiting for the single close thread are still asked to close
+    await()
+        .atMost(Duration.ofSeconds(10))
+        .untilAsserted(
+            () -> channels.values().forEach(channel -> verify(channel).closeChannelAsync()));
+    await().atMost(Duration.ofSeconds(10)).until(() -> closeTimeoutCount() == 3);
+  }
+
+  @Test
+  void closeChannelAsync_completesOnceChannelTimedOut() throws Exception {
+    closeExecutor = new ChannelCloseExecutor(1, 50, 0, metricRegistry);
+    TopicPartitionChannel channel = channel("topic_0", new CompletableFuture<>());
+
+    closeExecutor.closeChannelAsync("topic_0", channel).get(10, TimeUnit.SECONDS);
+
+    verify(channel).closeChannelAsync();
+    assertThat(closeDurationCount("topic_0")).isEqualTo(1);
+    assertThat(closeTimeoutCount()).isEqualTo(1);
+  }
+
+  @Test
+  void closeChannels_rethrowsCloseFailure() {
+    closeExecutor = new ChannelCloseExecutor(1, 0, 0, null);
+    CompletableFuture<Void> failed = new CompletableFuture<>();
+    failed.completeExceptionally(new IllegalStateException("close failed"));
+
+    assertThatThrownBy(
+            () -> closeExecutor.closeChannels(Map.of("topic_0", channel("topic_0", failed))))
+        .isInstanceOf(CompletionException.class)
+        .hasRootCauseInstanceOf(IllegalStateException.class);
+  }
+
+  private long closeDurationCount(String channelName) {
+    return metricRegistry
+        .timer(constructMetricName(channelName, LATENCY_SUB_DOMAIN, CHANNEL_CLOSE_DURATION))
+        .getCount();
+  }
+
+  private long closeTimeoutCount() {
+    return metricRegistry
+        .counter(
+            constructMetricName(CHANNEL_CLOSE, CHANNEL_SUB_DOMAIN, CHANNEL_CLOSE_TIMEOUT_COUNT))
+        .getCount();
+  }
+
+  private static TopicPartitionChannel channel(String channelName, CompletableFuture<Void> closed) {
+    TopicPartitionChannel channel = mock(TopicPartitionChannel.class);
+    when(channel.getChannelNameFormatV1()).thenReturn(channelName);
+    when(channel.closeChannelAsync()).thenReturn(closed);
+    return channel;
+  }
+}
@@ -0,0 +1,110 @@
+package com.snowflake.kafka.connector.internal.streaming;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.snowflake.kafka.connector.internal.streaming.channel.TopicPartitionChannel;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.errors.ConnectException;
+import org.apache.kafka.connect.sink.SinkRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class ChannelInsertExecutorTest {
+
+  private static final String TOPIC = "topic";
+  private static final int RECORDS_PER_PARTITION = 100;
+
+  private final ChannelInsertExecutor insertExecutor = new ChannelInsertExecutor(2);
+  private final Set<String> insertThreads = ConcurrentHashMap.newKeySet();
+
+  @AfterEach
+  void tearDown() {
+    insertExecutor.shutdown();
+  }
+
+  @Test
+  void insertRecords_keepsOrderOfRecordsWithinPartition() {
+    Map<TopicPartitionChannel, List<SinkRecord>> recordsPerChannel = new LinkedHashMap<>();
+    for (int partition = 0; partition < 3; partition++) {
+      recordsPerChannel.put(mock(TopicPartitionChannel.class), records(partition));
+    }
+
+    insertExecutor.insertRecords(recordsPerChannel, insertOneByOne());
+
+    recordsPerChannel.forEach(
+        (channel, records) -> {
+          ArgumentCaptor<SinkRecord> inserted = ArgumentCaptor.forClass(SinkRecord.class);
+          verify(channel, times(RECORDS_PER_PARTITION)).insertRecord(inserted.capture(), eq(false));
+          assertThat(inserted.getAllValues()).containsExactlyElementsOf(records);
+        });
+    assertThat(insertThreads)
+        .isNotEmpty()
+        .allSatisfy(thread -> assertThat(thread).startsWith("snowflake-streaming-insert-"));
+  }
+
+  @Test
+  void insertRecords_rethrowsExceptionOfWorkerThread() {
+    TopicPartitionChannel failingChannel = mock(TopicPartitionChannel.class);
+    ConnectException failure = new ConnectException("insert failed");
+    doThrow(failure).when(failingChannel).insertRecord(any(), anyBoolean());
+    TopicPartitionChannel channel = mock(TopicPartitionChannel.class);
+    Map<TopicPartitionChannel, List<SinkRecord>> recordsPerChannel = new LinkedHashMap<>();
+    recordsPerChannel.put(failingChannel, records(0));
+    recordsPerChannel.put(channel, records(1));
+
+    assertThatThrownBy(() -> insertExecutor.insertRecords(recordsPerChannel, insertOneByOne()))
+        .isSameAs(failure);
+
+    // the other partition is still inserted completely before the failure is rethrown
+    verify(channel, times(RECORDS_PER_PARTITION)).insertRecord(any(), eq(false));
+  }
+
+  @Test
+  void insertRecords_insertsSingleChannelOnCallingThread() {
+    TopicPartitionChannel channel = mock(TopicPartitionChannel.class);
+
+    insertExecutor.insertRecords(Map.of(channel, records(0)), insertOneByOne());
+
+    verify(channel, times(RECORDS_PER_PARTITION)).insertRecord(any(), eq(false));
+    assertThat(insertThreads).containsExactly(Thread.currentThread().getName());
+  }
+
+  private BiConsumer<TopicPartitionChannel, List<SinkRecord>> insertOneByOne() {
+    return (channel, records) -> {
+      insertThreads.add(Thread.currentThread().getName());
+      records.forEach(record -> channel.insertRecord(record, false));
+    };
+  }
+
+  private static List<SinkRecord> records(int partition) {
+    List<SinkRecord> records = new ArrayList<>();
+    for (long offset = 0; offset < RECORDS_PER_PARTITION; offset++) {
+      records.add(
+          new SinkRecord(
+              TOPIC,
+              partition,
+              Schema.STRING_SCHEMA,
+              "key",
+              Schema.STRING_SCHEMA,
+              "value",
+              offset));
+    }
+    return records;
+  }
+}
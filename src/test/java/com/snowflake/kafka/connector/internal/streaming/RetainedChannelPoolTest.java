@@ -0,0 +1,91 @@
+package com.snowflake.kafka.connector.internal.streaming;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.Mockito.mock;
+
+import com.google.common.base.Ticker;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RetainedChannelPoolTest {
+
+  private static final Duration RETENTION = Duration.ofSeconds(30);
+
+  private final AtomicLong nanos = new AtomicLong();
+  private final Ticker ticker =
+      new Ticker() {
+        @Override
+        public long read() {
+          return nanos.get();
+        }
+      };
+
+  private final Map<String, DirectTopicPartitionChannel> closed = new LinkedHashMap<>();
+
+  private RetainedChannelPool pool;
+
+  @BeforeEach
+  void setUp() {
+    pool = new RetainedChannelPool(RETENTION, 2, closed::put, ticker);
+  }
+
+  @Test
+  void take_returnsRetainedChannelWithoutClosingIt() {
+    DirectTopicPartitionChannel channel = channel();
+    pool.retain("topic_0", channel);
+
+    assertThat(pool.take("topic_0")).isSameAs(channel);
+    assertThat(pool.take("topic_0")).isNull();
+    assertThat(pool.take("topic_1")).isNull();
+    assertThat(closed).isEmpty();
+  }
+
+  @Test
+  void cleanUp_closesExpiredChannels() {
+    DirectTopicPartitionChannel channel = channel();
+    pool.retain("topic_0", channel);
+
+    nanos.addAndGet(RETENTION.toNanos());
+    pool.cleanUp();
+
+    assertThat(pool.size()).isZero();
+    assertThat(pool.take("topic_0")).isNull();
+    assertThat(closed).containsExactly(entry("topic_0", channel));
+  }
+
+  @Test
+  void retain_closesOldestChannelWhenFull() {
+    DirectTopicPartitionChannel first = channel();
+    DirectTopicPartitionChannel second = channel();
+    DirectTopicPartitionChannel third = channel();
+
+    pool.retain("topic_0", first);
+    pool.retain("topic_1", second);
+    pool.retain("topic_2", third);
+
+    assertThat(pool.size()).isEqualTo(2);
+    assertThat(closed).containsExactly(entry("topic_0", first));
+  }
+
+  @Test
+  void drain_returnsAllChannelsWithoutClosingThem() {
+    DirectTopicPartitionChannel first = channel();
+    DirectTopicPartitionChannel second = channel();
+    pool.retain("topic_0", first);
+    pool.retain("topic_1", second);
+
+    assertThat(pool.drain())
+        .containsExactlyInAnyOrderEntriesOf(Map.of("topic_0", first, "topic_1", second));
+    assertThat(pool.size()).isZero();
+    assertThat(closed).isEmpty();
+  }
+
+  private static DirectTopicPartitionChannel channel() {
+    return mock(DirectTopicPartitionChannel.class);
+  }
+}
@@ -27,6 +27,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import org.apache.kafka.common.TopicPartition;
@@ -243,7 +244,7 @@ public class SnowflakeSinkServiceV2IT extends SnowflakeSinkServiceV2BaseIT {
             .get()
             .getGauges();
     assert metricRegistry.size()
-        == SnowflakeTelemetryChannelStatus.NUM_METRICS * 2; // two partitions
+        == SnowflakeTelemetryChannelStatus.NUM_GAUGES * 2; // two partitions
 
     // partition 1
     verifyPartitionMetrics(
@@ -407,6 +408,122 @@ public class SnowflakeSinkServiceV2IT extends SnowflakeSinkServiceV2BaseIT {
     service.closeAll();
   }
 
+  @Test
+  public void testStreamingIngest_multipleChannelPartitionsInsertedInParallelBatches()
+      throws Exception {
+    final int partitionCount = 5;
+    final int recordsInEachPartition = 10;
+
+    config.put(SnowflakeSinkConnectorConfig.SNOWPIPE_STREAMING_INSERT_ROWS_IN_BATCH, "true");
+    config.put(SnowflakeSinkConnectorConfig.SNOWPIPE_STREAMING_INSERT_PARALLELISM, "3");
+
+    List<TopicPartition> topicPartitions = new ArrayList<>();
+    for (int partition = 0; partition < partitionCount; partition++) {
+      topicPartitions.add(new TopicPartition(topic, partition));
+    }
+
+    SnowflakeSinkService service =
+        StreamingSinkServiceBuilder.builder(conn, config)
+            .withSinkTaskContext(new InMemorySinkTaskContext(new HashSet<>(topicPartitions)))
+            .build();
+    service.startPartitions(topicPartitions, Collections.singletonMap(topic, table));
+
+    // interleave the partitions so that every put() contains records of all partitions
+    List<SinkRecord> records = new ArrayList<>();
+    for (int offset = 0; offset < recordsInEachPartition; offset++) {
+      for (int partition = 0; partition < partitionCount; partition++) {
+        records.addAll(TestUtils.createJsonStringSinkRecords(offset, 1, topic, partition));
+      }
+    }
+
+    service.insert(records);
+
+    TestUtils.assertWithRetry(
+        () -> TestUtils.tableSize(table) == recordsInEachPartition * partitionCount, 10, 20);
+
+    for (TopicPartition tp : topicPartitions) {
+      TestUtils.assertWithRetry(() -> service.getOffset(tp) == recordsInEachPartition, 20, 5);
+    }
+
+    service.closeAll();
+  }
+
+  @Test
+  public void testStreamingIngest_multipleChannelPartitionsOpenedInParallel() throws Exception {
+    final int partitionCount = 5;
+    final int recordsInEachPartition = 10;
+
+    config.put(SnowflakeSinkConnectorConfig.SNOWPIPE_STREAMING_OPEN_CHANNELS_PARALLELISM, "3");
+
+    List<TopicPartition> topicPartitions = new ArrayList<>();
+    for (int partition = 0; partition < partitionCount; partition++) {
+      topicPartitions.add(new TopicPartition(topic, partition));
+    }
+
+    SnowflakeSinkService service =
+        StreamingSinkServiceBuilder.builder(conn, config)
+            .withSinkTaskContext(new InMemorySinkTaskContext(new HashSet<>(topicPartitions)))
+            .build();
+    service.startPartitions(topicPartitions, Collections.singletonMap(topic, table));
+    assert service.getPartitionCount() == partitionCount;
+
+    for (int partition = 0; partition < partitionCount; partition++) {
+      service.insert(
+          TestUtils.createJsonStringSinkRecords(0, recordsInEachPartition, topic, partition));
+    }
+
+    TestUtils.assertWithRetry(
+        () -> TestUtils.tableSize(table) == recordsInEachPartition * partitionCount, 10, 20);
+
+    for (TopicPartition tp : topicPartitions) {
+      TestUtils.assertWithRetry(() -> service.getOffset(tp) == recordsInEachPartition, 20, 5);
+    }
+
+    service.closeAll();
+  }
+
+  @Test
+  public void testStreamingIngest_offsetTokensFetchedInBulkOnPartitionsStart() throws Exception {
+    final int partitionCount = 3;
+    final int recordsInEachPartition = 10;
+
+    List<TopicPartition> topicPartitions = new ArrayList<>();
+    for (int partition = 0; partition < partitionCount; partition++) {
+      topicPartitions.add(new TopicPartition(topic, partition));
+    }
+
+    SnowflakeSinkService service =
+        StreamingSinkServiceBuilder.builder(conn, config)
+            .withSinkTaskContext(new InMemorySinkTaskContext(new HashSet<>(topicPartitions)))
+            .build();
+    service.startPartitions(topicPartitions, Collections.singletonMap(topic, table));
+    for (int partition = 0; partition < partitionCount; partition++) {
+      service.insert(
+          TestUtils.createJsonStringSinkRecords(0, recordsInEachPartition, topic, partition));
+    }
+    for (TopicPartition tp : topicPartitions) {
+      TestUtils.assertWithRetry(() -> service.getOffset(tp) == recordsInEachPartition, 20, 5);
+    }
+    service.closeAll();
+
+    // the channels are reopened and start from the offset tokens fetched with one request
+    config.put(SnowflakeSinkConnectorConfig.SNOWPIPE_STREAMING_BULK_OFFSET_TOKEN_FETCH, "true");
+    InMemorySinkTaskContext sinkTaskContext =
+        new InMemorySinkTaskContext(new HashSet<>(topicPartitions));
+    SnowflakeSinkService reopenedService =
+        StreamingSinkServiceBuilder.builder(conn, config)
+            .withSinkTaskContext(sinkTaskContext)
+            .build();
+    reopenedService.startPartitions(topicPartitions, Collections.singletonMap(topic, table));
+
+    for (TopicPartition tp : topicPartitions) {
+      assert reopenedService.getOffset(tp) == recordsInEachPartition;
+      assert sinkTaskContext.offsets().get(tp) == recordsInEachPartition;
+    }
+
+    reopenedService.closeAll();
+  }
+
   @Test
   public void testNativeJsonInputIngestion() throws Exception {
     // json without schema
@@ -0,0 +1,76 @@
+package com.snowflake.kafka.connector.internal.streaming;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.snowflake.kafka.connector.dlq.KafkaRecordErrorReporter;
+import com.snowflake.kafka.connector.internal.SnowflakeErrors;
+import com.snowflake.kafka.connector.records.RecordService;
+import com.snowflake.kafka.connector.records.SnowflakeRecordContent;
+import java.util.List;
+import java.util.Map;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.sink.SinkRecord;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class StreamingRecordServiceTest {
+
+  private static final Schema SCHEMA =
+      SchemaBuilder.struct().field("a", Schema.STRING_SCHEMA).build();
+
+  private final KafkaRecordErrorReporter errorReporter = mock(KafkaRecordErrorReporter.class);
+  private final RecordService recordService = mock(RecordService.class);
+  private final StreamingRecordService service =
+      new StreamingRecordService(recordService, errorReporter);
+
+  @Test
+  void shouldSkipDirectMappingOfSchemaAfterFallback() throws Exception {
+    // given
+    Map<String, Object> row = Map.of("\"A\"", "x");
+    when(recordService.supportsDirectStructMapping(any())).thenReturn(true);
+    when(recordService.getProcessedRecordForStreamingIngest(any()))
+        .thenThrow(SnowflakeErrors.ERROR_5015.getException("Unsupported schema type"))
+        .thenReturn(row);
+
+    // when
+    Map<String, Object> first = service.transformData(record(0));
+    Map<String, Object> second = service.transformData(record(1));
+
+    // then
+    assertThat(first).isEqualTo(row);
+    assertThat(second).isEqualTo(row);
+    // direct mapping and json conversion of the first record, json conversion of the second
+    ArgumentCaptor<SinkRecord> processed = ArgumentCaptor.forClass(SinkRecord.class);
+    verify(recordService, times(3)).getProcessedRecordForStreamingIngest(processed.capture());
+    List<SinkRecord> records = processed.getAllValues();
+    assertThat(records.get(0).value()).isInstanceOf(Struct.class);
+    assertThat(records.get(1).value()).isInstanceOf(SnowflakeRecordContent.class);
+    assertThat(records.get(2).value()).isInstanceOf(SnowflakeRecordContent.class);
+  }
+
+  @Test
+  void shouldNotFallBackOnUnexpectedException() throws Exception {
+    // given
+    when(recordService.supportsDirectStructMapping(any())).thenReturn(true);
+    when(recordService.getProcessedRecordForStreamingIngest(any()))
+        .thenThrow(new IllegalStateException("bug"));
+
+    // when / then
+    assertThatThrownBy(() -> service.transformData(record(0)))
+        .isInstanceOf(IllegalStateException.class);
+    verify(recordService, times(1)).getProcessedRecordForStreamingIngest(any());
+  }
+
+  private static SinkRecord record(long offset) {
+    return new SinkRecord(
+        "topic", 0, null, null, SCHEMA, new Struct(SCHEMA).put("a", "x"), offset);
+  }
+}
@@ -26,6 +26,8 @@ import com.snowflake.kafka.connector.internal.streaming.schemaevolution.InsertEr
 import com.snowflake.kafka.connector.internal.streaming.schemaevolution.SchemaEvolutionService;
 import com.snowflake.kafka.connector.internal.streaming.telemetry.SnowflakeTelemetryChannelCreation;
 import com.snowflake.kafka.connector.internal.streaming.telemetry.SnowflakeTelemetryChannelStatus;
+import com.snowflake.kafka.connector.internal.streaming.validation.RowSchema;
+import com.snowflake.kafka.connector.internal.streaming.validation.RowSchemaProvider;
 import com.snowflake.kafka.connector.internal.telemetry.SnowflakeTelemetryService;
 import com.snowflake.kafka.connector.records.RecordService;
 import com.snowflake.kafka.connector.records.RecordServiceFactory;
@@ -831,6 +833,357 @@ public class TopicPartitionChannelTest {
     }
   }
 
+  @Test
+  public void testInsertRecords_sendsBatchWithSingleInsertRowsCall() throws Exception {
+    Mockito.when(mockStreamingChannel.getLatestCommittedOffsetToken()).thenReturn(null);
+    Mockito.when(mockStreamingChannel.insertRows(anyIterable(), anyString(), anyString()))
+        .thenReturn(new InsertValidationResponse());
+
+    DirectTopicPartitionChannel topicPartitionChannel =
+        createTopicPartitionChannel(
+            mockStreamingClient,
+            topicPartition,
+            TEST_CHANNEL_NAME,
+            TEST_TABLE_NAME,
+            sfConnectorConfig,
+            mockKafkaRecordErrorReporter,
+            mockSinkTaskContext,
+            mockSnowflakeConnectionService,
+            mockTelemetryService);
+
+    final int noOfRecords = 5;
+    topicPartitionChannel.insertRecords(
+        TestUtils.createJsonStringSinkRecords(0, noOfRecords, TOPIC, PARTITION));
+
+    Mockito.verify(mockStreamingChannel, Mockito.times(1))
+        .insertRows(anyIterable(), eq("0"), eq(Long.toString(noOfRecords - 1)));
+    Mockito.verify(mockStreamingChannel, Mockito.never()).insertRow(anyMap(), anyString());
+    Assert.assertEquals(noOfRecords - 1, topicPartitionChannel.getProcessedOffset());
+  }
+
+  @Test
+  public void testInsertRecords_skipsAlreadyProcessedOffsets() throws Exception {
+    Mockito.when(mockStreamingChannel.getLatestCommittedOffsetToken()).thenReturn("2");
+    Mockito.when(mockStreamingChannel.insertRows(anyIterable(), anyString(), anyString()))
+        .thenReturn(new InsertValidationResponse());
+
+    DirectTopicPartitionChannel topicPartitionChannel =
+        createTopicPartitionChannel(
+            mockStreamingClient,
+            topicPartition,
+            TEST_CHANNEL_NAME,
+            TEST_TABLE_NAME,
+            sfConnectorConfig,
+            mockKafkaRecordErrorReporter,
+            mockSinkTaskContext,
+            mockSnowflakeConnectionService,
+            mockTelemetryService);
+
+    topicPartitionChannel.insertRecords(
+        TestUtils.createJsonStringSinkRecords(0, 5, TOPIC, PARTITION));
+
+    Mockito.verify(mockStreamingChannel, Mockito.times(1))
+        .insertRows(anyIterable(), eq("3"), eq("4"));
+    Assert.assertEquals(4, topicPartitionChannel.getProcessedOffset());
+  }
+
+  @Test
+  public void testInsertRecords_reopensChannelOnSFException() throws Exception {
+    Mockito.when(mockStreamingChannel.getLatestCommittedOffsetToken())
+        .thenReturn(null)
+        .thenReturn("1");
+    Mockito.when(mockStreamingChannel.insertRows(anyIterable(), anyString(), anyString()))
+        .thenThrow(SF_EXCEPTION);
+
+    DirectTopicPartitionChannel topicPartitionChannel =
+        createTopicPartitionChannel(
+            mockStreamingClient,
+            topicPartition,
+            TEST_CHANNEL_NAME,
+            TEST_TABLE_NAME,
+            sfConnectorConfig,
+            mockKafkaRecordErrorReporter,
+            mockSinkTaskContext,
+            mockSnowflakeConnectionService,
+            mockTelemetryService);
+
+    assertDoesNotThrow(
+        () ->
+            topicPartitionChannel.insertRecords(
+                TestUtils.createJsonStringSinkRecords(0, 5, TOPIC, PARTITION)));
+
+    Mockito.verify(mockStreamingClient, Mockito.times(2)).openChannel(any());
+    Mockito.verify(mockSinkTaskContext, Mockito.times(1)).offset(topicPartition, 2L);
+    Assert.assertEquals(1, topicPartitionChannel.getProcessedOffset());
+  }
+
+  @Test
+  public void testInsertRecords_reportsOnlyFailedRowsToDlq() throws Exception {
+    InsertValidationResponse validationResponse = new InsertValidationResponse();
+    InsertValidationResponse.InsertError insertError =
+        new InsertValidationResponse.InsertError("CONTENT", 1);
+    insertError.setException(SF_EXCEPTION);
+    validationResponse.addError(insertError);
+
+    Mockito.when(mockStreamingChannel.getLatestCommittedOffsetToken()).thenReturn(null);
+    Mockito.when(mockStreamingChannel.insertRows(anyIterable(), anyString(), anyString()))
+        .thenReturn(validationResponse);
+
+    Map<String, String> sfConnectorConfigWithErrors = new HashMap<>(sfConnectorConfig);
+    sfConnectorConfigWithErrors.put(
+        ERRORS_TOLERANCE_CONFIG, SnowflakeSinkConnectorConfig.ErrorTolerance.ALL.toString());
+    sfConnectorConfigWithErrors.put(ERRORS_DEAD_LETTER_QUEUE_TOPIC_NAME_CONFIG, "test_DLQ");
+    InMemoryKafkaRecordErrorReporter kafkaRecordErrorReporter =
+        new InMemoryKafkaRecordErrorReporter();
+
+    DirectTopicPartitionChannel topicPartitionChannel =
+        createTopicPartitionChannel(
+            mockStreamingClient,
+            topicPartition,
+            TEST_CHANNEL_NAME,
+            TEST_TABLE_NAME,
+            sfConnectorConfigWithErrors,
+            kafkaRecordErrorReporter,
+            mockSinkTaskContext,
+            mockSnowflakeConnectionService,
+            mockTelemetryService);
+
+    topicPartitionChannel.insertRecords(
+        TestUtils.createJsonStringSinkRecords(0, 3, TOPIC, PARTITION));
+
+    Assert.assertEquals(1, kafkaRecordErrorReporter.getReportedRecords().size());
+    Assert.assertEquals(
+        1, kafkaRecordErrorReporter.getReportedRecords().get(0).getRecord().kafkaOffset());
+  }
+
+  @Test
+  public void testInsertRecords_clientSideValidationReportsInvalidRowsToDlq() throws Exception {
+    RowSchema rowSchema = Mockito.mock(RowSchema.class);
+    Mockito.when(rowSchema.validate(anyMap()))
+        .thenReturn(null)
+        .thenReturn(
+            new RowSchema.Error(
+                Collections.emptyList(),
+                Collections.emptyList(),
+                Collections.emptyList(),
+                "invalid value",
+                "0000",
+                null))
+        .thenReturn(null);
+    RowSchemaProvider rowSchemaProvider = Mockito.mock(RowSchemaProvider.class);
+    Mockito.when(rowSchemaProvider.getRowSchema(eq(TEST_TABLE_NAME), anyMap()))
+        .thenReturn(rowSchema);
+
+    Mockito.when(mockStreamingChannel.getLatestCommittedOffsetToken()).thenReturn(null);
+    Mockito.when(mockStreamingChannel.insertRows(anyIterable(), anyString(), anyString()))
+        .thenReturn(new InsertValidationResponse());
+
+    Map<String, String> sfConnectorConfigWithErrors = new HashMap<>(sfConnectorConfig);
+    sfConnectorConfigWithErrors.put(
+        ERRORS_TOLERANCE_CONFIG, SnowflakeSinkConnectorConfig.ErrorTolerance.ALL.toString());
+    sfConnectorConfigWithErrors.put(ERRORS_DEAD_LETTER_QUEUE_TOPIC_NAME_CONFIG, "test_DLQ");
+    InMemoryKafkaRecordErrorReporter kafkaRecordErrorReporter =
+        new InMemoryKafkaRecordErrorReporter();
+
+    DirectTopicPartitionChannel topicPartitionChannel =
+        createTopicPartitionChannel(
+            mockStreamingClient,
+            topicPartition,
+            TEST_CHANNEL_NAME,
+            TEST_TABLE_NAME,
+            false,
+            sfConnectorConfigWithErrors,
+            kafkaRecordErrorReporter,
+            mockSinkTaskContext,
+            mockSnowflakeConnectionService,
+            RecordServiceFactory.createRecordService(false, enableSchematization, false),
+            mockTelemetryService,
+            false,
+            null,
+            rowSchemaProvider);
+
+    topicPartitionChannel.insertRecords(
+        TestUtils.createJsonStringSinkRecords(0, 3, TOPIC, PARTITION));
+
+    Assert.assertEquals(1, kafkaRecordErrorReporter.getReportedRecords().size());
+    Assert.assertEquals(
+        1, kafkaRecordErrorReporter.getReportedRecords().get(0).getRecord().kafkaOffset());
+    Mockito.verify(mockStreamingChannel, Mockito.times(1))
+        .insertRows(anyIterable(), eq("0"), eq("2"));
+  }
+
+  @Test
+  public void testInsertRecords_clientSideValidationCommitsOffsetOfTrailingInvalidRow()
+      throws Exception {
+    RowSchemaProvider rowSchemaProvider = mockRowSchemaProvider(null, null, invalidRowError());
+    Mockito.when(mockStreamingChannel.getLatestCommittedOffsetToken()).thenReturn(null);
+    Mockito.when(mockStreamingChannel.insertRows(anyIterable(), anyString(), anyString()))
+        .thenReturn(new InsertValidationResponse());
+    InMemoryKafkaRecordErrorReporter kafkaRecordErrorReporter =
+        new InMemoryKafkaRecordErrorReporter();
+
+    DirectTopicPartitionChannel topicPartitionChannel =
+        createTopicPartitionChannelWithDlq(kafkaRecordErrorReporter, rowSchemaProvider);
+
+    topicPartitionChannel.insertRecords(
+        TestUtils.createJsonStringSinkRecords(0, 3, TOPIC, PARTITION));
+
+    Assert.assertEquals(1, kafkaRecordErrorReporter.getReportedRecords().size());
+    Assert.assertEquals(
+        2, kafkaRecordErrorReporter.getReportedRecords().get(0).getRecord().kafkaOffset());
+    // the offset token of the valid rows covers the rejected last row
+    Mockito.verify(mockStreamingChannel, Mockito.times(1))
+        .insertRows(anyIterable(), eq("0"), eq("2"));
+    Assert.assertEquals(2, topicPartitionChannel.getProcessedOffset());
+  }
+
+  @Test
+  public void testInsertRecord_clientSideValidationCommitsOffsetOfTrailingInvalidRow()
+      throws Exception {
+    RowSchemaProvider rowSchemaProvider = mockRowSchemaProvider(null, invalidRowError());
+    Mockito.when(mockStreamingChannel.getLatestCommittedOffsetToken()).thenReturn(null);
+    Mockito.when(mockStreamingChannel.insertRow(anyMap(), anyString()))
+        .thenReturn(new InsertValidationResponse());
+    Mockito.when(mockStreamingChannel.insertRows(anyIterable(), anyString(), anyString()))
+        .thenReturn(new InsertValidationResponse());
+    InMemoryKafkaRecordErrorReporter kafkaRecordErrorReporter =
+        new InMemoryKafkaRecordErrorReporter();
+
+    DirectTopicPartitionChannel topicPartitionChannel =
+        createTopicPartitionChannelWithDlq(kafkaRecordErrorReporter, rowSchemaProvider);
+
+    List<SinkRecord> records = TestUtils.createJsonStringSinkRecords(0, 2, TOPIC, PARTITION);
+    for (int idx = 0; idx < records.size(); idx++) {
+      topicPartitionChannel.insertRecord(records.get(idx), idx == 0);
+    }
+
+    Assert.assertEquals(1, kafkaRecordErrorReporter.getReportedRecords().size());
+    Assert.assertEquals(
+        1, kafkaRecordErrorReporter.getReportedRecords().get(0).getRecord().kafkaOffset());
+    Mockito.verify(mockStreamingChannel, Mockito.times(1)).insertRow(anyMap(), eq("0"));
+    // the offset token of the rejected row is sent without any row
+    Mockito.verify(mockStreamingChannel, Mockito.times(1))
+        .insertRows(noRows(), eq("1"), eq("1"));
+    Assert.assertEquals(1, topicPartitionChannel.getProcessedOffset());
+  }
+
+  @Test
+  public void testInsertRecords_clientSideValidationCommitsOffsetOfBatchWithOnlyInvalidRows()
+      throws Exception {
+    RowSchemaProvider rowSchemaProvider = mockRowSchemaProvider(invalidRowError());
+    Mockito.when(mockStreamingChannel.getLatestCommittedOffsetToken()).thenReturn(null);
+    Mockito.when(mockStreamingChannel.insertRows(anyIterable(), anyString(), anyString()))
+        .thenReturn(new InsertValidationResponse());
+    InMemoryKafkaRecordErrorReporter kafkaRecordErrorReporter =
+        new InMemoryKafkaRecordErrorReporter();
+
+    DirectTopicPartitionChannel topicPartitionChannel =
+        createTopicPartitionChannelWithDlq(kafkaRecordErrorReporter, rowSchemaProvider);
+
+    topicPartitionChannel.insertRecords(
+        TestUtils.createJsonStringSinkRecords(0, 2, TOPIC, PARTITION));
+
+    Assert.assertEquals(2, kafkaRecordErrorReporter.getReportedRecords().size());
+    Mockito.verify(mockStreamingChannel, Mockito.times(1))
+        .insertRows(noRows(), eq("0"), eq("1"));
+    Assert.assertEquals(1, topicPartitionChannel.getProcessedOffset());
+  }
+
+  private static Iterable<Map<String, Object>> noRows() {
+    return ArgumentMatchers.argThat(rows -> !rows.iterator().hasNext());
+  }
+
+  private static RowSchema.Error invalidRowError() {
+    return new RowSchema.Error(
+        Collections.emptyList(),
+        Collections.emptyList(),
+        Collections.emptyList(),
+        "invalid value",
+        "0000",
+        null);
+  }
+
+  private static RowSchemaProvider mockRowSchemaProvider(
+      RowSchema.Error first, RowSchema.Error... next) {
+    RowSchema rowSchema = Mockito.mock(RowSchema.class);
+    Mockito.when(rowSchema.validate(anyMap())).thenReturn(first, next);
+    RowSchemaProvider rowSchemaProvider = Mockito.mock(RowSchemaProvider.class);
+    Mockito.when(rowSchemaProvider.getRowSchema(eq(TEST_TABLE_NAME), anyMap()))
+        .thenReturn(rowSchema);
+    return rowSchemaProvider;
+  }
+
+  private DirectTopicPartitionChannel createTopicPartitionChannelWithDlq(
+      KafkaRecordErrorReporter kafkaRecordErrorReporter, RowSchemaProvider rowSchemaProvider) {
+    Map<String, String> sfConnectorConfigWithErrors = new HashMap<>(sfConnectorConfig);
+    sfConnectorConfigWithErrors.put(
+        ERRORS_TOLERANCE_CONFIG, SnowflakeSinkConnectorConfig.ErrorTolerance.ALL.toString());
+    sfConnectorConfigWithErrors.put(ERRORS_DEAD_LETTER_QUEUE_TOPIC_NAME_CONFIG, "test_DLQ");
+    return createTopicPartitionChannel(
+        mockStreamingClient,
+        topicPartition,
+        TEST_CHANNEL_NAME,
+        TEST_TABLE_NAME,
+        false,
+        sfConnectorConfigWithErrors,
+        kafkaRecordErrorReporter,
+        mockSinkTaskContext,
+        mockSnowflakeConnectionService,
+        RecordServiceFactory.createRecordService(false, enableSchematization, false),
+        mockTelemetryService,
+        false,
+        null,
+        rowSchemaProvider);
+  }
+
+  @Test
+  public void testInsertRecords_clientSideValidationTriggersSchemaEvolution() throws Exception {
+    schemaEvolutionService = Mockito.mock(SchemaEvolutionService.class);
+    RowSchema rowSchema = Mockito.mock(RowSchema.class);
+    Mockito.when(rowSchema.validate(anyMap()))
+        .thenReturn(
+            new RowSchema.Error(
+                Collections.singletonList("NEW_COLUMN"),
+                Collections.emptyList(),
+                Collections.emptyList(),
+                "extra column",
+                "0000",
+                null));
+    RowSchemaProvider rowSchemaProvider = Mockito.mock(RowSchemaProvider.class);
+    Mockito.when(rowSchemaProvider.getRowSchema(eq(TEST_TABLE_NAME), anyMap()))
+        .thenReturn(rowSchema);
+
+    Mockito.when(mockStreamingChannel.getLatestCommittedOffsetToken()).thenReturn(null);
+    Mockito.when(mockStreamingChannel.getTableSchema()).thenReturn(new HashMap<>());
+
+    DirectTopicPartitionChannel topicPartitionChannel =
+        createTopicPartitionChannel(
+            mockStreamingClient,
+            topicPartition,
+            TEST_CHANNEL_NAME,
+            TEST_TABLE_NAME,
+            true,
+            sfConnectorConfig,
+            mockKafkaRecordErrorReporter,
+            mockSinkTaskContext,
+            mockSnowflakeConnectionService,
+            RecordServiceFactory.createRecordService(false, enableSchematization, false),
+            mockTelemetryService,
+            false,
+            null,
+            rowSchemaProvider);
+
+    topicPartitionChannel.insertRecords(
+        TestUtils.createJsonStringSinkRecords(0, 3, TOPIC, PARTITION));
+
+    Mockito.verify(schemaEvolutionService, Mockito.times(1))
+        .evolveSchemaIfNeeded(any(), any(), anyMap());
+    Mockito.verify(mockStreamingClient, Mockito.times(2)).openChannel(any());
+    Mockito.verify(mockStreamingChannel, Mockito.never())
+        .insertRows(anyIterable(), anyString(), anyString());
+    Mockito.verifyNoInteractions(mockKafkaRecordErrorReporter);
+  }
+
   @Test
   public void testTopicPartitionChannelMetrics() throws Exception {
     // variables
@@ -996,6 +1349,38 @@ public class TopicPartitionChannelTest {
       SnowflakeTelemetryService telemetryService,
       boolean enableCustomJMXMonitoring,
       MetricsJmxReporter metricsJmxReporter) {
+    return createTopicPartitionChannel(
+        streamingIngestClient,
+        topicPartition,
+        channelNameFormatV1,
+        tableName,
+        hasSchemaEvolutionPermission,
+        sfConnectorConfig,
+        kafkaRecordErrorReporter,
+        sinkTaskContext,
+        conn,
+        recordService,
+        telemetryService,
+        enableCustomJMXMonitoring,
+        metricsJmxReporter,
+        null);
+  }
+
+  public DirectTopicPartitionChannel createTopicPartitionChannel(
+      SnowflakeStreamingIngestClient streamingIngestClient,
+      TopicPartition topicPartition,
+      final String channelNameFormatV1,
+      final String tableName,
+      boolean hasSchemaEvolutionPermission,
+      final Map<String, String> sfConnectorConfig,
+      KafkaRecordErrorReporter kafkaRecordErrorReporter,
+      SinkTaskContext sinkTaskContext,
+      SnowflakeConnectionService conn,
+      RecordService recordService,
+      SnowflakeTelemetryService telemetryService,
+      boolean enableCustomJMXMonitoring,
+      MetricsJmxReporter metricsJmxReporter,
+      RowSchemaProvider rowSchemaProvider) {
     StreamingErrorHandler streamingErrorHandler =
         new StreamingErrorHandler(sfConnectorConfig, kafkaRecordErrorReporter, telemetryService);
     return new DirectTopicPartitionChannel(
@@ -1013,7 +1398,8 @@ public class TopicPartitionChannelTest {
         metricsJmxReporter,
         this.schemaEvolutionService,
         new InsertErrorMapper(),
-        streamingErrorHandler);
+        streamingErrorHandler,
+        rowSchemaProvider);
   }
 
   @Test
@@ -1124,4 +1510,43 @@ public class TopicPartitionChannelTest {
     // then
     Assert.assertEquals(reopenedChannel, topicPartitionChannel.getChannel());
   }
+
+  @Test
+  public void startFromOffsetToken_whenOffsetTokenWasFetchedWithOtherChannels() {
+    // given
+    DirectTopicPartitionChannel topicPartitionChannel =
+        new DirectTopicPartitionChannel(
+            this.mockStreamingClient,
+            this.topicPartition,
+            TEST_CHANNEL_NAME,
+            TEST_TABLE_NAME,
+            false,
+            this.sfConnectorConfig,
+            this.mockSinkTaskContext,
+            this.mockSnowflakeConnectionService,
+            new StreamingRecordService(
+                RecordServiceFactory.createRecordService(false, false, false),
+                this.mockKafkaRecordErrorReporter),
+            this.mockTelemetryService,
+            false,
+            null,
+            this.schemaEvolutionService,
+            new InsertErrorMapper(),
+            new StreamingErrorHandler(
+                this.sfConnectorConfig,
+                this.mockKafkaRecordErrorReporter,
+                this.mockTelemetryService),
+            null,
+            false);
+    Mockito.verify(mockStreamingChannel, Mockito.never()).getLatestCommittedOffsetToken();
+
+    // when
+    topicPartitionChannel.startFromOffsetToken("100");
+
+    // then
+    Assert.assertEquals(100L, topicPartitionChannel.getOffsetPersistedInSnowflake());
+    Assert.assertEquals(100L, topicPartitionChannel.getProcessedOffset());
+    Mockito.verify(mockSinkTaskContext).offset(topicPartition, 101L);
+    Mockito.verify(mockStreamingChannel, Mockito.never()).getLatestCommittedOffsetToken();
+  }
 }
@@ -0,0 +1,239 @@
+package com.snowflake.kafka.connector.internal.streaming.schemaevolution;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.snowflake.kafka.connector.internal.streaming.common.ColumnProperties;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.sink.SinkRecord;
+import org.junit.jupiter.api.Test;
+
+class TableSchemaEvolutionCoordinatorTest {
+
+  private static final String TABLE = "TEST_TABLE";
+
+  @Test
+  void shouldEvolveSingleRequest() {
+    RecordingSchemaEvolutionService delegate = new RecordingSchemaEvolutionService();
+    TableSchemaEvolutionCoordinator coordinator = new TableSchemaEvolutionCoordinator(delegate);
+
+    coordinator.evolveSchemaIfNeeded(items("A"), record(0), Collections.emptyMap());
+
+    assertThat(delegate.columnsPerEvolution())
+        .containsExactly(Collections.singletonList(Collections.singletonList("A")));
+  }
+
+  @Test
+  void shouldSkipEvolutionOfColumnsEvolvedByPreviousRequest() {
+    RecordingSchemaEvolutionService delegate = new RecordingSchemaEvolutionService();
+    TableSchemaEvolutionCoordinator coordinator = new TableSchemaEvolutionCoordinator(delegate);
+
+    // partitions of the table processed one after another
+    coordinator.evolveSchemaIfNeeded(items("A", "B"), record(0), Collections.emptyMap());
+    coordinator.evolveSchemaIfNeeded(items("A"), record(1), Collections.emptyMap());
+    coordinator.evolveSchemaIfNeeded(items("B", "A"), record(2), Collections.emptyMap());
+    coordinator.evolveSchemaIfNeeded(items("A", "C"), record(3), Collections.emptyMap());
+
+    assertThat(delegate.columnsPerEvolution())
+        .containsExactly(
+            Collections.singletonList(List.of("A", "B")),
+            Collections.singletonList(List.of("A", "C")));
+  }
+
+  @Test
+  void shouldEvolveAgainOnceEvolvedColumnsExpired() {
+    RecordingSchemaEvolutionService delegate = new RecordingSchemaEvolutionService();
+    AtomicLong currentTime = new AtomicLong(1_000_000);
+    TableSchemaEvolutionCoordinator coordinator =
+        new TableSchemaEvolutionCoordinator(delegate, currentTime::get);
+
+    coordinator.evolveSchemaIfNeeded(items("A"), record(0), Collections.emptyMap());
+    currentTime.addAndGet(TableSchemaEvolutionCoordinator.EVOLVED_COLUMNS_RETENTION_MS - 1);
+    coordinator.evolveSchemaIfNeeded(items("A"), record(1), Collections.emptyMap());
+    assertThat(delegate.columnsPerEvolution()).hasSize(1);
+
+    currentTime.addAndGet(1);
+    coordinator.evolveSchemaIfNeeded(items("A"), record(2), Collections.emptyMap());
+    assertThat(delegate.columnsPerEvolution()).hasSize(2);
+  }
+
+  @Test
+  void shouldNotRememberColumnsOfFailedEvolution() {
+    RecordingSchemaEvolutionService delegate = new RecordingSchemaEvolutionService();
+    delegate.failingColumn = "BROKEN";
+    TableSchemaEvolutionCoordinator coordinator = new TableSchemaEvolutionCoordinator(delegate);
+
+    for (int offset = 0; offset < 2; offset++) {
+      SinkRecord record = record(offset);
+      assertThatThrownBy(
+              () ->
+                  coordinator.evolveSchemaIfNeeded(
+                      items("BROKEN"), record, Collections.emptyMap()))
+          .isInstanceOf(IllegalStateException.class);
+    }
+    assertThat(delegate.columnsPerEvolution()).hasSize(2);
+  }
+
+  @Test
+  void shouldNotRememberColumnsTheTableWasNotAlteredFor() {
+    RecordingSchemaEvolutionService delegate = new RecordingSchemaEvolutionService();
+    delegate.silentlyFailingColumn = "IGNORED";
+    TableSchemaEvolutionCoordinator coordinator = new TableSchemaEvolutionCoordinator(delegate);
+
+    coordinator.evolveSchemaIfNeeded(items("A", "IGNORED"), record(0), Collections.emptyMap());
+    coordinator.evolveSchemaIfNeeded(items("A"), record(1), Collections.emptyMap());
+    coordinator.evolveSchemaIfNeeded(items("IGNORED"), record(2), Collections.emptyMap());
+
+    assertThat(delegate.columnsPerEvolution())
+        .containsExactly(
+            Collections.singletonList(List.of("A", "IGNORED")),
+            Collections.singletonList(Collections.singletonList("IGNORED")));
+  }
+
+  @Test
+  void shouldMergeRequestsArrivingDuringRunningEvolution() throws Exception {
+    RecordingSchemaEvolutionService delegate = new RecordingSchemaEvolutionService();
+    delegate.blockFirstEvolution();
+    TableSchemaEvolutionCoordinator coordinator = new TableSchemaEvolutionCoordinator(delegate);
+
+    CompletableFuture<Void> first =
+        CompletableFuture.runAsync(
+            () -> coordinator.evolveSchemaIfNeeded(items("A"), record(0), Collections.emptyMap()));
+    assertThat(delegate.firstEvolutionStarted.await(10, TimeUnit.SECONDS)).isTrue();
+
+    // covered by the running evolution
+    CompletableFuture<Void> covered =
+        CompletableFuture.runAsync(
+            () -> coordinator.evolveSchemaIfNeeded(items("A"), record(1), Collections.emptyMap()));
+    CompletableFuture<Void> second =
+        CompletableFuture.runAsync(
+            () -> coordinator.evolveSchemaIfNeeded(items("B"), record(2), Collections.emptyMap()));
+    CompletableFuture<Void> third =
+        CompletableFuture.runAsync(
+            () ->
+                coordinator.evolveSchemaIfNeeded(
+                    items("B", "C"), record(3), Collections.emptyMap()));
+    waitUntilQueued();
+    delegate.releaseFirstEvolution.countDown();
+
+    CompletableFuture.allOf(first, covered, second, third).get(10, TimeUnit.SECONDS);
+    assertThat(delegate.columnsPerEvolution()).hasSize(2);
+    assertThat(delegate.columnsPerEvolution().get(0))
+        .containsExactly(Collections.singletonList("A"));
+    assertThat(delegate.columnsPerEvolution().get(1))
+        .containsExactlyInAnyOrder(Collections.singletonList("B"), List.of("B", "C"));
+  }
+
+  @Test
+  void shouldReportFailureOnlyToFailingRequestOfMergedEvolution() throws Exception {
+    RecordingSchemaEvolutionService delegate = new RecordingSchemaEvolutionService();
+    delegate.blockFirstEvolution();
+    delegate.failingColumn = "BROKEN";
+    TableSchemaEvolutionCoordinator coordinator = new TableSchemaEvolutionCoordinator(delegate);
+
+    CompletableFuture<Void> first =
+        CompletableFuture.runAsync(
+            () -> coordinator.evolveSchemaIfNeeded(items("A"), record(0), Collections.emptyMap()));
+    assertThat(delegate.firstEvolutionStarted.await(10, TimeUnit.SECONDS)).isTrue();
+    CompletableFuture<Void> valid =
+        CompletableFuture.runAsync(
+            () -> coordinator.evolveSchemaIfNeeded(items("B"), record(1), Collections.emptyMap()));
+    CompletableFuture<Void> broken =
+        CompletableFuture.runAsync(
+            () ->
+                coordinator.evolveSchemaIfNeeded(
+                    items("BROKEN"), record(2), Collections.emptyMap()));
+    waitUntilQueued();
+    delegate.releaseFirstEvolution.countDown();
+
+    first.get(10, TimeUnit.SECONDS);
+    valid.get(10, TimeUnit.SECONDS);
+    assertThatThrownBy(() -> broken.get(10, TimeUnit.SECONDS))
+        .hasRootCauseInstanceOf(IllegalStateException.class);
+    // merged attempt failed, then one evolution per request
+    assertThat(delegate.columnsPerEvolution()).hasSize(4);
+  }
+
+  private static void waitUntilQueued() throws InterruptedException {
+    // the requests have no observable state before they are merged, give them time to queue up
+    Thread.sleep(200);
+  }
+
+  private static SchemaEvolutionTargetItems items(String... columnsToAdd) {
+    return new SchemaEvolutionTargetItems(TABLE, List.of(columnsToAdd));
+  }
+
+  private static SinkRecord record(long offset) {
+    return new SinkRecord("topic", 0, null, null, Schema.STRING_SCHEMA, "{}", offset);
+  }
+
+  private static class RecordingSchemaEvolutionService implements SchemaEvolutionService {
+    private final List<List<SchemaEvolutionRequest>> evolutions = new CopyOnWriteArrayList<>();
+    private final CountDownLatch firstEvolutionStarted = new CountDownLatch(1);
+    private CountDownLatch releaseFirstEvolution = new CountDownLatch(0);
+    private volatile String failingColumn;
+    // column whose ALTER fails without an exception, like the failures swallowed in production
+    private volatile String silentlyFailingColumn;
+
+    void blockFirstEvolution() {
+      releaseFirstEvolution = new CountDownLatch(1);
+    }
+
+    @Override
+    public void evolveSchemaIfNeeded(
+        SchemaEvolutionTargetItems targetItems,
+        SinkRecord record,
+        Map<String, ColumnProperties> existingSchema) {
+      evolveSchemaIfNeeded(
+          Collections.singletonList(
+              new SchemaEvolutionRequest(targetItems, record, existingSchema)));
+    }
+
+    @Override
+    public SchemaEvolutionTargetItems evolveSchemaIfNeeded(List<SchemaEvolutionRequest> requests) {
+      evolutions.add(new ArrayList<>(requests));
+      if (evolutions.size() == 1) {
+        firstEvolutionStarted.countDown();
+        try {
+          releaseFirstEvolution.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      boolean failing =
+          requests.stream()
+              .anyMatch(
+                  request -> request.getTargetItems().getColumnsToAdd().contains(failingColumn));
+      if (failing) {
+        throw new IllegalStateException("Cannot add column " + failingColumn);
+      }
+      List<String> evolvedColumns =
+          requests.stream()
+              .flatMap(request -> request.getTargetItems().getColumnsToAdd().stream())
+              .filter(column -> !column.equals(silentlyFailingColumn))
+              .distinct()
+              .collect(Collectors.toList());
+      return new SchemaEvolutionTargetItems(TABLE, evolvedColumns);
+    }
+
+    List<List<List<String>>> columnsPerEvolution() {
+      return evolutions.stream()
+          .map(
+              requests ->
+                  requests.stream()
+                      .map(request -> request.getTargetItems().getColumnsToAdd())
+                      .collect(Collectors.toList()))
+          .collect(Collectors.toList());
+    }
+  }
+}
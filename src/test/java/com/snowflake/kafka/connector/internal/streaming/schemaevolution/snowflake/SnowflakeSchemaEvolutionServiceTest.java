@@ -0,0 +1,127 @@
+package com.snowflake.kafka.connector.internal.streaming.schemaevolution.snowflake;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.snowflake.kafka.connector.internal.SnowflakeConnectionService;
+import com.snowflake.kafka.connector.internal.SnowflakeErrors;
+import com.snowflake.kafka.connector.internal.streaming.schemaevolution.ColumnInfos;
+import com.snowflake.kafka.connector.internal.streaming.schemaevolution.SchemaEvolutionRequest;
+import com.snowflake.kafka.connector.internal.streaming.schemaevolution.SchemaEvolutionTargetItems;
+import com.snowflake.kafka.connector.internal.streaming.schemaevolution.TableSchema;
+import com.snowflake.kafka.connector.internal.streaming.schemaevolution.TableSchemaResolver;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.sink.SinkRecord;
+import org.junit.jupiter.api.Test;
+
+public class SnowflakeSchemaEvolutionServiceTest {
+
+  private static final String TABLE = "TEST_TABLE";
+
+  private final SnowflakeConnectionService conn = mock(SnowflakeConnectionService.class);
+  private final TableSchemaResolver tableSchemaResolver = mock(TableSchemaResolver.class);
+  private final SnowflakeSchemaEvolutionService schemaEvolutionService =
+      new SnowflakeSchemaEvolutionService(conn, tableSchemaResolver);
+
+  @Test
+  public void testMergedRequestsAlterTableOnce() {
+    // given
+    SinkRecord first = record(0);
+    SinkRecord second = record(1);
+    when(tableSchemaResolver.resolveTableSchemaFromRecord(first, Arrays.asList("A", "B")))
+        .thenReturn(schema("A", "VARCHAR", "B", "NUMBER"));
+    when(tableSchemaResolver.resolveTableSchemaFromRecord(second, Arrays.asList("B", "C")))
+        .thenReturn(schema("B", "VARCHAR", "C", "BOOLEAN"));
+
+    // when
+    schemaEvolutionService.evolveSchemaIfNeeded(
+        Arrays.asList(
+            request(Collections.singletonList("X"), Arrays.asList("A", "B"), first),
+            request(Arrays.asList("X", "Y"), Arrays.asList("B", "C"), second)));
+
+    // then
+    verify(conn).alterNonNullableColumns(TABLE, Arrays.asList("X", "Y"));
+    Map<String, ColumnInfos> expectedColumns = new LinkedHashMap<>();
+    expectedColumns.put("A", new ColumnInfos("VARCHAR"));
+    expectedColumns.put("B", new ColumnInfos("NUMBER"));
+    expectedColumns.put("C", new ColumnInfos("BOOLEAN"));
+    verify(conn).appendColumnsToTable(TABLE, expectedColumns);
+  }
+
+  @Test
+  public void testFailedMergedRequestsRetriedOneByOne() {
+    // given
+    SinkRecord valid = record(0);
+    SinkRecord broken = record(1);
+    when(tableSchemaResolver.resolveTableSchemaFromRecord(valid, Arrays.asList("A", "B")))
+        .thenReturn(schema("A", "VARCHAR", "B", "NUMBER"));
+    when(tableSchemaResolver.resolveTableSchemaFromRecord(broken, Arrays.asList("C", "D")))
+        .thenReturn(schema("C", "VARCHAR", "D", "INVALID"));
+    Map<String, ColumnInfos> mergedColumns = new LinkedHashMap<>();
+    mergedColumns.put("A", new ColumnInfos("VARCHAR"));
+    mergedColumns.put("B", new ColumnInfos("NUMBER"));
+    mergedColumns.put("C", new ColumnInfos("VARCHAR"));
+    mergedColumns.put("D", new ColumnInfos("INVALID"));
+    doThrow(SnowflakeErrors.ERROR_2015.getException())
+        .when(conn)
+        .appendColumnsToTable(TABLE, mergedColumns);
+    doThrow(SnowflakeErrors.ERROR_2015.getException())
+        .when(conn)
+        .appendColumnsToTable(TABLE, schema("C", "VARCHAR", "D", "INVALID").getColumnInfos());
+
+    // when
+    SchemaEvolutionTargetItems evolved =
+        schemaEvolutionService.evolveSchemaIfNeeded(
+            Arrays.asList(
+                request(Collections.emptyList(), Arrays.asList("A", "B"), valid),
+                request(Collections.emptyList(), Arrays.asList("C", "D"), broken)));
+
+    // then
+    verify(conn)
+        .appendColumnsToTable(TABLE, schema("A", "VARCHAR", "B", "NUMBER").getColumnInfos());
+    assertThat(evolved.getColumnsToAdd()).containsExactly("A", "B");
+    assertThat(evolved.getColumnsToDropNonNullability()).isEmpty();
+  }
+
+  @Test
+  public void testNothingToAlter() {
+    schemaEvolutionService.evolveSchemaIfNeeded(
+        new SchemaEvolutionTargetItems(TABLE, Collections.emptyList()),
+        record(0),
+        Collections.emptyMap());
+
+    verify(conn, never()).alterNonNullableColumns(anyString(), any());
+    verify(conn, never()).appendColumnsToTable(eq(TABLE), any());
+  }
+
+  private static SchemaEvolutionRequest request(
+      List<String> columnsToDropNonNullability, List<String> columnsToAdd, SinkRecord record) {
+    return new SchemaEvolutionRequest(
+        new SchemaEvolutionTargetItems(TABLE, columnsToDropNonNullability, columnsToAdd),
+        record,
+        Collections.emptyMap());
+  }
+
+  private static TableSchema schema(String column1, String type1, String column2, String type2) {
+    Map<String, ColumnInfos> columnInfos = new LinkedHashMap<>();
+    columnInfos.put(column1, new ColumnInfos(type1));
+    columnInfos.put(column2, new ColumnInfos(type2));
+    return new TableSchema(columnInfos);
+  }
+
+  private static SinkRecord record(long offset) {
+    return new SinkRecord("topic", 0, null, null, Schema.STRING_SCHEMA, "{}", offset);
+  }
+}
@@ -0,0 +1,135 @@
+package com.snowflake.kafka.connector.internal.streaming.validation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.base.Ticker;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CachingRowSchemaProviderTest {
+
+  private static final String TABLE = "TEST_TABLE";
+  private static final Duration TTL = Duration.ofMinutes(5);
+  private static final Map<String, String> CONFIG = Collections.emptyMap();
+
+  private final AtomicLong nanos = new AtomicLong();
+  private final Ticker ticker =
+      new Ticker() {
+        @Override
+        public long read() {
+          return nanos.get();
+        }
+      };
+
+  private RowSchemaProvider delegate;
+  private CachingRowSchemaProvider provider;
+
+  @BeforeEach
+  void setUp() {
+    delegate = mock(RowSchemaProvider.class);
+    when(delegate.getRowSchema(eq(TABLE), anyMap()))
+        .thenAnswer(invocation -> mock(RowSchema.class));
+    provider = new CachingRowSchemaProvider(delegate, TTL, ticker);
+  }
+
+  @Test
+  void shouldCacheSchemaPerTable() {
+    RowSchema first = provider.getRowSchema(TABLE, CONFIG);
+    RowSchema second = provider.getRowSchema(TABLE, CONFIG);
+
+    assertThat(second).isSameAs(first);
+    verify(delegate, times(1)).getRowSchema(TABLE, CONFIG);
+  }
+
+  @Test
+  void shouldFetchSchemaAgainAfterTtl() {
+    RowSchema first = provider.getRowSchema(TABLE, CONFIG);
+
+    nanos.addAndGet(TTL.toNanos() - 1);
+    assertThat(provider.getRowSchema(TABLE, CONFIG)).isSameAs(first);
+
+    nanos.addAndGet(1);
+    assertThat(provider.getRowSchema(TABLE, CONFIG)).isNotSameAs(first);
+    verify(delegate, times(2)).getRowSchema(TABLE, CONFIG);
+  }
+
+  @Test
+  void shouldFetchSchemaAgainAfterInvalidation() {
+    RowSchema first = provider.getRowSchema(TABLE, CONFIG);
+
+    provider.invalidate(TABLE);
+
+    assertThat(provider.getRowSchema(TABLE, CONFIG)).isNotSameAs(first);
+    verify(delegate, times(2)).getRowSchema(TABLE, CONFIG);
+  }
+
+  @Test
+  void shouldNotCacheFailures() {
+    RowSchema rowSchema = mock(RowSchema.class);
+    when(delegate.getRowSchema(eq(TABLE), anyMap()))
+        .thenThrow(new RowsetApiException("unavailable"))
+        .thenReturn(rowSchema);
+
+    assertThatThrownBy(() -> provider.getRowSchema(TABLE, CONFIG))
+        .isInstanceOf(RowsetApiException.class);
+    assertThat(provider.getRowSchema(TABLE, CONFIG)).isSameAs(rowSchema);
+  }
+
+  @Test
+  void shouldLoadSchemaOnceForConcurrentLookups() throws Exception {
+    int partitions = 16;
+    CountDownLatch loading = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger requests = new AtomicInteger();
+    RowSchemaProvider slowDelegate =
+        (tableName, connectorConfig) -> {
+          requests.incrementAndGet();
+          loading.countDown();
+          try {
+            release.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          return mock(RowSchema.class);
+        };
+    CachingRowSchemaProvider cachingProvider =
+        new CachingRowSchemaProvider(slowDelegate, TTL, ticker);
+
+    ExecutorService executor = Executors.newFixedThreadPool(partitions);
+    try {
+      List<Future<RowSchema>> lookups = new ArrayList<>();
+      for (int i = 0; i < partitions; i++) {
+        lookups.add(executor.submit(() -> cachingProvider.getRowSchema(TABLE, CONFIG)));
+      }
+      assertThat(loading.await(10, TimeUnit.SECONDS)).isTrue();
+      release.countDown();
+
+      RowSchema expected = lookups.get(0).get(10, TimeUnit.SECONDS);
+      for (Future<RowSchema> lookup : lookups) {
+        assertThat(lookup.get(10, TimeUnit.SECONDS)).isSameAs(expected);
+      }
+      assertThat(requests.get()).isEqualTo(1);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
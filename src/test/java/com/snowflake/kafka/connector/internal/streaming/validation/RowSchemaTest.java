@@ -1392,6 +1392,66 @@ public class RowSchemaTest {
     }
   }
 
+  @Nested
+  class CompiledValidationPlan {
+
+    private ColumnMetadata booleanColumn(String name, int ordinal, boolean nullable) {
+      ColumnMetadata column = new ColumnMetadata();
+      column.setOrdinal(ordinal);
+      column.setName(name);
+      column.setPhysicalType("SB1");
+      column.setNullable(nullable);
+      column.setLogicalType("BOOLEAN");
+      column.setScale(0);
+      return column;
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void testRowsValidatedWithTheSameSchema(final boolean isIceberg) {
+      RowSchema rowSchema =
+          new RowSchema(
+              isIceberg,
+              Arrays.asList(
+                  booleanColumn("COLBOOLEAN1", 1, false), booleanColumn("COLBOOLEAN2", 2, true)));
+
+      Map<String, Object> row = new HashMap<>();
+      row.put("colBoolean1", true);
+      row.put("\"COLBOOLEAN2\"", false);
+      Assertions.assertNull(rowSchema.validate(row));
+      Assertions.assertNull(rowSchema.validate(row));
+
+      Map<String, Object> nullRow = new HashMap<>();
+      nullRow.put("colBoolean1", null);
+      Assertions.assertEquals(
+          Collections.singletonList("COLBOOLEAN1"),
+          rowSchema.validate(nullRow).nullValueForNotNullColNames());
+
+      Map<String, Object> extraRow = new HashMap<>(row);
+      extraRow.put("COLBOOLEAN3", true);
+      Assertions.assertEquals(
+          Collections.singletonList("COLBOOLEAN3"), rowSchema.validate(extraRow).extraColNames());
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void testManyNonNullableColumns(final boolean isIceberg) {
+      List<ColumnMetadata> columns = new ArrayList<>();
+      Map<String, Object> row = new LinkedHashMap<>();
+      for (int i = 1; i <= 70; i++) {
+        columns.add(booleanColumn("COLBOOLEAN" + i, i, false));
+        row.put("COLBOOLEAN" + i, true);
+      }
+      RowSchema rowSchema = new RowSchema(isIceberg, columns);
+      Assertions.assertNull(rowSchema.validate(row));
+
+      row.remove("COLBOOLEAN66");
+      Assertions.assertEquals(
+          Collections.singletonList("COLBOOLEAN66"),
+          rowSchema.validate(row).missingNotNullColNames());
+    }
+  }
+
   RowSchema.Error validateRowSchema(
       boolean isIceberg, List<ColumnMetadata> columnMetadata, Map<String, Object> row) {
     return new RowSchema(isIceberg, columnMetadata).validate(row);
@@ -1,6 +1,12 @@
 package com.snowflake.kafka.connector.internal.telemetry;
 
 import static com.snowflake.kafka.connector.internal.TestUtils.TEST_CONNECTOR_NAME;
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.END_TO_END_LAG;
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.INSERTED_RECORDS;
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.LATENCY_SUB_DOMAIN;
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.TASK_CHANNELS;
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.THROUGHPUT_SUB_DOMAIN;
+import static com.snowflake.kafka.connector.internal.metrics.MetricsUtil.constructMetricName;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -8,6 +14,8 @@ import com.codahale.metrics.MetricRegistry;
 import com.snowflake.kafka.connector.internal.metrics.MetricsJmxReporter;
 import com.snowflake.kafka.connector.internal.streaming.telemetry.SnowflakeTelemetryChannelStatus;
 import java.util.concurrent.atomic.AtomicLong;
+import org.apache.kafka.common.record.TimestampType;
+import org.apache.kafka.connect.sink.SinkRecord;
 import org.junit.Test;
 import org.mockito.Mockito;
 
@@ -87,4 +95,63 @@ public class SnowflakeTelemetryChannelStatusTest {
             new AtomicLong(-1));
     snowflakeTelemetryChannelStatus.tryUnregisterChannelJMXMetrics();
   }
+
+  @Test
+  public void testEndToEndLagRecordedWhenOffsetIsPersisted() {
+    MetricRegistry metricRegistry = new MetricRegistry();
+    MetricsJmxReporter metricsJmxReporter =
+        new MetricsJmxReporter(metricRegistry, TEST_CONNECTOR_NAME);
+    SnowflakeTelemetryChannelStatus snowflakeTelemetryChannelStatus =
+        new SnowflakeTelemetryChannelStatus(
+            tableName,
+            connectorName,
+            channelName,
+            1234,
+            true,
+            metricsJmxReporter,
+            new AtomicLong(-1),
+            new AtomicLong(-1),
+            new AtomicLong(-1));
+
+    snowflakeTelemetryChannelStatus.sampleEndToEndLag(record(10));
+    snowflakeTelemetryChannelStatus.sampleEndToEndLag(record(20));
+    snowflakeTelemetryChannelStatus.recordInsert(1000, 20);
+
+    // only the first record is persisted
+    snowflakeTelemetryChannelStatus.recordOffsetPersistedInSnowflake(15);
+    assert lagCount(metricRegistry, channelName) == 1;
+    assert lagCount(metricRegistry, TASK_CHANNELS) == 1;
+
+    // the same offset does not record the lag again
+    snowflakeTelemetryChannelStatus.recordOffsetPersistedInSnowflake(15);
+    assert lagCount(metricRegistry, channelName) == 1;
+
+    snowflakeTelemetryChannelStatus.recordOffsetPersistedInSnowflake(20);
+    assert lagCount(metricRegistry, channelName) == 2;
+    assert metricRegistry
+            .meter(constructMetricName(TASK_CHANNELS, THROUGHPUT_SUB_DOMAIN, INSERTED_RECORDS))
+            .getCount()
+        == 20;
+
+    snowflakeTelemetryChannelStatus.tryUnregisterChannelJMXMetrics();
+  }
+
+  private static long lagCount(MetricRegistry metricRegistry, String name) {
+    return metricRegistry
+        .histogram(constructMetricName(name, LATENCY_SUB_DOMAIN, END_TO_END_LAG))
+        .getCount();
+  }
+
+  private static SinkRecord record(long offset) {
+    return new SinkRecord(
+        "topic",
+        0,
+        null,
+        null,
+        null,
+        "value",
+        offset,
+        System.currentTimeMillis(),
+        TimestampType.CREATE_TIME);
+  }
 }
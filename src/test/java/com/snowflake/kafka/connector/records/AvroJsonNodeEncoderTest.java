@@ -0,0 +1,157 @@
+package com.snowflake.kafka.connector.records;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.avro.Conversions;
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class AvroJsonNodeEncoderTest {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private static final Schema DECIMAL_SCHEMA =
+      LogicalTypes.decimal(38, 4).addToSchema(Schema.create(Schema.Type.BYTES));
+  private static final Schema FIXED_SCHEMA = Schema.createFixed("fixed4", null, null, 4);
+  private static final Schema ENUM_SCHEMA =
+      Schema.createEnum("color", null, null, Arrays.asList("RED", "GREEN"));
+
+  private static final Schema NESTED_SCHEMA =
+      SchemaBuilder.record("nested").fields().requiredString("name").endRecord();
+
+  private static final Schema SCHEMA =
+      SchemaBuilder.record("all_types")
+          .fields()
+          .requiredInt("int")
+          .requiredLong("smallLong")
+          .requiredLong("bigLong")
+          .requiredFloat("float")
+          .requiredDouble("double")
+          .requiredDouble("nan")
+          .requiredFloat("infinity")
+          .requiredBoolean("boolean")
+          .requiredString("string")
+          .requiredBytes("bytes")
+          .name("decimal")
+          .type(DECIMAL_SCHEMA)
+          .noDefault()
+          .name("fixed")
+          .type(FIXED_SCHEMA)
+          .noDefault()
+          .name("enum")
+          .type(ENUM_SCHEMA)
+          .noDefault()
+          .name("array")
+          .type()
+          .array()
+          .items(NESTED_SCHEMA)
+          .noDefault()
+          .name("map")
+          .type()
+          .map()
+          .values()
+          .doubleType()
+          .noDefault()
+          .optionalString("optional")
+          .name("union")
+          .type()
+          .unionOf()
+          .nullType()
+          .and()
+          .longType()
+          .endUnion()
+          .noDefault()
+          .endRecord();
+
+  @Test
+  public void testSameTreeAsParsingGenericDataString() throws IOException {
+    GenericRecord nested = new GenericData.Record(NESTED_SCHEMA);
+    nested.put("name", "quote \" backslash \\ tab \t unicode é€😀");
+    Map<String, Double> map = new HashMap<>();
+    map.put("a", 1.5);
+    map.put("b", -0.0);
+
+    GenericRecord record = new GenericData.Record(SCHEMA);
+    record.put("int", -12);
+    record.put("smallLong", 42L);
+    record.put("bigLong", Long.MAX_VALUE);
+    record.put("float", 1.1f);
+    record.put("double", 1.0e-300);
+    record.put("nan", Double.NaN);
+    record.put("infinity", Float.NEGATIVE_INFINITY);
+    record.put("boolean", true);
+    record.put("string", "text");
+    record.put("bytes", ByteBuffer.wrap(new byte[] {0, 1, (byte) 0xE9, (byte) 0xFF, '"'}));
+    BigDecimal decimal = new BigDecimal("12345.6789");
+    record.put(
+        "decimal",
+        new Conversions.DecimalConversion()
+            .toBytes(decimal, DECIMAL_SCHEMA, DECIMAL_SCHEMA.getLogicalType()));
+    record.put("fixed", new GenericData.Fixed(FIXED_SCHEMA, new byte[] {1, -1, 127, -128}));
+    record.put("enum", new GenericData.EnumSymbol(ENUM_SCHEMA, "GREEN"));
+    record.put("array", Arrays.asList(nested, nested));
+    record.put("map", map);
+    record.put("optional", null);
+    record.put("union", 7L);
+
+    assertSameTree(record, SCHEMA);
+  }
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "0",
+        "1E+3",
+        "1E-10",
+        "12345.6789",
+        "3000000000",
+        "123456789012345678901234",
+        "-12345678901234567890.1234"
+      })
+  public void testDecimalNodeTypes(String decimal) throws IOException {
+    BigDecimal value = new BigDecimal(decimal);
+    JsonNode expected = MAPPER.readTree(value.toString());
+    JsonNode actual = AvroJsonNodeEncoder.encode(value);
+    assertEquals(expected, actual);
+    assertEquals(expected.getClass(), actual.getClass());
+  }
+
+  /** Serializes the record and decodes it the way the converter does. */
+  private static void assertSameTree(GenericRecord record, Schema schema) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+    new GenericDatumWriter<GenericRecord>(schema).write(record, encoder);
+    encoder.flush();
+
+    GenericData genericData = new GenericData();
+    genericData.addLogicalTypeConversion(new Conversions.DecimalConversion());
+    Object decoded =
+        new GenericDatumReader<>(schema, schema, genericData)
+            .read(null, DecoderFactory.get().binaryDecoder(out.toByteArray(), null));
+
+    JsonNode expected = MAPPER.readTree(decoded.toString());
+    JsonNode actual = AvroJsonNodeEncoder.encode(decoded);
+    assertEquals(expected, actual);
+    assertEquals(expected.toString(), actual.toString());
+  }
+}
@@ -0,0 +1,99 @@
+package com.snowflake.kafka.connector.records;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.base.Ticker;
+import io.confluent.kafka.schemaregistry.client.SchemaMetadata;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericDatumReader;
+import org.junit.jupiter.api.Test;
+
+class AvroSchemaCacheTest {
+
+  private static final Schema SCHEMA =
+      SchemaBuilder.record("test").fields().requiredInt("int").endRecord();
+
+  private final SchemaRegistryClient schemaRegistry = mock(SchemaRegistryClient.class);
+  private final AtomicLong nanos = new AtomicLong();
+  private final Ticker ticker =
+      new Ticker() {
+        @Override
+        public long read() {
+          return nanos.get();
+        }
+      };
+  private final AvroSchemaCache cache =
+      new AvroSchemaCache(schemaRegistry, GenericDatumReader::new, 10, 1000, ticker);
+
+  @Test
+  void shouldLoadSchemaOncePerId() throws Exception {
+    when(schemaRegistry.getById(1)).thenReturn(SCHEMA);
+
+    AvroSchemaCache.Entry first = cache.get(1);
+    AvroSchemaCache.Entry second = cache.get(1);
+
+    assertThat(second).isSameAs(first);
+    assertThat(first.writerSchema).isSameAs(SCHEMA);
+    verify(schemaRegistry, times(1)).getById(1);
+    assertThat(cache.stats().hitCount()).isEqualTo(1);
+    assertThat(cache.stats().missCount()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldRememberFailedLookupUntilItExpires() throws Exception {
+    IOException registryDown = new IOException("registry down");
+    when(schemaRegistry.getById(1)).thenThrow(registryDown).thenReturn(SCHEMA);
+
+    assertThatThrownBy(() -> cache.get(1)).isSameAs(registryDown);
+    Throwable remembered = catchThrowable(() -> cache.get(1));
+    assertThat(remembered).isInstanceOf(IOException.class).hasCause(registryDown);
+    // every hit throws its own exception, so that callers do not share a mutable instance
+    assertThatThrownBy(() -> cache.get(1)).isNotSameAs(remembered).hasCause(registryDown);
+    verify(schemaRegistry, times(1)).getById(1);
+
+    nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(1001));
+
+    assertThat(cache.get(1).writerSchema).isSameAs(SCHEMA);
+    verify(schemaRegistry, times(2)).getById(1);
+  }
+
+  @Test
+  void shouldNotRememberFailedLookupWithoutTtl() throws Exception {
+    AvroSchemaCache cacheWithoutFailures =
+        new AvroSchemaCache(schemaRegistry, GenericDatumReader::new, 10, 0, ticker);
+    IOException registryDown = new IOException("registry down");
+    when(schemaRegistry.getById(1)).thenThrow(registryDown).thenReturn(SCHEMA);
+
+    assertThatThrownBy(() -> cacheWithoutFailures.get(1)).isSameAs(registryDown);
+
+    assertThat(cacheWithoutFailures.get(1).writerSchema).isSameAs(SCHEMA);
+    verify(schemaRegistry, times(2)).getById(1);
+  }
+
+  @Test
+  void shouldWarmUpLatestSchemaOfSubjects() throws Exception {
+    when(schemaRegistry.getLatestSchemaMetadata("topic-value"))
+        .thenReturn(new SchemaMetadata(7, 1, SCHEMA.toString()));
+    when(schemaRegistry.getLatestSchemaMetadata("missing-value"))
+        .thenThrow(new IOException("subject not found"));
+    when(schemaRegistry.getById(7)).thenReturn(SCHEMA);
+
+    cache.warmUp(Arrays.asList("missing-value", "topic-value"));
+    cache.get(7);
+
+    verify(schemaRegistry, times(1)).getById(7);
+    assertThat(cache.stats().hitCount()).isEqualTo(1);
+  }
+}
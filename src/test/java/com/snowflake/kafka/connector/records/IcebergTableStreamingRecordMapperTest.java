@@ -11,6 +11,9 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Stream;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
@@ -141,6 +144,26 @@ class IcebergTableStreamingRecordMapperTest extends StreamingRecordMapperTest {
     assertThat(resultSchematized).doesNotContainKey(Utils.TABLE_COLUMN_METADATA);
   }
 
+  @Test
+  void shouldMapStructRecordThroughJson() throws JsonProcessingException {
+    // Given
+    Schema valueSchema = SchemaBuilder.struct().field("key", Schema.STRING_SCHEMA).build();
+    Struct value = new Struct(valueSchema).put("key", "value");
+
+    // When
+    IcebergTableStreamingRecordMapper mapper =
+        new IcebergTableStreamingRecordMapper(objectMapper, true, false);
+    Map<String, Object> result =
+        mapper.processStructRecord(
+            value, valueSchema, objectMapper.readTree(fullMetadataJsonExample), true);
+
+    // Then
+    assertThat(result)
+        .isEqualTo(
+            ImmutableMap.of(
+                "\"KEY\"", "value", Utils.TABLE_COLUMN_METADATA, fullMetadataJsonAsMap));
+  }
+
   @ParameterizedTest(name = "{0}")
   @MethodSource("prepareNoSchematizationData")
   void shouldMapRecord_schematizationDisabled(
@@ -0,0 +1,231 @@
+package com.snowflake.kafka.connector.records;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.snowflake.kafka.connector.internal.SnowflakeErrors;
+import com.snowflake.kafka.connector.internal.SnowflakeKafkaConnectorException;
+import com.snowflake.kafka.connector.internal.metrics.MetricsJmxReporter;
+import com.snowflake.kafka.connector.internal.metrics.MetricsUtil;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import org.apache.kafka.connect.data.Date;
+import org.apache.kafka.connect.data.Decimal;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.data.Time;
+import org.apache.kafka.connect.data.Timestamp;
+import org.apache.kafka.connect.sink.SinkRecord;
+import org.junit.jupiter.api.Test;
+
+public class SchematizedStructMapperTest {
+  private static final ObjectMapper objectMapper = new ObjectMapper();
+  private static final String TOPIC = "test";
+  private static final int PARTITION = 0;
+
+  private static final Schema NESTED_SCHEMA =
+      SchemaBuilder.struct().field("inner", Schema.STRING_SCHEMA).build();
+
+  private static final Schema SCHEMA =
+      SchemaBuilder.struct()
+          .field("int8", Schema.INT8_SCHEMA)
+          .field("int16", Schema.INT16_SCHEMA)
+          .field("int32", Schema.INT32_SCHEMA)
+          .field("int64", Schema.INT64_SCHEMA)
+          .field("float32", Schema.FLOAT32_SCHEMA)
+          .field("float64", Schema.FLOAT64_SCHEMA)
+          .field("nan", Schema.FLOAT64_SCHEMA)
+          .field("negativeInfinity", Schema.FLOAT32_SCHEMA)
+          .field("boolean", Schema.BOOLEAN_SCHEMA)
+          .field("string", Schema.STRING_SCHEMA)
+          .field("\"CaSe\"", Schema.STRING_SCHEMA)
+          .field("optional", Schema.OPTIONAL_STRING_SCHEMA)
+          .field("withDefault", SchemaBuilder.int32().optional().defaultValue(123).build())
+          .field("bytes", Schema.BYTES_SCHEMA)
+          .field("decimal", Decimal.schema(2))
+          .field("bigDecimal", Decimal.schema(0))
+          .field("date", Date.SCHEMA)
+          .field("time", Time.SCHEMA)
+          .field("timestamp", Timestamp.SCHEMA)
+          .field("array", SchemaBuilder.array(Schema.INT32_SCHEMA).build())
+          .field("map", SchemaBuilder.map(Schema.STRING_SCHEMA, Schema.INT32_SCHEMA).build())
+          .field("nested", NESTED_SCHEMA)
+          .build();
+
+  @Test
+  public void shouldProduceSameRowAsJsonConversion() throws JsonProcessingException {
+    // given
+    Struct struct =
+        new Struct(SCHEMA)
+            .put("int8", (byte) 8)
+            .put("int16", (short) 16)
+            .put("int32", 32)
+            .put("int64", 64L)
+            .put("float32", 1.5e10f)
+            .put("float64", 0.1d)
+            .put("nan", Double.NaN)
+            .put("negativeInfinity", Float.NEGATIVE_INFINITY)
+            .put("boolean", true)
+            .put("string", "sf")
+            .put("\"CaSe\"", "quoted")
+            .put("bytes", new byte[] {0, 1, 2})
+            .put("decimal", new BigDecimal("12.34"))
+            .put("bigDecimal", new BigDecimal("1234567890123456789012345678901234567890"))
+            .put("date", new java.util.Date(1_700_000_000_000L / 86_400_000L * 86_400_000L))
+            .put("time", new java.util.Date(3_600_000L))
+            .put("timestamp", new java.util.Date(1_700_000_000_123L))
+            .put("array", Arrays.asList(1, 2, 3))
+            .put("map", Collections.singletonMap("key", 1))
+            .put("nested", new Struct(NESTED_SCHEMA).put("inner", "value"));
+    SinkRecord structRecord = new SinkRecord(TOPIC, PARTITION, null, null, SCHEMA, struct, 42);
+    SinkRecord jsonRecord =
+        new SinkRecord(
+            TOPIC,
+            PARTITION,
+            null,
+            null,
+            new SnowflakeJsonSchema(),
+            new SnowflakeRecordContent(SCHEMA, struct, true),
+            42);
+    RecordService service = createRecordService(true, false);
+
+    // when
+    Map<String, Object> direct = service.getProcessedRecordForStreamingIngest(structRecord);
+    Map<String, Object> viaJson = service.getProcessedRecordForStreamingIngest(jsonRecord);
+
+    // then
+    assertTrue(service.supportsDirectStructMapping(structRecord));
+    assertThat(direct).isEqualTo(viaJson);
+    assertThat(direct)
+        .containsEntry("\"INT8\"", "8")
+        .containsEntry("\"NAN\"", "NaN")
+        .containsEntry("\"NEGATIVEINFINITY\"", "-Inf")
+        .containsEntry("\"CaSe\"", "quoted")
+        .containsEntry("\"OPTIONAL\"", null)
+        .containsEntry("\"WITHDEFAULT\"", "123")
+        .containsEntry("\"NESTED\"", "{\"inner\":\"value\"}");
+  }
+
+  @Test
+  public void shouldMapOnlySchematizedSsv1Structs() {
+    Schema schema = SchemaBuilder.struct().field("a", Schema.STRING_SCHEMA).build();
+    Struct struct = new Struct(schema).put("a", "b");
+    SinkRecord structRecord = new SinkRecord(TOPIC, PARTITION, null, null, schema, struct, 0);
+    SinkRecord stringRecord =
+        new SinkRecord(TOPIC, PARTITION, null, null, Schema.STRING_SCHEMA, "a", 0);
+
+    assertTrue(createRecordService(true, false).supportsDirectStructMapping(structRecord));
+    assertThat(createRecordService(true, false).supportsDirectStructMapping(stringRecord))
+        .isFalse();
+    assertThat(createRecordService(false, false).supportsDirectStructMapping(structRecord))
+        .isFalse();
+    assertThat(createRecordService(true, true).supportsDirectStructMapping(structRecord))
+        .isFalse();
+    assertThat(
+            RecordServiceFactory.createRecordService(true, true, false)
+                .supportsDirectStructMapping(structRecord))
+        .isFalse();
+  }
+
+  @Test
+  public void shouldMapStructWithEqualSchemaInstance() throws JsonProcessingException {
+    Schema schema = SchemaBuilder.struct().field("a", Schema.STRING_SCHEMA).build();
+    Schema equalSchema = SchemaBuilder.struct().field("a", Schema.STRING_SCHEMA).build();
+    Struct struct = new Struct(schema).put("a", "b");
+
+    assertThat(new SchematizedStructMapper(objectMapper).mapStruct(struct, equalSchema))
+        .containsExactly(entry("\"A\"", "b"));
+  }
+
+  @Test
+  public void shouldFailOnMismatchingSchema() {
+    Schema schema = SchemaBuilder.struct().field("a", Schema.STRING_SCHEMA).build();
+    Schema otherSchema = SchemaBuilder.struct().field("a", Schema.INT32_SCHEMA).build();
+    Struct struct = new Struct(schema).put("a", "b");
+
+    SnowflakeKafkaConnectorException ex =
+        assertThrows(
+            SnowflakeKafkaConnectorException.class,
+            () -> new SchematizedStructMapper(objectMapper).mapStruct(struct, otherSchema));
+    assertTrue(ex.checkErrorCode(SnowflakeErrors.ERROR_5015));
+  }
+
+  @Test
+  public void shouldCompileMappingOncePerSchema() throws JsonProcessingException {
+    // given
+    Schema schema = SchemaBuilder.struct().field("a", Schema.STRING_SCHEMA).build();
+    Schema otherSchema = SchemaBuilder.struct().field("b", Schema.INT32_SCHEMA).build();
+    SchematizedStructMapper mapper = new SchematizedStructMapper(objectMapper, 1);
+
+    // when
+    Map<String, Object> first = mapper.mapStruct(new Struct(schema).put("a", "x"), schema);
+    Map<String, Object> second = mapper.mapStruct(new Struct(schema).put("a", "y"), schema);
+    mapper.mapStruct(new Struct(otherSchema).put("b", 1), otherSchema);
+    // evicted by otherSchema
+    mapper.mapStruct(new Struct(schema).put("a", "z"), schema);
+
+    // then
+    assertThat(first).containsExactly(entry("\"A\"", "x"));
+    assertThat(second).containsExactly(entry("\"A\"", "y"));
+    assertThat(mapper.cacheStats().hitCount()).isEqualTo(1);
+    assertThat(mapper.cacheStats().missCount()).isEqualTo(3);
+  }
+
+  @Test
+  public void shouldExposeCacheStatsInJmxReporter() throws JsonProcessingException {
+    // given
+    RecordService service = createRecordService(true, false);
+    MetricsJmxReporter reporter = new MetricsJmxReporter(new MetricRegistry(), "connector");
+    reporter.registerCacheMetrics(
+        MetricsUtil.ROW_MAPPER_CACHE, service::getStructMappingCacheStats);
+    Schema schema = SchemaBuilder.struct().field("a", Schema.STRING_SCHEMA).build();
+
+    // when
+    for (int i = 0; i < 3; i++) {
+      Struct struct = new Struct(schema).put("a", "b");
+      service.getProcessedRecordForStreamingIngest(
+          new SinkRecord(TOPIC, PARTITION, null, null, schema, struct, i));
+    }
+
+    // then
+    Map<String, Gauge> gauges = reporter.getMetricRegistry().getGauges();
+    assertThat(
+            gauges
+                .get(
+                    MetricsUtil.constructMetricName(
+                        MetricsUtil.ROW_MAPPER_CACHE,
+                        MetricsUtil.CACHE_SUB_DOMAIN,
+                        MetricsUtil.CACHE_HIT_COUNT))
+                .getValue())
+        .isEqualTo(2L);
+    assertThat(
+            gauges
+                .get(
+                    MetricsUtil.constructMetricName(
+                        MetricsUtil.ROW_MAPPER_CACHE,
+                        MetricsUtil.CACHE_SUB_DOMAIN,
+                        MetricsUtil.CACHE_MISS_COUNT))
+                .getValue())
+        .isEqualTo(1L);
+  }
+
+  private static RecordService createRecordService(
+      boolean schematizationEnabled, boolean ssv2Enabled) {
+    return new RecordService(
+        Clock.fixed(Instant.now(), ZoneOffset.UTC),
+        new SnowflakeTableStreamingRecordMapper(objectMapper, schematizationEnabled, ssv2Enabled),
+        objectMapper);
+  }
+}
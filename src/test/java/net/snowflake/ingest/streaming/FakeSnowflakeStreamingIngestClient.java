@@ -2,6 +2,7 @@ package net.snowflake.ingest.streaming;
 
 import com.snowflake.kafka.connector.internal.KCLogger;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -66,12 +67,14 @@ public class FakeSnowflakeStreamingIngestClient implements SnowflakeStreamingIng
   @Override
   public Map<String, String> getLatestCommittedOffsetTokens(
       List<SnowflakeStreamingIngestChannel> channels) {
-    return channels.stream()
-        .collect(
-            Collectors.toMap(
-                SnowflakeStreamingIngestChannel::getFullyQualifiedName,
-                (c) ->
-                    channelCache.get(c.getFullyQualifiedName()).getLatestCommittedOffsetToken()));
+    // channels without a committed offset token are mapped to null, like in the ingest sdk
+    Map<String, String> offsetTokens = new HashMap<>();
+    channels.forEach(
+        c ->
+            offsetTokens.put(
+                c.getFullyQualifiedName(),
+                channelCache.get(c.getFullyQualifiedName()).getLatestCommittedOffsetToken()));
+    return offsetTokens;
   }
 
   @Override